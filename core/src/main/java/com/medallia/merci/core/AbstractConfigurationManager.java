@@ -17,36 +17,152 @@ package com.medallia.merci.core;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongConsumer;
 
 /**
  * Abstract class of in-memory store for configurations.
  *
+ * Each update of the store increments its generation, so that results of evaluations can be cached until the next update.
+ * Refreshes from unchanged configuration content keep the generation, unless they change the configuration names.
+ *
  * @param <T> type of configuration to be stored
  */
 public abstract class AbstractConfigurationManager<T> implements ConfigurationManager<T> {
 
-    private final AtomicReference<Map<String, Configuration<T>>> configurationStore;
+    private final AtomicReference<Store<T>> configurationStore;
+
+    /** Listeners, notified with the new generation after every update of configurations. */
+    private final List<LongConsumer> updateListeners;
 
     /** Protected constructor. */
     protected AbstractConfigurationManager() {
-        configurationStore = new AtomicReference<>(new HashMap<>());
+        configurationStore = new AtomicReference<>(new Store<>(new ConfigurationIndex<>(Collections.emptyMap()), 0));
+        updateListeners = new CopyOnWriteArrayList<>();
     }
 
     @Override
     public void updateConfigurations(Map<String, Configuration<T>> configurations) {
-        configurationStore.set(configurations);
+        ConfigurationIndex<T> index = new ConfigurationIndex<>(configurations);
+        Store<T> store = configurationStore.get();
+        Store<T> updatedStore = new Store<>(index, store.generation + 1);
+        while (!configurationStore.compareAndSet(store, updatedStore)) {
+            store = configurationStore.get();
+            updatedStore = new Store<>(index, store.generation + 1);
+        }
+        notifyUpdateListeners(updatedStore.generation);
+    }
+
+    /**
+     * Keeps current configuration store, if it has the same configuration names as provided configurations, which were
+     * read from unchanged content, so that generation, caches of evaluations and update listeners are unaffected by
+     * forced refreshes. Otherwise, i.e. after previously non-instantiable configurations became instantiable, updates
+     * the configuration store like {@link #updateConfigurations(Map)}.
+     *
+     * @param configurations map of configurations read from unchanged content
+     */
+    @Override
+    public void refreshConfigurations(Map<String, Configuration<T>> configurations) {
+        if (!configurationStore.get().configurations.keySet().equals(configurations.keySet())) {
+            updateConfigurations(configurations);
+        }
+    }
+
+    /**
+     * Patches configuration store with provided changed configurations and names of removed configurations.
+     *
+     * @param changedConfigurations map of added and changed configurations
+     * @param removedNames names of removed configurations
+     */
+    public void patchConfigurations(Map<String, Configuration<T>> changedConfigurations, Collection<String> removedNames) {
+        Store<T> store = configurationStore.get();
+        Store<T> updatedStore = store.patch(changedConfigurations, removedNames);
+        while (!configurationStore.compareAndSet(store, updatedStore)) {
+            store = configurationStore.get();
+            updatedStore = store.patch(changedConfigurations, removedNames);
+        }
+        notifyUpdateListeners(updatedStore.generation);
+    }
+
+    /**
+     * Adds listener, that is notified with the new generation on the updating thread after every update of configurations.
+     *
+     * Listeners should return quickly and hand off expensive work, i.e. re-evaluations, to other threads.
+     *
+     * @param updateListener listener for generations of updated configuration store
+     */
+    public void addUpdateListener(LongConsumer updateListener) {
+        updateListeners.add(updateListener);
+    }
+
+    /**
+     * Removes previously added update listener.
+     *
+     * @param updateListener listener to be removed
+     */
+    public void removeUpdateListener(LongConsumer updateListener) {
+        updateListeners.remove(updateListener);
+    }
+
+    private void notifyUpdateListeners(long generation) {
+        for (LongConsumer updateListener : updateListeners) {
+            updateListener.accept(generation);
+        }
+    }
+
+    /**
+     * @return current snapshot of configuration store.
+     */
+    Store<T> getStore() {
+        return configurationStore.get();
+    }
+
+    /**
+     * Returns generation of configuration store, starting at 0 and incremented with every update of configurations.
+     *
+     * A result of an evaluation belongs to a generation, if the generation is unchanged before and after the evaluation.
+     *
+     * @return generation of configuration store
+     */
+    public long getGeneration() {
+        return configurationStore.get().generation;
     }
 
     /**
      * @return list of configuration names from configuration store.
      */
     public List<String> getConfigurationNames() {
-        return new ArrayList<>(configurationStore.get().keySet());
+        return new ArrayList<>(configurationStore.get().configurations.keySet());
+    }
+
+    /**
+     * @param name name of configuration
+     * @return true, if configuration store contains configuration with provided name.
+     */
+    public boolean containsConfiguration(String name) {
+        return configurationStore.get().configurations.containsKey(name);
+    }
+
+    /**
+     * Returns context types, that the value of configuration with provided name depends on.
+     *
+     * @param name name of configuration
+     * @return set of context types, empty if configuration is context-independent or not found
+     */
+    public Set<String> getContextTypes(String name) {
+        Configuration<T> configuration = configurationStore.get().configurations.get(name);
+        if (configuration == null) {
+            return Collections.emptySet();
+        }
+        return configuration.getContext().getContextTypes();
     }
 
     /**
@@ -57,7 +173,7 @@ public abstract class AbstractConfigurationManager<T> implements ConfigurationMa
      * @throws IOException in case of JSON processing issues
      */
     public String asString(ConfigurationWriter<T> writer) throws IOException {
-        return writer.writeValueAsString(configurationStore.get());
+        return writer.writeValueAsString(configurationStore.get().configurations);
     }
 
     /**
@@ -69,7 +185,7 @@ public abstract class AbstractConfigurationManager<T> implements ConfigurationMa
      * @throws IOException in case of JSON processing issues
      */
     public String asString(ConfigurationWriter<T> writer, String configName) throws IOException {
-        Configuration<T> configuration = configurationStore.get().get(configName);
+        Configuration<T> configuration = configurationStore.get().configurations.get(configName);
         if (configuration == null) {
             return writer.writeValueAsString(Collections.emptyMap());
         }
@@ -88,10 +204,74 @@ public abstract class AbstractConfigurationManager<T> implements ConfigurationMa
      * @return configuration value object
      */
     protected T getValue(String name, ConfigurationContext runtimeContext, T defaultValue) {
-        Configuration<T> configuration = configurationStore.get().get(name);
+        Configuration<T> configuration = getConfiguration(name);
         if (configuration != null) {
             return configuration.getValue(runtimeContext);
         }
         return defaultValue;
     }
+
+    /**
+     * Returns configuration with provided name from current configuration store.
+     *
+     * @param name name of configuration
+     * @return configuration, null if none found
+     */
+    protected Configuration<T> getConfiguration(String name) {
+        return configurationStore.get().configurations.get(name);
+    }
+
+    /**
+     * Returns configurations with provided names from a single snapshot of the configuration store, so that evaluations
+     * of many configurations for many runtime contexts look up each name only once.
+     *
+     * @param names names of configurations
+     * @return list of configurations in order of provided names, null for names without configuration
+     */
+    protected List<Configuration<T>> getConfigurations(List<String> names) {
+        Map<String, Configuration<T>> configurations = configurationStore.get().configurations;
+        List<Configuration<T>> result = new ArrayList<>(names.size());
+        for (String name : names) {
+            result.add(configurations.get(name));
+        }
+        return result;
+    }
+
+    /**
+     * Immutable snapshot of configurations with its generation, indexed by {@link ConfigurationIndex}.
+     */
+    static final class Store<T> {
+
+        private final ConfigurationIndex<T> configurations;
+        private final long generation;
+
+        private Store(ConfigurationIndex<T> configurations, long generation) {
+            this.configurations = configurations;
+            this.generation = generation;
+        }
+
+        /**
+         * @return map of configuration name to configuration.
+         */
+        Map<String, Configuration<T>> getConfigurations() {
+            return configurations;
+        }
+
+        /**
+         * @return generation of this snapshot.
+         */
+        long getGeneration() {
+            return generation;
+        }
+
+        /**
+         * @return new snapshot of next generation with provided changed configurations and without removed configurations.
+         */
+        private Store<T> patch(Map<String, Configuration<T>> changedConfigurations, Collection<String> removedNames) {
+            Map<String, Configuration<T>> patchedConfigurations = new LinkedHashMap<>(configurations);
+            patchedConfigurations.keySet().removeAll(removedNames);
+            patchedConfigurations.putAll(changedConfigurations);
+            return new Store<>(new ConfigurationIndex<>(patchedConfigurations), generation + 1);
+        }
+    }
 }
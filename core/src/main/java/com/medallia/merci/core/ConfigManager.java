@@ -17,16 +17,59 @@ package com.medallia.merci.core;
 
 import com.medallia.merci.core.exception.ConfigInstantiationException;
 
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
 /**
  * In-memory store for mixed-type configurations.
+ *
+ * Default config objects for missing or incompatible configs are created once per class and shared by all callers,
+ * unless their class is registered as mutable default.
  */
 public class ConfigManager extends AbstractConfigurationManager<Object> {
 
+    /** Registered supplier of default config objects per class. */
+    private final Map<Class<?>, Supplier<?>> defaultSuppliers;
+
+    /** Classes with mutable default config objects, that are created for every call. */
+    private final Set<Class<?>> mutableDefaults;
+
+    /** Shared default config object per class. */
+    private final Map<Class<?>, Object> defaultInstances;
+
     /**
      * Creates new config manager.
      */
     public ConfigManager() {
         super();
+        defaultSuppliers = new ConcurrentHashMap<>();
+        mutableDefaults = ConcurrentHashMap.newKeySet();
+        defaultInstances = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Registers supplier of default config objects for provided class, instead of its default constructor.
+     *
+     * @param clazz Java class of config
+     * @param supplier supplier of default config objects
+     * @param <T> class of config
+     */
+    public <T> void registerDefault(Class<T> clazz, Supplier<? extends T> supplier) {
+        defaultSuppliers.put(clazz, supplier);
+        defaultInstances.remove(clazz);
+    }
+
+    /**
+     * Registers provided class as class with mutable default config objects, so that every call gets a new default
+     * config object instead of a shared one.
+     *
+     * @param clazz Java class of config
+     */
+    public void registerMutableDefault(Class<?> clazz) {
+        mutableDefaults.add(clazz);
+        defaultInstances.remove(clazz);
     }
 
     /**
@@ -35,7 +78,7 @@ public class ConfigManager extends AbstractConfigurationManager<Object> {
      * @param clazz Java class of config to be evaluated
      * @param runtimeContext context from request to be used for evaluation of config
      * @param <T> class of config
-     * @return config value object from config store or clazz.newInstance()
+     * @return config value object from config store or default config object of clazz
      * @throws ConfigInstantiationException in case of instantiation problems
      */
     @SuppressWarnings("PMD.EmptyCatchBlock")
@@ -45,9 +88,38 @@ public class ConfigManager extends AbstractConfigurationManager<Object> {
             try {
                 return clazz.cast(value);
             } catch (ClassCastException exception) {
-                // try to return new config object based on default constructor
+                // return default config object
+            }
+        }
+        return getDefaultConfig(clazz);
+    }
+
+    /**
+     * Returns shared default config object of provided class, or a new one for classes with mutable defaults.
+     */
+    private <T> T getDefaultConfig(Class<T> clazz) throws ConfigInstantiationException {
+        if (mutableDefaults.contains(clazz)) {
+            return newDefaultConfig(clazz);
+        }
+        Object instance = defaultInstances.get(clazz);
+        if (instance == null) {
+            instance = newDefaultConfig(clazz);
+            Object previousInstance = defaultInstances.putIfAbsent(clazz, instance);
+            if (previousInstance != null) {
+                instance = previousInstance;
             }
         }
+        return clazz.cast(instance);
+    }
+
+    /**
+     * Creates default config object of provided class with registered supplier or default constructor.
+     */
+    private <T> T newDefaultConfig(Class<T> clazz) throws ConfigInstantiationException {
+        Supplier<?> supplier = defaultSuppliers.get(clazz);
+        if (supplier != null) {
+            return clazz.cast(supplier.get());
+        }
         try {
             return clazz.newInstance();
         } catch (InstantiationException | IllegalAccessException exception) {
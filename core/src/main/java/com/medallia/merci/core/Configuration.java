@@ -22,7 +22,7 @@ import com.medallia.merci.core.structure.Context;
  *
  * @param <T> type of configuration
  */
-public final class Configuration<T> {
+public class Configuration<T> {
 
     private final String name;
     private final Context<T> context;
@@ -43,6 +43,13 @@ public class ConfigurationContext {
         contextMap.put(type, value);
     }
 
+    /**
+     * Removes all context type to value mappings, so that this context can be reused.
+     */
+    public void clear() {
+        contextMap.clear();
+    }
+
     /**
      * Returns context value associated with provided context type, or null if none found.
      *
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medallia.merci.core.fetcher.ConfigurationDelta;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Bounded history of the generations of a configuration store, that serves deltas of configurations changed since a generation.
+ *
+ * Configurations are serialized once per update of the store and compared by their serialized form, so deltas are
+ * written from already serialized configurations. If a requested generation is older than the history, from another
+ * epoch or unknown, the delta is complete.
+ *
+ * @param <T> type of configuration
+ */
+public class ConfigurationHistory<T> {
+
+    private final Logger log = LoggerFactory.getLogger(ConfigurationHistory.class);
+
+    private final AbstractConfigurationManager<T> manager;
+    private final String root;
+    private final ObjectMapper objectMapper;
+    private final int maximumGenerations;
+
+    /** Epoch of this history, changes with every process. */
+    private final String epoch;
+
+    /** Changes of the most recent generations, oldest first. */
+    private final Deque<Change> changes;
+
+    /** Serialized configurations of the latest recorded generation. */
+    private Map<String, Serialized> serializedConfigurations;
+
+    /** Latest recorded generation. */
+    private long generation;
+
+    /** Oldest generation, from which the changes of all following generations are recorded. */
+    private long baseGeneration;
+
+    /**
+     * Creates history of provided configuration manager, that records the changes of its updates.
+     *
+     * @param manager configuration manager
+     * @param root root field of configurations, i.e. "feature-flags"
+     * @param objectMapper JSON serializer
+     * @param maximumGenerations maximum number of recorded changes
+     */
+    public ConfigurationHistory(AbstractConfigurationManager<T> manager, String root, ObjectMapper objectMapper, int maximumGenerations) {
+        this.manager = manager;
+        this.root = root;
+        this.objectMapper = objectMapper;
+        this.maximumGenerations = maximumGenerations;
+        epoch = UUID.randomUUID().toString();
+        changes = new ArrayDeque<>();
+        serializedConfigurations = new HashMap<>();
+        generation = -1;
+        record();
+        manager.addUpdateListener(updatedGeneration -> record());
+    }
+
+    /**
+     * @return epoch of this history.
+     */
+    public String getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Records changes of the current generation of the configuration store.
+     */
+    private synchronized void record() {
+        AbstractConfigurationManager.Store<T> store = manager.getStore();
+        if (store.getGeneration() <= generation) {
+            return;
+        }
+        Map<String, Serialized> updatedConfigurations = new HashMap<>();
+        Set<String> changedNames = new TreeSet<>();
+        for (Map.Entry<String, Configuration<T>> entry : store.getConfigurations().entrySet()) {
+            Serialized previous = serializedConfigurations.get(entry.getKey());
+            Serialized serialized = serialize(previous, entry.getValue());
+            if (serialized == null) {
+                //configuration, that was never serialized, is neither changed nor removed for clients.
+                continue;
+            }
+            if (previous == null || !previous.json.equals(serialized.json)) {
+                changedNames.add(entry.getKey());
+            }
+            updatedConfigurations.put(entry.getKey(), serialized);
+        }
+        Set<String> removedNames = new TreeSet<>(serializedConfigurations.keySet());
+        removedNames.removeAll(updatedConfigurations.keySet());
+        if (generation < 0) {
+            baseGeneration = store.getGeneration();
+        } else {
+            changes.addLast(new Change(store.getGeneration(), changedNames, removedNames));
+            if (changes.size() > maximumGenerations) {
+                baseGeneration = changes.removeFirst().generation;
+            }
+        }
+        serializedConfigurations = updatedConfigurations;
+        generation = store.getGeneration();
+    }
+
+    /**
+     * Returns serialized configuration. In case of a serialization failure, the previous serialized configuration is kept,
+     * so that clients neither receive a removal nor a change of the configuration.
+     *
+     * @return serialized configuration, previous one if configuration is unchanged or cannot be serialized, null in case
+     *         of a serialization failure without previous one
+     */
+    private Serialized serialize(Serialized previous, Configuration<T> configuration) {
+        if (previous != null && previous.configuration == configuration) {
+            return previous;
+        }
+        try {
+            return new Serialized(configuration, objectMapper.writeValueAsString(configuration.getContext()));
+        } catch (IOException exception) {
+            log.error("Keeping previous state of configuration " + configuration.getName() + " in history of " + root, exception);
+            return previous;
+        }
+    }
+
+    /**
+     * Returns delta of configurations changed since provided generation as JSON document.
+     *
+     * @param clientEpoch epoch of the client's generation
+     * @param since generation of the client
+     * @return JSON document of delta, see {@link ConfigurationDelta}
+     * @throws IOException in case of serialization issues
+     */
+    public synchronized String getDelta(String clientEpoch, long since) throws IOException {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+            writeDelta(clientEpoch, since, generator, true);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Returns delta of configurations changed since provided generation, serialized by provided object mapper,
+     * i.e. in a binary format like Smile.
+     *
+     * @param clientEpoch epoch of the client's generation
+     * @param since generation of the client
+     * @param mapper object mapper for the format of the delta
+     * @return serialized delta, see {@link ConfigurationDelta}
+     * @throws IOException in case of serialization issues
+     */
+    public synchronized byte[] getDelta(String clientEpoch, long since, ObjectMapper mapper) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(outputStream)) {
+            writeDelta(clientEpoch, since, generator, false);
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Writes delta of configurations changed since provided generation.
+     *
+     * @param raw true, if serialized configurations can be written as raw JSON values, false if they have to be written as trees
+     */
+    private void writeDelta(String clientEpoch, long since, JsonGenerator generator, boolean raw) throws IOException {
+        boolean complete = !epoch.equals(clientEpoch) || since < baseGeneration || since > generation;
+        Map<String, Boolean> changedNames = new TreeMap<>();
+        if (complete) {
+            for (String name : serializedConfigurations.keySet()) {
+                changedNames.put(name, Boolean.TRUE);
+            }
+        } else {
+            for (Change change : changes) {
+                if (change.generation > since) {
+                    change.applyTo(changedNames);
+                }
+            }
+        }
+        generator.writeStartObject();
+        generator.writeStringField(ConfigurationDelta.EPOCH, epoch);
+        generator.writeNumberField(ConfigurationDelta.GENERATION, generation);
+        generator.writeBooleanField(ConfigurationDelta.COMPLETE, complete);
+        generator.writeArrayFieldStart(ConfigurationDelta.REMOVED);
+        for (Map.Entry<String, Boolean> name : changedNames.entrySet()) {
+            if (!name.getValue()) {
+                generator.writeString(name.getKey());
+            }
+        }
+        generator.writeEndArray();
+        generator.writeObjectFieldStart(root);
+        for (Map.Entry<String, Boolean> name : changedNames.entrySet()) {
+            if (name.getValue()) {
+                Serialized serialized = serializedConfigurations.get(name.getKey());
+                generator.writeFieldName(name.getKey());
+                if (raw) {
+                    generator.writeRawValue(serialized.json);
+                } else {
+                    generator.writeTree(serialized.tree(objectMapper));
+                }
+            }
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    /**
+     * Changed and removed configuration names of a single generation.
+     */
+    private static final class Change {
+
+        private final long generation;
+        private final Collection<String> changedNames;
+        private final Collection<String> removedNames;
+
+        private Change(long generation, Collection<String> changedNames, Collection<String> removedNames) {
+            this.generation = generation;
+            this.changedNames = changedNames;
+            this.removedNames = removedNames;
+        }
+
+        /**
+         * Applies this change to provided map of configuration name to true for changed and false for removed configurations.
+         */
+        private void applyTo(Map<String, Boolean> names) {
+            for (String name : changedNames) {
+                names.put(name, Boolean.TRUE);
+            }
+            for (String name : removedNames) {
+                names.put(name, Boolean.FALSE);
+            }
+        }
+    }
+
+    /**
+     * Configuration with its serialized context.
+     */
+    private static final class Serialized {
+
+        private final Configuration<?> configuration;
+        private final String json;
+
+        /** JSON tree of serialized context, parsed on first use, null before. */
+        private JsonNode tree;
+
+        private Serialized(Configuration<?> configuration, String json) {
+            this.configuration = configuration;
+            this.json = json;
+        }
+
+        /**
+         * @return JSON tree of serialized context, only called while holding the lock of the history.
+         */
+        private JsonNode tree(ObjectMapper objectMapper) throws IOException {
+            if (tree == null) {
+                tree = objectMapper.readTree(json);
+            }
+            return tree;
+        }
+    }
+}
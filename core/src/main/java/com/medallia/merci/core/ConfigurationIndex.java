@@ -0,0 +1,155 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable map of configuration names to configurations, built once per generation of a configuration store.
+ *
+ * Names and configurations are kept in dense arrays in the order of the source map. A compact open addressing table
+ * packs the hash of each name together with its position into a single long, so that a lookup takes one hash, usually
+ * one read of the table and one read of each dense array, and never touches names with different hashes.
+ *
+ * @param <T> type of configuration
+ */
+final class ConfigurationIndex<T> extends AbstractMap<String, Configuration<T>> {
+
+    private final String[] names;
+    private final Configuration<T>[] configurations;
+
+    /** Hash of name in upper and position plus one in lower 32 bits per slot, 0 for empty slots. */
+    private final long[] slots;
+
+    private Set<Entry<String, Configuration<T>>> entrySet;
+
+    /**
+     * Creates index of provided configurations.
+     *
+     * @param source map of configuration name to configuration
+     */
+    @SuppressWarnings("unchecked")
+    ConfigurationIndex(Map<String, Configuration<T>> source) {
+        names = new String[source.size()];
+        configurations = (Configuration<T>[]) new Configuration<?>[source.size()];
+        slots = new long[Math.max(2, Integer.highestOneBit(Math.max(1, source.size()) * 2 - 1) << 1)];
+        int mask = slots.length - 1;
+        int position = 0;
+        for (Map.Entry<String, Configuration<T>> entry : source.entrySet()) {
+            names[position] = entry.getKey();
+            configurations[position] = entry.getValue();
+            int hash = hash(entry.getKey());
+            int slot = hash & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = ((long) hash << 32) | (position + 1);
+            position++;
+        }
+    }
+
+    /**
+     * Spreads higher bits of hash code to lower bits, as the table is indexed by the lower bits.
+     */
+    private static int hash(String name) {
+        int hashCode = name.hashCode();
+        return hashCode ^ (hashCode >>> 16);
+    }
+
+    /**
+     * @return position of configuration with provided name, -1 if none found.
+     */
+    private int find(Object name) {
+        if (!(name instanceof String)) {
+            return -1;
+        }
+        int hash = hash((String) name);
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            long entry = slots[slot];
+            if ((int) (entry >>> 32) == hash) {
+                int position = (int) entry - 1;
+                if (names[position].equals(name)) {
+                    return position;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public Configuration<T> get(Object name) {
+        int position = find(name);
+        return position < 0 ? null : configurations[position];
+    }
+
+    @Override
+    public boolean containsKey(Object name) {
+        return find(name) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return names.length;
+    }
+
+    @Override
+    public Set<Entry<String, Configuration<T>>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    /**
+     * Read-only entries in order of positions.
+     */
+    private final class EntrySet extends AbstractSet<Entry<String, Configuration<T>>> {
+
+        @Override
+        public Iterator<Entry<String, Configuration<T>>> iterator() {
+            return new Iterator<Entry<String, Configuration<T>>>() {
+
+                private int position;
+
+                @Override
+                public boolean hasNext() {
+                    return position < names.length;
+                }
+
+                @Override
+                public Entry<String, Configuration<T>> next() {
+                    if (position >= names.length) {
+                        throw new NoSuchElementException();
+                    }
+                    Entry<String, Configuration<T>> entry = new SimpleImmutableEntry<>(names[position], configurations[position]);
+                    position++;
+                    return entry;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return names.length;
+        }
+    }
+}
@@ -20,14 +20,30 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Configuration loader, that uses an executor service to asynchronously fetch, parse and store in-memory configurations.
  *
+ * Each configuration reader is scheduled independently with delays of its own or the default {@link RefreshPolicy},
+ * based on whether its previous execution changed configurations, found them unchanged or failed. Delays have
+ * millisecond precision.
+ *
  * @NotThreadSafe
  */
 public final class ConfigurationLoader {
@@ -36,69 +52,276 @@ public final class ConfigurationLoader {
     private static final Duration AWAIT_TERMINATION = Duration.ofSeconds(3);
 
     private final Logger log = LoggerFactory.getLogger(ConfigurationLoader.class);
-    private final List<ConfigurationReader> configurationReaders;
+    private final List<? extends ConfigurationTask> configurationReaders;
     private final ScheduledExecutorService executorService;
     private final ConfigurationLoaderMetrics metrics;
-    private final Duration refreshInterval;
+    private final RefreshPolicy refreshPolicy;
+    private final Map<ConfigurationTask, RefreshPolicy> refreshPolicies;
+    private final ExecutorService fetchExecutorService;
+
+    /** Number of readers without a successful execution. */
+    private final AtomicInteger pendingReaders;
+    private final List<ScheduledRead> scheduledReads;
+    private volatile boolean stopped;
 
+    /**
+     * Constructs Configuration loader based on provided metrics, configuration read (tasks) and an executor service,
+     * with a fixed refresh interval.
+     *
+     * @param metrics metrics for the loader
+     * @param configurationReaders list of reader tasks
+     * @param executorService service to periodically fetch, parse and store configurations
+     * @param refreshInterval regular time between scheduled read tasks
+     */
+    public ConfigurationLoader(ConfigurationLoaderMetrics metrics,
+                               List<? extends ConfigurationTask> configurationReaders,
+                               ScheduledExecutorService executorService,
+                               Duration refreshInterval) {
+        this(metrics, configurationReaders, executorService, RefreshPolicy.fixed(refreshInterval));
+    }
 
-    /*
-     * Constructs Configuration loader based on provided configs properties, HTTP client, executor service.
+    /**
+     * Constructs Configuration loader based on provided metrics, configuration read (tasks), an executor service and a
+     * refresh policy.
      *
-     * @param configurationUpdates list of configuration updates
-     * @param executorService executor service
+     * @param metrics metrics for the loader
+     * @param configurationReaders list of reader tasks
+     * @param executorService service to periodically fetch, parse and store configurations
+     * @param refreshPolicy policy for delays between scheduled read tasks
+     */
+    public ConfigurationLoader(ConfigurationLoaderMetrics metrics,
+                               List<? extends ConfigurationTask> configurationReaders,
+                               ScheduledExecutorService executorService,
+                               RefreshPolicy refreshPolicy) {
+        this(metrics, configurationReaders, executorService, refreshPolicy, Collections.emptyMap());
+    }
 
+    /**
+     * Constructs Configuration loader based on provided metrics, configuration read (tasks), an executor service, a
+     * default refresh policy and refresh policies of individual readers.
+     *
+     * @param metrics metrics for the loader
+     * @param configurationReaders list of reader tasks
+     * @param executorService service to periodically fetch, parse and store configurations
+     * @param refreshPolicy policy for delays between scheduled read tasks without their own policy
+     * @param refreshPolicies policies for delays between scheduled read tasks per reader
      */
+    public ConfigurationLoader(ConfigurationLoaderMetrics metrics,
+                               List<? extends ConfigurationTask> configurationReaders,
+                               ScheduledExecutorService executorService,
+                               RefreshPolicy refreshPolicy,
+                               Map<ConfigurationTask, RefreshPolicy> refreshPolicies) {
+        this(metrics, configurationReaders, executorService, refreshPolicy, refreshPolicies, null);
+    }
 
     /**
-     * Constructs Configuration loader based on provided metrics, configuration read (tasks) and an executor service.
+     * Constructs Configuration loader based on provided metrics, configuration read (tasks), an executor service, a
+     * default refresh policy, refresh policies of individual readers and an executor service for fetches of the
+     * readers, that is shut down together with the loader.
      *
      * @param metrics metrics for the loader
      * @param configurationReaders list of reader tasks
      * @param executorService service to periodically fetch, parse and store configurations
-     * @param refreshInterval time in seconds between scheduled read tasks
+     * @param refreshPolicy policy for delays between scheduled read tasks without their own policy
+     * @param refreshPolicies policies for delays between scheduled read tasks per reader
+     * @param fetchExecutorService service running fetches of the readers with a deadline, null if none
      */
     public ConfigurationLoader(ConfigurationLoaderMetrics metrics,
-                               List<ConfigurationReader> configurationReaders,
+                               List<? extends ConfigurationTask> configurationReaders,
                                ScheduledExecutorService executorService,
-                               Duration refreshInterval) {
+                               RefreshPolicy refreshPolicy,
+                               Map<ConfigurationTask, RefreshPolicy> refreshPolicies,
+                               ExecutorService fetchExecutorService) {
         this.metrics = metrics;
         this.configurationReaders = configurationReaders;
         this.executorService = executorService;
-        this.refreshInterval = refreshInterval;
+        this.refreshPolicy = refreshPolicy;
+        this.refreshPolicies = refreshPolicies;
+        this.fetchExecutorService = fetchExecutorService;
+        pendingReaders = new AtomicInteger(configurationReaders.size());
+        scheduledReads = new CopyOnWriteArrayList<>();
     }
 
     /**
-     * Start periodic refresh of configurations by scheduling executor task to call execute method on fixed schedule basis.
+     * Start periodic refresh of configurations by scheduling an executor task per reader, that re-schedules itself
+     * with the next delay of the refresh policy.
      */
-    @SuppressWarnings("PMD.AvoidCatchingGenericException")
     public void start() {
-        for(ConfigurationReader configurationReader: configurationReaders) {
-            executorService.scheduleWithFixedDelay(() -> {
-                try {
-                    metrics.incrementConfigurationRequests();
-                    configurationReader.execute();
-                } catch (RuntimeException exception) {
-                    metrics.incrementConfigurationFailures();
-                    log.error("Skipped updating configurations due to exception ", exception);
-                    throw exception;
-                } catch (IOException exception) {
-                    metrics.incrementConfigurationFailures();
-                    log.error("Skipped updating configurations due to exception ", exception);
+        startReads();
+    }
+
+    /**
+     * Start periodic refresh of configurations like {@link #start()} and wait, until every reader loaded configurations.
+     * The first executions of all readers run in parallel, as far as the executor service has threads. Readers, that
+     * fail, are retried with the delays of their refresh policy until the timeout.
+     *
+     * @param timeout maximum time to wait for the first successful executions
+     * @throws IOException in case a reader did not load configurations within provided timeout, with its last failure as cause
+     */
+    public void startAndAwait(Duration timeout) throws IOException {
+        List<ScheduledRead> reads = startReads();
+        CompletableFuture<?>[] firstSuccesses = new CompletableFuture<?>[reads.size()];
+        for (int index = 0; index < firstSuccesses.length; index++) {
+            firstSuccesses[index] = reads.get(index).firstSuccess;
+        }
+        try {
+            CompletableFuture.allOf(firstSuccesses).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException exception) {
+            throw new IOException("Initial load of configurations failed.", exception.getCause());
+        } catch (TimeoutException exception) {
+            Exception lastFailure = exception;
+            for (ScheduledRead read : reads) {
+                if (!read.firstSuccess.isDone() && read.lastFailure != null) {
+                    lastFailure = read.lastFailure;
                 }
-            }, INITIAL_DELAY.getSeconds(), refreshInterval.getSeconds(), TimeUnit.SECONDS);
+            }
+            throw new IOException("Initial load of configurations did not finish within " + timeout + ".", lastFailure);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for initial load of configurations.");
+        }
+    }
+
+    /**
+     * @return true, if every reader loaded configurations at least once.
+     */
+    public boolean isReady() {
+        return pendingReaders.get() == 0;
+    }
+
+    /**
+     * @return scheduled reads of all readers.
+     */
+    private List<ScheduledRead> startReads() {
+        metrics.setReady(isReady());
+        List<ScheduledRead> reads = new ArrayList<>(configurationReaders.size());
+        for (ConfigurationTask configurationReader : configurationReaders) {
+            ScheduledRead read = new ScheduledRead(configurationReader, refreshPolicies.getOrDefault(configurationReader, refreshPolicy));
+            reads.add(read);
+            scheduledReads.add(read);
+            read.schedule(INITIAL_DELAY.toMillis());
         }
+        return reads;
     }
 
     /**
-     * Stop scheduled periodic refresh of configurations.
+     * Stop scheduled periodic refresh of configurations and interrupt running fetches of the readers with a deadline.
      */
     public void shutdown() {
+        stopped = true;
+        //pending delayed executions would otherwise still run after shutdown of the executor service.
+        for (ScheduledRead read : scheduledReads) {
+            read.cancel();
+        }
         executorService.shutdown();
+        if (fetchExecutorService != null) {
+            fetchExecutorService.shutdownNow();
+        }
         try {
             executorService.awaitTermination(AWAIT_TERMINATION.getSeconds(), TimeUnit.SECONDS);
         } catch (InterruptedException exception) {
             Thread.currentThread().interrupt();
         }
     }
+
+    /**
+     * Executor task of a single reader with its state for the refresh policy.
+     */
+    private final class ScheduledRead implements Runnable {
+
+        private final ConfigurationTask configurationReader;
+        private final RefreshPolicy refreshPolicy;
+
+        /** Completed by the first successful execution. */
+        private final CompletableFuture<Void> firstSuccess;
+        private volatile Exception lastFailure;
+        private boolean loaded;
+        private volatile Future<?> nextExecution;
+
+        /** Last delay without jitter. */
+        private long delay;
+        private int unchangedExecutions;
+        private int failures;
+
+        private ScheduledRead(ConfigurationTask configurationReader, RefreshPolicy refreshPolicy) {
+            this.configurationReader = configurationReader;
+            this.refreshPolicy = refreshPolicy;
+            firstSuccess = new CompletableFuture<>();
+            delay = refreshPolicy.getInterval();
+        }
+
+        @Override
+        public void run() {
+            try {
+                execute();
+            } finally {
+                schedule(refreshPolicy.withJitter(delay));
+            }
+        }
+
+        /**
+         * Executes reader and updates delay for next execution.
+         */
+        @SuppressWarnings("PMD.AvoidCatchingGenericException")
+        private void execute() {
+            try {
+                metrics.incrementConfigurationRequests();
+                if (configurationReader.execute()) {
+                    unchangedExecutions = 0;
+                    delay = refreshPolicy.afterChange();
+                } else {
+                    unchangedExecutions++;
+                    delay = refreshPolicy.afterUnchanged(delay, unchangedExecutions);
+                }
+                failures = 0;
+                onSuccess();
+            } catch (RuntimeException exception) {
+                onFailure(exception);
+                throw exception;
+            } catch (IOException exception) {
+                onFailure(exception);
+            }
+        }
+
+        private void onSuccess() {
+            if (!loaded) {
+                loaded = true;
+                if (pendingReaders.decrementAndGet() == 0) {
+                    metrics.setReady(true);
+                }
+                firstSuccess.complete(null);
+            }
+        }
+
+        private void onFailure(Exception exception) {
+            lastFailure = exception;
+            metrics.incrementConfigurationFailures();
+            log.error("Skipped updating configurations due to exception ", exception);
+            unchangedExecutions = 0;
+            failures++;
+            delay = refreshPolicy.afterFailure(failures);
+        }
+
+        private void schedule(long nextDelay) {
+            if (stopped) {
+                return;
+            }
+            try {
+                nextExecution = executorService.schedule(this, nextDelay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException exception) {
+                //executor service is shut down.
+                return;
+            }
+            if (stopped) {
+                cancel();
+            }
+        }
+
+        private void cancel() {
+            Future<?> execution = nextExecution;
+            if (execution != null) {
+                execution.cancel(false);
+            }
+        }
+    }
 }
@@ -29,4 +29,15 @@ public interface ConfigurationManager<T> {
      * @param configurations map of configurations to be stored
      */
     void updateConfigurations(Map<String, Configuration<T>> configurations);
+
+    /**
+     * Stores configurations, that were read again from unchanged configuration content, i.e. for a forced refresh.
+     *
+     * By default, same as {@link #updateConfigurations(Map)}.
+     *
+     * @param configurations map of configurations to be stored
+     */
+    default void refreshConfigurations(Map<String, Configuration<T>> configurations) {
+        updateConfigurations(configurations);
+    }
 }
@@ -15,31 +15,55 @@
  */
 package com.medallia.merci.core;
 
-import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.medallia.merci.core.metrics.InstantiateConfigurationMetrics;
 import com.medallia.merci.core.structure.Context;
+import com.medallia.merci.core.structure.ContextCanonicalizer;
+import com.medallia.merci.core.structure.ModifiersFlattener;
 import com.medallia.merci.core.utils.ClassFinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Parser for configurations.
  *
+ * With shared values, structurally identical JSON values of the same class are converted once per read and shared by
+ * all contexts and configurations, so config objects have to be immutable. Without shared values, every context has
+ * its own config object.
+ *
+ * With lazy binding, JSON values are only converted on first evaluation of one of their contexts, so that branches,
+ * that are never evaluated in a process, i.e. of other environments, are never bound. A JSON value, that cannot be
+ * converted, is then skipped at evaluation time like a missing value. Lazy binding requires skipping of
+ * non-instantiable configurations.
+ *
  * @param <T> type of configuration
  */
 public class ConfigurationMapper<T> {
 
+    private static final TypeReference<Context<JsonNode>> JSON_CONTEXT_TYPE = new TypeReference<Context<JsonNode>>() { };
+
+    private final Logger log = LoggerFactory.getLogger(ConfigurationMapper.class);
     private final ObjectMapper objectMapper;
     private final ConfigurationWriter<T> configurationWriter;
     private final String root;
     private final InstantiateConfigurationMetrics metrics;
     private final ClassFinder<T> classFinder;
     private final boolean skipNonInstantiable;
+    private final boolean flattenModifiers;
+    private final boolean lazyBinding;
+    private final boolean sharedValues;
+
+    /** Reader for value objects per class, as bound lazily on any thread. */
+    private final Map<Class<?>, ObjectReader> objectReaders;
 
     /**
      * Creates ConfigurationMapper.
@@ -52,12 +76,46 @@ public class ConfigurationMapper<T> {
                                ObjectMapper objectMapper,
                                InstantiateConfigurationMetrics metrics,
                                ClassFinder<T> classFinder) {
+        this(root, new Options().setSkipNonInstantiable(skipNonInstantiable), objectMapper, metrics, classFinder);
+    }
+
+    /**
+     * Creates ConfigurationMapper with provided options.
+     *
+     * @root root root field
+     * @param options options for skipping, flattening, lazy binding and sharing
+     * @param objectMapper JSON deserializer
+     * @throws IllegalArgumentException in case of lazy binding without skipping of non-instantiable configurations
+     */
+    public ConfigurationMapper(String root,
+                               Options options,
+                               ObjectMapper objectMapper,
+                               InstantiateConfigurationMetrics metrics,
+                               ClassFinder<T> classFinder) {
+        if (options.lazyBinding && !options.skipNonInstantiable) {
+            throw new IllegalArgumentException("Lazy binding requires skipping of non-instantiable configurations.");
+        }
         this.root = root;
         this.objectMapper = objectMapper;
-        this.skipNonInstantiable = skipNonInstantiable;
+        this.skipNonInstantiable = options.skipNonInstantiable;
+        this.flattenModifiers = options.flattenModifiers;
+        this.lazyBinding = options.lazyBinding;
+        this.sharedValues = options.sharedValues;
         this.metrics = metrics;
         this.classFinder = classFinder;
         configurationWriter = new ConfigurationWriter<>(root, objectMapper);
+        objectReaders = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates configuration with provided name and converted context definition.
+     *
+     * @param name name of configuration
+     * @param context converted context definition
+     * @return new configuration
+     */
+    Configuration<T> createConfiguration(String name, Context<T> context) {
+        return new Configuration<>(name, context);
     }
 
     /**
@@ -68,7 +126,18 @@ public class ConfigurationMapper<T> {
      * @throws IOException, if content could not be deserialized to map of configurations
      */
     public Map<String, Configuration<T>> readValue(String content) throws IOException {
-        JsonNode rootJsonNode = objectMapper.readTree(content).get(root);
+        return readValue(objectMapper.readTree(content));
+    }
+
+    /**
+     * Returns map of configurations, converted from root field of provided JSON document.
+     *
+     * @param document JSON document with root field
+     * @return map of configurations
+     * @throws IOException, if document could not be converted to map of configurations
+     */
+    public Map<String, Configuration<T>> readValue(JsonNode document) throws IOException {
+        JsonNode rootJsonNode = document.get(root);
         if (rootJsonNode == null) {
             throw new IOException("Missing root field " + root);
         }
@@ -94,12 +163,13 @@ public class ConfigurationMapper<T> {
      */
     private Map<String, Configuration<T>> createConfigurations(JsonNode rootJsonNode) throws IOException {
         Map<String, Configuration<T>> configurations = new HashMap<>();
+        Map<Class<T>, ContextCanonicalizer<T>> canonicalizers = new HashMap<>();
         Iterator<Map.Entry<String, JsonNode>> configurationEntries = rootJsonNode.fields();
         while (configurationEntries.hasNext()) {
             try {
                 Map.Entry<String, JsonNode> configurationEntry = configurationEntries.next();
                 String className = configurationEntry.getKey();
-                Configuration<T> configuration = convertValue(configurationEntry.getValue(), className);
+                Configuration<T> configuration = convertValue(configurationEntry.getValue(), className, canonicalizers);
                 configurations.put(className, configuration);
             } catch (IOException exception) {
                 if (skipNonInstantiable) {
@@ -117,14 +187,18 @@ public class ConfigurationMapper<T> {
      *
      * @param json root JsonNode of single configuration
      * @param className name of class to be used for configuration value object
+     * @param canonicalizers canonicalizers of value objects per class
      * @return new single configuration
      * @throws IOException in case of conversion issues
      */
-    private Configuration<T> convertValue(JsonNode json, String className) throws IOException {
+    private Configuration<T> convertValue(JsonNode json, String className,
+                                          Map<Class<T>, ContextCanonicalizer<T>> canonicalizers) throws IOException {
         try {
             Class<T> clazz = classFinder.findClass(className);
-            Context<T> context = convertValue(json, clazz);
-            return new Configuration<>(className, context);
+            ContextCanonicalizer<T> canonicalizer = canonicalizers.computeIfAbsent(clazz, key -> lazyBinding
+                    ? new ContextCanonicalizer<>(value -> convertLazily(value, key), true, sharedValues)
+                    : new ContextCanonicalizer<>(value -> bind(value, key), false, sharedValues));
+            return createConfiguration(className, convertValue(json, canonicalizer));
         } catch (ClassNotFoundException exception) {
             //non-instantiable configuration class
             throw new IOException(exception);
@@ -135,17 +209,108 @@ public class ConfigurationMapper<T> {
      * Converts JSON representation of configuration to a newly instantiated Java config object (graph) with root Context object.
      *
      * @param json JSON representation to be de-serialized
-     * @param clazz class of target config object
+     * @param canonicalizer canonicalizer, converting JSON values to shared config objects
      * @return newly instantiated object of type T
      * @throws IOException, if JavaType and JSON are incompatible or other deserialization problems
      */
-    private Context<T> convertValue(JsonNode json, Class<T> clazz) throws IOException {
+    private Context<T> convertValue(JsonNode json, ContextCanonicalizer<T> canonicalizer) throws IOException {
         try {
-            JavaType javaType = objectMapper.getTypeFactory().constructParametricType(Context.class, clazz);
-            return objectMapper.convertValue(json, javaType);
+            Context<JsonNode> jsonContext = objectMapper.convertValue(json, JSON_CONTEXT_TYPE);
+            if (flattenModifiers) {
+                //flattening JSON values keeps lazy values unbound.
+                jsonContext = ModifiersFlattener.flatten(jsonContext);
+            }
+            return canonicalizer.canonicalize(jsonContext);
         } catch (IllegalArgumentException exception) {
             //non-instantiable configuration class
             throw new IOException(exception);
         }
     }
+
+    /**
+     * Converts JSON value to value object on first evaluation, null if not convertible.
+     */
+    private T convertLazily(JsonNode value, Class<T> clazz) {
+        try {
+            return bind(value, clazz);
+        } catch (IllegalArgumentException exception) {
+            metrics.incrementNonInstantiableSkips();
+            log.warn("Skipped non-instantiable value of " + clazz.getName(), exception);
+            return null;
+        }
+    }
+
+    /**
+     * Binds JSON value to value object of provided class with a cached reader of the class, reading the JSON tree
+     * directly instead of converting it through a token buffer like {@link ObjectMapper#convertValue(Object, Class)}.
+     *
+     * @throws IllegalArgumentException, if JSON value could not be bound
+     */
+    private T bind(JsonNode value, Class<T> clazz) {
+        if (value == null) {
+            return null;
+        }
+        if (clazz.isInstance(value)) {
+            return clazz.cast(value);
+        }
+        try {
+            return objectReaders.computeIfAbsent(clazz, objectMapper::readerFor).readValue(value);
+        } catch (IOException exception) {
+            throw new IllegalArgumentException(exception.getMessage(), exception);
+        }
+    }
+
+    /**
+     * Options of a {@link ConfigurationMapper}. By default, non-instantiable configurations are skipped, and modifiers
+     * are neither flattened nor values bound lazily or shared.
+     *
+     * @NotThreadSafe
+     */
+    public static final class Options {
+
+        private boolean skipNonInstantiable = true;
+        private boolean flattenModifiers;
+        private boolean lazyBinding;
+        private boolean sharedValues;
+
+        /**
+         * Set, whether non-instantiable configurations are skipped instead of failing the whole read.
+         */
+        public Options setSkipNonInstantiable(boolean skipNonInstantiable) {
+            this.skipNonInstantiable = skipNonInstantiable;
+            return this;
+        }
+
+        /**
+         * Set, whether nested modifiers are flattened into composite modifiers.
+         */
+        public Options setFlattenModifiers(boolean flattenModifiers) {
+            this.flattenModifiers = flattenModifiers;
+            return this;
+        }
+
+        /**
+         * Set, whether values are converted on first evaluation, only with skipping of non-instantiable configurations.
+         */
+        public Options setLazyBinding(boolean lazyBinding) {
+            this.lazyBinding = lazyBinding;
+            return this;
+        }
+
+        /**
+         * Set, whether structurally identical JSON values share one value object, only for immutable config objects.
+         */
+        public Options setSharedValues(boolean sharedValues) {
+            this.sharedValues = sharedValues;
+            return this;
+        }
+
+        /**
+         * @return copy of these options with eagerly bound and shared values, for immutable values of built-in types.
+         */
+        Options withSharedValues() {
+            return new Options().setSkipNonInstantiable(skipNonInstantiable).setFlattenModifiers(flattenModifiers)
+                    .setSharedValues(true);
+        }
+    }
 }
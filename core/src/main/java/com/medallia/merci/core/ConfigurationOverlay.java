@@ -0,0 +1,282 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.medallia.merci.core.fetcher.ConfigurationFetcher;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Overlay of configuration files, that deep-merges the documents of all files of a reader into a single document,
+ * instead of replacing configurations of earlier files with configurations of the same name in later files.
+ *
+ * Files are merged in order of registration, like JSON merge patches (RFC 7386): objects are merged field by field,
+ * any other value of a later file replaces the value of an earlier file and null removes the field. A file can include
+ * other files of the same application with a top-level "include" field, i.e. "include": ["/base-configs.json"]; included
+ * files are merged in order before the including file.
+ *
+ * Parsed documents are cached per file as long as its contents are unchanged, and the merged document is cached per
+ * digest of all contents, so that unchanged files are neither parsed nor merged again on reloads. An overlay belongs to a
+ * single reader and is not thread-safe.
+ */
+public class ConfigurationOverlay {
+
+    /** Top-level field of a file with names of included files. */
+    public static final String INCLUDE_FIELD = "include";
+
+    private final ObjectMapper objectMapper;
+
+    /** Parsed documents by file name. */
+    private final Map<String, ParsedFile> parsedFiles;
+
+    /** Result of previous call of {@link #include}, null if none. */
+    private Map<String, String> previousContents;
+
+    /** Digest of contents of merged document, empty if none. */
+    private byte[] mergedHash;
+
+    /** Merged document, null if none. */
+    private JsonNode merged;
+
+    /**
+     * Creates overlay with provided JSON deserializer.
+     *
+     * @param objectMapper JSON deserializer
+     */
+    public ConfigurationOverlay(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        parsedFiles = new HashMap<>();
+        mergedHash = new byte[0];
+    }
+
+    /**
+     * Returns provided contents together with contents of all files, that are included by them, fetching included files,
+     * that are not part of provided contents.
+     *
+     * @param contents map of file names to contents of registered files
+     * @param fetcher fetcher for included files
+     * @param application name of application
+     * @return result of previous call, if all contents are unchanged, otherwise provided map, if no other files are
+     *         included, or new map with contents of included files
+     * @throws IOException in case of a failed fetch or a missing included file
+     * @throws com.fasterxml.jackson.core.JsonProcessingException, if a file is not a JSON object or has a bad include field
+     */
+    public Map<String, String> include(Map<String, String> contents, ConfigurationFetcher fetcher, String application) throws IOException {
+        Map<String, String> allContents = contents;
+        List<String> missing = missingIncludes(contents.keySet(), allContents);
+        while (!missing.isEmpty()) {
+            Map<String, String> includedContents = fetcher.fetch(missing, application);
+            for (String fileName : missing) {
+                if (!includedContents.containsKey(fileName)) {
+                    throw new IOException("Missing included file " + fileName);
+                }
+            }
+            if (allContents == contents) {
+                allContents = new LinkedHashMap<>(contents);
+            }
+            allContents.putAll(includedContents);
+            missing = missingIncludes(includedContents.keySet(), allContents);
+        }
+        //the same map lets the reader skip hashing of unchanged contents.
+        if (sameContents(previousContents, allContents)) {
+            return previousContents;
+        }
+        previousContents = allContents;
+        return allContents;
+    }
+
+    /**
+     * @return true, if both maps have the same file names with the same contents, false for a missing previous map.
+     */
+    private static boolean sameContents(Map<String, String> previousContents, Map<String, String> contents) {
+        if (previousContents == null || previousContents.size() != contents.size()) {
+            return false;
+        }
+        for (Map.Entry<String, String> entry : contents.entrySet()) {
+            String previousContent = previousContents.get(entry.getKey());
+            if (previousContent != entry.getValue() && (previousContent == null || !previousContent.equals(entry.getValue()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return names of files included by provided files, that are not part of provided contents.
+     */
+    private List<String> missingIncludes(Set<String> fileNames, Map<String, String> contents) throws IOException {
+        List<String> missing = new ArrayList<>();
+        for (String fileName : fileNames) {
+            for (String include : parse(fileName, contents.get(fileName)).includes) {
+                if (!contents.containsKey(include) && !missing.contains(include)) {
+                    missing.add(include);
+                }
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Returns merged document of provided files.
+     *
+     * @param fileNames names of registered files in order of registration
+     * @param contents map of file names to contents of registered and included files
+     * @param hash digest of provided contents
+     * @return merged document, cached for the same digest
+     * @throws IOException, if a file is not a JSON object, an included file is missing or files include each other
+     */
+    public JsonNode merge(List<String> fileNames, Map<String, String> contents, byte[] hash) throws IOException {
+        if (merged != null && Arrays.equals(mergedHash, hash)) {
+            return merged;
+        }
+        JsonNode document = JsonNodeFactory.instance.objectNode();
+        for (String fileName : fileNames) {
+            if (contents.containsKey(fileName)) {
+                document = merge(document, resolve(fileName, contents, new HashSet<>()));
+            }
+        }
+        //drop parsed documents of files, that are neither registered nor included anymore.
+        parsedFiles.keySet().retainAll(contents.keySet());
+        merged = document;
+        mergedHash = hash;
+        return document;
+    }
+
+    /**
+     * @return document of provided file, merged onto the documents of its included files.
+     */
+    private JsonNode resolve(String fileName, Map<String, String> contents, Set<String> including) throws IOException {
+        ParsedFile parsedFile = parse(fileName, contents.get(fileName));
+        if (parsedFile.includes.isEmpty()) {
+            return parsedFile.document;
+        }
+        if (!including.add(fileName)) {
+            throw new JsonMappingException(null, "File " + fileName + " is included by itself.");
+        }
+        JsonNode document = JsonNodeFactory.instance.objectNode();
+        for (String include : parsedFile.includes) {
+            if (!contents.containsKey(include)) {
+                throw new IOException("Missing included file " + include);
+            }
+            document = merge(document, resolve(include, contents, including));
+        }
+        including.remove(fileName);
+        return merge(document, parsedFile.document);
+    }
+
+    /**
+     * @return parsed document of provided file, cached as long as its contents are unchanged.
+     */
+    private ParsedFile parse(String fileName, String content) throws IOException {
+        ParsedFile parsedFile = parsedFiles.get(fileName);
+        if (parsedFile != null && (parsedFile.content == content || parsedFile.content.equals(content))) {
+            return parsedFile;
+        }
+        JsonNode document = objectMapper.readTree(content);
+        if (document == null || !document.isObject()) {
+            throw new JsonMappingException(null, "File " + fileName + " is not a JSON object.");
+        }
+        ObjectNode withoutIncludes = ((ObjectNode) document).deepCopy();
+        JsonNode includeNode = withoutIncludes.remove(INCLUDE_FIELD);
+        parsedFile = new ParsedFile(content, withoutIncludes, includes(fileName, includeNode));
+        parsedFiles.put(fileName, parsedFile);
+        return parsedFile;
+    }
+
+    /**
+     * @return names of included files of provided include field, which is either a single name or an array of names.
+     */
+    private static List<String> includes(String fileName, JsonNode includeNode) throws JsonMappingException {
+        if (includeNode == null) {
+            return Collections.emptyList();
+        }
+        if (includeNode.isTextual()) {
+            return Collections.singletonList(includeNode.asText());
+        }
+        List<String> includes = new ArrayList<>();
+        for (JsonNode include : includeNode) {
+            if (!include.isTextual()) {
+                break;
+            }
+            includes.add(include.asText());
+        }
+        if (includeNode.isArray() && includes.size() == includeNode.size()) {
+            return includes;
+        }
+        throw new JsonMappingException(null, "Include field of file " + fileName + " is neither a file name nor an array of file names.");
+    }
+
+    /**
+     * Merges provided patch onto provided target like a JSON merge patch, without modifying either of them.
+     *
+     * @param target target value, may be null
+     * @param patch patch value
+     * @return merged value, sharing unchanged values with target and patch
+     */
+    static JsonNode merge(JsonNode target, JsonNode patch) {
+        if (!patch.isObject()) {
+            return patch;
+        }
+        ObjectNode result = JsonNodeFactory.instance.objectNode();
+        if (target != null && target.isObject()) {
+            result.setAll((ObjectNode) target);
+        }
+        Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getValue().isNull()) {
+                result.remove(field.getKey());
+            } else {
+                result.set(field.getKey(), merge(result.get(field.getKey()), field.getValue()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Parsed document of a file.
+     */
+    private static final class ParsedFile {
+
+        private final String content;
+
+        /** Document without include field. */
+        private final JsonNode document;
+
+        private final List<String> includes;
+
+        private ParsedFile(String content, JsonNode document, List<String> includes) {
+            this.content = content;
+            this.document = document;
+            this.includes = includes;
+        }
+    }
+}
@@ -15,12 +15,14 @@
  */
 package com.medallia.merci.core;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.medallia.merci.core.fetcher.ConfigurationFetcher;
 import com.medallia.merci.core.metrics.UpdateConfigurationMetrics;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -32,7 +34,7 @@ import java.util.concurrent.atomic.AtomicInteger;
  *
  *  @param <T> type of configuration
  */
-public class ConfigurationReader<T> {
+public class ConfigurationReader<T> implements ConfigurationTask {
 
     private final String application;
     private final List<String> fileNames;
@@ -40,7 +42,7 @@ public class ConfigurationReader<T> {
     private final ConfigurationMapper<T> parser;
     private final ConfigurationManager<T> manager;
 
-    /** Message digest. */
+    /** Message digest of this reader, a copy of the provided message digest. */
     private final MessageDigest digest;
 
     /** Metrics for configurations. */
@@ -52,9 +54,15 @@ public class ConfigurationReader<T> {
     /** Number of same-content skips left before updating the injected (decorated) configuration adapter. */
     private final AtomicInteger skipsLeft;
 
+    /** Overlay, that deep-merges configurations of all files, null if later files replace configurations of earlier files. */
+    private final ConfigurationOverlay overlay;
+
     /** Hash of configuration content from response of previous config request. */
     private byte[] previousHash;
 
+    /** Configuration content from response of previous config request, null if none. */
+    private Map<String, String> previousContents;
+
     /**
      * Creates configuration reader.
      *
@@ -74,35 +82,117 @@ public class ConfigurationReader<T> {
                                MessageDigest digest,
                                UpdateConfigurationMetrics metrics,
                                final int maximumSkips) {
+        this(application, fileNames, fetcher, parser, manager, digest, metrics, maximumSkips, null);
+    }
+
+    /**
+     * Creates configuration reader, that optionally deep-merges configurations of all files with an overlay.
+     *
+     * @param application application
+     * @param fileNames names of textual configuration files
+     * @param fetcher fetcher for remote or local configuration files
+     * @param parser deserializer for textual configuration files
+     * @param manager configuration manager
+     * @param digest message digest
+     * @param metrics metrics
+     * @param maximumSkips maximum number of skips
+     * @param overlay overlay of files, null if configurations of later files replace configurations of earlier files
+     */
+    public ConfigurationReader(String application, List<String> fileNames,
+                               ConfigurationFetcher fetcher,
+                               ConfigurationMapper<T> parser,
+                               ConfigurationManager<T> manager,
+                               MessageDigest digest,
+                               UpdateConfigurationMetrics metrics,
+                               final int maximumSkips,
+                               ConfigurationOverlay overlay) {
         this.application = application;
         this.fetcher = fetcher;
         this.parser = parser;
         this.manager = manager;
         this.fileNames = fileNames;
-        this.digest = digest;
+        this.digest = copy(digest);
         this.metrics = metrics;
         previousHash = new byte[0];
         this.maximumSkips = maximumSkips;
         skipsLeft = new AtomicInteger(maximumSkips);
+        this.overlay = overlay;
     }
 
-    /**
-     * Execute fetch, parse and store of configurations.
-     *
-     * @throws IOException in case of a failure
-     */
-    public void execute() throws IOException {
+    @Override
+    public boolean execute() throws IOException {
         Map<String, String> contents = fetcher.fetch(fileNames, application);
-        contents.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEachOrdered(entry -> digest.update(entry.getValue().getBytes(StandardCharsets.UTF_8)));
-        byte[] hash = digest.digest();
-        if (skipsLeft.getAndDecrement() > 0 && Arrays.equals(previousHash, hash)) {
+        if (overlay != null) {
+            contents = include(contents);
+        }
+        byte[] hash = contents == previousContents ? previousHash : hash(contents);
+        boolean unchanged = Arrays.equals(previousHash, hash);
+        if (skipsLeft.getAndDecrement() > 0 && unchanged) {
             metrics.incrementSameContentsSkips();
         } else {
             metrics.incrementNewContentsUpdates();
-            updateConfigurationManager(contents);
+            if (overlay == null) {
+                updateConfigurationManager(contents, unchanged);
+            } else {
+                updateConfigurationManager(contents, hash, unchanged);
+            }
             previousHash = hash;
+            previousContents = contents;
             skipsLeft.set(maximumSkips);
         }
+        return !unchanged;
+    }
+
+    /**
+     * @return copy of provided message digest, so that readers of all managers can hash concurrently.
+     */
+    private static MessageDigest copy(MessageDigest digest) {
+        try {
+            return (MessageDigest) digest.clone();
+        } catch (CloneNotSupportedException exception) {
+            try {
+                return MessageDigest.getInstance(digest.getAlgorithm(), digest.getProvider());
+            } catch (NoSuchAlgorithmException noSuchAlgorithmException) {
+                throw new IllegalStateException(noSuchAlgorithmException);
+            }
+        }
+    }
+
+    /**
+     * @return hash of provided configuration contents, ordered by file name.
+     */
+    private byte[] hash(Map<String, String> contents) {
+        contents.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEachOrdered(entry -> digest.update(entry.getValue().getBytes(StandardCharsets.UTF_8)));
+        return digest.digest();
+    }
+
+    /**
+     * @return provided contents together with contents of their included files.
+     */
+    private Map<String, String> include(Map<String, String> contents) throws IOException {
+        try {
+            return overlay.include(contents, fetcher, application);
+        } catch (JsonProcessingException exception) {
+            metrics.incrementContentFailures(1);
+            throw exception;
+        }
+    }
+
+    /**
+     * Update configuration manager with configurations of merged document of provided contents.
+     *
+     * @throws IOException in case of a problem parsing or merging configuration content
+     */
+    private void updateConfigurationManager(Map<String, String> contents, byte[] hash, boolean unchanged) throws IOException {
+        Map<String, Configuration<T>> configurations;
+        try {
+            configurations = parser.readValue(overlay.merge(fileNames, contents, hash));
+        } catch (IOException exception) {
+            metrics.incrementContentFailures(1);
+            throw exception;
+        }
+        metrics.incrementUpdates(configurations.size());
+        store(configurations, unchanged);
     }
 
     /**
@@ -110,7 +200,7 @@ public class ConfigurationReader<T> {
      *
      * @throws IOException in case of a problem parsing configuration content
      */
-    private void updateConfigurationManager(Map<String, String> contents) throws IOException {
+    private void updateConfigurationManager(Map<String, String> contents, boolean unchanged) throws IOException {
         int numConfigurations = 0;
         int numContentFailures = 0;
         Map<String, Configuration<T>> configurationCache = new LinkedHashMap<> ();
@@ -129,7 +219,19 @@ public class ConfigurationReader<T> {
         }
         metrics.incrementNameDuplicates(numConfigurations - configurationCache.size());
         metrics.incrementUpdates(configurationCache.size());
-        manager.updateConfigurations(configurationCache);
+        store(configurationCache, unchanged);
+    }
+
+    /**
+     * Stores provided configurations, refreshing instead of updating the manager for unchanged content, so that forced
+     * refreshes do not advance the generation of the configuration store.
+     */
+    private void store(Map<String, Configuration<T>> configurations, boolean unchanged) {
+        if (unchanged) {
+            manager.refreshConfigurations(configurations);
+        } else {
+            manager.updateConfigurations(configurations);
+        }
     }
 
     /**
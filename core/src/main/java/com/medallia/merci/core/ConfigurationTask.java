@@ -0,0 +1,32 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core;
+
+import java.io.IOException;
+
+/**
+ * Task, that is periodically executed by the {@link ConfigurationLoader} to update a configuration store.
+ */
+public interface ConfigurationTask {
+
+    /**
+     * Execute fetch, parse and store of configurations.
+     *
+     * @return true, if configurations were changed, false if unchanged
+     * @throws IOException in case of a failure
+     */
+    boolean execute() throws IOException;
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core;
+
+import com.medallia.merci.core.fetcher.ConfigurationDelta;
+import com.medallia.merci.core.fetcher.ConfigurationDeltaFetcher;
+import com.medallia.merci.core.metrics.UpdateConfigurationMetrics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reader for deltas of configurations, that patches the configuration store instead of rebuilding it.
+ *
+ * The first delta and every delta after a restart of the remote store is complete and replaces all configurations.
+ *
+ * @param <T> type of configuration
+ */
+public class DeltaConfigurationReader<T> implements ConfigurationTask {
+
+    private final String application;
+    private final String root;
+    private final ConfigurationDeltaFetcher fetcher;
+    private final ConfigurationMapper<T> parser;
+    private final AbstractConfigurationManager<T> manager;
+
+    /** Metrics for configurations. */
+    private final UpdateConfigurationMetrics metrics;
+
+    /** Epoch of last applied delta, empty if none. */
+    private volatile String epoch;
+
+    /** Generation of last applied delta. */
+    private long generation;
+
+    /**
+     * Creates reader for deltas of configurations.
+     *
+     * @param application application
+     * @param root root field of configurations
+     * @param fetcher fetcher for deltas of configurations
+     * @param parser deserializer for configurations
+     * @param manager configuration manager
+     * @param metrics metrics
+     */
+    public DeltaConfigurationReader(String application, String root,
+                                    ConfigurationDeltaFetcher fetcher,
+                                    ConfigurationMapper<T> parser,
+                                    AbstractConfigurationManager<T> manager,
+                                    UpdateConfigurationMetrics metrics) {
+        this.application = application;
+        this.root = root;
+        this.fetcher = fetcher;
+        this.parser = parser;
+        this.manager = manager;
+        this.metrics = metrics;
+        epoch = "";
+    }
+
+    @Override
+    public boolean execute() throws IOException {
+        ConfigurationDelta delta = fetcher.fetch(application, root, epoch, generation);
+        boolean changed = true;
+        Map<String, Configuration<T>> configurations;
+        try {
+            configurations = parser.readValue(delta.getDocument());
+        } catch (IOException exception) {
+            metrics.incrementContentFailures(1);
+            throw new IOException("Bad configuration content.", exception);
+        }
+        if (delta.isComplete()) {
+            metrics.incrementNewContentsUpdates();
+            metrics.incrementUpdates(configurations.size());
+            manager.updateConfigurations(configurations);
+        } else {
+            List<String> removedNames = new ArrayList<>(delta.getRemovedNames());
+            //changed configurations, that were skipped by the parser, are removed like in a complete update.
+            Iterator<String> names = delta.getDocument().get(root).fieldNames();
+            while (names.hasNext()) {
+                String name = names.next();
+                if (!configurations.containsKey(name)) {
+                    removedNames.add(name);
+                }
+            }
+            if (configurations.isEmpty() && removedNames.isEmpty()) {
+                metrics.incrementSameContentsSkips();
+                changed = false;
+            } else {
+                metrics.incrementNewContentsUpdates();
+                metrics.incrementUpdates(configurations.size());
+                manager.patchConfigurations(configurations, removedNames);
+            }
+        }
+        epoch = delta.getEpoch();
+        generation = delta.getGeneration();
+        return changed;
+    }
+
+    /**
+     * Resets reader, so that the next delta is complete.
+     */
+    public void reset() {
+        epoch = "";
+    }
+}
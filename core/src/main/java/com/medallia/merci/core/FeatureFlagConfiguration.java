@@ -0,0 +1,70 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core;
+
+import com.medallia.merci.core.structure.BooleanFlag;
+import com.medallia.merci.core.structure.Context;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Feature flag configuration with its compiled {@link BooleanFlag}, that is compiled once, when the feature flag is read
+ * or stored, and never on evaluation.
+ */
+final class FeatureFlagConfiguration extends Configuration<Boolean> {
+
+    private final BooleanFlag booleanFlag;
+
+    /**
+     * Creates feature flag configuration with provided name and context definition.
+     *
+     * @param name name of feature flag
+     * @param context context definition
+     */
+    FeatureFlagConfiguration(String name, Context<Boolean> context) {
+        super(name, context);
+        booleanFlag = BooleanFlag.compile(context);
+    }
+
+    /**
+     * @return compiled feature flag
+     */
+    BooleanFlag getBooleanFlag() {
+        return booleanFlag;
+    }
+
+    /**
+     * Returns provided configurations as feature flag configurations, compiling those, that were not read by a
+     * {@link FeatureFlagMapper}.
+     *
+     * @param configurations map of configurations
+     * @return provided map, if all configurations are compiled, otherwise new map of compiled configurations
+     */
+    static Map<String, Configuration<Boolean>> compile(Map<String, Configuration<Boolean>> configurations) {
+        Map<String, Configuration<Boolean>> compiledConfigurations = null;
+        for (Map.Entry<String, Configuration<Boolean>> mapping : configurations.entrySet()) {
+            Configuration<Boolean> configuration = mapping.getValue();
+            if (!(configuration instanceof FeatureFlagConfiguration)) {
+                if (compiledConfigurations == null) {
+                    compiledConfigurations = new HashMap<>(configurations);
+                }
+                compiledConfigurations.put(mapping.getKey(), new FeatureFlagConfiguration(configuration.getName(), configuration.getContext()));
+            }
+        }
+        return compiledConfigurations == null ? configurations : compiledConfigurations;
+    }
+}
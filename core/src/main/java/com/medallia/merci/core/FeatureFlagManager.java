@@ -15,8 +15,19 @@
  */
 package com.medallia.merci.core;
 
+import com.medallia.merci.core.structure.BooleanFlag;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
 /**
  * In-memory store for runtime feature flags.
+ *
+ * Feature flags are evaluated by their compiled {@link BooleanFlag}, so that
+ * evaluations return primitive booleans without boxing. Feature flags are compiled by the {@link FeatureFlagMapper} or,
+ * for configurations created otherwise, when they are stored.
  */
 public class FeatureFlagManager extends AbstractConfigurationManager<Boolean> {
 
@@ -27,6 +38,21 @@ public class FeatureFlagManager extends AbstractConfigurationManager<Boolean> {
         super();
     }
 
+    @Override
+    public void updateConfigurations(Map<String, Configuration<Boolean>> configurations) {
+        super.updateConfigurations(FeatureFlagConfiguration.compile(configurations));
+    }
+
+    @Override
+    public void refreshConfigurations(Map<String, Configuration<Boolean>> configurations) {
+        super.refreshConfigurations(FeatureFlagConfiguration.compile(configurations));
+    }
+
+    @Override
+    public void patchConfigurations(Map<String, Configuration<Boolean>> changedConfigurations, Collection<String> removedNames) {
+        super.patchConfigurations(FeatureFlagConfiguration.compile(changedConfigurations), removedNames);
+    }
+
     /**
      * Returns true if feature flag with given name (case-sensitive) was found and is active for provided runtime configuration context,
      * false otherwise.
@@ -46,9 +72,54 @@ public class FeatureFlagManager extends AbstractConfigurationManager<Boolean> {
      * @param name name of feature flag to be evaluate, case-sensitive
      * @param runtimeContext configuration context from request to be used for evaluation of feature flag
      * @param defaultValue default to be return in feature flag manager does not contain feature flag
-     * @return true or false if feature flag was found and is active or inactive, default value if feature flag could not be found.
+     * @return true or false if feature flag was found and is active or inactive, default value if feature flag could not be found
+     *         or has no value for provided runtime context.
      */
     public boolean isActive(String name, ConfigurationContext runtimeContext, boolean defaultValue) {
-        return getValue(name, runtimeContext, Boolean.valueOf(defaultValue)).booleanValue();
+        Configuration<Boolean> configuration = getConfiguration(name);
+        return configuration == null ? defaultValue : getBooleanFlag(configuration).isActive(runtimeContext, defaultValue);
+    }
+
+    /**
+     * Evaluates feature flags with provided names for each of provided runtime contexts, based on a single snapshot of
+     * the configuration store.
+     *
+     * @param names names of feature flags to be evaluated, case-sensitive
+     * @param runtimeContexts configuration contexts to be used for evaluation of feature flags
+     * @return matrix of results, indexed by runtime context and then by feature flag, false for missing feature flags
+     */
+    public boolean[][] evaluate(List<String> names, List<ConfigurationContext> runtimeContexts) {
+        Function<ConfigurationContext, boolean[]> evaluator = getEvaluator(names);
+        boolean[][] results = new boolean[runtimeContexts.size()][];
+        for (int contextIndex = 0; contextIndex < results.length; contextIndex++) {
+            results[contextIndex] = evaluator.apply(runtimeContexts.get(contextIndex));
+        }
+        return results;
+    }
+
+    /**
+     * Returns evaluator of feature flags with provided names, based on the current snapshot of the configuration store,
+     * so that results for many runtime contexts can be evaluated one runtime context at a time.
+     *
+     * @param names names of feature flags to be evaluated, case-sensitive
+     * @return function from runtime context to results in order of provided names, false for missing feature flags
+     */
+    public Function<ConfigurationContext, boolean[]> getEvaluator(List<String> names) {
+        List<Configuration<Boolean>> configurations = getConfigurations(names);
+        return runtimeContext -> {
+            boolean[] results = new boolean[configurations.size()];
+            for (int nameIndex = 0; nameIndex < results.length; nameIndex++) {
+                Configuration<Boolean> configuration = configurations.get(nameIndex);
+                results[nameIndex] = configuration != null && getBooleanFlag(configuration).isActive(runtimeContext, false);
+            }
+            return results;
+        };
+    }
+
+    /**
+     * @return compiled feature flag of provided stored configuration, which is always a feature flag configuration.
+     */
+    private static BooleanFlag getBooleanFlag(Configuration<Boolean> configuration) {
+        return ((FeatureFlagConfiguration) configuration).getBooleanFlag();
     }
 }
@@ -17,9 +17,11 @@ package com.medallia.merci.core;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.medallia.merci.core.metrics.InstantiateConfigurationMetrics;
+import com.medallia.merci.core.structure.Context;
 
 /**
- * Parser for feature flags.
+ * Parser for feature flags, that compiles every feature flag into a {@link com.medallia.merci.core.structure.BooleanFlag}
+ * while reading it.
  */
 public class FeatureFlagMapper extends ConfigurationMapper<Boolean> {
 
@@ -33,6 +35,29 @@ public class FeatureFlagMapper extends ConfigurationMapper<Boolean> {
                              boolean skipNonInstantiable,
                              ObjectMapper objectMapper,
                              InstantiateConfigurationMetrics metrics) {
-        super(root, skipNonInstantiable, objectMapper, metrics, className -> Boolean.class);
+        this(root, new ConfigurationMapper.Options().setSkipNonInstantiable(skipNonInstantiable), objectMapper, metrics);
+    }
+
+    /**
+     * Creates FeatureFlagMapper with provided options. Values are immutable and therefore always bound during the read and
+     * shared, regardless of the lazy binding and shared values options.
+     *
+     * @root root root field of JsonNode configurations
+     * @param options options for skipping and flattening
+     * @param objectMapper JSON deserializer, converts textual representation of config to JsonNode config object (graph)
+     */
+    public FeatureFlagMapper(String root,
+                             ConfigurationMapper.Options options,
+                             ObjectMapper objectMapper,
+                             InstantiateConfigurationMetrics metrics) {
+        super(root, options.withSharedValues(), objectMapper, metrics, className -> Boolean.class);
+    }
+
+    /**
+     * Creates feature flag configuration, whose feature flag is compiled during the read.
+     */
+    @Override
+    Configuration<Boolean> createConfiguration(String name, Context<Boolean> context) {
+        return new FeatureFlagConfiguration(name, context);
     }
 }
@@ -16,31 +16,167 @@
 package com.medallia.merci.core;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.medallia.merci.core.json.FrozenJson;
+import com.medallia.merci.core.json.JsonPath;
+
+import java.util.List;
+import java.util.function.Function;
 
 /**
- * Store for runtime JsonNode configurations.
+ * Store for runtime JSON configurations.
+ *
+ * Configurations are stored as immutable {@link FrozenJson} values, that are shared by all callers of
+ * {@link #getFrozenConfig(String, ConfigurationContext)}, while {@link #getConfig(String, ConfigurationContext)} returns
+ * a new, mutable JsonNode copy for every call.
  */
-public class JsonConfigManager extends AbstractConfigurationManager<JsonNode> {
+public class JsonConfigManager extends AbstractConfigurationManager<FrozenJson> {
 
-    private final JsonNode emptyConfiguration;
+    private final FrozenJson emptyConfiguration;
 
     /**
-     * Creates new Json Node config manager.
+     * Creates new JSON config manager.
      */
     public JsonConfigManager() {
         super();
-        emptyConfiguration = new JsonNodeFactory(false).objectNode();
+        emptyConfiguration = FrozenJson.EMPTY_OBJECT;
     }
 
     /**
-     * Return JsonNode config object (graph) if config store contains config for given config name, empty config JsonNode otherwise.
+     * Return copy of JsonNode config object (graph) if config store contains config for given config name, empty config JsonNode otherwise.
+     *
+     * Every call copies the whole configuration hierarchy into new JsonNode instances, which costs time and garbage in
+     * proportion to the size of the configuration.
      *
      * @param name name of configuration
-     * @param runtimeContext context to be used for evaluation of JsonNode configuration
-     * @return JsonNode configuration hierarchy
+     * @param runtimeContext context to be used for evaluation of JSON configuration
+     * @return new JsonNode configuration hierarchy
+     * @deprecated use {@link #getFrozenConfig(String, ConfigurationContext)}, that returns the shared value without copying
      */
+    @Deprecated
     public JsonNode getConfig(String name, ConfigurationContext runtimeContext) {
+        return getFrozenConfig(name, runtimeContext).toJsonNode();
+    }
+
+    /**
+     * Return shared, immutable config value if config store contains config for given config name, empty config value otherwise.
+     *
+     * @param name name of configuration
+     * @param runtimeContext context to be used for evaluation of JSON configuration
+     * @return frozen JSON configuration hierarchy
+     */
+    public FrozenJson getFrozenConfig(String name, ConfigurationContext runtimeContext) {
         return getValue(name, runtimeContext, emptyConfiguration);
     }
+
+    /**
+     * Return int value at provided path of config with provided name.
+     *
+     * @param name name of configuration
+     * @param runtimeContext context to be used for evaluation of JSON configuration
+     * @param path compiled path within configuration
+     * @param defaultValue value for missing configs, missing paths, null, objects and arrays
+     * @return value at path, converted like {@link FrozenJson#asInt()}
+     */
+    public int getInt(String name, ConfigurationContext runtimeContext, JsonPath path, int defaultValue) {
+        FrozenJson value = getScalar(name, runtimeContext, path);
+        return value == null ? defaultValue : value.asInt();
+    }
+
+    /**
+     * Return long value at provided path of config with provided name.
+     *
+     * @param name name of configuration
+     * @param runtimeContext context to be used for evaluation of JSON configuration
+     * @param path compiled path within configuration
+     * @param defaultValue value for missing configs, missing paths, null, objects and arrays
+     * @return value at path, converted like {@link FrozenJson#asLong()}
+     */
+    public long getLong(String name, ConfigurationContext runtimeContext, JsonPath path, long defaultValue) {
+        FrozenJson value = getScalar(name, runtimeContext, path);
+        return value == null ? defaultValue : value.asLong();
+    }
+
+    /**
+     * Return text value at provided path of config with provided name.
+     *
+     * @param name name of configuration
+     * @param runtimeContext context to be used for evaluation of JSON configuration
+     * @param path compiled path within configuration
+     * @param defaultValue value for missing configs, missing paths, null, objects and arrays
+     * @return value at path, converted like {@link FrozenJson#asText()}
+     */
+    public String getString(String name, ConfigurationContext runtimeContext, JsonPath path, String defaultValue) {
+        FrozenJson value = getScalar(name, runtimeContext, path);
+        return value == null ? defaultValue : value.asText();
+    }
+
+    /**
+     * Return boolean value at provided path of config with provided name.
+     *
+     * @param name name of configuration
+     * @param runtimeContext context to be used for evaluation of JSON configuration
+     * @param path compiled path within configuration
+     * @param defaultValue value for missing configs, missing paths, null, objects and arrays
+     * @return value at path, converted like {@link FrozenJson#asBoolean()}
+     */
+    public boolean getBoolean(String name, ConfigurationContext runtimeContext, JsonPath path, boolean defaultValue) {
+        FrozenJson value = getScalar(name, runtimeContext, path);
+        return value == null ? defaultValue : value.asBoolean();
+    }
+
+    /**
+     * Return elements of array at provided path of config with provided name.
+     *
+     * @param name name of configuration
+     * @param runtimeContext context to be used for evaluation of JSON configuration
+     * @param path compiled path within configuration
+     * @return read-only list of elements, empty list for missing configs, missing paths and values other than arrays
+     */
+    public List<FrozenJson> getList(String name, ConfigurationContext runtimeContext, JsonPath path) {
+        return path.resolveList(getFrozenConfig(name, runtimeContext));
+    }
+
+    /**
+     * @return scalar value at provided path, null for missing values, null, objects and arrays
+     */
+    private FrozenJson getScalar(String name, ConfigurationContext runtimeContext, JsonPath path) {
+        FrozenJson value = path.resolve(getFrozenConfig(name, runtimeContext));
+        return value == null || value.isNull() || value.isObject() || value.isArray() ? null : value;
+    }
+
+    /**
+     * Evaluates configs with provided names for each of provided runtime contexts, based on a single snapshot of the
+     * configuration store.
+     *
+     * @param names names of configurations
+     * @param runtimeContexts contexts to be used for evaluation of JSON configurations
+     * @return matrix of frozen JSON configuration hierarchies, indexed by runtime context and then by config, empty config for missing configs
+     */
+    public FrozenJson[][] evaluate(List<String> names, List<ConfigurationContext> runtimeContexts) {
+        Function<ConfigurationContext, FrozenJson[]> evaluator = getEvaluator(names);
+        FrozenJson[][] results = new FrozenJson[runtimeContexts.size()][];
+        for (int contextIndex = 0; contextIndex < results.length; contextIndex++) {
+            results[contextIndex] = evaluator.apply(runtimeContexts.get(contextIndex));
+        }
+        return results;
+    }
+
+    /**
+     * Returns evaluator of configs with provided names, based on the current snapshot of the configuration store, so
+     * that results for many runtime contexts can be evaluated one runtime context at a time.
+     *
+     * @param names names of configurations
+     * @return function from runtime context to frozen JSON configuration hierarchies in order of provided names, empty config for missing configs
+     */
+    public Function<ConfigurationContext, FrozenJson[]> getEvaluator(List<String> names) {
+        List<Configuration<FrozenJson>> configurations = getConfigurations(names);
+        return runtimeContext -> {
+            FrozenJson[] results = new FrozenJson[configurations.size()];
+            for (int nameIndex = 0; nameIndex < results.length; nameIndex++) {
+                Configuration<FrozenJson> configuration = configurations.get(nameIndex);
+                results[nameIndex] = configuration == null ? emptyConfiguration : configuration.getValue(runtimeContext);
+            }
+            return results;
+        };
+    }
 }
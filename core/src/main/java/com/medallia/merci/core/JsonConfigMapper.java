@@ -15,25 +15,40 @@
  */
 package com.medallia.merci.core;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medallia.merci.core.json.FrozenJson;
 import com.medallia.merci.core.metrics.InstantiateConfigurationMetrics;
 
 /**
- * Parser for JsonNode configurations.
+ * Parser for JSON configurations, that are bound to immutable {@link FrozenJson} values.
  */
-public class JsonConfigMapper extends ConfigurationMapper<JsonNode> {
+public class JsonConfigMapper extends ConfigurationMapper<FrozenJson> {
 
     /**
      * Creates JsonConfigMapper.
      *
      * @root root root field of JsonNode configurations
-     * @param objectMapper JSON deserializer, converts textual representation of config to JsonNode config object (graph)
+     * @param objectMapper JSON deserializer, converts textual representation of config to frozen JSON config value
      */
     public JsonConfigMapper(String root,
                             boolean skipNonInstantiable,
                             ObjectMapper objectMapper,
                             InstantiateConfigurationMetrics metrics) {
-        super(root, skipNonInstantiable, objectMapper, metrics, className -> JsonNode.class);
+        this(root, new ConfigurationMapper.Options().setSkipNonInstantiable(skipNonInstantiable), objectMapper, metrics);
+    }
+
+    /**
+     * Creates JsonConfigMapper with provided options. Values are immutable and therefore always bound during the read and
+     * shared, regardless of the lazy binding and shared values options.
+     *
+     * @root root root field of JsonNode configurations
+     * @param options options for skipping and flattening
+     * @param objectMapper JSON deserializer, converts textual representation of config to frozen JSON config value
+     */
+    public JsonConfigMapper(String root,
+                            ConfigurationMapper.Options options,
+                            ObjectMapper objectMapper,
+                            InstantiateConfigurationMetrics metrics) {
+        super(root, options.withSharedValues(), objectMapper, metrics, className -> FrozenJson.class);
     }
 }
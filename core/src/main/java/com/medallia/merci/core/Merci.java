@@ -15,9 +15,12 @@
  */
 package com.medallia.merci.core;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medallia.merci.core.fetcher.ConfigurationDeltaFetcher;
 import com.medallia.merci.core.fetcher.ConfigurationFetcher;
+import com.medallia.merci.core.fetcher.DeadlineConfigurationDeltaFetcher;
+import com.medallia.merci.core.fetcher.DeadlineConfigurationFetcher;
+import com.medallia.merci.core.filesystem.ConfigurationFetcherMetrics;
 import com.medallia.merci.core.metrics.ConfigMetrics;
 import com.medallia.merci.core.metrics.ConfigurationLoaderMetrics;
 import com.medallia.merci.core.metrics.FeatureFlagMetrics;
@@ -32,9 +35,14 @@ import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
 
 /**
  * Main Merci initializer, that creates {@link FeatureFlagManager}, {@link ConfigManager}, {@link JsonConfigManager}
@@ -46,10 +54,17 @@ public final class Merci {
     private final ScheduledExecutorService executorService;
     private final ObjectMapper objectMapper;
     private final MessageDigest digest;
-    private final List<ConfigurationReader> readers;
+    private final List<ConfigurationTask> readers;
+    private final Map<ConfigurationTask, RefreshPolicy> refreshPolicies;
     private ConfigurationLoaderMetrics metrics;
     private boolean skipNonInstantiable;
+    private boolean flattenModifiers;
+    private boolean overlayFiles;
     private int maximumSkips;
+    private Duration fetchDeadline;
+    private double hedgePercentile;
+    private ConfigurationFetcherMetrics fetcherMetrics;
+    private ExecutorService fetchExecutorService;
 
     /**
      * Creates main Merci initializer with provided configuration fetcher.
@@ -74,6 +89,7 @@ public final class Merci {
         this.objectMapper = objectMapper;
         this.digest = digest;
         readers = new ArrayList<>();
+        refreshPolicies = new HashMap<>();
         skipNonInstantiable = true;
         maximumSkips = 0;
     }
@@ -96,6 +112,24 @@ public final class Merci {
         this.maximumSkips = maximumSkips;
     }
 
+    /**
+     * Runs fetches and delta fetches of all managers built afterwards with a deadline on separate threads, so that hung
+     * fetches are cancelled instead of blocking the threads of the loader, and optionally hedges slow fetches. The threads
+     * are released by {@link ConfigurationLoader#shutdown()}.
+     *
+     * @param fetchDeadline maximum duration of a fetch
+     * @param hedgePercentile percentile between 0 and 1 of recent latencies of a manager's fetches, after which a hedged
+     *                        fetch is issued, 0 for no hedging
+     * @param fetcherMetrics metrics for timeouts and hedged fetches
+     * @see DeadlineConfigurationFetcher
+     * @see DeadlineConfigurationDeltaFetcher
+     */
+    public void setFetchDeadline(Duration fetchDeadline, double hedgePercentile, ConfigurationFetcherMetrics fetcherMetrics) {
+        this.fetchDeadline = fetchDeadline;
+        this.hedgePercentile = hedgePercentile;
+        this.fetcherMetrics = fetcherMetrics;
+    }
+
     /**
      * Continues loading configurations, just skip each non-instantiable configuration.
      */
@@ -110,6 +144,23 @@ public final class Merci {
         skipNonInstantiable = false;
     }
 
+    /**
+     * Flattens nested modifiers of loaded configurations into composite modifiers, where evaluation results are unchanged.
+     */
+    public void flattenModifiers() {
+        flattenModifiers = true;
+    }
+
+    /**
+     * Deep-merges configurations of the same name across all files of managers built afterwards, in order of registration,
+     * instead of replacing configurations of earlier files, and resolves include directives of files.
+     *
+     * @see ConfigurationOverlay
+     */
+    public void overlayFiles() {
+        overlayFiles = true;
+    }
+
     /**
      * Creates builder with new {@link FeatureFlagManager} for provided application.
      *
@@ -141,30 +192,54 @@ public final class Merci {
     }
 
     /**
-     * Creates new {@link ConfigurationLoader} with provided refresh interval and immediately start it.
+     * Creates new {@link ConfigurationLoader} with provided fixed refresh interval and immediately start it.
      *
      * @param refreshInterval interval between cycles of loading configuration
      * @return new, started configuration loader
      */
     public ConfigurationLoader createAndStartLoader(Duration refreshInterval) {
-        ConfigurationLoader loader = createLoader(refreshInterval);
+        return createAndStartLoader(RefreshPolicy.fixed(refreshInterval));
+    }
+
+    /**
+     * Creates new {@link ConfigurationLoader} with provided refresh policy and immediately start it.
+     *
+     * @param refreshPolicy policy for delays between cycles of loading configuration
+     * @return new, started configuration loader
+     */
+    public ConfigurationLoader createAndStartLoader(RefreshPolicy refreshPolicy) {
+        ConfigurationLoader loader = createLoader(refreshPolicy);
         loader.start();
         return loader;
     }
 
     /**
-     * Creates new {@link ConfigurationLoader} with provided refresh interval.
+     * Creates new {@link ConfigurationLoader} with provided fixed refresh interval.
      *
      * @param refreshInterval interval between cycles of loading configuration
      * @return new configuration loader
      */
     public ConfigurationLoader createLoader(Duration refreshInterval) {
+        return createLoader(RefreshPolicy.fixed(refreshInterval));
+    }
+
+    /**
+     * Creates new {@link ConfigurationLoader} with provided refresh policy for all managers without their own refresh
+     * interval or policy.
+     *
+     * @param refreshPolicy policy for delays between cycles of loading configuration
+     * @return new configuration loader
+     */
+    public ConfigurationLoader createLoader(RefreshPolicy refreshPolicy) {
         if (metrics == null) {
             metrics = new ConfigurationLoaderMetrics();
         }
         ConfigurationLoader loader = new ConfigurationLoader(metrics, Collections.unmodifiableList(new ArrayList<>(readers)),
-                executorService, refreshInterval);
+                executorService, refreshPolicy, Collections.unmodifiableMap(new HashMap<>(refreshPolicies)), fetchExecutorService);
         readers.clear();
+        refreshPolicies.clear();
+        //readers of later loaders get a new executor service, as this one is shut down with this loader.
+        fetchExecutorService = null;
         return loader;
     }
 
@@ -177,6 +252,8 @@ public final class Merci {
         private final List<String> fileNames;
         private final String rootNode;
         private FeatureFlagMetrics metrics;
+        private ConfigurationDeltaFetcher deltaFetcher;
+        private RefreshPolicy refreshPolicy;
 
         /**
          * Creates builder for {@link FeatureFlagManager}.
@@ -203,6 +280,30 @@ public final class Merci {
             return this;
         }
 
+        /**
+         * Set fetcher for deltas, that patch the store instead of reading registered files.
+         */
+        public FeatureFlagManagerBuilder setDeltaFetcher(ConfigurationDeltaFetcher deltaFetcher) {
+            this.deltaFetcher = deltaFetcher;
+            return this;
+        }
+
+        /**
+         * Set fixed refresh interval of this manager, instead of the interval of the loader.
+         */
+        public FeatureFlagManagerBuilder setRefreshInterval(Duration refreshInterval) {
+            this.refreshPolicy = RefreshPolicy.fixed(refreshInterval);
+            return this;
+        }
+
+        /**
+         * Set refresh policy of this manager, instead of the refresh policy of the loader.
+         */
+        public FeatureFlagManagerBuilder setRefreshPolicy(RefreshPolicy refreshPolicy) {
+            this.refreshPolicy = refreshPolicy;
+            return this;
+        }
+
         /**
          * @return {@link FeatureFlagManager}.
          */
@@ -211,9 +312,18 @@ public final class Merci {
             if (metrics == null) {
                 metrics = new FeatureFlagMetrics();
             }
-            FeatureFlagMapper featureFlagMapper = new FeatureFlagMapper(rootNode, skipNonInstantiable, objectMapper, metrics);
-            ConfigurationReader<Boolean> featureFlagReader = new ConfigurationReader<>(application, fileNames, fetcher, featureFlagMapper, featureFlagManager, digest, metrics, maximumSkips);
-            readers.add(featureFlagReader);
+            FeatureFlagMapper featureFlagMapper = new FeatureFlagMapper(rootNode, mapperOptions(), objectMapper, metrics);
+            ConfigurationTask reader;
+            if (deltaFetcher == null) {
+                reader = new ConfigurationReader<>(application, fileNames, readerFetcher(), featureFlagMapper, featureFlagManager, digest, metrics, maximumSkips,
+                        overlay());
+            } else {
+                reader = new DeltaConfigurationReader<>(application, rootNode, readerDeltaFetcher(deltaFetcher), featureFlagMapper, featureFlagManager, metrics);
+            }
+            readers.add(reader);
+            if (refreshPolicy != null) {
+                refreshPolicies.put(reader, refreshPolicy);
+            }
             return featureFlagManager;
         }
     }
@@ -226,8 +336,14 @@ public final class Merci {
         private final String application;
         private final List<String> fileNames;
         private final String rootNode;
-        private final ClassFinder<Object> classFinder;
+        private ClassFinder<Object> classFinder;
         private ConfigMetrics metrics;
+        private ConfigurationDeltaFetcher deltaFetcher;
+        private RefreshPolicy refreshPolicy;
+        private boolean lazyBinding;
+        private boolean sharedValues;
+        private final Map<Class<?>, Supplier<?>> defaultSuppliers;
+        private final List<Class<?>> mutableDefaults;
 
         /**
          * Creates builder for {@link ConfigManager}.
@@ -237,6 +353,8 @@ public final class Merci {
             this.fileNames = new ArrayList<>();
             rootNode = "configs";
             classFinder = new DefaultClassFinder();
+            defaultSuppliers = new LinkedHashMap<>();
+            mutableDefaults = new ArrayList<>();
         }
 
         /**
@@ -255,17 +373,97 @@ public final class Merci {
             return this;
         }
 
+        /**
+         * Set fetcher for deltas, that patch the store instead of reading registered files.
+         */
+        public ConfigManagerBuilder setDeltaFetcher(ConfigurationDeltaFetcher deltaFetcher) {
+            this.deltaFetcher = deltaFetcher;
+            return this;
+        }
+
+        /**
+         * Set fixed refresh interval of this manager, instead of the interval of the loader.
+         */
+        public ConfigManagerBuilder setRefreshInterval(Duration refreshInterval) {
+            this.refreshPolicy = RefreshPolicy.fixed(refreshInterval);
+            return this;
+        }
+
+        /**
+         * Set refresh policy of this manager, instead of the refresh policy of the loader.
+         */
+        public ConfigManagerBuilder setRefreshPolicy(RefreshPolicy refreshPolicy) {
+            this.refreshPolicy = refreshPolicy;
+            return this;
+        }
+
+        /**
+         * Set class finder for config classes, i.e. a shared {@link DefaultClassFinder}, whose missing classes are
+         * invalidated after deploying new config classes.
+         */
+        public ConfigManagerBuilder setClassFinder(ClassFinder<Object> classFinder) {
+            this.classFinder = classFinder;
+            return this;
+        }
+
+        /**
+         * Bind config objects on first evaluation instead of on every load, see {@link ConfigurationMapper}. Building
+         * the manager fails with an {@link IllegalArgumentException}, if non-instantiable configurations are not skipped.
+         */
+        public ConfigManagerBuilder setLazyBinding(boolean lazyBinding) {
+            this.lazyBinding = lazyBinding;
+            return this;
+        }
+
+        /**
+         * Share one config object between all contexts with structurally identical JSON values, only for immutable
+         * config objects, see {@link ConfigurationMapper}.
+         */
+        public ConfigManagerBuilder setSharedValues(boolean sharedValues) {
+            this.sharedValues = sharedValues;
+            return this;
+        }
+
+        /**
+         * Register supplier of default config objects for class, instead of its default constructor.
+         */
+        public <T> ConfigManagerBuilder registerDefault(Class<T> clazz, Supplier<? extends T> supplier) {
+            defaultSuppliers.put(clazz, supplier);
+            return this;
+        }
+
+        /**
+         * Register class, whose default config objects are mutable and therefore created for every call.
+         */
+        public ConfigManagerBuilder registerMutableDefault(Class<?> clazz) {
+            mutableDefaults.add(clazz);
+            return this;
+        }
+
         /**
          * @return {@link ConfigManager}.
          */
+        @SuppressWarnings("unchecked")
         public ConfigManager build() {
             ConfigManager configManager = new ConfigManager();
+            defaultSuppliers.forEach((clazz, supplier) -> configManager.registerDefault((Class<Object>) clazz, supplier));
+            mutableDefaults.forEach(configManager::registerMutableDefault);
             if (metrics == null) {
                 metrics = new ConfigMetrics();
             }
-            ConfigurationMapper<Object> configMapper = new ConfigurationMapper<>(rootNode, skipNonInstantiable, objectMapper, metrics, classFinder);
-            ConfigurationReader<Object> configReader = new ConfigurationReader<>(application, fileNames, fetcher, configMapper, configManager, digest, metrics, maximumSkips);
-            readers.add(configReader);
+            ConfigurationMapper<Object> configMapper = new ConfigurationMapper<>(rootNode,
+                    mapperOptions().setLazyBinding(lazyBinding).setSharedValues(sharedValues), objectMapper, metrics, classFinder);
+            ConfigurationTask reader;
+            if (deltaFetcher == null) {
+                reader = new ConfigurationReader<>(application, fileNames, readerFetcher(), configMapper, configManager, digest, metrics, maximumSkips,
+                        overlay());
+            } else {
+                reader = new DeltaConfigurationReader<>(application, rootNode, readerDeltaFetcher(deltaFetcher), configMapper, configManager, metrics);
+            }
+            readers.add(reader);
+            if (refreshPolicy != null) {
+                refreshPolicies.put(reader, refreshPolicy);
+            }
             return configManager;
         }
     }
@@ -279,6 +477,8 @@ public final class Merci {
         private final List<String> fileNames;
         private final String rootNode;
         private JsonConfigMetrics metrics;
+        private ConfigurationDeltaFetcher deltaFetcher;
+        private RefreshPolicy refreshPolicy;
 
         /**
          * Creates builder for {@link JsonConfigManager}.
@@ -305,6 +505,30 @@ public final class Merci {
             return this;
         }
 
+        /**
+         * Set fetcher for deltas, that patch the store instead of reading registered files.
+         */
+        public JsonConfigManagerBuilder setDeltaFetcher(ConfigurationDeltaFetcher deltaFetcher) {
+            this.deltaFetcher = deltaFetcher;
+            return this;
+        }
+
+        /**
+         * Set fixed refresh interval of this manager, instead of the interval of the loader.
+         */
+        public JsonConfigManagerBuilder setRefreshInterval(Duration refreshInterval) {
+            this.refreshPolicy = RefreshPolicy.fixed(refreshInterval);
+            return this;
+        }
+
+        /**
+         * Set refresh policy of this manager, instead of the refresh policy of the loader.
+         */
+        public JsonConfigManagerBuilder setRefreshPolicy(RefreshPolicy refreshPolicy) {
+            this.refreshPolicy = refreshPolicy;
+            return this;
+        }
+
         /**
          * @return {@link JsonConfigManager}.
          */
@@ -313,13 +537,66 @@ public final class Merci {
             if (metrics == null) {
                 metrics = new JsonConfigMetrics();
             }
-            JsonConfigMapper configMapper = new JsonConfigMapper(rootNode, skipNonInstantiable, objectMapper, metrics);
-            ConfigurationReader<JsonNode> configReader = new ConfigurationReader<>(application, fileNames, fetcher, configMapper, configManager, digest, metrics, maximumSkips);
-            readers.add(configReader);
+            JsonConfigMapper configMapper = new JsonConfigMapper(rootNode, mapperOptions(), objectMapper, metrics);
+            ConfigurationTask reader;
+            if (deltaFetcher == null) {
+                reader = new ConfigurationReader<>(application, fileNames, readerFetcher(), configMapper, configManager, digest, metrics, maximumSkips,
+                        overlay());
+            } else {
+                reader = new DeltaConfigurationReader<>(application, rootNode, readerDeltaFetcher(deltaFetcher), configMapper, configManager, metrics);
+            }
+            readers.add(reader);
+            if (refreshPolicy != null) {
+                refreshPolicies.put(reader, refreshPolicy);
+            }
             return configManager;
         }
     }
 
+    /**
+     * @return new mapper options for skipping non-instantiable configurations and flattening modifiers.
+     */
+    private ConfigurationMapper.Options mapperOptions() {
+        return new ConfigurationMapper.Options().setSkipNonInstantiable(skipNonInstantiable).setFlattenModifiers(flattenModifiers);
+    }
+
+    /**
+     * @return fetcher for a single reader, with deadline if configured.
+     */
+    private ConfigurationFetcher readerFetcher() {
+        if (fetchDeadline == null) {
+            return fetcher;
+        }
+        return new DeadlineConfigurationFetcher(fetcher, fetchExecutorService(), fetchDeadline, hedgePercentile, fetcherMetrics);
+    }
+
+    /**
+     * @return provided delta fetcher for a single reader, with deadline if configured.
+     */
+    private ConfigurationDeltaFetcher readerDeltaFetcher(ConfigurationDeltaFetcher deltaFetcher) {
+        if (fetchDeadline == null) {
+            return deltaFetcher;
+        }
+        return new DeadlineConfigurationDeltaFetcher(deltaFetcher, fetchExecutorService(), fetchDeadline, hedgePercentile, fetcherMetrics);
+    }
+
+    /**
+     * @return executor service for fetches with deadline, shared by all readers and shut down by their loader.
+     */
+    private ExecutorService fetchExecutorService() {
+        if (fetchExecutorService == null) {
+            fetchExecutorService = DeadlineConfigurationFetcher.newExecutorService();
+        }
+        return fetchExecutorService;
+    }
+
+    /**
+     * @return new overlay for a reader, null if files are not overlaid.
+     */
+    private ConfigurationOverlay overlay() {
+        return overlayFiles ? new ConfigurationOverlay(objectMapper) : null;
+    }
+
     /**
      * @return SHA-256 message digest instance.
      * @throws IllegalStateException in case lookup throws NoSuchAlgorithmException
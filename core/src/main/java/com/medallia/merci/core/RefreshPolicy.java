@@ -0,0 +1,158 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Policy for the delays between executions of a configuration reader by the {@link ConfigurationLoader}.
+ *
+ * After an execution, that changed configurations, the next execution follows after the minimum interval, as changes
+ * tend to come in bursts. Every unchanged execution doubles the delay up to the refresh interval and, if configured, after
+ * a number of stable executions up to the maximum interval. Consecutive failures back off exponentially from the refresh interval
+ * up to the maximum interval. Every delay is randomly spread by the jitter, so that a fleet of processes, that were
+ * started together, does not poll the configuration source in lockstep.
+ *
+ * @Immutable
+ */
+public final class RefreshPolicy {
+
+    private static final long ADAPTIVE_SPEEDUP = 4;
+    private static final long ADAPTIVE_SLOWDOWN = 8;
+    private static final int ADAPTIVE_STABLE_EXECUTIONS = 10;
+    private static final double ADAPTIVE_JITTER = 0.1;
+
+    private final long interval;
+    private final long minimumInterval;
+    private final long maximumInterval;
+    private final int stableExecutions;
+    private final double jitter;
+
+    /**
+     * Creates refresh policy.
+     *
+     * @param interval regular interval between executions
+     * @param minimumInterval interval after an execution, that changed configurations
+     * @param maximumInterval upper bound of intervals after stable periods and failures
+     * @param stableExecutions number of consecutive unchanged executions, after which intervals exceed the regular interval
+     * @param jitter fraction between 0 and 1, by which every interval is randomly shortened or lengthened
+     * @throws IllegalArgumentException if intervals are not positive or not ordered, or jitter is out of range
+     */
+    public RefreshPolicy(Duration interval, Duration minimumInterval, Duration maximumInterval, int stableExecutions, double jitter) {
+        this.interval = interval.toMillis();
+        this.minimumInterval = minimumInterval.toMillis();
+        this.maximumInterval = maximumInterval.toMillis();
+        this.stableExecutions = stableExecutions;
+        this.jitter = jitter;
+        if (this.minimumInterval <= 0 || this.minimumInterval > this.interval || this.interval > this.maximumInterval) {
+            throw new IllegalArgumentException("Intervals must be positive and ordered: " + minimumInterval + " <= " + interval + " <= " + maximumInterval);
+        }
+        if (jitter < 0 || jitter >= 1) {
+            throw new IllegalArgumentException("Jitter must be at least 0 and less than 1: " + jitter);
+        }
+    }
+
+    /**
+     * Creates refresh policy, that always waits provided interval between executions, like a fixed delay schedule.
+     *
+     * @param interval interval between executions
+     * @return new fixed refresh policy
+     */
+    public static RefreshPolicy fixed(Duration interval) {
+        return new RefreshPolicy(interval, interval, interval, Integer.MAX_VALUE, 0);
+    }
+
+    /**
+     * Creates adaptive refresh policy for provided regular interval with 10% jitter, a quarter of the interval after
+     * changes and up to eight times the interval on failures. Unchanged executions never wait longer than the interval.
+     *
+     * @param interval regular interval between executions
+     * @return new adaptive refresh policy
+     */
+    public static RefreshPolicy adaptive(Duration interval) {
+        return new RefreshPolicy(interval, speedup(interval), interval.multipliedBy(ADAPTIVE_SLOWDOWN), Integer.MAX_VALUE,
+                ADAPTIVE_JITTER);
+    }
+
+    /**
+     * Creates adaptive refresh policy for provided regular interval with 10% jitter, a quarter of the interval after
+     * changes and up to provided stable interval after 10 stable executions or on failures.
+     *
+     * @param interval regular interval between executions
+     * @param stableInterval upper bound of intervals after stable periods and failures
+     * @return new adaptive refresh policy
+     * @throws IllegalArgumentException if stable interval is shorter than the regular interval
+     */
+    public static RefreshPolicy adaptive(Duration interval, Duration stableInterval) {
+        return new RefreshPolicy(interval, speedup(interval), stableInterval, ADAPTIVE_STABLE_EXECUTIONS, ADAPTIVE_JITTER);
+    }
+
+    private static Duration speedup(Duration interval) {
+        Duration minimumInterval = interval.dividedBy(ADAPTIVE_SPEEDUP);
+        return minimumInterval.toMillis() > 0 ? minimumInterval : interval;
+    }
+
+    /**
+     * @return regular interval in milliseconds.
+     */
+    public long getInterval() {
+        return interval;
+    }
+
+    /**
+     * Returns delay in milliseconds after an execution, that changed configurations.
+     *
+     * @return delay without jitter
+     */
+    long afterChange() {
+        return minimumInterval;
+    }
+
+    /**
+     * Returns delay in milliseconds after an execution without changes.
+     *
+     * @param previousDelay previous delay without jitter
+     * @param unchangedExecutions number of consecutive unchanged executions, including this one
+     * @return delay without jitter
+     */
+    long afterUnchanged(long previousDelay, int unchangedExecutions) {
+        long limit = unchangedExecutions >= stableExecutions ? maximumInterval : interval;
+        return Math.max(minimumInterval, Math.min(limit, previousDelay > limit / 2 ? limit : previousDelay * 2));
+    }
+
+    /**
+     * Returns delay in milliseconds after a failed execution.
+     *
+     * @param failures number of consecutive failures, including this one
+     * @return delay without jitter
+     */
+    long afterFailure(int failures) {
+        int doublings = Math.min(failures - 1, Long.numberOfLeadingZeros(interval) - 1);
+        return Math.min(maximumInterval, interval << doublings);
+    }
+
+    /**
+     * @return provided delay, randomly shortened or lengthened by the jitter.
+     */
+    long withJitter(long delay) {
+        if (jitter == 0) {
+            return delay;
+        }
+        double factor = 1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        return Math.max(1, Math.round(delay * factor));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.fetcher;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Delta of configurations, changed in a remote configuration store since a generation.
+ *
+ * The JSON document of a delta has the fields "epoch", "generation", "complete" and "removed" next to the root field of
+ * its configurations, i.e. <code>{ "epoch" : "...", "generation" : 42, "complete" : false, "removed" : [ "old-flag" ],
+ * "feature-flags" : { "new-flag" : { "value" : true } } }</code>. A complete delta contains all configurations and
+ * replaces the local store, otherwise it contains only added and changed configurations.
+ */
+public final class ConfigurationDelta {
+
+    /** Field name of epoch, that changes whenever generations of the remote store restart. */
+    public static final String EPOCH = "epoch";
+
+    /** Field name of generation of the remote store. */
+    public static final String GENERATION = "generation";
+
+    /** Field name of flag for complete deltas. */
+    public static final String COMPLETE = "complete";
+
+    /** Field name of names of removed configurations. */
+    public static final String REMOVED = "removed";
+
+    private final String epoch;
+    private final long generation;
+    private final boolean complete;
+    private final List<String> removedNames;
+    private final JsonNode document;
+
+    /**
+     * Creates delta of configurations.
+     *
+     * @param epoch epoch of remote store
+     * @param generation generation of remote store, that results from applying this delta
+     * @param complete true, if delta contains all configurations
+     * @param removedNames names of removed configurations
+     * @param document JSON document with root field of added and changed configurations
+     */
+    public ConfigurationDelta(String epoch, long generation, boolean complete, List<String> removedNames, JsonNode document) {
+        this.epoch = epoch;
+        this.generation = generation;
+        this.complete = complete;
+        this.removedNames = Collections.unmodifiableList(removedNames);
+        this.document = document;
+    }
+
+    /**
+     * @return epoch of remote store.
+     */
+    public String getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * @return generation of remote store, that results from applying this delta.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @return true, if delta contains all configurations.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * @return names of removed configurations.
+     */
+    public List<String> getRemovedNames() {
+        return removedNames;
+    }
+
+    /**
+     * @return JSON document with root field of added and changed configurations.
+     */
+    public JsonNode getDocument() {
+        return document;
+    }
+}
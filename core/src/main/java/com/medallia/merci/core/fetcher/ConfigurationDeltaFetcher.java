@@ -0,0 +1,40 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.fetcher;
+
+import java.io.IOException;
+
+/**
+ * Fetcher for deltas of configurations from a remote configuration store, i.e. the Merci web service.
+ */
+@FunctionalInterface
+public interface ConfigurationDeltaFetcher {
+
+    /**
+     * Fetches delta of configurations with provided root field, changed since provided generation.
+     *
+     * If provided epoch does not match the epoch of the remote store or provided generation is not available anymore,
+     * the returned delta is complete.
+     *
+     * @param application name of application
+     * @param root root field of configurations, i.e. "feature-flags"
+     * @param epoch epoch of last fetched delta, empty if none
+     * @param generation generation of last fetched delta
+     * @return delta of configurations
+     * @throws IOException in case of a failure
+     */
+    ConfigurationDelta fetch(String application, String root, String epoch, long generation) throws IOException;
+}
@@ -27,6 +27,9 @@ public interface ConfigurationFetcher {
     /**
      * Return map of configuration content from local or remote files.
      *
+     * Fetchers may return the identical map instance of their previous fetch to signal unchanged content, i.e. after
+     * conditional requests, so that readers skip hashing and parsing of the content.
+     *
      * @param fileNames names of configuration files
      * @param application name of application
      * @return map with file names and configuration content
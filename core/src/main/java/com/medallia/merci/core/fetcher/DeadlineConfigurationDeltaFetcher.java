@@ -0,0 +1,57 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.fetcher;
+
+import com.medallia.merci.core.filesystem.ConfigurationFetcherMetrics;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Configuration delta fetcher, that runs fetches of another delta fetcher on its own threads with a deadline and
+ * optional hedged fetches, like {@link DeadlineConfigurationFetcher}.
+ */
+public class DeadlineConfigurationDeltaFetcher implements ConfigurationDeltaFetcher {
+
+    private final ConfigurationDeltaFetcher deltaFetcher;
+    private final DeadlineExecution execution;
+
+    /**
+     * Creates delta fetcher with a deadline and optional hedged fetches.
+     *
+     * @param deltaFetcher delta fetcher, whose fetches are run with deadline
+     * @param executorService executor service for fetches, should not limit the number of threads
+     * @param deadline maximum duration of a fetch, including its hedged fetch
+     * @param hedgePercentile percentile between 0 and 1 of recent latencies, after which a hedged fetch is issued, 0 for no hedging
+     * @param metrics metrics
+     * @throws IllegalArgumentException in case of a percentile out of range
+     */
+    public DeadlineConfigurationDeltaFetcher(ConfigurationDeltaFetcher deltaFetcher,
+                                             ExecutorService executorService,
+                                             Duration deadline,
+                                             double hedgePercentile,
+                                             ConfigurationFetcherMetrics metrics) {
+        this.deltaFetcher = deltaFetcher;
+        execution = new DeadlineExecution(executorService, deadline, hedgePercentile, metrics);
+    }
+
+    @Override
+    public ConfigurationDelta fetch(String application, String root, String epoch, long generation) throws IOException {
+        return execution.call(() -> deltaFetcher.fetch(application, root, epoch, generation),
+                "delta of " + root + " for " + application);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.fetcher;
+
+import com.medallia.merci.core.filesystem.ConfigurationFetcherMetrics;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Configuration fetcher, that runs fetches of another fetcher on its own threads with a deadline, so that a hung fetch
+ * never blocks the threads of the {@link com.medallia.merci.core.ConfigurationLoader}.
+ *
+ * A fetch, that does not finish within the deadline, is cancelled by interrupting its thread. Optionally, a hedged
+ * second fetch is issued, once the first fetch takes longer than a percentile of the latencies of recent successful
+ * fetches. The first successful fetch wins and the other one is cancelled. While a cancelled fetch ignores its interrupt
+ * and keeps running, further fetches are skipped with an exception, so that a hung source does not leak threads.
+ */
+public class DeadlineConfigurationFetcher implements ConfigurationFetcher {
+
+    private final ConfigurationFetcher fetcher;
+    private final DeadlineExecution execution;
+
+    /**
+     * Creates fetcher with a deadline and without hedged fetches, running fetches on daemon threads.
+     *
+     * @param fetcher fetcher, whose fetches are run with deadline
+     * @param deadline maximum duration of a fetch
+     * @param metrics metrics
+     */
+    public DeadlineConfigurationFetcher(ConfigurationFetcher fetcher, Duration deadline, ConfigurationFetcherMetrics metrics) {
+        this(fetcher, newExecutorService(), deadline, 0, metrics);
+    }
+
+    /**
+     * Creates fetcher with a deadline and optional hedged fetches.
+     *
+     * @param fetcher fetcher, whose fetches are run with deadline
+     * @param executorService executor service for fetches, should not limit the number of threads
+     * @param deadline maximum duration of a fetch, including its hedged fetch
+     * @param hedgePercentile percentile between 0 and 1 of recent latencies, after which a hedged fetch is issued, 0 for no hedging
+     * @param metrics metrics
+     * @throws IllegalArgumentException in case of a percentile out of range
+     */
+    public DeadlineConfigurationFetcher(ConfigurationFetcher fetcher,
+                                        ExecutorService executorService,
+                                        Duration deadline,
+                                        double hedgePercentile,
+                                        ConfigurationFetcherMetrics metrics) {
+        this.fetcher = fetcher;
+        execution = new DeadlineExecution(executorService, deadline, hedgePercentile, metrics);
+    }
+
+    @Override
+    public Map<String, String> fetch(List<String> fileNames, String application) throws IOException {
+        return execution.call(() -> fetcher.fetch(fileNames, application), fileNames + " for " + application);
+    }
+
+    /**
+     * Creates executor service for fetches, that starts daemon threads as needed, as cancelled fetches, that ignore
+     * interrupts, may keep their threads. Each fetcher holds at most two threads at a time.
+     *
+     * @return new executor service
+     */
+    public static ExecutorService newExecutorService() {
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "merci-fetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.fetcher;
+
+import com.medallia.merci.core.filesystem.ConfigurationFetcherMetrics;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs fetches on threads of an executor service with a deadline and optional hedged fetches, shared by
+ * {@link DeadlineConfigurationFetcher} and {@link DeadlineConfigurationDeltaFetcher}.
+ *
+ * A fetch is skipped with an exception, while a cancelled fetch, that ignores interrupts, is still running, so that a
+ * hung source holds at most two threads per fetcher instead of one more thread per refresh.
+ */
+final class DeadlineExecution {
+
+    /** Number of recent latencies, from which the hedging delay is derived. */
+    private static final int LATENCY_SAMPLES = 64;
+
+    /** Minimum number of recent latencies, before fetches are hedged. */
+    private static final int MINIMUM_LATENCY_SAMPLES = 16;
+
+    private final ExecutorService executorService;
+    private final Duration deadline;
+    private final double hedgePercentile;
+    private final ConfigurationFetcherMetrics metrics;
+
+    /** Number of fetches, that are running on threads of the executor service. */
+    private final AtomicInteger runningThreads;
+
+    /** Ring buffer of latencies of recent successful fetches in nanoseconds. */
+    private final long[] latencies;
+    private int latencyCount;
+
+    /**
+     * Creates execution with a deadline and optional hedged fetches.
+     *
+     * @param executorService executor service for fetches
+     * @param deadline maximum duration of a fetch, including its hedged fetch
+     * @param hedgePercentile percentile between 0 and 1 of recent latencies, after which a hedged fetch is issued, 0 for no hedging
+     * @param metrics metrics
+     * @throws IllegalArgumentException in case of a percentile out of range
+     */
+    DeadlineExecution(ExecutorService executorService, Duration deadline, double hedgePercentile, ConfigurationFetcherMetrics metrics) {
+        if (hedgePercentile < 0 || hedgePercentile >= 1) {
+            throw new IllegalArgumentException("Percentile must be at least 0 and less than 1: " + hedgePercentile);
+        }
+        this.executorService = executorService;
+        this.deadline = deadline;
+        this.hedgePercentile = hedgePercentile;
+        this.metrics = metrics;
+        runningThreads = new AtomicInteger();
+        latencies = new long[LATENCY_SAMPLES];
+    }
+
+    /**
+     * Runs provided fetch, and possibly a hedged copy of it, with the deadline.
+     *
+     * @param fetch fetch to run
+     * @param description description of fetch for exception messages
+     * @return result of first successful fetch
+     * @throws IOException in case of a failed or skipped fetch, {@link InterruptedIOException} in case of a missed deadline
+     */
+    <T> T call(Callable<T> fetch, String description) throws IOException {
+        if (runningThreads.get() > 0) {
+            metrics.incrementSkippedRequests();
+            throw new IOException("Skipped fetch of " + description + ", as a previous fetch is still running.");
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger runningFetches = new AtomicInteger(1);
+        List<Future<?>> fetches = new ArrayList<>(2);
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+        try {
+            fetches.add(executorService.submit(() -> run(fetch, result, runningFetches)));
+            long hedgeDelay = getHedgeDelay();
+            if (hedgeDelay > 0 && hedgeDelay < deadline.toNanos() && !isDone(result, hedgeDelay)) {
+                runningFetches.incrementAndGet();
+                metrics.incrementHedgedRequests();
+                fetches.add(executorService.submit(() -> run(fetch, result, runningFetches)));
+            }
+            return result.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException exception) {
+            metrics.incrementTimeouts();
+            throw new InterruptedIOException("Fetch of " + description + " did not finish within " + deadline + ".");
+        } catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for fetch of " + description + ".");
+        } finally {
+            for (Future<?> future : fetches) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Runs single fetch and completes result with its value, or with its exception, if no other fetch is running.
+     */
+    @SuppressWarnings({"PMD.AvoidCatchingGenericException", "PMD.AvoidCatchingThrowable"})
+    private <T> void run(Callable<T> fetch, CompletableFuture<T> result, AtomicInteger runningFetches) {
+        runningThreads.incrementAndGet();
+        long start = System.nanoTime();
+        T value;
+        try {
+            value = fetch.call();
+        } catch (Throwable exception) {
+            //thread is released before completing result, so that the next fetch of the caller is not skipped.
+            runningThreads.decrementAndGet();
+            if (runningFetches.decrementAndGet() == 0) {
+                result.completeExceptionally(exception);
+            }
+            return;
+        }
+        runningThreads.decrementAndGet();
+        if (!result.isDone()) {
+            //latency is added before completing result, so that it is seen by the next fetch of the caller.
+            addLatency(System.nanoTime() - start);
+            result.complete(value);
+        }
+    }
+
+    /**
+     * @return true, if result is done within provided nanoseconds.
+     */
+    private static boolean isDone(CompletableFuture<?> result, long nanos) throws InterruptedException {
+        try {
+            result.get(nanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException exception) {
+            return false;
+        } catch (ExecutionException exception) {
+            //failure is reported by caller.
+        }
+        return true;
+    }
+
+    /**
+     * @return delay in nanoseconds after which a hedged fetch is issued, 0 for no hedged fetch.
+     */
+    private synchronized long getHedgeDelay() {
+        if (hedgePercentile == 0 || latencyCount < MINIMUM_LATENCY_SAMPLES) {
+            return 0;
+        }
+        long[] samples = Arrays.copyOf(latencies, Math.min(latencyCount, LATENCY_SAMPLES));
+        Arrays.sort(samples);
+        return samples[(int) (hedgePercentile * samples.length)];
+    }
+
+    private synchronized void addLatency(long nanos) {
+        latencies[latencyCount % LATENCY_SAMPLES] = nanos;
+        latencyCount++;
+        if (latencyCount == 2 * LATENCY_SAMPLES) {
+            //keeps count from overflowing, while keeping position in ring buffer.
+            latencyCount = LATENCY_SAMPLES;
+        }
+    }
+}
@@ -17,6 +17,18 @@ public class ConfigurationFetcherMetrics implements ConfigurationFetcherMetricsM
     /** Counter for missing files. */
     private final LongAdder numMissingFiles;
 
+    /** Counter for unchanged files. */
+    private final LongAdder numUnchangedFiles;
+
+    /** Counter for fetches cancelled after their deadline. */
+    private final LongAdder timeouts;
+
+    /** Counter for hedged fetches. */
+    private final LongAdder hedgedRequests;
+
+    /** Counter for fetches skipped while a cancelled fetch was still running. */
+    private final LongAdder skippedRequests;
+
     /**
      * Creates metrics container.
      */
@@ -24,6 +36,10 @@ public class ConfigurationFetcherMetrics implements ConfigurationFetcherMetricsM
         requests = new LongAdder();
         failures = new LongAdder();
         numMissingFiles = new LongAdder();
+        numUnchangedFiles = new LongAdder();
+        timeouts = new LongAdder();
+        hedgedRequests = new LongAdder();
+        skippedRequests = new LongAdder();
     }
 
     /**
@@ -47,6 +63,34 @@ public class ConfigurationFetcherMetrics implements ConfigurationFetcherMetricsM
         numMissingFiles.increment();
     }
 
+    /**
+     * Increment counter for unchanged files.
+     */
+    public void incrementUnchangedFiles() {
+        numUnchangedFiles.increment();
+    }
+
+    /**
+     * Increment counter for fetches cancelled after their deadline.
+     */
+    public void incrementTimeouts() {
+        timeouts.increment();
+    }
+
+    /**
+     * Increment counter for hedged fetches.
+     */
+    public void incrementHedgedRequests() {
+        hedgedRequests.increment();
+    }
+
+    /**
+     * Increment counter for fetches skipped while a cancelled fetch was still running.
+     */
+    public void incrementSkippedRequests() {
+        skippedRequests.increment();
+    }
+
     @Override
     public long getRequests() {
         return requests.sum();
@@ -61,4 +105,24 @@ public class ConfigurationFetcherMetrics implements ConfigurationFetcherMetricsM
     public long getMissingFiles() {
         return numMissingFiles.sum();
     }
+
+    @Override
+    public long getUnchangedFiles() {
+        return numUnchangedFiles.sum();
+    }
+
+    @Override
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    @Override
+    public long getHedgedRequests() {
+        return hedgedRequests.sum();
+    }
+
+    @Override
+    public long getSkippedRequests() {
+        return skippedRequests.sum();
+    }
 }
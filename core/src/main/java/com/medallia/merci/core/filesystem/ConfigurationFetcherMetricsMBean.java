@@ -19,4 +19,24 @@ public interface ConfigurationFetcherMetricsMBean {
      * @return total count of missing configuration files.
      */
     long getMissingFiles();
+
+    /**
+     * @return total count of configuration files, that were unchanged according to conditional requests.
+     */
+    long getUnchangedFiles();
+
+    /**
+     * @return total count of fetches, that were cancelled after their deadline.
+     */
+    long getTimeouts();
+
+    /**
+     * @return total count of hedged fetches, issued while a slow fetch was still running.
+     */
+    long getHedgedRequests();
+
+    /**
+     * @return total count of fetches, that were skipped while a cancelled fetch was still running.
+     */
+    long getSkippedRequests();
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.http;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.medallia.merci.core.fetcher.ConfigurationDelta;
+import com.medallia.merci.core.fetcher.ConfigurationDeltaFetcher;
+import com.medallia.merci.core.filesystem.ConfigurationFetcherMetrics;
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Configuration delta fetcher for deltas, served over HTTP by the Merci web service.
+ *
+ * The URL of a delta is the base URL, followed by application and root field, with epoch and generation of the last
+ * fetched delta as query parameters, i.e. "http://merci:8080/apis/v0/deltas" + "/myapp" + "/feature-flags" + "?epoch=...&amp;since=42".
+ * Connections are kept alive between fetches and responses are requested gzip-encoded. If the object mapper is based on
+ * a {@link SmileFactory}, deltas are requested in the binary Smile format instead of JSON.
+ */
+public class HttpConfigurationDeltaFetcher implements ConfigurationDeltaFetcher {
+
+    private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(30);
+    private static final String GZIP = "gzip";
+    private static final String APPLICATION_JSON = "application/json";
+    private static final String APPLICATION_SMILE = "application/x-jackson-smile";
+
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private final ConfigurationFetcherMetrics metrics;
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+
+    /**
+     * Creates a delta fetcher for deltas served over HTTP with default timeouts.
+     *
+     * @param baseUrl base URL of deltas, without trailing '/'
+     * @param objectMapper JSON or Smile deserializer
+     * @param metrics metrics
+     */
+    public HttpConfigurationDeltaFetcher(String baseUrl, ObjectMapper objectMapper, ConfigurationFetcherMetrics metrics) {
+        this(baseUrl, objectMapper, metrics, DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT);
+    }
+
+    /**
+     * Creates a delta fetcher for deltas served over HTTP.
+     *
+     * @param baseUrl base URL of deltas, without trailing '/'
+     * @param objectMapper JSON or Smile deserializer
+     * @param metrics metrics
+     * @param connectTimeout timeout for establishing connections
+     * @param readTimeout timeout for reading responses
+     */
+    public HttpConfigurationDeltaFetcher(String baseUrl,
+                                         ObjectMapper objectMapper,
+                                         ConfigurationFetcherMetrics metrics,
+                                         Duration connectTimeout,
+                                         Duration readTimeout) {
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    @Override
+    public ConfigurationDelta fetch(String application, String root, String epoch, long generation) throws IOException {
+        String url = baseUrl + "/" + application + "/" + root
+                + "?epoch=" + URLEncoder.encode(epoch, StandardCharsets.UTF_8.name()) + "&since=" + generation;
+        try {
+            metrics.incrementRequests();
+            return readDelta(url);
+        } catch (IOException exception) {
+            metrics.incrementFailures();
+            throw exception;
+        }
+    }
+
+    private ConfigurationDelta readDelta(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout((int) connectTimeout.toMillis());
+        connection.setReadTimeout((int) readTimeout.toMillis());
+        connection.setRequestProperty("Accept-Encoding", GZIP);
+        connection.setRequestProperty("Accept", objectMapper.getFactory() instanceof SmileFactory ? APPLICATION_SMILE : APPLICATION_JSON);
+        int responseCode = connection.getResponseCode();
+        if (responseCode != HttpURLConnection.HTTP_OK) {
+            //reading error response allows connection to be reused.
+            InputStream errorStream = connection.getErrorStream();
+            if (errorStream != null) {
+                try (InputStream stream = errorStream) {
+                    IOUtils.skip(stream, Long.MAX_VALUE);
+                }
+            }
+            throw new IOException("Unexpected response code " + responseCode + " for " + url);
+        }
+        JsonNode document;
+        try (InputStream inputStream = GZIP.equalsIgnoreCase(connection.getContentEncoding())
+                ? new GZIPInputStream(connection.getInputStream()) : connection.getInputStream()) {
+            document = objectMapper.readTree(inputStream);
+        }
+        if (document == null || !document.path(ConfigurationDelta.EPOCH).isTextual() || !document.path(ConfigurationDelta.GENERATION).canConvertToLong()) {
+            throw new IOException("Bad configuration delta from " + url);
+        }
+        List<String> removedNames = new ArrayList<>();
+        for (JsonNode name : document.path(ConfigurationDelta.REMOVED)) {
+            removedNames.add(name.asText());
+        }
+        return new ConfigurationDelta(document.get(ConfigurationDelta.EPOCH).asText(), document.get(ConfigurationDelta.GENERATION).asLong(),
+                document.path(ConfigurationDelta.COMPLETE).asBoolean(), removedNames, document);
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.http;
+
+import com.medallia.merci.core.fetcher.ConfigurationFetcher;
+import com.medallia.merci.core.filesystem.ConfigurationFetcherMetrics;
+import org.apache.commons.io.IOUtils;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Configuration fetcher for configuration files, distributed over HTTP, i.e. by the Merci web service.
+ *
+ * The URL of a file is the base URL, followed by the application and the file name, i.e.
+ * "http://merci:8080/apis/v0/files" + "/myapp" + "/featureflags.json". Connections are kept alive between fetches,
+ * responses are requested gzip-encoded and each file is requested conditionally with the entity tag of its last response.
+ * If all files are unchanged, the fetcher returns the identical map of its previous fetch of the same application and
+ * file names, so that a single fetcher can be shared by the readers of many managers.
+ */
+public class HttpConfigurationFetcher implements ConfigurationFetcher {
+
+    private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(30);
+    private static final String GZIP = "gzip";
+
+    private final String baseUrl;
+    private final boolean skipMissingFiles;
+    private final ConfigurationFetcherMetrics metrics;
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+
+    /** Last response per URL. */
+    private final Map<String, CachedFile> cachedFiles;
+
+    /** Contents from previous fetch per application and file names. */
+    private final Map<String, Map<String, String>> previousContents;
+
+    /**
+     * Creates a configuration fetcher for files distributed over HTTP with default timeouts.
+     *
+     * @param baseUrl base URL of configuration files, without trailing '/'
+     * @param skipMissingFiles true, if fetcher should continue despite missing files
+     * @param metrics metrics
+     */
+    public HttpConfigurationFetcher(String baseUrl, boolean skipMissingFiles, ConfigurationFetcherMetrics metrics) {
+        this(baseUrl, skipMissingFiles, metrics, DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT);
+    }
+
+    /**
+     * Creates a configuration fetcher for files distributed over HTTP.
+     *
+     * @param baseUrl base URL of configuration files, without trailing '/'
+     * @param skipMissingFiles true, if fetcher should continue despite missing files
+     * @param metrics metrics
+     * @param connectTimeout timeout for establishing connections
+     * @param readTimeout timeout for reading responses
+     */
+    public HttpConfigurationFetcher(String baseUrl,
+                                    boolean skipMissingFiles,
+                                    ConfigurationFetcherMetrics metrics,
+                                    Duration connectTimeout,
+                                    Duration readTimeout) {
+        this.baseUrl = baseUrl;
+        this.skipMissingFiles = skipMissingFiles;
+        this.metrics = metrics;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        cachedFiles = new ConcurrentHashMap<>();
+        previousContents = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Map<String, String> fetch(List<String> fileNames, String application) throws IOException {
+        Map<String, String> contents = new LinkedHashMap<>();
+        boolean unchanged = true;
+        try {
+            metrics.incrementRequests();
+            for (String fileName : fileNames) {
+                try {
+                    CachedFile file = fetch(baseUrl + "/" + application + fileName);
+                    unchanged &= file.unchanged;
+                    contents.put(fileName, file.content);
+                } catch (FileNotFoundException exception) {
+                    metrics.incrementMissingFiles();
+                    if (!skipMissingFiles) {
+                        throw exception;
+                    }
+                }
+            }
+        } catch (IOException exception) {
+            metrics.incrementFailures();
+            throw exception;
+        }
+        String key = application + fileNames;
+        Map<String, String> previous = previousContents.get(key);
+        if (unchanged && previous != null && sameContents(previous, contents)) {
+            return previous;
+        }
+        previousContents.put(key, contents);
+        return contents;
+    }
+
+    /**
+     * Returns whether provided maps have the identical content instances for the same files, as unchanged files are
+     * returned with the content instance of their cached response. A different instance of an unchanged file means,
+     * that its cached response was updated by a fetch of other file names.
+     */
+    private static boolean sameContents(Map<String, String> previous, Map<String, String> contents) {
+        if (previous.size() != contents.size()) {
+            return false;
+        }
+        for (Map.Entry<String, String> entry : contents.entrySet()) {
+            if (previous.get(entry.getKey()) != entry.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Fetches file with provided URL, conditionally if there is a previous response with an entity tag.
+     *
+     * @throws FileNotFoundException in case of a missing file
+     * @throws IOException in case of any other failure
+     */
+    private CachedFile fetch(String url) throws IOException {
+        CachedFile cachedFile = cachedFiles.get(url);
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout((int) connectTimeout.toMillis());
+        connection.setReadTimeout((int) readTimeout.toMillis());
+        connection.setRequestProperty("Accept-Encoding", GZIP);
+        if (cachedFile != null && cachedFile.entityTag != null) {
+            connection.setRequestProperty("If-None-Match", cachedFile.entityTag);
+        }
+        int responseCode = connection.getResponseCode();
+        if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED && cachedFile != null) {
+            consume(connection.getInputStream());
+            metrics.incrementUnchangedFiles();
+            return cachedFile.asUnchanged();
+        }
+        if (responseCode != HttpURLConnection.HTTP_OK) {
+            //reading error response allows connection to be reused.
+            consume(connection.getErrorStream());
+            cachedFiles.remove(url);
+            if (responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
+                throw new FileNotFoundException(url);
+            }
+            throw new IOException("Unexpected response code " + responseCode + " for " + url);
+        }
+        String content;
+        try (InputStream inputStream = GZIP.equalsIgnoreCase(connection.getContentEncoding())
+                ? new GZIPInputStream(connection.getInputStream()) : connection.getInputStream()) {
+            content = IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+        }
+        CachedFile file = new CachedFile(connection.getHeaderField("ETag"), content, false);
+        cachedFiles.put(url, file);
+        return file;
+    }
+
+    private static void consume(InputStream inputStream) throws IOException {
+        if (inputStream != null) {
+            try (InputStream stream = inputStream) {
+                IOUtils.skip(stream, Long.MAX_VALUE);
+            }
+        }
+    }
+
+    /**
+     * Content and entity tag of last response for a file.
+     */
+    private static final class CachedFile {
+
+        private final String entityTag;
+        private final String content;
+        private final boolean unchanged;
+
+        private CachedFile(String entityTag, String content, boolean unchanged) {
+            this.entityTag = entityTag;
+            this.content = content;
+            this.unchanged = unchanged;
+        }
+
+        private CachedFile asUnchanged() {
+            return new CachedFile(entityTag, content, true);
+        }
+    }
+}
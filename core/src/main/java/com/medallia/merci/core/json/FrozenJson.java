@@ -0,0 +1,844 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.NumberInput;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.JsonNodeType;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, compact JSON value, that can be shared by any number of threads without defensive copies.
+ *
+ * Objects keep their interned field names and values in flat arrays instead of a map per object, integral numbers and
+ * floating point numbers are kept as primitives and common values like booleans, null, small numbers and empty
+ * containers are shared instances. Lookups of fields of larger objects use a compact open addressing index.
+ * {@link #toJsonNode()} creates a new, mutable Jackson tree on demand, while Jackson serializes frozen values directly.
+ */
+@JsonDeserialize(using = FrozenJsonDeserializer.class)
+public abstract class FrozenJson extends JsonSerializable.Base {
+
+    /** JSON null. */
+    public static final FrozenJson NULL = new NullValue();
+
+    /** JSON true. */
+    public static final FrozenJson TRUE = new BooleanValue(true);
+
+    /** JSON false. */
+    public static final FrozenJson FALSE = new BooleanValue(false);
+
+    /** Empty JSON object. */
+    public static final FrozenJson EMPTY_OBJECT = new ObjectValue(new String[0], new FrozenJson[0]);
+
+    /** Empty JSON array. */
+    public static final FrozenJson EMPTY_ARRAY = new ArrayValue(new FrozenJson[0]);
+
+    private static final int MIN_CACHED_NUMBER = -128;
+    private static final int MAX_CACHED_NUMBER = 1023;
+    private static final LongValue[] CACHED_NUMBERS = new LongValue[MAX_CACHED_NUMBER - MIN_CACHED_NUMBER + 1];
+
+    static {
+        for (int index = 0; index < CACHED_NUMBERS.length; index++) {
+            CACHED_NUMBERS[index] = new LongValue(index + MIN_CACHED_NUMBER);
+        }
+    }
+
+    /** Package-private constructor, as all implementations are nested classes. */
+    FrozenJson() {
+        super();
+    }
+
+    /**
+     * Creates frozen copy of provided JSON tree.
+     *
+     * @param node JSON tree, null for JSON null
+     * @return frozen JSON value
+     */
+    public static FrozenJson of(JsonNode node) {
+        if (node == null) {
+            return NULL;
+        }
+        switch (node.getNodeType()) {
+            case OBJECT:
+                String[] names = new String[node.size()];
+                FrozenJson[] values = new FrozenJson[node.size()];
+                int index = 0;
+                for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext(); index++) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    names[index] = field.getKey();
+                    values[index] = of(field.getValue());
+                }
+                return object(names, values);
+            case ARRAY:
+                FrozenJson[] elements = new FrozenJson[node.size()];
+                for (int elementIndex = 0; elementIndex < elements.length; elementIndex++) {
+                    elements[elementIndex] = of(node.get(elementIndex));
+                }
+                return array(elements);
+            case BOOLEAN:
+                return of(node.booleanValue());
+            case NUMBER:
+                if (node.isBigInteger()) {
+                    return of(node.bigIntegerValue());
+                }
+                if (node.isBigDecimal()) {
+                    return of(node.decimalValue());
+                }
+                return node.isIntegralNumber() ? of(node.longValue()) : of(node.doubleValue());
+            case STRING:
+            case BINARY:
+            case POJO:
+                return of(node.asText());
+            default:
+                return NULL;
+        }
+    }
+
+    /**
+     * @return frozen JSON string, JSON null for null
+     */
+    public static FrozenJson of(String value) {
+        return value == null ? NULL : new StringValue(value);
+    }
+
+    /**
+     * @return frozen JSON boolean
+     */
+    public static FrozenJson of(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    /**
+     * @return frozen JSON integral number
+     */
+    public static FrozenJson of(long value) {
+        if (value >= MIN_CACHED_NUMBER && value <= MAX_CACHED_NUMBER) {
+            return CACHED_NUMBERS[(int) value - MIN_CACHED_NUMBER];
+        }
+        return new LongValue(value);
+    }
+
+    /**
+     * @return frozen JSON floating point number
+     */
+    public static FrozenJson of(double value) {
+        return new DoubleValue(value);
+    }
+
+    /**
+     * @return frozen JSON integral number of arbitrary precision, JSON null for null
+     */
+    public static FrozenJson of(BigInteger value) {
+        return value == null ? NULL : new BigNumberValue(value);
+    }
+
+    /**
+     * @return frozen JSON decimal number of arbitrary precision, JSON null for null
+     */
+    public static FrozenJson of(BigDecimal value) {
+        return value == null ? NULL : new BigNumberValue(value);
+    }
+
+    /**
+     * Creates frozen JSON object with provided field names and values, that are taken over without copying if all
+     * names are distinct. Duplicate names keep the position of their first and the value of their last occurrence,
+     * like {@link ObjectNode#set(String, JsonNode)}.
+     */
+    static FrozenJson object(String[] names, FrozenJson[] values) {
+        if (names.length == 0) {
+            return EMPTY_OBJECT;
+        }
+        for (int index = 0; index < names.length; index++) {
+            names[index] = names[index].intern();
+        }
+        int size = removeDuplicateNames(names, values);
+        if (size < names.length) {
+            return new ObjectValue(Arrays.copyOf(names, size), Arrays.copyOf(values, size));
+        }
+        return new ObjectValue(names, values);
+    }
+
+    /**
+     * Moves the distinct interned names with the value of their last occurrence to the front of provided arrays.
+     *
+     * @return number of distinct names
+     */
+    private static int removeDuplicateNames(String[] names, FrozenJson[] values) {
+        Map<String, Integer> positions = names.length > ObjectValue.MAX_SCANNED_FIELDS ? new HashMap<>(names.length * 2) : null;
+        int size = 0;
+        for (int index = 0; index < names.length; index++) {
+            int position;
+            if (positions == null) {
+                position = 0;
+                while (position < size && names[position] != names[index]) {
+                    position++;
+                }
+            } else {
+                position = positions.computeIfAbsent(names[index], name -> positions.size());
+            }
+            if (position == size) {
+                size++;
+                names[position] = names[index];
+            }
+            values[position] = values[index];
+        }
+        return size;
+    }
+
+    /**
+     * Creates frozen JSON array with provided elements, that are taken over without copying.
+     */
+    static FrozenJson array(FrozenJson[] elements) {
+        return elements.length == 0 ? EMPTY_ARRAY : new ArrayValue(elements);
+    }
+
+    /**
+     * @return type of this JSON value
+     */
+    public abstract JsonNodeType getNodeType();
+
+    /**
+     * @return new, mutable Jackson tree of this JSON value
+     */
+    public JsonNode toJsonNode() {
+        return toJsonNode(JsonNodeFactory.instance);
+    }
+
+    abstract JsonNode toJsonNode(JsonNodeFactory factory);
+
+    /**
+     * @return true, if this value is a JSON object
+     */
+    public boolean isObject() {
+        return getNodeType() == JsonNodeType.OBJECT;
+    }
+
+    /**
+     * @return true, if this value is a JSON array
+     */
+    public boolean isArray() {
+        return getNodeType() == JsonNodeType.ARRAY;
+    }
+
+    /**
+     * @return true, if this value is a JSON string
+     */
+    public boolean isTextual() {
+        return getNodeType() == JsonNodeType.STRING;
+    }
+
+    /**
+     * @return true, if this value is a JSON number
+     */
+    public boolean isNumber() {
+        return getNodeType() == JsonNodeType.NUMBER;
+    }
+
+    /**
+     * @return true, if this value is a JSON boolean
+     */
+    public boolean isBoolean() {
+        return getNodeType() == JsonNodeType.BOOLEAN;
+    }
+
+    /**
+     * @return true, if this value is JSON null
+     */
+    public boolean isNull() {
+        return getNodeType() == JsonNodeType.NULL;
+    }
+
+    /**
+     * @return number of fields of objects or elements of arrays, 0 for all other values
+     */
+    public int size() {
+        return 0;
+    }
+
+    /**
+     * @return value of field with provided name, null if this value is no object or has no such field
+     */
+    public FrozenJson get(String name) {
+        return null;
+    }
+
+    /**
+     * @return element at provided index, null if this value is no array or index is out of bounds
+     */
+    public FrozenJson get(int index) {
+        return null;
+    }
+
+    /**
+     * @return field names of objects in order, empty for all other values
+     */
+    public List<String> fieldNames() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * @return field values of objects or elements of arrays in order, empty for all other values
+     */
+    public List<FrozenJson> elements() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * @return text of strings, textual representation of numbers, booleans and null, empty for objects and arrays
+     */
+    public String asText() {
+        return "";
+    }
+
+    /**
+     * @return number value as long, parsed text of strings, 1 for true, 0 for all other values
+     */
+    public long asLong() {
+        return 0L;
+    }
+
+    /**
+     * @return number value as int, parsed text of strings, 1 for true, 0 for all other values
+     */
+    public int asInt() {
+        return (int) asLong();
+    }
+
+    /**
+     * @return number value as double, parsed text of strings, 1 for true, 0 for all other values
+     */
+    public double asDouble() {
+        return asLong();
+    }
+
+    /**
+     * @return boolean value, true for "true" strings and non-zero numbers, false for all other values
+     */
+    public boolean asBoolean() {
+        return false;
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider serializers, TypeSerializer typeSerializer) throws IOException {
+        serialize(generator, serializers);
+    }
+
+    @Override
+    public String toString() {
+        return toJsonNode().toString();
+    }
+
+    /**
+     * JSON object with field names and values in flat arrays.
+     */
+    private static final class ObjectValue extends FrozenJson {
+
+        /** Objects with up to this number of fields are scanned linearly instead of indexed. */
+        private static final int MAX_SCANNED_FIELDS = 8;
+
+        private final String[] names;
+        private final FrozenJson[] values;
+
+        /** Open addressing index of field positions plus one, null for small objects. */
+        private final int[] index;
+
+        private ObjectValue(String[] names, FrozenJson[] values) {
+            this.names = names;
+            this.values = values;
+            index = names.length > MAX_SCANNED_FIELDS ? createIndex(names) : null;
+        }
+
+        private static int[] createIndex(String[] names) {
+            int[] index = new int[Integer.highestOneBit(names.length * 2 - 1) << 1];
+            int mask = index.length - 1;
+            for (int position = 0; position < names.length; position++) {
+                int slot = names[position].hashCode() & mask;
+                while (index[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                index[slot] = position + 1;
+            }
+            return index;
+        }
+
+        @Override
+        public JsonNodeType getNodeType() {
+            return JsonNodeType.OBJECT;
+        }
+
+        @Override
+        public int size() {
+            return names.length;
+        }
+
+        @Override
+        public FrozenJson get(String name) {
+            if (index == null) {
+                for (int position = 0; position < names.length; position++) {
+                    if (names[position].equals(name)) {
+                        return values[position];
+                    }
+                }
+                return null;
+            }
+            int mask = index.length - 1;
+            for (int slot = name.hashCode() & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+                int position = index[slot] - 1;
+                if (names[position].equals(name)) {
+                    return values[position];
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public List<String> fieldNames() {
+            return Collections.unmodifiableList(Arrays.asList(names));
+        }
+
+        @Override
+        public List<FrozenJson> elements() {
+            return Collections.unmodifiableList(Arrays.asList(values));
+        }
+
+        @Override
+        JsonNode toJsonNode(JsonNodeFactory factory) {
+            ObjectNode node = factory.objectNode();
+            for (int position = 0; position < names.length; position++) {
+                node.set(names[position], values[position].toJsonNode(factory));
+            }
+            return node;
+        }
+
+        @Override
+        public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+            generator.writeStartObject();
+            for (int position = 0; position < names.length; position++) {
+                generator.writeFieldName(names[position]);
+                values[position].serialize(generator, serializers);
+            }
+            generator.writeEndObject();
+        }
+
+        /**
+         * Objects are equal independent of the order of their fields, like Jackson's object nodes.
+         */
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof ObjectValue) || ((ObjectValue) other).size() != size()) {
+                return false;
+            }
+            for (int position = 0; position < names.length; position++) {
+                if (!values[position].equals(((ObjectValue) other).get(names[position]))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int hashCode = 0;
+            for (int position = 0; position < names.length; position++) {
+                hashCode += names[position].hashCode() ^ values[position].hashCode();
+            }
+            return hashCode;
+        }
+    }
+
+    /**
+     * JSON array.
+     */
+    private static final class ArrayValue extends FrozenJson {
+
+        private final FrozenJson[] elements;
+
+        /** Read-only view of elements, created on first use; races only create equal views. */
+        private List<FrozenJson> list;
+
+        private ArrayValue(FrozenJson[] elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public JsonNodeType getNodeType() {
+            return JsonNodeType.ARRAY;
+        }
+
+        @Override
+        public int size() {
+            return elements.length;
+        }
+
+        @Override
+        public FrozenJson get(int index) {
+            return index >= 0 && index < elements.length ? elements[index] : null;
+        }
+
+        @Override
+        public List<FrozenJson> elements() {
+            List<FrozenJson> view = list;
+            if (view == null) {
+                view = Collections.unmodifiableList(Arrays.asList(elements));
+                list = view;
+            }
+            return view;
+        }
+
+        @Override
+        JsonNode toJsonNode(JsonNodeFactory factory) {
+            ArrayNode node = factory.arrayNode(elements.length);
+            for (FrozenJson element : elements) {
+                node.add(element.toJsonNode(factory));
+            }
+            return node;
+        }
+
+        @Override
+        public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+            generator.writeStartArray(elements.length);
+            for (FrozenJson element : elements) {
+                element.serialize(generator, serializers);
+            }
+            generator.writeEndArray();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other || other instanceof ArrayValue && Arrays.equals(elements, ((ArrayValue) other).elements);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(elements);
+        }
+    }
+
+    /**
+     * JSON string.
+     */
+    private static final class StringValue extends FrozenJson {
+
+        private final String value;
+
+        private StringValue(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public JsonNodeType getNodeType() {
+            return JsonNodeType.STRING;
+        }
+
+        @Override
+        public String asText() {
+            return value;
+        }
+
+        @Override
+        public long asLong() {
+            return NumberInput.parseAsLong(value, 0L);
+        }
+
+        @Override
+        public double asDouble() {
+            return NumberInput.parseAsDouble(value, 0.0);
+        }
+
+        @Override
+        public boolean asBoolean() {
+            return "true".equals(value.trim());
+        }
+
+        @Override
+        JsonNode toJsonNode(JsonNodeFactory factory) {
+            return factory.textNode(value);
+        }
+
+        @Override
+        public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+            generator.writeString(value);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other || other instanceof StringValue && value.equals(((StringValue) other).value);
+        }
+
+        @Override
+        public int hashCode() {
+            return value.hashCode();
+        }
+    }
+
+    /**
+     * JSON integral number within range of long.
+     */
+    private static final class LongValue extends FrozenJson {
+
+        private final long value;
+
+        private LongValue(long value) {
+            this.value = value;
+        }
+
+        @Override
+        public JsonNodeType getNodeType() {
+            return JsonNodeType.NUMBER;
+        }
+
+        @Override
+        public String asText() {
+            return Long.toString(value);
+        }
+
+        @Override
+        public long asLong() {
+            return value;
+        }
+
+        @Override
+        public boolean asBoolean() {
+            return value != 0L;
+        }
+
+        @Override
+        JsonNode toJsonNode(JsonNodeFactory factory) {
+            return value == (int) value ? factory.numberNode((int) value) : factory.numberNode(value);
+        }
+
+        @Override
+        public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+            generator.writeNumber(value);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other || other instanceof LongValue && value == ((LongValue) other).value;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(value);
+        }
+    }
+
+    /**
+     * JSON floating point number within range of double.
+     */
+    private static final class DoubleValue extends FrozenJson {
+
+        private final double value;
+
+        private DoubleValue(double value) {
+            this.value = value;
+        }
+
+        @Override
+        public JsonNodeType getNodeType() {
+            return JsonNodeType.NUMBER;
+        }
+
+        @Override
+        public String asText() {
+            return Double.toString(value);
+        }
+
+        @Override
+        public long asLong() {
+            return (long) value;
+        }
+
+        @Override
+        public double asDouble() {
+            return value;
+        }
+
+        @Override
+        public boolean asBoolean() {
+            return value != 0.0;
+        }
+
+        @Override
+        JsonNode toJsonNode(JsonNodeFactory factory) {
+            return factory.numberNode(value);
+        }
+
+        @Override
+        public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+            generator.writeNumber(value);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other || other instanceof DoubleValue && Double.compare(value, ((DoubleValue) other).value) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Double.hashCode(value);
+        }
+    }
+
+    /**
+     * JSON number, that requires a {@link BigInteger} or {@link BigDecimal}.
+     */
+    private static final class BigNumberValue extends FrozenJson {
+
+        private final Number value;
+
+        private BigNumberValue(Number value) {
+            this.value = value;
+        }
+
+        @Override
+        public JsonNodeType getNodeType() {
+            return JsonNodeType.NUMBER;
+        }
+
+        @Override
+        public String asText() {
+            return value.toString();
+        }
+
+        @Override
+        public long asLong() {
+            return value.longValue();
+        }
+
+        @Override
+        public double asDouble() {
+            return value.doubleValue();
+        }
+
+        @Override
+        public boolean asBoolean() {
+            return value.doubleValue() != 0.0;
+        }
+
+        @Override
+        JsonNode toJsonNode(JsonNodeFactory factory) {
+            return value instanceof BigInteger ? factory.numberNode((BigInteger) value) : factory.numberNode((BigDecimal) value);
+        }
+
+        @Override
+        public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+            if (value instanceof BigInteger) {
+                generator.writeNumber((BigInteger) value);
+            } else {
+                generator.writeNumber((BigDecimal) value);
+            }
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other || other instanceof BigNumberValue && value.equals(((BigNumberValue) other).value);
+        }
+
+        @Override
+        public int hashCode() {
+            return value.hashCode();
+        }
+    }
+
+    /**
+     * JSON true or false.
+     */
+    private static final class BooleanValue extends FrozenJson {
+
+        private final boolean value;
+
+        private BooleanValue(boolean value) {
+            this.value = value;
+        }
+
+        @Override
+        public JsonNodeType getNodeType() {
+            return JsonNodeType.BOOLEAN;
+        }
+
+        @Override
+        public String asText() {
+            return Boolean.toString(value);
+        }
+
+        @Override
+        public long asLong() {
+            return value ? 1L : 0L;
+        }
+
+        @Override
+        public boolean asBoolean() {
+            return value;
+        }
+
+        @Override
+        JsonNode toJsonNode(JsonNodeFactory factory) {
+            return factory.booleanNode(value);
+        }
+
+        @Override
+        public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+            generator.writeBoolean(value);
+        }
+    }
+
+    /**
+     * JSON null.
+     */
+    private static final class NullValue extends FrozenJson {
+
+        @Override
+        public JsonNodeType getNodeType() {
+            return JsonNodeType.NULL;
+        }
+
+        @Override
+        public String asText() {
+            return "null";
+        }
+
+        @Override
+        JsonNode toJsonNode(JsonNodeFactory factory) {
+            return factory.nullNode();
+        }
+
+        @Override
+        public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+            generator.writeNull();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deserializer, that builds {@link FrozenJson} values directly from parser tokens, without an intermediate Jackson tree.
+ */
+class FrozenJsonDeserializer extends StdDeserializer<FrozenJson> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String[] NO_NAMES = new String[0];
+    private static final FrozenJson[] NO_VALUES = new FrozenJson[0];
+
+    FrozenJsonDeserializer() {
+        super(FrozenJson.class);
+    }
+
+    @Override
+    public FrozenJson deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.getCurrentToken();
+        switch (token) {
+            case START_OBJECT:
+            case FIELD_NAME:
+                return readObject(parser, context);
+            case START_ARRAY:
+                return readArray(parser, context);
+            case VALUE_STRING:
+                return FrozenJson.of(parser.getText());
+            case VALUE_NUMBER_INT:
+                return parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER
+                        ? FrozenJson.of(parser.getBigIntegerValue()) : FrozenJson.of(parser.getLongValue());
+            case VALUE_NUMBER_FLOAT:
+                return parser.getNumberType() == JsonParser.NumberType.BIG_DECIMAL
+                        ? FrozenJson.of(parser.getDecimalValue()) : FrozenJson.of(parser.getDoubleValue());
+            case VALUE_TRUE:
+                return FrozenJson.TRUE;
+            case VALUE_FALSE:
+                return FrozenJson.FALSE;
+            case VALUE_NULL:
+                return FrozenJson.NULL;
+            default:
+                //embedded objects, i.e. binary values of Smile.
+                return FrozenJson.of(context.readValue(parser, JsonNode.class));
+        }
+    }
+
+    @Override
+    public FrozenJson getNullValue(DeserializationContext context) {
+        return FrozenJson.NULL;
+    }
+
+    /**
+     * Reads object, starting at its START_OBJECT or, within buffered content, at its first FIELD_NAME token.
+     */
+    private FrozenJson readObject(JsonParser parser, DeserializationContext context) throws IOException {
+        List<String> names = new ArrayList<>();
+        List<FrozenJson> values = new ArrayList<>();
+        JsonToken token = parser.getCurrentToken() == JsonToken.START_OBJECT ? parser.nextToken() : parser.getCurrentToken();
+        for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+            names.add(parser.getCurrentName());
+            parser.nextToken();
+            values.add(deserialize(parser, context));
+        }
+        return FrozenJson.object(names.toArray(NO_NAMES), values.toArray(NO_VALUES));
+    }
+
+    private FrozenJson readArray(JsonParser parser, DeserializationContext context) throws IOException {
+        List<FrozenJson> elements = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            elements.add(deserialize(parser, context));
+        }
+        return FrozenJson.array(elements.toArray(NO_VALUES));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.json;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compiled JSON pointer (RFC 6901) into {@link FrozenJson} values, i.e. "/database/hosts/0".
+ *
+ * A path is meant to be compiled once and kept in a constant, so that resolving it only walks the segments with
+ * interned names and pre-parsed array indexes, without parsing the pointer or allocating.
+ *
+ * @Immutable
+ */
+public final class JsonPath {
+
+    private final String pointer;
+    private final String[] names;
+
+    /** Index per segment, -1 for segments, that are no array indexes. */
+    private final int[] indexes;
+
+    private JsonPath(String pointer, String[] names, int[] indexes) {
+        this.pointer = pointer;
+        this.names = names;
+        this.indexes = indexes;
+    }
+
+    /**
+     * Compiles provided JSON pointer.
+     *
+     * @param pointer JSON pointer, i.e. "/database/hosts/0", empty for root value
+     * @return compiled path
+     * @throws IllegalArgumentException, if pointer does not start with '/'
+     */
+    public static JsonPath compile(String pointer) {
+        if (pointer.isEmpty()) {
+            return new JsonPath(pointer, new String[0], new int[0]);
+        }
+        if (pointer.charAt(0) != '/') {
+            throw new IllegalArgumentException("JSON pointer '" + pointer + "' does not start with '/'.");
+        }
+        List<String> segments = new ArrayList<>();
+        int start = 1;
+        for (int end = pointer.indexOf('/', start); end >= 0; end = pointer.indexOf('/', start)) {
+            segments.add(unescape(pointer.substring(start, end)));
+            start = end + 1;
+        }
+        segments.add(unescape(pointer.substring(start)));
+        String[] names = segments.toArray(new String[0]);
+        int[] indexes = new int[names.length];
+        for (int segment = 0; segment < names.length; segment++) {
+            names[segment] = names[segment].intern();
+            indexes[segment] = parseIndex(names[segment]);
+        }
+        return new JsonPath(pointer, names, indexes);
+    }
+
+    private static String unescape(String segment) {
+        return segment.indexOf('~') < 0 ? segment : segment.replace("~1", "/").replace("~0", "~");
+    }
+
+    /**
+     * @return index of array element, -1 for segments that are no valid array index
+     */
+    private static int parseIndex(String segment) {
+        if (segment.isEmpty() || segment.length() > 9 || (segment.length() > 1 && segment.charAt(0) == '0')) {
+            return -1;
+        }
+        for (int position = 0; position < segment.length(); position++) {
+            if (segment.charAt(position) < '0' || segment.charAt(position) > '9') {
+                return -1;
+            }
+        }
+        return Integer.parseInt(segment);
+    }
+
+    /**
+     * Returns value at this path within provided root value.
+     *
+     * @param root root value, may be null
+     * @return value at this path, null if root or any segment of path is missing
+     */
+    public FrozenJson resolve(FrozenJson root) {
+        FrozenJson value = root;
+        for (int segment = 0; segment < names.length && value != null; segment++) {
+            if (value.isArray()) {
+                value = indexes[segment] < 0 ? null : value.get(indexes[segment]);
+            } else {
+                value = value.get(names[segment]);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns elements of array at this path within provided root value.
+     *
+     * @param root root value, may be null
+     * @return read-only list of elements, empty list for missing values and values other than arrays
+     */
+    public List<FrozenJson> resolveList(FrozenJson root) {
+        FrozenJson value = resolve(root);
+        return value != null && value.isArray() ? value.elements() : Collections.emptyList();
+    }
+
+    @Override
+    public String toString() {
+        return pointer;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SortedSet;
+
+/**
+ * Immutable set of characters, represented as sorted, disjoint and non-adjacent inclusive ranges.
+ */
+final class CharRanges {
+
+    /** Set of all characters. */
+    static final CharRanges ANY = new CharRanges(new int[] {Character.MIN_VALUE, Character.MAX_VALUE});
+
+    /** Set of digits, '\d'. */
+    static final CharRanges DIGITS = range('0', '9');
+
+    /** Set of word characters, '\w'. */
+    static final CharRanges WORD = range('a', 'z').union(range('A', 'Z')).union(DIGITS).union(of('_'));
+
+    /** Set of whitespace characters, '\s'. */
+    static final CharRanges WHITESPACE = range('\t', '\r').union(of(' '));
+
+    /** Lower and upper bounds of ranges, alternating. */
+    private final int[] bounds;
+
+    private CharRanges(int[] bounds) {
+        this.bounds = bounds;
+    }
+
+    /**
+     * @return set with single provided character.
+     */
+    static CharRanges of(char character) {
+        return new CharRanges(new int[] {character, character});
+    }
+
+    /**
+     * @return set with all characters between provided lower and upper character, inclusive.
+     */
+    static CharRanges range(char lower, char upper) {
+        return new CharRanges(new int[] {lower, upper});
+    }
+
+    /**
+     * @return new set with characters of this and the other set.
+     */
+    CharRanges union(CharRanges other) {
+        List<int[]> ranges = new ArrayList<>();
+        for (int index = 0; index < bounds.length; index += 2) {
+            ranges.add(new int[] {bounds[index], bounds[index + 1]});
+        }
+        for (int index = 0; index < other.bounds.length; index += 2) {
+            ranges.add(new int[] {other.bounds[index], other.bounds[index + 1]});
+        }
+        ranges.sort(Comparator.comparingInt(range -> range[0]));
+        int[] merged = new int[ranges.size() * 2];
+        int length = 0;
+        for (int[] range : ranges) {
+            if (length > 0 && range[0] <= merged[length - 1] + 1) {
+                merged[length - 1] = Math.max(merged[length - 1], range[1]);
+            } else {
+                merged[length++] = range[0];
+                merged[length++] = range[1];
+            }
+        }
+        return new CharRanges(Arrays.copyOf(merged, length));
+    }
+
+    /**
+     * @return new set with all characters, that are not in this set.
+     */
+    CharRanges complement() {
+        int[] complement = new int[bounds.length + 2];
+        int length = 0;
+        int lower = Character.MIN_VALUE;
+        for (int index = 0; index < bounds.length; index += 2) {
+            if (bounds[index] > lower) {
+                complement[length++] = lower;
+                complement[length++] = bounds[index] - 1;
+            }
+            lower = bounds[index + 1] + 1;
+        }
+        if (lower <= Character.MAX_VALUE) {
+            complement[length++] = lower;
+            complement[length++] = Character.MAX_VALUE;
+        }
+        return new CharRanges(Arrays.copyOf(complement, length));
+    }
+
+    /**
+     * @return true, if set contains provided character.
+     */
+    boolean contains(int character) {
+        for (int index = 0; index < bounds.length && bounds[index] <= character; index += 2) {
+            if (character <= bounds[index + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the only character of this set, -1 if this set does not contain exactly one character.
+     */
+    int singleCharacter() {
+        return bounds.length == 2 && bounds[0] == bounds[1] ? bounds[0] : -1;
+    }
+
+    /**
+     * Adds first character of each range and first character after each range to provided set of boundaries.
+     *
+     * @param boundaries sorted set of boundaries between alphabet symbols
+     */
+    void addBoundaries(SortedSet<Integer> boundaries) {
+        for (int index = 0; index < bounds.length; index += 2) {
+            boundaries.add(bounds[index]);
+            if (bounds[index + 1] < Character.MAX_VALUE) {
+                boundaries.add(bounds[index + 1] + 1);
+            }
+        }
+    }
+}
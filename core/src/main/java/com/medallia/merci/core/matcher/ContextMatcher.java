@@ -0,0 +1,32 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.matcher;
+
+/**
+ * Matcher for runtime context values, compiled once from the ordered list of context patterns of a modifiers level.
+ *
+ * Implementations are immutable, thread-safe and do not allocate while matching.
+ */
+public interface ContextMatcher {
+
+    /**
+     * Returns index of the pattern matching provided runtime context value, -1 if no pattern matches.
+     *
+     * @param value runtime context value
+     * @return index of matching pattern, -1 if none found
+     */
+    int match(String value);
+}
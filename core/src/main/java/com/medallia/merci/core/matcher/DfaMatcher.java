@@ -0,0 +1,143 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Matcher, backed by a single deterministic finite automaton for all patterns of a modifiers level.
+ *
+ * The automaton runs over an alphabet of symbols, where each symbol is a range of characters with identical transitions,
+ * and is evaluated with one table lookup per character of the runtime context value. The first matching pattern wins.
+ */
+final class DfaMatcher implements ContextMatcher {
+
+    /** Maximum number of states of an automaton, compilation fails for larger automata. */
+    private static final int MAXIMUM_STATES = 10000;
+
+    private static final int ASCII = 128;
+
+    /** Sorted first characters of alphabet symbols. */
+    private final int[] symbolStarts;
+
+    /** Alphabet symbol per ASCII character. */
+    private final int[] asciiSymbols;
+
+    /** Number of alphabet symbols. */
+    private final int symbols;
+
+    /** Next state per state and symbol, at index state * symbols + symbol, -1 if no pattern can match anymore. */
+    private final int[] transitions;
+
+    /** Index of first pattern accepted per state, -1 if none. */
+    private final int[] accepts;
+
+    private DfaMatcher(int[] symbolStarts, int[] transitions, int[] accepts) {
+        this.symbolStarts = symbolStarts;
+        this.transitions = transitions;
+        this.accepts = accepts;
+        symbols = symbolStarts.length;
+        asciiSymbols = new int[ASCII];
+        for (char character = 0; character < ASCII; character++) {
+            asciiSymbols[character] = symbol(character);
+        }
+    }
+
+    /**
+     * Compiles provided ordered patterns into a single automaton.
+     *
+     * @param patterns ordered patterns
+     * @param parser parser for patterns
+     * @return new matcher
+     * @throws IllegalArgumentException in case of an invalid pattern or too many states
+     */
+    static DfaMatcher compile(List<String> patterns, Function<String, PatternNode> parser) {
+        Nfa nfa = new Nfa();
+        int start = nfa.addState();
+        for (int index = 0; index < patterns.size(); index++) {
+            int accept = nfa.addState();
+            nfa.setAccept(accept, index);
+            nfa.addEpsilon(start, parser.apply(patterns.get(index)).emit(nfa, accept));
+        }
+        int[] symbolStarts = nfa.symbolStarts();
+        Map<BitSet, Integer> ids = new HashMap<>();
+        List<BitSet> subsets = new ArrayList<>();
+        List<int[]> rows = new ArrayList<>();
+        BitSet initial = nfa.closure(start);
+        ids.put(initial, 0);
+        subsets.add(initial);
+        for (int state = 0; state < subsets.size(); state++) {
+            int[] row = new int[symbolStarts.length];
+            for (int symbol = 0; symbol < symbolStarts.length; symbol++) {
+                BitSet next = nfa.step(subsets.get(state), symbolStarts[symbol]);
+                if (next.isEmpty()) {
+                    row[symbol] = -1;
+                    continue;
+                }
+                Integer id = ids.get(next);
+                if (id == null) {
+                    if (subsets.size() >= MAXIMUM_STATES) {
+                        throw new IllegalArgumentException("Patterns " + patterns + " exceed " + MAXIMUM_STATES + " automaton states.");
+                    }
+                    id = subsets.size();
+                    ids.put(next, id);
+                    subsets.add(next);
+                }
+                row[symbol] = id;
+            }
+            rows.add(row);
+        }
+        int[] transitions = new int[rows.size() * symbolStarts.length];
+        int[] accepts = new int[rows.size()];
+        for (int state = 0; state < rows.size(); state++) {
+            System.arraycopy(rows.get(state), 0, transitions, state * symbolStarts.length, symbolStarts.length);
+            accepts[state] = nfa.accept(subsets.get(state));
+        }
+        return new DfaMatcher(symbolStarts, transitions, accepts);
+    }
+
+    @Override
+    public int match(String value) {
+        int state = 0;
+        for (int position = 0; position < value.length(); position++) {
+            char character = value.charAt(position);
+            int symbol = character < ASCII ? asciiSymbols[character] : symbol(character);
+            state = transitions[state * symbols + symbol];
+            if (state < 0) {
+                return -1;
+            }
+        }
+        return accepts[state];
+    }
+
+    /**
+     * @return number of states of this automaton.
+     */
+    int getStates() {
+        return accepts.length;
+    }
+
+    private int symbol(char character) {
+        int index = Arrays.binarySearch(symbolStarts, character);
+        return index >= 0 ? index : -index - 2;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.matcher;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Types of matching between runtime context values and the context keys of a modifiers level.
+ */
+public enum MatchType {
+
+    /** Context key equals runtime context value. */
+    @JsonProperty("exact")
+    EXACT,
+
+    /** Context key is a prefix of runtime context value, the longest matching prefix wins. */
+    @JsonProperty("prefix")
+    PREFIX,
+
+    /** Context key is a glob ('*', '?' and '[...]') matching the whole runtime context value, the first matching glob wins. */
+    @JsonProperty("glob")
+    GLOB,
+
+    /** Context key is a regular expression matching the whole runtime context value, the first matching expression wins. */
+    @JsonProperty("regex")
+    REGEX;
+
+    /**
+     * Compiles provided ordered context patterns into a single matcher, null for exact matching.
+     *
+     * @param patterns ordered context patterns
+     * @return new matcher, null for exact matching
+     * @throws IllegalArgumentException in case of an invalid or unsupported pattern
+     */
+    public ContextMatcher compile(List<String> patterns) {
+        switch (this) {
+            case PREFIX:
+                return new PrefixTrieMatcher(patterns);
+            case GLOB:
+                return DfaMatcher.compile(patterns, PatternParser::parseGlob);
+            case REGEX:
+                return DfaMatcher.compile(patterns, PatternParser::parseRegex);
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.matcher;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Non-deterministic finite automaton (Thompson construction), only used while compiling a {@link DfaMatcher}.
+ */
+final class Nfa {
+
+    private final List<State> states = new ArrayList<>();
+
+    /**
+     * @return id of new state without transitions.
+     */
+    int addState() {
+        states.add(new State());
+        return states.size() - 1;
+    }
+
+    /**
+     * Adds epsilon transition between provided states.
+     */
+    void addEpsilon(int from, int to) {
+        states.get(from).epsilons.add(to);
+    }
+
+    /**
+     * Sets the single character transition of provided state.
+     */
+    void setTransition(int from, CharRanges ranges, int to) {
+        State state = states.get(from);
+        state.ranges = ranges;
+        state.target = to;
+    }
+
+    /**
+     * Marks provided state as accepting state of pattern with provided index.
+     */
+    void setAccept(int state, int pattern) {
+        states.get(state).accept = pattern;
+    }
+
+    /**
+     * @return sorted first characters of the symbols of the alphabet, that is characters with same transitions in all states.
+     */
+    int[] symbolStarts() {
+        SortedSet<Integer> boundaries = new TreeSet<>();
+        boundaries.add((int) Character.MIN_VALUE);
+        for (State state : states) {
+            if (state.ranges != null) {
+                state.ranges.addBoundaries(boundaries);
+            }
+        }
+        return boundaries.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * @return epsilon closure of provided state.
+     */
+    BitSet closure(int state) {
+        BitSet subset = new BitSet(states.size());
+        subset.set(state);
+        return closure(subset);
+    }
+
+    /**
+     * @return epsilon closure of states reachable from provided states with provided character, empty if none.
+     */
+    BitSet step(BitSet subset, int character) {
+        BitSet next = new BitSet(states.size());
+        for (int id = subset.nextSetBit(0); id >= 0; id = subset.nextSetBit(id + 1)) {
+            State state = states.get(id);
+            if (state.ranges != null && state.ranges.contains(character)) {
+                next.set(state.target);
+            }
+        }
+        return closure(next);
+    }
+
+    /**
+     * @return lowest pattern index of accepting states in provided states, -1 if none.
+     */
+    int accept(BitSet subset) {
+        int pattern = -1;
+        for (int id = subset.nextSetBit(0); id >= 0; id = subset.nextSetBit(id + 1)) {
+            int accept = states.get(id).accept;
+            if (accept >= 0 && (pattern < 0 || accept < pattern)) {
+                pattern = accept;
+            }
+        }
+        return pattern;
+    }
+
+    private BitSet closure(BitSet subset) {
+        Deque<Integer> pending = new ArrayDeque<>();
+        for (int id = subset.nextSetBit(0); id >= 0; id = subset.nextSetBit(id + 1)) {
+            pending.push(id);
+        }
+        while (!pending.isEmpty()) {
+            for (int epsilon : states.get(pending.pop()).epsilons) {
+                if (!subset.get(epsilon)) {
+                    subset.set(epsilon);
+                    pending.push(epsilon);
+                }
+            }
+        }
+        return subset;
+    }
+
+    /**
+     * State with epsilon transitions and at most one character transition.
+     */
+    private static final class State {
+        private final List<Integer> epsilons = new ArrayList<>();
+        private CharRanges ranges;
+        private int target = -1;
+        private int accept = -1;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.matcher;
+
+import java.util.List;
+
+/**
+ * Node of the syntax tree of a parsed glob or regular expression.
+ */
+abstract class PatternNode {
+
+    /** Node matching the empty string. */
+    static final PatternNode EMPTY = new PatternNode() {
+        @Override
+        int emit(Nfa nfa, int next) {
+            return next;
+        }
+    };
+
+    /**
+     * Emits states for this node into provided NFA, continuing with provided next state after a match of this node.
+     *
+     * @param nfa NFA under construction
+     * @param next state to continue with after a match of this node
+     * @return start state of this node
+     */
+    abstract int emit(Nfa nfa, int next);
+
+    /**
+     * Node matching a single character of a set of characters.
+     */
+    static final class Characters extends PatternNode {
+
+        private final CharRanges ranges;
+
+        Characters(CharRanges ranges) {
+            this.ranges = ranges;
+        }
+
+        @Override
+        int emit(Nfa nfa, int next) {
+            int state = nfa.addState();
+            nfa.setTransition(state, ranges, next);
+            return state;
+        }
+    }
+
+    /**
+     * Node matching a sequence of nodes.
+     */
+    static final class Sequence extends PatternNode {
+
+        private final List<PatternNode> nodes;
+
+        Sequence(List<PatternNode> nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        int emit(Nfa nfa, int next) {
+            int state = next;
+            for (int index = nodes.size() - 1; index >= 0; index--) {
+                state = nodes.get(index).emit(nfa, state);
+            }
+            return state;
+        }
+    }
+
+    /**
+     * Node matching any one of a list of alternative nodes.
+     */
+    static final class Alternation extends PatternNode {
+
+        private final List<PatternNode> alternatives;
+
+        Alternation(List<PatternNode> alternatives) {
+            this.alternatives = alternatives;
+        }
+
+        @Override
+        int emit(Nfa nfa, int next) {
+            int state = nfa.addState();
+            for (PatternNode alternative : alternatives) {
+                nfa.addEpsilon(state, alternative.emit(nfa, next));
+            }
+            return state;
+        }
+    }
+
+    /**
+     * Node matching a bounded or unbounded repetition of a node.
+     */
+    static final class Repetition extends PatternNode {
+
+        private final PatternNode node;
+        private final int minimum;
+
+        /** Maximum number of repetitions, -1 if unbounded. */
+        private final int maximum;
+
+        Repetition(PatternNode node, int minimum, int maximum) {
+            this.node = node;
+            this.minimum = minimum;
+            this.maximum = maximum;
+        }
+
+        @Override
+        int emit(Nfa nfa, int next) {
+            int state = next;
+            if (maximum < 0) {
+                int loop = nfa.addState();
+                nfa.addEpsilon(loop, node.emit(nfa, loop));
+                nfa.addEpsilon(loop, next);
+                state = loop;
+            } else {
+                for (int optional = minimum; optional < maximum; optional++) {
+                    int skip = nfa.addState();
+                    nfa.addEpsilon(skip, node.emit(nfa, state));
+                    nfa.addEpsilon(skip, next);
+                    state = skip;
+                }
+            }
+            for (int mandatory = 0; mandatory < minimum; mandatory++) {
+                state = node.emit(nfa, state);
+            }
+            return state;
+        }
+    }
+}
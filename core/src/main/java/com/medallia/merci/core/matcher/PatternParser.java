@@ -0,0 +1,348 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.matcher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parser for globs and for the regular subset of the {@link java.util.regex.Pattern} syntax.
+ *
+ * Supported regular expression constructs are literals, '.', character classes incl. ranges and negation, the escapes
+ * '\d', '\D', '\w', '\W', '\s', '\S', '\t', '\n', '\r', '\f', hexadecimal escapes with 'x' and 'u', groups '(...)' and '(?:...)',
+ * alternation '|', the quantifiers '*', '+', '?', '{n}', '{n,}' and '{n,m}' (reluctant variants behave the same),
+ * as well as a leading '^' and a trailing '$'. Constructs, that cannot be expressed by a finite automaton, like
+ * back references and look-arounds, are rejected.
+ *
+ * Supported glob constructs are '*' (any sequence of characters), '?' (any single character), '[...]' and '[!...]'
+ * character classes as well as '\' to escape the next character.
+ */
+final class PatternParser {
+
+    private static final int MAXIMUM_REPETITIONS = 1000;
+
+    private final String pattern;
+    private int position;
+
+    private PatternParser(String pattern) {
+        this.pattern = pattern;
+    }
+
+    /**
+     * Parses provided regular expression.
+     *
+     * @param pattern regular expression
+     * @return syntax tree of regular expression
+     * @throws IllegalArgumentException in case of an invalid or unsupported regular expression
+     */
+    static PatternNode parseRegex(String pattern) {
+        PatternParser parser = new PatternParser(pattern);
+        if (parser.peek('^')) {
+            parser.position++;
+        }
+        PatternNode node = parser.parseAlternation();
+        if (parser.position < pattern.length()) {
+            throw parser.error("unmatched ')'");
+        }
+        return node;
+    }
+
+    /**
+     * Parses provided glob.
+     *
+     * @param pattern glob
+     * @return syntax tree of glob
+     */
+    static PatternNode parseGlob(String pattern) {
+        PatternParser parser = new PatternParser(pattern);
+        List<PatternNode> nodes = new ArrayList<>();
+        while (parser.position < pattern.length()) {
+            char character = pattern.charAt(parser.position++);
+            if (character == '*') {
+                while (parser.peek('*')) {
+                    parser.position++;
+                }
+                nodes.add(new PatternNode.Repetition(new PatternNode.Characters(CharRanges.ANY), 0, -1));
+            } else if (character == '?') {
+                nodes.add(new PatternNode.Characters(CharRanges.ANY));
+            } else if (character == '[' && parser.globClassEnd() > 0) {
+                nodes.add(new PatternNode.Characters(parser.parseGlobClass(parser.globClassEnd())));
+            } else if (character == '\\' && parser.position < pattern.length()) {
+                nodes.add(new PatternNode.Characters(CharRanges.of(pattern.charAt(parser.position++))));
+            } else {
+                nodes.add(new PatternNode.Characters(CharRanges.of(character)));
+            }
+        }
+        return new PatternNode.Sequence(nodes);
+    }
+
+    /**
+     * @return index of ']' closing the glob character class starting at current position, -1 if unclosed.
+     */
+    private int globClassEnd() {
+        int start = peek('!') || peek('^') ? position + 1 : position;
+        return pattern.indexOf(']', start + 1);
+    }
+
+    private CharRanges parseGlobClass(int end) {
+        boolean negated = peek('!') || peek('^');
+        if (negated) {
+            position++;
+        }
+        CharRanges ranges = null;
+        while (position < end) {
+            char lower = pattern.charAt(position++);
+            char upper = lower;
+            if (peek('-') && position + 1 < end) {
+                upper = pattern.charAt(position + 1);
+                position += 2;
+            }
+            ranges = union(ranges, range(lower, upper));
+        }
+        position = end + 1;
+        return negated ? ranges.complement() : ranges;
+    }
+
+    private PatternNode parseAlternation() {
+        List<PatternNode> alternatives = new ArrayList<>();
+        alternatives.add(parseSequence());
+        while (peek('|')) {
+            position++;
+            alternatives.add(parseSequence());
+        }
+        return alternatives.size() == 1 ? alternatives.get(0) : new PatternNode.Alternation(alternatives);
+    }
+
+    private PatternNode parseSequence() {
+        List<PatternNode> nodes = new ArrayList<>();
+        while (position < pattern.length() && !peek('|') && !peek(')')) {
+            if (peek('$') && position == pattern.length() - 1) {
+                position++;
+            } else {
+                nodes.add(parseQuantified());
+            }
+        }
+        if (nodes.isEmpty()) {
+            return PatternNode.EMPTY;
+        }
+        return nodes.size() == 1 ? nodes.get(0) : new PatternNode.Sequence(nodes);
+    }
+
+    private PatternNode parseQuantified() {
+        PatternNode node = parseAtom();
+        while (position < pattern.length()) {
+            char character = pattern.charAt(position);
+            if (character == '*') {
+                node = new PatternNode.Repetition(node, 0, -1);
+            } else if (character == '+') {
+                node = new PatternNode.Repetition(node, 1, -1);
+            } else if (character == '?') {
+                node = new PatternNode.Repetition(node, 0, 1);
+            } else if (character == '{') {
+                node = parseBounds(node);
+                continue;
+            } else {
+                return node;
+            }
+            position++;
+            if (peek('?')) {
+                position++;
+            } else if (peek('+')) {
+                throw error("possessive quantifiers are not supported");
+            }
+        }
+        return node;
+    }
+
+    private PatternNode parseBounds(PatternNode node) {
+        int end = pattern.indexOf('}', position);
+        if (end < 0) {
+            throw error("unclosed repetition");
+        }
+        String[] bounds = pattern.substring(position + 1, end).split(",", -1);
+        int minimum;
+        int maximum;
+        try {
+            minimum = Integer.parseInt(bounds[0].trim());
+            if (bounds.length == 1) {
+                maximum = minimum;
+            } else if (bounds.length == 2) {
+                maximum = bounds[1].trim().isEmpty() ? -1 : Integer.parseInt(bounds[1].trim());
+            } else {
+                throw error("invalid repetition");
+            }
+        } catch (NumberFormatException exception) {
+            throw error("invalid repetition");
+        }
+        if (minimum > MAXIMUM_REPETITIONS || maximum > MAXIMUM_REPETITIONS || (maximum >= 0 && maximum < minimum)) {
+            throw error("invalid repetition");
+        }
+        position = end + 1;
+        if (peek('?')) {
+            position++;
+        } else if (peek('+')) {
+            throw error("possessive quantifiers are not supported");
+        }
+        return new PatternNode.Repetition(node, minimum, maximum);
+    }
+
+    private PatternNode parseAtom() {
+        char character = pattern.charAt(position++);
+        switch (character) {
+            case '(':
+                if (peek('?')) {
+                    if (position + 1 < pattern.length() && pattern.charAt(position + 1) == ':') {
+                        position += 2;
+                    } else {
+                        throw error("only non-capturing groups '(?:' are supported");
+                    }
+                }
+                PatternNode group = parseAlternation();
+                if (!peek(')')) {
+                    throw error("unclosed group");
+                }
+                position++;
+                return group;
+            case '[':
+                return new PatternNode.Characters(parseRegexClass());
+            case '.':
+                return new PatternNode.Characters(CharRanges.ANY);
+            case '\\':
+                return new PatternNode.Characters(parseEscape());
+            case '*':
+            case '+':
+            case '?':
+            case '{':
+                throw error("dangling meta character '" + character + "'");
+            case '^':
+            case '$':
+                throw error("anchors are only supported at the beginning and end");
+            default:
+                return new PatternNode.Characters(CharRanges.of(character));
+        }
+    }
+
+    private CharRanges parseRegexClass() {
+        boolean negated = peek('^');
+        if (negated) {
+            position++;
+        }
+        CharRanges ranges = null;
+        boolean first = true;
+        while (first || !peek(']')) {
+            if (position >= pattern.length()) {
+                throw error("unclosed character class");
+            }
+            first = false;
+            if (pattern.startsWith("&&", position) || peek('[')) {
+                throw error("nested character classes are not supported");
+            }
+            CharRanges lower = peek('\\') ? parseClassEscape() : CharRanges.of(pattern.charAt(position++));
+            if (peek('-') && position + 1 < pattern.length() && pattern.charAt(position + 1) != ']') {
+                position++;
+                CharRanges upper = peek('\\') ? parseClassEscape() : CharRanges.of(pattern.charAt(position++));
+                ranges = union(ranges, range(single(lower), single(upper)));
+            } else {
+                ranges = union(ranges, lower);
+            }
+        }
+        position++;
+        return negated ? ranges.complement() : ranges;
+    }
+
+    private CharRanges parseClassEscape() {
+        position++;
+        return parseEscape();
+    }
+
+    private CharRanges parseEscape() {
+        if (position >= pattern.length()) {
+            throw error("trailing '\\'");
+        }
+        char character = pattern.charAt(position++);
+        switch (character) {
+            case 'd':
+                return CharRanges.DIGITS;
+            case 'D':
+                return CharRanges.DIGITS.complement();
+            case 'w':
+                return CharRanges.WORD;
+            case 'W':
+                return CharRanges.WORD.complement();
+            case 's':
+                return CharRanges.WHITESPACE;
+            case 'S':
+                return CharRanges.WHITESPACE.complement();
+            case 't':
+                return CharRanges.of('\t');
+            case 'n':
+                return CharRanges.of('\n');
+            case 'r':
+                return CharRanges.of('\r');
+            case 'f':
+                return CharRanges.of('\f');
+            case 'x':
+                return CharRanges.of(parseHex(2));
+            case 'u':
+                return CharRanges.of(parseHex(4));
+            default:
+                if (Character.isLetterOrDigit(character)) {
+                    throw error("unsupported escape '\\" + character + "'");
+                }
+                return CharRanges.of(character);
+        }
+    }
+
+    private char parseHex(int digits) {
+        if (position + digits > pattern.length()) {
+            throw error("invalid hexadecimal escape");
+        }
+        try {
+            char character = (char) Integer.parseInt(pattern.substring(position, position + digits), 16);
+            position += digits;
+            return character;
+        } catch (NumberFormatException exception) {
+            throw error("invalid hexadecimal escape");
+        }
+    }
+
+    private char single(CharRanges ranges) {
+        int character = ranges.singleCharacter();
+        if (character < 0) {
+            throw error("invalid range in character class");
+        }
+        return (char) character;
+    }
+
+    private CharRanges range(char lower, char upper) {
+        if (upper < lower) {
+            throw error("invalid range in character class");
+        }
+        return CharRanges.range(lower, upper);
+    }
+
+    private static CharRanges union(CharRanges ranges, CharRanges other) {
+        return ranges == null ? other : ranges.union(other);
+    }
+
+    private boolean peek(char character) {
+        return position < pattern.length() && pattern.charAt(position) == character;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Invalid pattern '" + pattern + "' at index " + position + ": " + message);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Prefix matcher, backed by a trie flattened into arrays. The longest prefix of a runtime context value wins.
+ */
+final class PrefixTrieMatcher implements ContextMatcher {
+
+    /** Sorted labels of outgoing edges per trie node. */
+    private final char[][] labels;
+
+    /** Target nodes of outgoing edges per trie node, aligned with labels. */
+    private final int[][] children;
+
+    /** Index of the prefix ending at a trie node, -1 if none. */
+    private final int[] prefixes;
+
+    /**
+     * Creates prefix matcher for provided ordered prefixes.
+     *
+     * @param patterns ordered prefixes
+     */
+    PrefixTrieMatcher(List<String> patterns) {
+        List<Node> nodes = new ArrayList<>();
+        Node root = new Node();
+        nodes.add(root);
+        for (int index = 0; index < patterns.size(); index++) {
+            Node node = root;
+            for (char character : patterns.get(index).toCharArray()) {
+                Node child = node.children.get(character);
+                if (child == null) {
+                    child = new Node();
+                    child.id = nodes.size();
+                    nodes.add(child);
+                    node.children.put(character, child);
+                }
+                node = child;
+            }
+            if (node.prefix < 0) {
+                node.prefix = index;
+            }
+        }
+        labels = new char[nodes.size()][];
+        children = new int[nodes.size()][];
+        prefixes = new int[nodes.size()];
+        for (Node node : nodes) {
+            char[] nodeLabels = new char[node.children.size()];
+            int[] nodeChildren = new int[node.children.size()];
+            int edge = 0;
+            for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+                nodeLabels[edge] = entry.getKey();
+                nodeChildren[edge] = entry.getValue().id;
+                edge++;
+            }
+            labels[node.id] = nodeLabels;
+            children[node.id] = nodeChildren;
+            prefixes[node.id] = node.prefix;
+        }
+    }
+
+    @Override
+    public int match(String value) {
+        int node = 0;
+        int result = prefixes[0];
+        for (int position = 0; position < value.length(); position++) {
+            int edge = Arrays.binarySearch(labels[node], value.charAt(position));
+            if (edge < 0) {
+                break;
+            }
+            node = children[node][edge];
+            if (prefixes[node] >= 0) {
+                result = prefixes[node];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Mutable trie node, only used while building the matcher.
+     */
+    private static final class Node {
+        private final Map<Character, Node> children = new TreeMap<>();
+        private int id;
+        private int prefix = -1;
+    }
+}
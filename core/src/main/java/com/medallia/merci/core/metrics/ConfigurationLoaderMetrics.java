@@ -26,6 +26,7 @@ public class ConfigurationLoaderMetrics implements ConfigurationLoaderMetricsMBe
 
     private final LongAdder requests;
     private final LongAdder failures;
+    private volatile boolean ready;
 
     /**
      * Constructs ConfigurationLoaderMetrics.
@@ -45,6 +46,16 @@ public class ConfigurationLoaderMetrics implements ConfigurationLoaderMetricsMBe
         requests.increment();
     }
 
+    /** Marks loader as ready, once all readers loaded configurations. */
+    public void setReady(boolean ready) {
+        this.ready = ready;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
     @Override
     public long getConfigurationFailures() {
         return failures.sum();
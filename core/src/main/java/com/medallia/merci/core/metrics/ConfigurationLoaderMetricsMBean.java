@@ -27,4 +27,7 @@ public interface ConfigurationLoaderMetricsMBean {
 
     /** @retun total number of failed requests, reading and storing configurations. */
     long getConfigurationFailures();
+
+    /** @return true, if every reader loaded configurations at least once. */
+    boolean isReady();
 }
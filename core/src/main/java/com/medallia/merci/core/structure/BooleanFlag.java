@@ -0,0 +1,222 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.structure;
+
+import com.medallia.merci.core.ConfigurationContext;
+import com.medallia.merci.core.matcher.MatchType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled context of a feature flag, that is evaluated to a primitive boolean without boxing.
+ *
+ * Contexts, whose value is the same for all runtime contexts, are folded into constants, so that evaluation does not
+ * look at the runtime context at all. Modifiers of a single context type with exact matching keep the values of their
+ * constant contexts as bits and only nested, non-constant contexts as compiled children. Modifiers with match types or
+ * composite types are evaluated by the original {@link Modifiers}.
+ */
+public final class BooleanFlag {
+
+    private static final byte FALSE = 0;
+    private static final byte TRUE = 1;
+
+    /** Result of a context without value, that falls back to its enclosing context. */
+    private static final byte NONE = 2;
+
+    /** Modifiers with up to this number of contexts are scanned linearly instead of indexed. */
+    private static final int MAX_SCANNED_KEYS = 8;
+
+    private static final BooleanFlag CONSTANT_FALSE = new BooleanFlag(FALSE);
+    private static final BooleanFlag CONSTANT_TRUE = new BooleanFlag(TRUE);
+    private static final BooleanFlag CONSTANT_NONE = new BooleanFlag(NONE);
+
+    /** Default value of context. */
+    private final byte value;
+
+    /** Context type of exact modifiers, null for constants and other modifiers. */
+    private final String type;
+
+    /** Context values of exact modifiers. */
+    private final String[] keys;
+
+    /** Open addressing index of key positions plus one, null for few keys. */
+    private final int[] index;
+
+    /** Value bit per key position of constant contexts. */
+    private final long[] bits;
+
+    /** Compiled context per key position, null for constant contexts. */
+    private final BooleanFlag[] children;
+
+    /** Modifiers with match types or composite types, null for constants and exact modifiers. */
+    private final Modifiers<Boolean> modifiers;
+
+    private BooleanFlag(byte value) {
+        this(value, null, null, null, null, null);
+    }
+
+    private BooleanFlag(byte value, String type, String[] keys, long[] bits, BooleanFlag[] children, Modifiers<Boolean> modifiers) {
+        this.value = value;
+        this.type = type;
+        this.keys = keys;
+        this.bits = bits;
+        this.children = children;
+        this.modifiers = modifiers;
+        index = keys != null && keys.length > MAX_SCANNED_KEYS ? createIndex(keys) : null;
+    }
+
+    /**
+     * Compiles provided feature flag context.
+     *
+     * @param context context of feature flag
+     * @return compiled feature flag
+     */
+    public static BooleanFlag compile(Context<Boolean> context) {
+        byte value = toByte(context.getDefaultValue());
+        Modifiers<Boolean> contextModifiers = context.getModifiers();
+        if (contextModifiers == null) {
+            return constant(value);
+        }
+        if (contextModifiers.getTypes().size() != 1
+                || (contextModifiers.getMatch() != null && contextModifiers.getMatch() != MatchType.EXACT)) {
+            return new BooleanFlag(value, null, null, null, null, contextModifiers);
+        }
+        List<String> keys = new ArrayList<>();
+        List<BooleanFlag> children = new ArrayList<>();
+        boolean constant = true;
+        for (Map.Entry<String, Context<Boolean>> entry : contextModifiers.getContexts().entrySet()) {
+            BooleanFlag child = compile(entry.getValue());
+            if (child.isConstant() && child.value == NONE) {
+                //context without value falls back to this context.
+                continue;
+            }
+            constant &= child.isConstant() && child.value == value;
+            keys.add(entry.getKey());
+            children.add(child);
+        }
+        if (constant) {
+            return constant(value);
+        }
+        long[] bits = new long[(keys.size() + 63) / 64];
+        BooleanFlag[] compiledChildren = new BooleanFlag[keys.size()];
+        for (int position = 0; position < keys.size(); position++) {
+            BooleanFlag child = children.get(position);
+            if (!child.isConstant()) {
+                compiledChildren[position] = child;
+            } else if (child.value == TRUE) {
+                bits[position >>> 6] |= 1L << position;
+            }
+        }
+        return new BooleanFlag(value, contextModifiers.getTypes().get(0), keys.toArray(new String[0]), bits, compiledChildren, null);
+    }
+
+    private static BooleanFlag constant(byte value) {
+        switch (value) {
+            case TRUE:
+                return CONSTANT_TRUE;
+            case FALSE:
+                return CONSTANT_FALSE;
+            default:
+                return CONSTANT_NONE;
+        }
+    }
+
+    private static byte toByte(Boolean value) {
+        if (value == null) {
+            return NONE;
+        }
+        return value ? TRUE : FALSE;
+    }
+
+    private static int[] createIndex(String[] keys) {
+        int[] index = new int[Integer.highestOneBit(keys.length * 2 - 1) << 1];
+        int mask = index.length - 1;
+        for (int position = 0; position < keys.length; position++) {
+            int slot = keys[position].hashCode() & mask;
+            while (index[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = position + 1;
+        }
+        return index;
+    }
+
+    /**
+     * @return true, if value of this context is the same for all runtime contexts.
+     */
+    boolean isConstant() {
+        return type == null && modifiers == null;
+    }
+
+    /**
+     * Returns whether feature flag is active for provided runtime context.
+     *
+     * @param runtimeContext configuration context at runtime
+     * @param defaultValue value for feature flags without value
+     * @return true, if feature flag is active
+     */
+    public boolean isActive(ConfigurationContext runtimeContext, boolean defaultValue) {
+        byte result = evaluate(runtimeContext);
+        return result == NONE ? defaultValue : result == TRUE;
+    }
+
+    private byte evaluate(ConfigurationContext runtimeContext) {
+        if (type != null) {
+            String runtimeContextValue = runtimeContext.get(type);
+            int position = runtimeContextValue == null ? -1 : find(runtimeContextValue);
+            if (position >= 0) {
+                BooleanFlag child = children[position];
+                if (child == null) {
+                    return (bits[position >>> 6] & (1L << position)) == 0 ? FALSE : TRUE;
+                }
+                byte result = child.evaluate(runtimeContext);
+                if (result != NONE) {
+                    return result;
+                }
+            }
+        } else if (modifiers != null) {
+            byte result = toByte(modifiers.getValue(runtimeContext));
+            if (result != NONE) {
+                return result;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * @return position of provided context value, -1 if none found.
+     */
+    private int find(String runtimeContextValue) {
+        if (index == null) {
+            for (int position = 0; position < keys.length; position++) {
+                if (keys[position].equals(runtimeContextValue)) {
+                    return position;
+                }
+            }
+            return -1;
+        }
+        int mask = index.length - 1;
+        for (int slot = runtimeContextValue.hashCode() & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+            int position = index[slot] - 1;
+            if (keys[position].equals(runtimeContextValue)) {
+                return position;
+            }
+        }
+        return -1;
+    }
+}
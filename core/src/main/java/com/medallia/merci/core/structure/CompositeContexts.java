@@ -0,0 +1,166 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.structure;
+
+import com.medallia.merci.core.ConfigurationContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Open-addressing hash table of configuration contexts for composite keys of a composite modifiers level.
+ *
+ * The hash of a key is combined from the hashes of its context values, so that runtime contexts are looked up without
+ * building a combined key.
+ *
+ * @param <T> type of context
+ */
+final class CompositeContexts<T> {
+
+    /** Separator of context values in composite keys. */
+    static final String SEPARATOR = "/";
+
+    private static final Pattern SEPARATOR_PATTERN = Pattern.compile(Pattern.quote(SEPARATOR));
+
+    /** Context types of composite keys. */
+    private final String[] types;
+
+    /** True at index n, if there is a key with n context values. */
+    private final boolean[] lengths;
+
+    /** Context values of key per slot, null for empty slots. */
+    private final String[][] keys;
+
+    /** Hash of key per slot. */
+    private final int[] hashes;
+
+    /** Configuration context per slot. */
+    private final Context<T>[] contexts;
+
+    private final int mask;
+
+    /**
+     * Creates hash table for provided context types and mapping of composite keys to contexts.
+     *
+     * @param types context types
+     * @param contexts map of composite key to context object
+     * @throws IllegalArgumentException in case of a composite key with more context values than types
+     */
+    @SuppressWarnings("unchecked")
+    CompositeContexts(List<String> types, Map<String, Context<T>> contexts) {
+        this.types = types.toArray(new String[0]);
+        lengths = new boolean[this.types.length + 1];
+        int capacity = Integer.highestOneBit(Math.max(1, contexts.size()) * 2) * 2;
+        keys = new String[capacity][];
+        hashes = new int[capacity];
+        this.contexts = (Context<T>[]) new Context<?>[capacity];
+        mask = capacity - 1;
+        for (Map.Entry<String, Context<T>> entry : contexts.entrySet()) {
+            String[] key = split(entry.getKey());
+            if (key.length > this.types.length) {
+                throw new IllegalArgumentException("Key " + entry.getKey() + " has more values than types " + types);
+            }
+            lengths[key.length] = true;
+            int hash = hash(key);
+            int slot = hash & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            hashes[slot] = hash;
+            this.contexts[slot] = entry.getValue();
+        }
+    }
+
+    /**
+     * Returns value object of most specific context with a non-null value for provided runtime context, null if none found.
+     *
+     * @param runtimeContext configuration context at runtime
+     * @return value object, null if none found
+     */
+    T getValue(ConfigurationContext runtimeContext) {
+        for (int length = types.length; length > 0; length--) {
+            if (!lengths[length]) {
+                continue;
+            }
+            Context<T> context = find(runtimeContext, length);
+            if (context != null) {
+                T value = context.getValue(runtimeContext);
+                if (value != null) {
+                    return value;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns context for the first provided number of context values of provided runtime context, null if none found.
+     */
+    private Context<T> find(ConfigurationContext runtimeContext, int length) {
+        int hash = 0;
+        for (int index = 0; index < length; index++) {
+            String value = runtimeContext.get(types[index]);
+            if (value == null) {
+                return null;
+            }
+            hash = 31 * hash + value.hashCode();
+        }
+        hash = spread(hash);
+        for (int slot = hash & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && keys[slot].length == length && equals(keys[slot], runtimeContext)) {
+                return contexts[slot];
+            }
+        }
+        return null;
+    }
+
+    private boolean equals(String[] key, ConfigurationContext runtimeContext) {
+        for (int index = 0; index < key.length; index++) {
+            if (!key[index].equals(runtimeContext.get(types[index]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return context values of provided composite key.
+     */
+    static String[] split(String key) {
+        return SEPARATOR_PATTERN.split(key, -1);
+    }
+
+    /**
+     * @return composite key of provided context values.
+     */
+    static String join(List<String> values) {
+        return String.join(SEPARATOR, values);
+    }
+
+    private static int hash(String[] key) {
+        int hash = 0;
+        for (String value : key) {
+            hash = 31 * hash + value.hashCode();
+        }
+        return spread(hash);
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
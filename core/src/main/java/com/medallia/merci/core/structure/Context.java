@@ -16,11 +16,15 @@
 package com.medallia.merci.core.structure;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.medallia.merci.core.ConfigurationContext;
 
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 /**
  * A configuration context is a sub-tree in the definition of a configuration, that defines a (default) value object of type T
  * at the current level, and an optional override hierarchy, called modifiers.
@@ -50,10 +54,12 @@ import com.medallia.merci.core.ConfigurationContext;
 @JsonIgnoreProperties({"comment"})
 public class Context<T> {
 
-    /** Mandatory, default value object. */
-    @JsonProperty("value")
+    /** Mandatory, default value object, null if lazily bound. */
     private final T value;
 
+    /** Lazily bound default value object, null if eagerly bound. */
+    private final LazyValue<T> lazyValue;
+
     /** Optional modifiers to override default value object, nullable. */
     @JsonProperty("modifiers")
     private final Modifiers<T> modifiers;
@@ -67,10 +73,42 @@ public class Context<T> {
     @JsonCreator
     public Context(@JsonProperty(value = "value", required = true) T value,
                    @JsonProperty(value = "modifiers") Modifiers<T> modifiers) {
+        this(value, null, modifiers);
+    }
+
+    private Context(T value, LazyValue<T> lazyValue, Modifiers<T> modifiers) {
         this.value = value;
+        this.lazyValue = lazyValue;
         this.modifiers = modifiers;
     }
 
+    /**
+     * Creates context based on lazily bound (default) value object and optional modifiers.
+     *
+     * @param lazyValue lazily bound default value object
+     * @param modifiers optional modifiers to override default, nullable
+     * @param <T> type of value object
+     * @return new context
+     */
+    static <T> Context<T> lazy(LazyValue<T> lazyValue, Modifiers<T> modifiers) {
+        return new Context<>(null, lazyValue, modifiers);
+    }
+
+    /**
+     * @return default value object, bound on first call if lazily bound.
+     */
+    @JsonProperty("value")
+    T getDefaultValue() {
+        return lazyValue == null ? value : lazyValue.get();
+    }
+
+    /**
+     * @return modifiers, null if none.
+     */
+    Modifiers<T> getModifiers() {
+        return modifiers;
+    }
+
     /**
      * Returns value object based on provided runtime context.
      *
@@ -84,6 +122,27 @@ public class Context<T> {
                 return modifiersVaue;
             }
         }
-        return value;
+        return getDefaultValue();
+    }
+
+    /**
+     * Returns all context types, that the value of this context depends on, empty if it is context-independent.
+     *
+     * @return set of context types of all nested modifiers
+     */
+    @JsonIgnore
+    public Set<String> getContextTypes() {
+        Set<String> types = new LinkedHashSet<>();
+        addContextTypes(types);
+        return types;
+    }
+
+    private void addContextTypes(Set<String> types) {
+        if (modifiers != null) {
+            types.addAll(modifiers.getTypes());
+            for (Context<T> context : modifiers.getContexts().values()) {
+                context.addContextTypes(types);
+            }
+        }
     }
 }
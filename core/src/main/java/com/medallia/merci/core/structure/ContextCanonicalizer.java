@@ -0,0 +1,151 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.structure;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Converts configuration contexts with JSON values to contexts with value objects, where context types and keys are
+ * interned and, for sharing canonicalizers, structurally identical JSON values are converted only once and bound to one
+ * shared value object.
+ *
+ * I.e., the same database config for many clusters results in a single config object on the heap. Shared value objects
+ * are returned for all of their contexts, so sharing is only safe for immutable value objects. A canonicalizer keeps all
+ * converted value objects, so it should only be used for a single load of configurations.
+ *
+ * A lazy canonicalizer binds no value objects at all, but creates one {@link LazyValue} per context, or per structurally
+ * identical JSON value if sharing, so that each value object is bound on first evaluation of any of its contexts.
+ *
+ * @param <T> type of value object
+ */
+public final class ContextCanonicalizer<T> {
+
+    private final Function<JsonNode, T> converter;
+
+    private final boolean lazy;
+
+    /** True, if structurally identical JSON values share one value object. */
+    private final boolean shared;
+
+    /** Number of value objects converted, or lazy values created, without sharing. */
+    private int unsharedValues;
+
+    /** Shared value object per structurally identical JSON value. */
+    private final Map<JsonNode, T> values = new HashMap<>();
+
+    /** Shared lazy value per structurally identical JSON value, empty unless lazy. */
+    private final Map<JsonNode, LazyValue<T>> lazyValues = new HashMap<>();
+
+    /**
+     * Creates sharing canonicalizer with provided converter of JSON values to value objects.
+     *
+     * @param converter converter of JSON value to value object, throws IllegalArgumentException for invalid JSON values
+     */
+    public ContextCanonicalizer(Function<JsonNode, T> converter) {
+        this(converter, false);
+    }
+
+    /**
+     * Creates sharing canonicalizer with provided converter of JSON values to value objects, that optionally binds lazily.
+     *
+     * @param converter converter of JSON value to value object, for lazy binding called on first evaluation
+     * @param lazy true, if value objects should be bound on first evaluation instead of during canonicalization
+     */
+    public ContextCanonicalizer(Function<JsonNode, T> converter, boolean lazy) {
+        this(converter, lazy, true);
+    }
+
+    /**
+     * Creates canonicalizer with provided converter of JSON values to value objects, that optionally binds lazily and
+     * optionally shares value objects of structurally identical JSON values.
+     *
+     * @param converter converter of JSON value to value object, for lazy binding called on first evaluation
+     * @param lazy true, if value objects should be bound on first evaluation instead of during canonicalization
+     * @param shared true, if structurally identical JSON values should share one value object, only for immutable value objects
+     */
+    public ContextCanonicalizer(Function<JsonNode, T> converter, boolean lazy, boolean shared) {
+        this.converter = converter;
+        this.lazy = lazy;
+        this.shared = shared;
+    }
+
+    /**
+     * Returns new context with shared value objects for provided context with JSON values.
+     *
+     * @param context context with JSON values
+     * @return new context with shared value objects
+     * @throws IllegalArgumentException, if a JSON value could not be converted
+     */
+    public Context<T> canonicalize(Context<JsonNode> context) {
+        Modifiers<JsonNode> modifiers = context.getModifiers();
+        if (modifiers == null) {
+            return newContext(context.getDefaultValue(), null);
+        }
+        List<String> types = new ArrayList<>(modifiers.getTypes().size());
+        for (String type : modifiers.getTypes()) {
+            types.add(type.intern());
+        }
+        Map<String, Context<T>> contexts = new LinkedHashMap<>();
+        for (Map.Entry<String, Context<JsonNode>> entry : modifiers.getContexts().entrySet()) {
+            contexts.put(entry.getKey().intern(), canonicalize(entry.getValue()));
+        }
+        return newContext(context.getDefaultValue(), modifiers.withContexts(types, contexts));
+    }
+
+    /**
+     * @return number of distinct value objects converted, or lazy values created, by this canonicalizer.
+     */
+    public int size() {
+        if (!shared) {
+            return unsharedValues;
+        }
+        return lazy ? lazyValues.size() : values.size();
+    }
+
+    private Context<T> newContext(JsonNode json, Modifiers<T> modifiers) {
+        if (!shared) {
+            if (json != null && !json.isNull()) {
+                unsharedValues++;
+            }
+            return lazy ? Context.lazy(new LazyValue<>(json, converter), modifiers) : new Context<>(converter.apply(json), modifiers);
+        }
+        if (lazy) {
+            return Context.lazy(lazyValues.computeIfAbsent(json == null ? NullNode.getInstance() : json,
+                    key -> new LazyValue<>(json, converter)), modifiers);
+        }
+        return new Context<>(canonicalize(json), modifiers);
+    }
+
+    private T canonicalize(JsonNode json) {
+        if (json == null || json.isNull()) {
+            return converter.apply(json);
+        }
+        T value = values.get(json);
+        if (value == null) {
+            value = converter.apply(json);
+            values.put(json, value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.structure;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.function.Function;
+
+/**
+ * Value object, that is bound from its JSON value on first access and cached afterwards.
+ *
+ * A lazy value belongs to the contexts of a single load of configurations, so its cached value object lives exactly as
+ * long as the generation of the configuration store, that holds these contexts. The JSON value is released once bound.
+ *
+ * @param <T> type of value object
+ */
+public final class LazyValue<T> {
+
+    private JsonNode json;
+    private Function<JsonNode, T> converter;
+    private volatile boolean bound;
+    private T value;
+
+    /**
+     * Creates lazy value for provided JSON value.
+     *
+     * @param json JSON value
+     * @param converter converter of JSON value to value object, called at most once
+     */
+    public LazyValue(JsonNode json, Function<JsonNode, T> converter) {
+        this.json = json;
+        this.converter = converter;
+    }
+
+    /**
+     * @return value object, bound from JSON value on first call.
+     */
+    public T get() {
+        if (!bound) {
+            synchronized (this) {
+                if (!bound) {
+                    value = converter.apply(json);
+                    json = null;
+                    converter = null;
+                    bound = true;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * @return true, if value object was already bound.
+     */
+    public boolean isBound() {
+        return bound;
+    }
+}
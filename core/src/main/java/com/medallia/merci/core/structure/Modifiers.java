@@ -16,9 +16,16 @@
 package com.medallia.merci.core.structure;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.medallia.merci.core.ConfigurationContext;
+import com.medallia.merci.core.matcher.ContextMatcher;
+import com.medallia.merci.core.matcher.MatchType;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -42,29 +49,150 @@ import java.util.Map;
  *      }
  *  }
  *
+ * By default, context values are matched exactly. An optional match type of 'prefix', 'glob' or 'regex' treats context
+ * values as patterns instead, i.e. "xj10" as prefix for hosts "xj1001" and "xj1002". All patterns of a modifiers
+ * level are compiled once into a single automaton when the modifiers are created.
+ *
+ * A composite modifiers level is keyed on a list of context types, i.e. ["environment", "cluster"], with context keys
+ * of '/'-separated context values, i.e. "qa/cem341". Keys with fewer values than types apply to all runtime contexts
+ * with these leading values, i.e. "qa" for any cluster in QA, and the most specific key with a non-null value wins.
+ *
  * @param <T> type of context
  */
 public class Modifiers<T> {
 
-    /** Type of context values to override default value from parent level in configuration hierarchy. */
+    /** Types of context values to override default value from parent level in configuration hierarchy. */
     @JsonProperty("type")
-    private final String type;
+    @JsonFormat(with = {JsonFormat.Feature.ACCEPT_SINGLE_VALUE_AS_ARRAY, JsonFormat.Feature.WRITE_SINGLE_ELEM_ARRAYS_UNWRAPPED})
+    private final List<String> types;
+
+    /** Single context type, null for composite modifiers. */
+    private final String singleType;
+
+    /** Optional type of matching between runtime context values and context values, nullable for exact matching. */
+    @JsonProperty("match")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final MatchType match;
 
     /** Map of context value to configuration context. */
     @JsonProperty("contexts")
     private final Map<String, Context<T>> contexts;
 
+    /** Compiled matcher for context patterns, null for exact matching. */
+    private final ContextMatcher matcher;
+
+    /** Configuration contexts in order of context patterns, null for exact matching. */
+    private final List<Context<T>> matchedContexts;
+
+    /** Hash table of configuration contexts for composite keys, null for single type. */
+    private final CompositeContexts<T> compositeContexts;
+
     /**
      * Creates new modifiers container for a given context type and a mapping of context values new contexts.
      *
      * @param type context type
      * @param contexts map of context value to context object
      */
+    public Modifiers(String type, Map<String, Context<T>> contexts) {
+        this(type, null, contexts);
+    }
+
+    /**
+     * Creates new modifiers container for a given context type, match type and a mapping of context patterns to new contexts.
+     *
+     * @param type context type
+     * @param match type of matching, nullable for exact matching
+     * @param contexts map of context pattern to context object
+     * @throws IllegalArgumentException in case of invalid context patterns
+     */
+    public Modifiers(String type, MatchType match, Map<String, Context<T>> contexts) {
+        this(Collections.singletonList(type), match, contexts);
+    }
+
+    /**
+     * Creates new modifiers container for given context types, match type and a mapping of context keys to new contexts.
+     *
+     * @param types context types, more than one for composite modifiers
+     * @param match type of matching, nullable for exact matching, only supported for a single context type
+     * @param contexts map of context pattern or composite key to context object
+     * @throws IllegalArgumentException in case of invalid context patterns or composite keys
+     */
     @JsonCreator
-    public Modifiers(@JsonProperty(value = "type", required = true) String type,
+    public Modifiers(@JsonProperty(value = "type", required = true)
+                     @JsonFormat(with = JsonFormat.Feature.ACCEPT_SINGLE_VALUE_AS_ARRAY) List<String> types,
+                     @JsonProperty(value = "match") MatchType match,
                      @JsonProperty(value = "contexts", required = true) Map<String, Context<T>> contexts) {
-        this.type = type;
+        this(types, match, contexts, compile(types, match, contexts));
+    }
+
+    /**
+     * Creates new modifiers container with an already compiled matcher for the context patterns.
+     */
+    private Modifiers(List<String> types, MatchType match, Map<String, Context<T>> contexts, ContextMatcher matcher) {
+        this.types = types;
+        this.match = match;
         this.contexts = contexts;
+        this.matcher = matcher;
+        if (types.size() == 1) {
+            singleType = types.get(0);
+            compositeContexts = null;
+        } else {
+            singleType = null;
+            compositeContexts = new CompositeContexts<>(types, contexts);
+        }
+        matchedContexts = matcher == null ? null : new ArrayList<>(contexts.values());
+    }
+
+    /**
+     * Returns new modifiers container with the same match type and matcher, for provided equal context types and
+     * provided contexts with equal keys in the same order.
+     *
+     * @param types context types, equal to types of these modifiers
+     * @param contexts map of context pattern or composite key to context object, with keys of these modifiers in same order
+     * @param <R> type of new context
+     * @return new modifiers container
+     */
+    <R> Modifiers<R> withContexts(List<String> types, Map<String, Context<R>> contexts) {
+        return new Modifiers<>(types, match, contexts, matcher);
+    }
+
+    /**
+     * Returns matcher for context patterns of provided match type, null for exact matching.
+     *
+     * @throws IllegalArgumentException in case of missing types, invalid context patterns or composite types with patterns
+     */
+    private static <T> ContextMatcher compile(List<String> types, MatchType match, Map<String, Context<T>> contexts) {
+        if (types.isEmpty()) {
+            throw new IllegalArgumentException("Missing context type.");
+        }
+        if (match == null) {
+            return null;
+        }
+        if (types.size() > 1 && match != MatchType.EXACT) {
+            throw new IllegalArgumentException("Match type " + match + " is not supported for composite types " + types);
+        }
+        return match.compile(new ArrayList<>(contexts.keySet()));
+    }
+
+    /**
+     * @return context types.
+     */
+    List<String> getTypes() {
+        return types;
+    }
+
+    /**
+     * @return type of matching, null for exact matching.
+     */
+    MatchType getMatch() {
+        return match;
+    }
+
+    /**
+     * @return map of context pattern or composite key to context object.
+     */
+    Map<String, Context<T>> getContexts() {
+        return contexts;
     }
 
     /**
@@ -74,14 +202,28 @@ public class Modifiers<T> {
      * @return configuration value of type T for given configuration context, null if none found.
      */
     public T getValue(ConfigurationContext runtimeContext) {
-        String runtimeContextValue = runtimeContext.get(type);
+        if (compositeContexts != null) {
+            return compositeContexts.getValue(runtimeContext);
+        }
+        String runtimeContextValue = runtimeContext.get(singleType);
         if (runtimeContextValue == null) {
             return null;
         }
-        Context<T> context = contexts.get(runtimeContextValue);
+        Context<T> context = find(runtimeContextValue);
         if (context == null) {
             return null;
         }
         return context.getValue(runtimeContext);
     }
+
+    /**
+     * @return configuration context for provided runtime context value, null if none found.
+     */
+    private Context<T> find(String runtimeContextValue) {
+        if (matcher == null) {
+            return contexts.get(runtimeContextValue);
+        }
+        int index = matcher.match(runtimeContextValue);
+        return index < 0 ? null : matchedContexts.get(index);
+    }
 }
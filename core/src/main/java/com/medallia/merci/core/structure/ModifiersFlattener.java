@@ -0,0 +1,138 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.structure;
+
+import com.medallia.merci.core.matcher.MatchType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flattens nested modifiers hierarchies into composite modifiers with the same evaluation results.
+ *
+ * I.e., environment modifiers, whose contexts only have cluster modifiers, are flattened into a single composite
+ * modifiers level of types ["environment", "cluster"] with keys like "qa" and "qa/cem341". Levels are only flattened,
+ * while all contexts of a level have exact modifiers of the same single type and no context value contains the
+ * composite key separator.
+ */
+public final class ModifiersFlattener {
+
+    private ModifiersFlattener() {
+        // Utility class with static methods only.
+    }
+
+    /**
+     * Returns context with flattened modifiers hierarchy, provided context if there is nothing to flatten.
+     *
+     * @param context context to be flattened
+     * @param <T> type of context
+     * @return context with flattened modifiers hierarchy
+     */
+    public static <T> Context<T> flatten(Context<T> context) {
+        Modifiers<T> modifiers = context.getModifiers();
+        if (modifiers == null) {
+            return context;
+        }
+        if (!isFlattenable(modifiers)) {
+            return flattenContexts(context, modifiers);
+        }
+        List<String> types = new ArrayList<>(modifiers.getTypes());
+        Collection<Context<T>> level = modifiers.getContexts().values();
+        String type = nextType(level, types);
+        while (type != null) {
+            types.add(type);
+            List<Context<T>> nextLevel = new ArrayList<>();
+            for (Context<T> levelContext : level) {
+                if (levelContext.getModifiers() != null) {
+                    nextLevel.addAll(levelContext.getModifiers().getContexts().values());
+                }
+            }
+            level = nextLevel;
+            type = nextType(level, types);
+        }
+        if (types.size() == 1) {
+            return flattenContexts(context, modifiers);
+        }
+        Map<String, Context<T>> contexts = new LinkedHashMap<>();
+        addContexts(contexts, Collections.emptyList(), modifiers, types.size());
+        return new Context<>(context.getDefaultValue(), new Modifiers<>(types, null, contexts));
+    }
+
+    /**
+     * Returns context with each child context flattened individually.
+     */
+    private static <T> Context<T> flattenContexts(Context<T> context, Modifiers<T> modifiers) {
+        Map<String, Context<T>> contexts = new LinkedHashMap<>();
+        for (Map.Entry<String, Context<T>> entry : modifiers.getContexts().entrySet()) {
+            contexts.put(entry.getKey(), flatten(entry.getValue()));
+        }
+        return new Context<>(context.getDefaultValue(), modifiers.withContexts(modifiers.getTypes(), contexts));
+    }
+
+    /**
+     * Adds contexts of provided modifiers with composite keys to provided map, absorbing nested modifiers up to provided depth.
+     */
+    private static <T> void addContexts(Map<String, Context<T>> contexts, List<String> path, Modifiers<T> modifiers, int depth) {
+        for (Map.Entry<String, Context<T>> entry : modifiers.getContexts().entrySet()) {
+            List<String> key = new ArrayList<>(path);
+            key.add(entry.getKey());
+            Context<T> context = entry.getValue();
+            if (key.size() == depth || context.getModifiers() == null) {
+                contexts.put(CompositeContexts.join(key), flatten(context));
+            } else {
+                contexts.put(CompositeContexts.join(key), new Context<>(context.getDefaultValue(), null));
+                addContexts(contexts, key, context.getModifiers(), depth);
+            }
+        }
+    }
+
+    /**
+     * Returns common single type of exact modifiers of provided contexts, null if there is none or types differ.
+     */
+    private static <T> String nextType(Collection<Context<T>> contexts, List<String> types) {
+        String type = null;
+        for (Context<T> context : contexts) {
+            Modifiers<T> modifiers = context.getModifiers();
+            if (modifiers == null) {
+                continue;
+            }
+            if (!isFlattenable(modifiers) || (type != null && !type.equals(modifiers.getTypes().get(0)))) {
+                return null;
+            }
+            type = modifiers.getTypes().get(0);
+        }
+        return types.contains(type) ? null : type;
+    }
+
+    /**
+     * @return true, if provided modifiers have a single type, exact matching and no context value with a separator.
+     */
+    private static <T> boolean isFlattenable(Modifiers<T> modifiers) {
+        if (modifiers.getTypes().size() != 1 || (modifiers.getMatch() != null && modifiers.getMatch() != MatchType.EXACT)) {
+            return false;
+        }
+        for (String key : modifiers.getContexts().keySet()) {
+            if (key.contains(CompositeContexts.SEPARATOR)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -3,13 +3,27 @@ package com.medallia.merci.core.utils;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.type.TypeFactory;
 
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Default implementation for {@link ClassFinder}.
+ *
+ * Found classes are cached, as they never change for a class loader. Missing classes are cached as well, until
+ * {@link #invalidateMissingClasses()} is called, i.e. after deploying new config classes to a dynamic class loader,
+ * so that every reload of configurations with unknown classes avoids repeated class loader searches.
  */
 public class DefaultClassFinder implements ClassFinder<Object> {
 
     private final TypeFactory typeFactory;
 
+    /** Found class per class name. */
+    private final Map<String, Class<Object>> classes;
+
+    /** Names of missing classes. */
+    private final Set<String> missingClasses;
+
     /**
      * Creates default class finder, using type factory from Jackson's object mapper.
      */
@@ -24,11 +38,51 @@ public class DefaultClassFinder implements ClassFinder<Object> {
      */
     public DefaultClassFinder(TypeFactory typeFactory) {
         this.typeFactory = typeFactory;
+        classes = new ConcurrentHashMap<>();
+        missingClasses = ConcurrentHashMap.newKeySet();
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public Class<Object> findClass(String className) throws ClassNotFoundException {
-        return (Class<Object>) typeFactory.findClass(className);
+        Class<Object> clazz = classes.get(className);
+        if (clazz != null) {
+            return clazz;
+        }
+        if (missingClasses.contains(className)) {
+            throw new MissingClassException(className);
+        }
+        try {
+            clazz = (Class<Object>) typeFactory.findClass(className);
+        } catch (ClassNotFoundException exception) {
+            missingClasses.add(className);
+            throw exception;
+        }
+        classes.put(className, clazz);
+        return clazz;
+    }
+
+    /**
+     * Forgets all missing classes, so that the next lookups search the class loader again.
+     */
+    public void invalidateMissingClasses() {
+        missingClasses.clear();
+    }
+
+    /**
+     * Exception for a cached missing class, without stack trace, as it is thrown for every reload.
+     */
+    private static final class MissingClassException extends ClassNotFoundException {
+
+        private static final long serialVersionUID = 1L;
+
+        private MissingClassException(String className) {
+            super(className);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
     }
 }
@@ -118,6 +118,24 @@ public class ConfigManagerTest {
         Assert.assertEquals(-1, config.getNumber());
     }
 
+    @Test
+    public void testGetConfigReturnsSharedDefaultConfigForMissingConfig() {
+        Assert.assertSame(configManager.getConfig(MessageConfig.class, qa), configManager.getConfig(MessageConfig.class, qa));
+    }
+
+    @Test
+    public void testGetConfigReturnsNewDefaultConfigForMutableDefault() {
+        configManager.registerMutableDefault(MessageConfig.class);
+        Assert.assertNotSame(configManager.getConfig(MessageConfig.class, qa), configManager.getConfig(MessageConfig.class, qa));
+    }
+
+    @Test
+    public void testGetConfigReturnsDefaultConfigOfRegisteredSupplier() {
+        configManager.getConfig(NumberConfig.class, qa);
+        configManager.registerDefault(NumberConfig.class, () -> new NumberConfig(0));
+        Assert.assertEquals(0, configManager.getConfig(NumberConfig.class, qa).getNumber());
+    }
+
     @Test
     public void testGetConfigNamesReturnsCorrectNames() {
         configManager.updateConfigurations(multiValueConfigs);
@@ -41,4 +41,13 @@ public class ConfigurationContextTest {
         runtimeContext2.put("environment", "qa");
         Assert.assertEquals(runtimeContext1.hashCode(), runtimeContext2.hashCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testClearRemovesAllMappings() {
+        ConfigurationContext runtimeContext = new ConfigurationContext();
+        runtimeContext.put("environment", "qa");
+        runtimeContext.clear();
+        Assert.assertNull(runtimeContext.get("environment"));
+        Assert.assertEquals(new ConfigurationContext(), runtimeContext);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import com.medallia.merci.core.structure.Context;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * Unit tests for {@link ConfigurationHistory}.
+ */
+public class ConfigurationHistoryTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final FeatureFlagManager featureFlagManager = new FeatureFlagManager();
+
+    private final ConfigurationHistory<Boolean> history = new ConfigurationHistory<>(featureFlagManager, "feature-flags", objectMapper, 2);
+
+    @Test
+    public void testGetDeltaIsCompleteForUnknownEpoch() throws IOException {
+        featureFlagManager.updateConfigurations(ImmutableMap.of("enable-all", flag("enable-all", true), "enable-none", flag("enable-none", false)));
+        JsonNode delta = objectMapper.readTree(history.getDelta("", 0));
+        Assert.assertEquals(history.getEpoch(), delta.get("epoch").asText());
+        Assert.assertEquals(1, delta.get("generation").asLong());
+        Assert.assertTrue(delta.get("complete").asBoolean());
+        Assert.assertEquals(0, delta.get("removed").size());
+        Assert.assertTrue(delta.get("feature-flags").get("enable-all").get("value").asBoolean());
+        Assert.assertFalse(delta.get("feature-flags").get("enable-none").get("value").asBoolean());
+    }
+
+    @Test
+    public void testGetDeltaContainsOnlyChangedAndRemovedConfigurations() throws IOException {
+        featureFlagManager.updateConfigurations(ImmutableMap.of("enable-all", flag("enable-all", true), "enable-none", flag("enable-none", false)));
+        featureFlagManager.updateConfigurations(ImmutableMap.of("enable-all", flag("enable-all", false)));
+        JsonNode delta = objectMapper.readTree(history.getDelta(history.getEpoch(), 1));
+        Assert.assertEquals(2, delta.get("generation").asLong());
+        Assert.assertFalse(delta.get("complete").asBoolean());
+        Assert.assertEquals("enable-none", delta.get("removed").get(0).asText());
+        Assert.assertEquals(1, delta.get("feature-flags").size());
+        Assert.assertFalse(delta.get("feature-flags").get("enable-all").get("value").asBoolean());
+    }
+
+    @Test
+    public void testGetDeltaIsEmptyForCurrentGeneration() throws IOException {
+        featureFlagManager.updateConfigurations(ImmutableMap.of("enable-all", flag("enable-all", true)));
+        featureFlagManager.updateConfigurations(ImmutableMap.of("enable-all", flag("enable-all", true)));
+        JsonNode delta = objectMapper.readTree(history.getDelta(history.getEpoch(), 1));
+        Assert.assertFalse(delta.get("complete").asBoolean());
+        Assert.assertEquals(0, delta.get("removed").size());
+        Assert.assertEquals(0, delta.get("feature-flags").size());
+    }
+
+    @Test
+    public void testGetDeltaKeepsConfigurationThatCannotBeSerialized() throws IOException {
+        FailingObjectMapper failingMapper = new FailingObjectMapper();
+        FeatureFlagManager manager = new FeatureFlagManager();
+        ConfigurationHistory<Boolean> failingHistory = new ConfigurationHistory<>(manager, "feature-flags", failingMapper, 2);
+        manager.updateConfigurations(ImmutableMap.of("enable-all", flag("enable-all", true)));
+        failingMapper.failing = true;
+        manager.updateConfigurations(ImmutableMap.of("enable-all", flag("enable-all", false), "enable-new", flag("enable-new", true)));
+        failingMapper.failing = false;
+        JsonNode delta = objectMapper.readTree(failingHistory.getDelta(failingHistory.getEpoch(), 1));
+        Assert.assertEquals(0, delta.get("removed").size());
+        Assert.assertEquals(0, delta.get("feature-flags").size());
+        JsonNode complete = objectMapper.readTree(failingHistory.getDelta("", 0));
+        Assert.assertTrue(complete.get("feature-flags").get("enable-all").get("value").asBoolean());
+    }
+
+    @Test
+    public void testGetDeltaIsCompleteForGenerationOlderThanHistory() throws IOException {
+        featureFlagManager.updateConfigurations(ImmutableMap.of("enable-all", flag("enable-all", true)));
+        featureFlagManager.patchConfigurations(ImmutableMap.of("enable-one", flag("enable-one", true)), Collections.emptyList());
+        featureFlagManager.patchConfigurations(ImmutableMap.of("enable-two", flag("enable-two", true)), Collections.emptyList());
+        Assert.assertTrue(objectMapper.readTree(history.getDelta(history.getEpoch(), 0)).get("complete").asBoolean());
+        JsonNode delta = objectMapper.readTree(history.getDelta(history.getEpoch(), 1));
+        Assert.assertFalse(delta.get("complete").asBoolean());
+        Assert.assertEquals(2, delta.get("feature-flags").size());
+    }
+
+    private static Configuration<Boolean> flag(String name, boolean value) {
+        return new Configuration<>(name, new Context<>(value, null));
+    }
+
+    /**
+     * Object mapper, that fails to serialize values while failing is set.
+     */
+    private static final class FailingObjectMapper extends ObjectMapper {
+
+        private static final long serialVersionUID = 1L;
+
+        private boolean failing;
+
+        @Override
+        public String writeValueAsString(Object value) throws JsonProcessingException {
+            if (failing) {
+                throw new JsonMappingException(null, "Failing serialization.");
+            }
+            return super.writeValueAsString(value);
+        }
+    }
+}
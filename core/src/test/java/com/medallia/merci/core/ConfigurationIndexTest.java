@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core;
+
+import com.medallia.merci.core.structure.Context;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link ConfigurationIndex}.
+ */
+public class ConfigurationIndexTest {
+
+    @Test
+    public void testGetReturnsAllConfigurations() {
+        Map<String, Configuration<Boolean>> source = createConfigurations(5000);
+        ConfigurationIndex<Boolean> index = new ConfigurationIndex<>(source);
+        Assert.assertEquals(source.size(), index.size());
+        for (Map.Entry<String, Configuration<Boolean>> entry : source.entrySet()) {
+            Assert.assertSame(entry.getValue(), index.get(entry.getKey()));
+        }
+        Assert.assertNull(index.get("flag-5000"));
+        Assert.assertNull(index.get(null));
+        Assert.assertFalse(index.containsKey("missing"));
+    }
+
+    @Test
+    public void testCollidingNamesAreFound() {
+        //"Aa" and "BB" have the same hash code.
+        Map<String, Configuration<Boolean>> source = new LinkedHashMap<>();
+        source.put("Aa", new Configuration<>("Aa", new Context<>(Boolean.TRUE, null)));
+        source.put("BB", new Configuration<>("BB", new Context<>(Boolean.FALSE, null)));
+        ConfigurationIndex<Boolean> index = new ConfigurationIndex<>(source);
+        Assert.assertSame(source.get("Aa"), index.get("Aa"));
+        Assert.assertSame(source.get("BB"), index.get("BB"));
+        Assert.assertNull(index.get("C#"));
+    }
+
+    @Test
+    public void testIterationKeepsOrderOfSource() {
+        Map<String, Configuration<Boolean>> source = createConfigurations(100);
+        ConfigurationIndex<Boolean> index = new ConfigurationIndex<>(source);
+        Assert.assertEquals(new ArrayList<>(source.keySet()), new ArrayList<>(index.keySet()));
+        Assert.assertEquals(source, index);
+    }
+
+    @Test
+    public void testEmptyIndexReturnsNull() {
+        ConfigurationIndex<Boolean> index = new ConfigurationIndex<>(Collections.emptyMap());
+        Assert.assertTrue(index.isEmpty());
+        Assert.assertNull(index.get("flag-0"));
+    }
+
+    private static Map<String, Configuration<Boolean>> createConfigurations(int size) {
+        Map<String, Configuration<Boolean>> configurations = new LinkedHashMap<>();
+        for (int index = 0; index < size; index++) {
+            String name = "flag-" + index;
+            configurations.put(name, new Configuration<>(name, new Context<>(index % 2 == 0, null)));
+        }
+        return configurations;
+    }
+}
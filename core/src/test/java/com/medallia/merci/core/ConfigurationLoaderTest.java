@@ -27,10 +27,17 @@ import org.mockito.Matchers;
 import org.mockito.Mockito;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -64,7 +71,7 @@ public class ConfigurationLoaderTest {
 
         ConfigurationLoader configurationLoader = new ConfigurationLoader(configLoaderMetrics, Arrays.asList(featureFlagReader), executorService, Duration.ofSeconds(1));
         configurationLoader.start();
-        Mockito.verify(executorService).scheduleWithFixedDelay(runnableCaptor.capture(), Matchers.anyLong(), Matchers.anyLong(), Matchers.any(TimeUnit.class));
+        Mockito.verify(executorService).schedule(runnableCaptor.capture(), Matchers.anyLong(), Matchers.any(TimeUnit.class));
         runnableCaptor.getValue().run();
         Assert.assertEquals(1, configLoaderMetrics.getConfigurationFailures());
         Assert.assertEquals(1, configLoaderMetrics.getConfigurationRequests());
@@ -85,12 +92,150 @@ public class ConfigurationLoaderTest {
 
         ConfigurationLoader configurationLoader = new ConfigurationLoader(configLoaderMetrics, Arrays.asList(featureFlagReader), executorService, Duration.ofSeconds(1));
         configurationLoader.start();
-        Mockito.verify(executorService).scheduleWithFixedDelay(runnableCaptor.capture(), Matchers.anyLong(), Matchers.anyLong(), Matchers.any(TimeUnit.class));
+        Mockito.verify(executorService).schedule(runnableCaptor.capture(), Matchers.anyLong(), Matchers.any(TimeUnit.class));
         runnableCaptor.getValue().run();
         Assert.assertEquals(1, configLoaderMetrics.getConfigurationFailures());
         Assert.assertEquals(1, configLoaderMetrics.getConfigurationRequests());
     }
 
+    /**
+     * Tests that Configuration Loader schedules reads faster after changes, slower when stable and backs off on failures.
+     */
+    @Test
+    public void testConfigurationLoaderAdaptsDelaysToChangesAndFailures() {
+        Deque<Object> outcomes = new ArrayDeque<>(Arrays.asList(true, false, false, false, new IOException("problems"),
+                new IOException("problems"), false));
+        ConfigurationTask reader = () -> {
+            Object outcome = outcomes.poll();
+            if (outcome instanceof IOException) {
+                throw (IOException) outcome;
+            }
+            return (Boolean) outcome;
+        };
+        ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+        ArgumentCaptor<Long> delayCaptor = ArgumentCaptor.forClass(Long.class);
+        ScheduledExecutorService executorService = Mockito.mock(ScheduledExecutorService.class);
+
+        RefreshPolicy refreshPolicy = new RefreshPolicy(Duration.ofSeconds(4), Duration.ofSeconds(1), Duration.ofSeconds(10), 3, 0);
+        ConfigurationLoader configLoader = new ConfigurationLoader(configLoaderMetrics, Arrays.asList(reader), executorService, refreshPolicy);
+        configLoader.start();
+        for (int execution = 0; execution < 7; execution++) {
+            Mockito.verify(executorService, Mockito.times(execution + 1)).schedule(runnableCaptor.capture(), delayCaptor.capture(), Matchers.eq(TimeUnit.MILLISECONDS));
+            runnableCaptor.getValue().run();
+        }
+        Mockito.verify(executorService, Mockito.times(8)).schedule(runnableCaptor.capture(), delayCaptor.capture(), Matchers.eq(TimeUnit.MILLISECONDS));
+        Assert.assertEquals(Arrays.asList(0L, 1000L, 2000L, 4000L, 8000L, 4000L, 8000L, 4000L),
+                delayCaptor.getAllValues().subList(delayCaptor.getAllValues().size() - 8, delayCaptor.getAllValues().size()));
+        Assert.assertEquals(2, configLoaderMetrics.getConfigurationFailures());
+        Assert.assertEquals(7, configLoaderMetrics.getConfigurationRequests());
+    }
+
+    /**
+     * Tests that Configuration Loader keeps a fixed delay for a refresh interval, also after changes and failures.
+     */
+    @Test
+    public void testConfigurationLoaderWithRefreshIntervalUsesFixedDelays() {
+        Deque<Object> outcomes = new ArrayDeque<>(Arrays.asList(true, false, new IOException("problems")));
+        ConfigurationTask reader = () -> {
+            Object outcome = outcomes.poll();
+            if (outcome instanceof IOException) {
+                throw (IOException) outcome;
+            }
+            return (Boolean) outcome;
+        };
+        ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+        ArgumentCaptor<Long> delayCaptor = ArgumentCaptor.forClass(Long.class);
+        ScheduledExecutorService executorService = Mockito.mock(ScheduledExecutorService.class);
+
+        ConfigurationLoader configLoader = new ConfigurationLoader(configLoaderMetrics, Arrays.asList(reader), executorService, Duration.ofSeconds(2));
+        configLoader.start();
+        for (int execution = 0; execution < 3; execution++) {
+            Mockito.verify(executorService, Mockito.times(execution + 1)).schedule(runnableCaptor.capture(), delayCaptor.capture(), Matchers.eq(TimeUnit.MILLISECONDS));
+            runnableCaptor.getValue().run();
+        }
+        Mockito.verify(executorService, Mockito.times(4)).schedule(runnableCaptor.capture(), delayCaptor.capture(), Matchers.eq(TimeUnit.MILLISECONDS));
+        Assert.assertEquals(Arrays.asList(0L, 2000L, 2000L, 2000L),
+                delayCaptor.getAllValues().subList(delayCaptor.getAllValues().size() - 4, delayCaptor.getAllValues().size()));
+    }
+
+    /**
+     * Tests that Configuration Loader waits for the parallel first executions of all readers.
+     */
+    @Test
+    public void testStartAndAwaitReturnsOnceAllReadersLoadedConfigurations() throws IOException {
+        CountDownLatch latch = new CountDownLatch(2);
+        ConfigurationTask reader = () -> {
+            latch.countDown();
+            try {
+                //both readers only finish, if they run in parallel.
+                return latch.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException exception) {
+                throw new InterruptedIOException();
+            }
+        };
+        ConfigurationLoader configLoader = new ConfigurationLoader(configLoaderMetrics, Arrays.asList(reader, reader),
+                Executors.newScheduledThreadPool(2), RefreshPolicy.fixed(Duration.ofMinutes(1)));
+        Assert.assertFalse(configLoader.isReady());
+        configLoader.startAndAwait(Duration.ofSeconds(10));
+        configLoader.shutdown();
+        Assert.assertTrue(configLoader.isReady());
+        Assert.assertTrue(configLoaderMetrics.isReady());
+        Assert.assertEquals(2, configLoaderMetrics.getConfigurationRequests());
+    }
+
+    /**
+     * Tests that Configuration Loader retries failed first executions of a reader until the timeout.
+     */
+    @Test
+    public void testStartAndAwaitRetriesFailedReader() throws IOException {
+        Deque<Object> outcomes = new ArrayDeque<>(Arrays.asList(new IOException("problems"), true));
+        ConfigurationTask reader = () -> {
+            Object outcome = outcomes.poll();
+            if (outcome instanceof IOException) {
+                throw (IOException) outcome;
+            }
+            return (Boolean) outcome;
+        };
+        ConfigurationLoader configLoader = new ConfigurationLoader(configLoaderMetrics, Arrays.asList(reader),
+                Executors.newScheduledThreadPool(1), Duration.ofMillis(10));
+        configLoader.startAndAwait(Duration.ofSeconds(10));
+        configLoader.shutdown();
+        Assert.assertTrue(configLoader.isReady());
+        Assert.assertEquals(1, configLoaderMetrics.getConfigurationFailures());
+    }
+
+    /**
+     * Tests that Configuration Loader fails to start with the last failure, if a reader keeps failing until the timeout.
+     */
+    @Test
+    public void testStartAndAwaitThrowsExceptionForFailedReader() {
+        ConfigurationTask reader = () -> { throw new IOException("problems"); };
+        ConfigurationLoader configLoader = new ConfigurationLoader(configLoaderMetrics, Arrays.asList(reader),
+                Executors.newScheduledThreadPool(1), Duration.ofMillis(10));
+        try {
+            configLoader.startAndAwait(Duration.ofMillis(200));
+            Assert.fail("Expected IOException");
+        } catch (IOException exception) {
+            Assert.assertEquals("problems", exception.getCause().getMessage());
+        } finally {
+            configLoader.shutdown();
+        }
+        Assert.assertFalse(configLoader.isReady());
+        Assert.assertFalse(configLoaderMetrics.isReady());
+        Assert.assertTrue(configLoaderMetrics.getConfigurationFailures() > 1);
+    }
+
+    /**
+     * Tests that Configuration Loader fails to start, if the first execution of a reader takes too long.
+     */
+    @Test(expected = IOException.class)
+    public void testStartAndAwaitThrowsExceptionAfterTimeout() throws IOException {
+        ScheduledExecutorService executorService = Mockito.mock(ScheduledExecutorService.class);
+        ConfigurationTask reader = () -> true;
+        ConfigurationLoader configLoader = new ConfigurationLoader(configLoaderMetrics, Arrays.asList(reader), executorService, Duration.ofSeconds(10));
+        configLoader.startAndAwait(Duration.ofMillis(10));
+    }
+
     /**
      * Tests that Configuration Loader Shutdown Shuts down ExecutorService.
      */
@@ -107,13 +252,26 @@ public class ConfigurationLoaderTest {
 
         ConfigurationLoader configLoader = new ConfigurationLoader(configLoaderMetrics, Arrays.asList(featureFlagReader), executorService,Duration.ofSeconds(1));
         configLoader.start();
-        Mockito.verify(executorService, Mockito.times(1)).scheduleWithFixedDelay(runnableCaptor.capture(), Matchers.anyLong(), Matchers.anyLong(), Matchers.any(TimeUnit.class));
+        Mockito.verify(executorService, Mockito.times(1)).schedule(runnableCaptor.capture(), Matchers.anyLong(), Matchers.any(TimeUnit.class));
         runnableCaptor.getValue().run();
         configLoader.shutdown();
         Mockito.verify(executorService, Mockito.times(1)).shutdown();
         Mockito.verify(executorService, Mockito.times(1)).awaitTermination(Matchers.anyLong(), Matchers.any(TimeUnit.class));
     }
 
+    /**
+     * Tests that Configuration Loader Shutdown interrupts fetches of its readers.
+     */
+    @Test
+    public void testConfigurationLoaderShutdownShutsdownFetchExecutorService() {
+        ScheduledExecutorService executorService = Mockito.mock(ScheduledExecutorService.class);
+        ExecutorService fetchExecutorService = Mockito.mock(ExecutorService.class);
+        ConfigurationLoader configLoader = new ConfigurationLoader(configLoaderMetrics, Arrays.asList(() -> true), executorService,
+                RefreshPolicy.fixed(Duration.ofSeconds(1)), Collections.emptyMap(), fetchExecutorService);
+        configLoader.shutdown();
+        Mockito.verify(fetchExecutorService).shutdownNow();
+    }
+
     /**
      * Tests that Configuration Loader Shutdown Rethrows Exception When Executor Service Throws InterruptedException.
      */
@@ -131,10 +289,12 @@ public class ConfigurationLoaderTest {
 
         ConfigurationLoader configLoader = new ConfigurationLoader(configLoaderMetrics, Arrays.asList(featureFlagUpdate), executorService, Duration.ofSeconds(1));
         configLoader.start();
-        Mockito.verify(executorService, Mockito.times(1)).scheduleWithFixedDelay(runnableCaptor.capture(), Matchers.anyLong(), Matchers.anyLong(), Matchers.any(TimeUnit.class));
+        Mockito.verify(executorService, Mockito.times(1)).schedule(runnableCaptor.capture(), Matchers.anyLong(), Matchers.any(TimeUnit.class));
         runnableCaptor.getValue().run();
         Mockito.doThrow(InterruptedException.class).when(executorService).awaitTermination(Matchers.anyLong(), Matchers.any(TimeUnit.class));
         configLoader.shutdown();
+        //interrupt status is restored, clearing it keeps it from leaking into other tests.
+        Assert.assertTrue(Thread.interrupted());
     }
 
     private static MessageDigest createMessageDigest() {
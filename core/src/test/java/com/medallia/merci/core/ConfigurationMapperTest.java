@@ -15,12 +15,13 @@
  */
 package com.medallia.merci.core;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableMap;
+import com.medallia.merci.core.common.ClusterConfigurationContext;
 import com.medallia.merci.core.common.EnvironmentConfigurationContext;
 import com.medallia.merci.core.configs.AbstractClassConfig;
 import com.medallia.merci.core.configs.NumberConfig;
+import com.medallia.merci.core.json.FrozenJson;
 import com.medallia.merci.core.metrics.ConfigMetrics;
 import com.medallia.merci.core.structure.Context;
 import com.medallia.merci.core.utils.DefaultClassFinder;
@@ -88,6 +89,55 @@ public class ConfigurationMapperTest {
             "  }\n" +
             "}";
 
+    private static final String PATTERN_CONFIGS_JSON = "{\n" +
+            "  \"configs\" : {\n" +
+            "    \"com.medallia.merci.core.configs.NumberConfig\" : {\n" +
+            "      \"value\" : {\n" +
+            "        \"number\" : 1\n" +
+            "      },\n" +
+            "      \"modifiers\" : {\n" +
+            "        \"type\" : \"host\",\n" +
+            "        \"match\" : \"glob\",\n" +
+            "        \"contexts\" : {\n" +
+            "          \"xj10*\" : {\n" +
+            "            \"value\" : {\n" +
+            "              \"number\" : 2\n" +
+            "            }\n" +
+            "          }\n" +
+            "        }\n" +
+            "      }\n" +
+            "    }\n" +
+            "  }\n" +
+            "}";
+
+    private static final String INVALID_PATTERN_CONFIGS_JSON = PATTERN_CONFIGS_JSON
+            .replace("\"glob\"", "\"regex\"").replace("xj10*", "xj(10");
+
+    private static final String COMPOSITE_CONFIGS_JSON = "{\n" +
+            "  \"configs\" : {\n" +
+            "    \"com.medallia.merci.core.configs.NumberConfig\" : {\n" +
+            "      \"value\" : {\n" +
+            "        \"number\" : 1\n" +
+            "      },\n" +
+            "      \"modifiers\" : {\n" +
+            "        \"type\" : [ \"environment\", \"cluster\" ],\n" +
+            "        \"contexts\" : {\n" +
+            "          \"qa\" : {\n" +
+            "            \"value\" : {\n" +
+            "              \"number\" : 2\n" +
+            "            }\n" +
+            "          },\n" +
+            "          \"qa/cem341\" : {\n" +
+            "            \"value\" : {\n" +
+            "              \"number\" : 3\n" +
+            "            }\n" +
+            "          }\n" +
+            "        }\n" +
+            "      }\n" +
+            "    }\n" +
+            "  }\n" +
+            "}";
+
     private static final String EMPTY_CONFIGS_JSON = "{\n  \"configs\" : { }\n}";
 
     private final Map<String, Configuration<NumberConfig>> singleValueConfigs = ImmutableMap.of(
@@ -103,6 +153,26 @@ public class ConfigurationMapperTest {
 
     private final ConfigMetrics configMetrics = new ConfigMetrics();
 
+    @Test
+    public void testReadValueWithLazyBindingSkipsInvalidValueAtEvaluation() throws IOException {
+        ConfigurationMapper<NumberConfig> configurationMapper = new ConfigurationMapper<>("configs",
+                new ConfigurationMapper.Options().setLazyBinding(true), jsonMapper, configMetrics, className -> NumberConfig.class);
+        Map<String, Configuration<NumberConfig>> configurations = configurationMapper.readValue(
+                MULTI_VALUE_CONFIGS_JSON.replace("\"number\" : 2", "\"number\" : \"two\""));
+        Configuration<NumberConfig> configuration = configurations.get(NUMBER_CONFIG_NAME);
+        Assert.assertEquals(1, configuration.getValue(none).getNumber());
+        Assert.assertEquals(0, configMetrics.getConfigNonInstantiableSkips());
+        Assert.assertEquals(1, configuration.getValue(qa).getNumber());
+        Assert.assertEquals(1, configMetrics.getConfigNonInstantiableSkips());
+        Assert.assertSame(configuration.getValue(none), configuration.getValue(qa));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorRejectsLazyBindingWithoutSkippingNonInstantiableConfigurations() {
+        new ConfigurationMapper<>("configs", new ConfigurationMapper.Options().setSkipNonInstantiable(false).setLazyBinding(true),
+                jsonMapper, configMetrics, className -> NumberConfig.class);
+    }
+
     @Test(expected = IOException.class)
     public void testReadValueThrowsIOExceptionIfNoRootField() throws IOException {
         ConfigurationMapper<NumberConfig> configurationMapper = new ConfigurationMapper<>("configs", true, jsonMapper,
@@ -112,7 +182,7 @@ public class ConfigurationMapperTest {
 
     @Test
     public void testReadValueAsJsonConfigReturnsCorrectMapOfConfigurationsForAbstractConfigClass() throws IOException {
-        ConfigurationMapper<JsonNode> configurationMapper = new JsonConfigMapper("configs", false, jsonMapper, configMetrics);
+        ConfigurationMapper<FrozenJson> configurationMapper = new JsonConfigMapper("configs", false, jsonMapper, configMetrics);
         configurationMapper.readValue(ABSTRACT_CLASS_CONFIGS_JSON);
         Assert.assertEquals(0, configMetrics.getConfigNonInstantiableSkips());
     }
@@ -158,6 +228,96 @@ public class ConfigurationMapperTest {
         Assert.assertEquals(2, configuration.getValue(qa).getNumber());
     }
 
+    @Test
+    public void testReadValueReturnsCorrectMapOfConfigurationsWithPatternModifiers() throws IOException {
+        ConfigurationMapper<NumberConfig> configurationMapper = new ConfigurationMapper<>("configs", true, jsonMapper,
+                configMetrics, className -> NumberConfig.class);
+        Map<String, Configuration<NumberConfig>> configurations = configurationMapper.readValue(PATTERN_CONFIGS_JSON);
+        Configuration<NumberConfig> configuration = configurations.get(NUMBER_CONFIG_NAME);
+        ConfigurationContext xj1001 = new ConfigurationContext();
+        xj1001.put("host", "xj1001");
+        ConfigurationContext xj2001 = new ConfigurationContext();
+        xj2001.put("host", "xj2001");
+        Assert.assertEquals(1, configuration.getValue(none).getNumber());
+        Assert.assertEquals(2, configuration.getValue(xj1001).getNumber());
+        Assert.assertEquals(1, configuration.getValue(xj2001).getNumber());
+        Assert.assertEquals(PATTERN_CONFIGS_JSON, configurationMapper.writeValueAsString(configurations));
+    }
+
+    @Test
+    public void testReadValueReturnsCorrectMapOfConfigurationsWithCompositeModifiers() throws IOException {
+        ConfigurationMapper<NumberConfig> configurationMapper = new ConfigurationMapper<>("configs", true, jsonMapper,
+                configMetrics, className -> NumberConfig.class);
+        Map<String, Configuration<NumberConfig>> configurations = configurationMapper.readValue(COMPOSITE_CONFIGS_JSON);
+        Configuration<NumberConfig> configuration = configurations.get(NUMBER_CONFIG_NAME);
+        Assert.assertEquals(1, configuration.getValue(none).getNumber());
+        Assert.assertEquals(2, configuration.getValue(qa).getNumber());
+        Assert.assertEquals(2, configuration.getValue(new ClusterConfigurationContext("qa", "cem342")).getNumber());
+        Assert.assertEquals(3, configuration.getValue(new ClusterConfigurationContext("qa", "cem341")).getNumber());
+        Assert.assertEquals(COMPOSITE_CONFIGS_JSON, configurationMapper.writeValueAsString(configurations));
+    }
+
+    @Test
+    public void testReadValueSharesIdenticalValueObjects() throws IOException {
+        ConfigurationMapper<NumberConfig> configurationMapper = new ConfigurationMapper<>("configs",
+                new ConfigurationMapper.Options().setSharedValues(true), jsonMapper, configMetrics, className -> NumberConfig.class);
+        Map<String, Configuration<NumberConfig>> configurations = configurationMapper.readValue(
+                COMPOSITE_CONFIGS_JSON.replace("\"number\" : 3", "\"number\" : 2"));
+        Configuration<NumberConfig> configuration = configurations.get(NUMBER_CONFIG_NAME);
+        Assert.assertSame(configuration.getValue(qa), configuration.getValue(new ClusterConfigurationContext("qa", "cem341")));
+    }
+
+    @Test
+    public void testReadValueKeepsValueObjectPerContextWithoutSharedValues() throws IOException {
+        ConfigurationMapper<NumberConfig> configurationMapper = new ConfigurationMapper<>("configs", true, jsonMapper,
+                configMetrics, className -> NumberConfig.class);
+        Map<String, Configuration<NumberConfig>> configurations = configurationMapper.readValue(
+                COMPOSITE_CONFIGS_JSON.replace("\"number\" : 3", "\"number\" : 2"));
+        Configuration<NumberConfig> configuration = configurations.get(NUMBER_CONFIG_NAME);
+        NumberConfig qaConfig = configuration.getValue(qa);
+        NumberConfig clusterConfig = configuration.getValue(new ClusterConfigurationContext("qa", "cem341"));
+        Assert.assertEquals(qaConfig.getNumber(), clusterConfig.getNumber());
+        Assert.assertNotSame(qaConfig, clusterConfig);
+    }
+
+    @Test
+    public void testReadValueFlattensNestedModifiers() throws IOException {
+        ConfigurationMapper<NumberConfig> configurationMapper = new ConfigurationMapper<>("configs",
+                new ConfigurationMapper.Options().setFlattenModifiers(true), jsonMapper, configMetrics, className -> NumberConfig.class);
+        String nestedJson = COMPOSITE_CONFIGS_JSON
+                .replace("[ \"environment\", \"cluster\" ]", "\"environment\"")
+                .replace("          \"qa/cem341\" : {\n" +
+                        "            \"value\" : {\n" +
+                        "              \"number\" : 3\n" +
+                        "            }\n" +
+                        "          }\n", "")
+                .replace("              \"number\" : 2\n" +
+                        "            }\n" +
+                        "          },\n", "              \"number\" : 2\n" +
+                        "            },\n" +
+                        "            \"modifiers\" : {\n" +
+                        "              \"type\" : \"cluster\",\n" +
+                        "              \"contexts\" : {\n" +
+                        "                \"cem341\" : {\n" +
+                        "                  \"value\" : {\n" +
+                        "                    \"number\" : 3\n" +
+                        "                  }\n" +
+                        "                }\n" +
+                        "              }\n" +
+                        "            }\n" +
+                        "          }\n");
+        Map<String, Configuration<NumberConfig>> configurations = configurationMapper.readValue(nestedJson);
+        Assert.assertEquals(COMPOSITE_CONFIGS_JSON, configurationMapper.writeValueAsString(configurations));
+    }
+
+    @Test
+    public void testReadValueSkipsConfigurationWithInvalidPattern() throws IOException {
+        ConfigurationMapper<NumberConfig> configurationMapper = new ConfigurationMapper<>("configs", true, jsonMapper,
+                configMetrics, className -> NumberConfig.class);
+        Assert.assertTrue(configurationMapper.readValue(INVALID_PATTERN_CONFIGS_JSON).isEmpty());
+        Assert.assertEquals(1, configMetrics.getConfigNonInstantiableSkips());
+    }
+
     @Test
     public void testWriteValueAsStringReturnsCorrectJson() throws IOException {
         ConfigurationMapper<NumberConfig> configurationMapper = new ConfigurationMapper<>("configs", true, jsonMapper,
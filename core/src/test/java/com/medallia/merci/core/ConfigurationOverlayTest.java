@@ -0,0 +1,138 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.medallia.merci.core.fetcher.ConfigurationFetcher;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link ConfigurationOverlay}.
+ */
+public class ConfigurationOverlayTest {
+
+    private static final String APPLICATION = "myapp";
+
+    private static final String BASE_FILE = "/base-configs.json";
+
+    private static final String BASE_JSON = "{ \"configs\": {"
+            + " \"Database\": { \"value\": { \"host\": \"db\", \"port\": 5432, \"options\": [\"ssl\"] } },"
+            + " \"Cache\": { \"value\": { \"size\": 10 } } } }";
+
+    private static final String PROD_FILE = "/prod-configs.json";
+
+    private static final String PROD_JSON = "{ \"configs\": {"
+            + " \"Database\": { \"value\": { \"host\": \"prod-db\", \"options\": [] } },"
+            + " \"Cache\": null } }";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testMergeDeepMergesObjectsAndReplacesOtherValues() throws IOException {
+        ConfigurationOverlay overlay = new ConfigurationOverlay(objectMapper);
+        JsonNode merged = overlay.merge(ImmutableList.of(BASE_FILE, PROD_FILE),
+                ImmutableMap.of(BASE_FILE, BASE_JSON, PROD_FILE, PROD_JSON), new byte[] {1});
+        Assert.assertEquals(objectMapper.readTree("{ \"configs\": {"
+                + " \"Database\": { \"value\": { \"host\": \"prod-db\", \"port\": 5432, \"options\": [] } } } }"), merged);
+    }
+
+    @Test
+    public void testMergeFollowsOrderOfFileNames() throws IOException {
+        ConfigurationOverlay overlay = new ConfigurationOverlay(objectMapper);
+        JsonNode merged = overlay.merge(ImmutableList.of(PROD_FILE, BASE_FILE),
+                ImmutableMap.of(BASE_FILE, BASE_JSON, PROD_FILE, PROD_JSON), new byte[] {1});
+        Assert.assertEquals(objectMapper.readTree(BASE_JSON), merged);
+    }
+
+    @Test
+    public void testMergeReturnsCachedDocumentForSameHash() throws IOException {
+        ConfigurationOverlay overlay = new ConfigurationOverlay(objectMapper);
+        Map<String, String> contents = ImmutableMap.of(BASE_FILE, BASE_JSON, PROD_FILE, PROD_JSON);
+        JsonNode merged = overlay.merge(ImmutableList.of(BASE_FILE, PROD_FILE), contents, new byte[] {1});
+        Assert.assertSame(merged, overlay.merge(ImmutableList.of(BASE_FILE, PROD_FILE), contents, new byte[] {1}));
+        Assert.assertNotSame(merged, overlay.merge(ImmutableList.of(BASE_FILE, PROD_FILE), contents, new byte[] {2}));
+    }
+
+    @Test
+    public void testIncludeFetchesIncludedFiles() throws IOException {
+        String prodJson = "{ \"include\": \"" + BASE_FILE + "\"," + PROD_JSON.substring(1);
+        List<List<String>> fetches = new ArrayList<>();
+        ConfigurationFetcher fetcher = (fileNames, application) -> {
+            fetches.add(fileNames);
+            return ImmutableMap.of(BASE_FILE, BASE_JSON);
+        };
+        ConfigurationOverlay overlay = new ConfigurationOverlay(objectMapper);
+        Map<String, String> contents = overlay.include(ImmutableMap.of(PROD_FILE, prodJson), fetcher, APPLICATION);
+
+        Assert.assertEquals(ImmutableMap.of(PROD_FILE, prodJson, BASE_FILE, BASE_JSON), contents);
+        Assert.assertEquals(ImmutableList.of(ImmutableList.of(BASE_FILE)), fetches);
+        Assert.assertEquals(objectMapper.readTree("{ \"configs\": {"
+                        + " \"Database\": { \"value\": { \"host\": \"prod-db\", \"port\": 5432, \"options\": [] } } } }"),
+                overlay.merge(ImmutableList.of(PROD_FILE), contents, new byte[] {1}));
+    }
+
+    @Test
+    public void testIncludeReturnsPreviousContentsForUnchangedFiles() throws IOException {
+        String prodJson = "{ \"include\": \"" + BASE_FILE + "\"," + PROD_JSON.substring(1);
+        ConfigurationFetcher fetcher = (fileNames, application) -> ImmutableMap.of(BASE_FILE, BASE_JSON);
+        ConfigurationOverlay overlay = new ConfigurationOverlay(objectMapper);
+        Map<String, String> contents = overlay.include(ImmutableMap.of(PROD_FILE, prodJson), fetcher, APPLICATION);
+
+        Assert.assertSame(contents, overlay.include(ImmutableMap.of(PROD_FILE, prodJson), fetcher, APPLICATION));
+        Assert.assertNotSame(contents, overlay.include(ImmutableMap.of(PROD_FILE, prodJson.replace("prod-db", "other-db")),
+                fetcher, APPLICATION));
+    }
+
+    @Test
+    public void testIncludeReturnsSameContentsWithoutIncludes() throws IOException {
+        ConfigurationFetcher fetcher = (fileNames, application) -> {
+            throw new AssertionError("No fetch expected.");
+        };
+        Map<String, String> contents = ImmutableMap.of(BASE_FILE, BASE_JSON, PROD_FILE, PROD_JSON);
+        Assert.assertSame(contents, new ConfigurationOverlay(objectMapper).include(contents, fetcher, APPLICATION));
+    }
+
+    @Test(expected = IOException.class)
+    public void testIncludeOfMissingFileResultsInIOException() throws IOException {
+        ConfigurationFetcher fetcher = (fileNames, application) -> ImmutableMap.of();
+        new ConfigurationOverlay(objectMapper).include(ImmutableMap.of(PROD_FILE, "{ \"include\": [\"/missing.json\"] }"),
+                fetcher, APPLICATION);
+    }
+
+    @Test(expected = JsonMappingException.class)
+    public void testCyclicIncludesResultInJsonMappingException() throws IOException {
+        Map<String, String> contents = ImmutableMap.of(
+                BASE_FILE, "{ \"include\": \"" + PROD_FILE + "\" }",
+                PROD_FILE, "{ \"include\": \"" + BASE_FILE + "\" }");
+        new ConfigurationOverlay(objectMapper).merge(ImmutableList.of(BASE_FILE), contents, new byte[] {1});
+    }
+
+    @Test(expected = JsonMappingException.class)
+    public void testBadIncludeFieldResultsInJsonMappingException() throws IOException {
+        new ConfigurationOverlay(objectMapper).merge(ImmutableList.of(BASE_FILE),
+                ImmutableMap.of(BASE_FILE, "{ \"include\": [1] }"), new byte[] {1});
+    }
+}
@@ -149,6 +149,24 @@ public class ConfigurationReaderTest {
         Assert.assertEquals(0, featureFlagMetrics.getFeatureFlagNameDuplicates());
     }
 
+    @Test
+    public void testSameContentWithoutSkipsKeepsGeneration() throws IOException {
+        ConfigurationFetcher configurationFetcher = (fileNames, application) ->
+                ImmutableMap.of(FIRST_FILE, FIRST_JSON, SECOND_FILE, SECOND_JSON);
+
+        ConfigurationMapper<Boolean> featureFlagMapper = new FeatureFlagMapper("feature-flags", true, objectMapper, featureFlagMetrics);
+
+        ConfigurationReader<Boolean> configurationReader = new ConfigurationReader<>(APPLICATION, ImmutableList.of(FIRST_FILE, SECOND_FILE),
+                configurationFetcher, featureFlagMapper, featureFlagManager, digest, featureFlagMetrics, 0);
+
+        Assert.assertTrue(configurationReader.execute());
+        Assert.assertFalse(configurationReader.execute());
+
+        Assert.assertEquals(1, featureFlagManager.getGeneration());
+        Assert.assertEquals(2, featureFlagMetrics.getFeatureFlagNewContentsUpdates());
+        Assert.assertTrue(featureFlagManager.isActive("enable-feature-all", qa));
+    }
+
     @Test(expected = IOException.class)
     public void testBadFeatureFlagConfigurationContentResultsInIOException() throws IOException {
         ConfigurationFetcher configurationFetcher = (fileNames, application) ->
@@ -218,6 +236,37 @@ public class ConfigurationReaderTest {
         Assert.assertEquals(1, featureFlagMetrics.getFeatureFlagNameDuplicates());
     }
 
+    @Test
+    public void testOverlayMergesConfigurationsOfAllFiles() throws IOException {
+        String overlayJson = "{\n" +
+                "  \"feature-flags\": {\n" +
+                "    \"enable-feature-all\": {\n" +
+                "      \"modifiers\": {\n" +
+                "        \"type\": \"environment\",\n" +
+                "        \"contexts\": { \"qa\": { \"value\": false } }\n" +
+                "      }\n" +
+                "    }\n" +
+                "  }\n" +
+                "}";
+        ConfigurationFetcher configurationFetcher = (fileNames, application) ->
+                ImmutableMap.of(FIRST_FILE, FIRST_JSON, SECOND_FILE, overlayJson);
+
+        ConfigurationMapper<Boolean> featureFlagMapper = new FeatureFlagMapper("feature-flags", true, objectMapper, featureFlagMetrics);
+
+        ConfigurationReader<Boolean> configurationReader = new ConfigurationReader<>(APPLICATION, ImmutableList.of(FIRST_FILE, SECOND_FILE),
+                configurationFetcher, featureFlagMapper, featureFlagManager, digest, featureFlagMetrics, 0,
+                new ConfigurationOverlay(objectMapper));
+
+        configurationReader.execute();
+
+        Assert.assertEquals(ImmutableList.of("enable-feature-all"), featureFlagManager.getConfigurationNames());
+        Assert.assertFalse(featureFlagManager.isActive("enable-feature-all", qa));
+        Assert.assertTrue(featureFlagManager.isActive("enable-feature-all", new EnvironmentConfigurationContext("prod")));
+        Assert.assertEquals(1, featureFlagMetrics.getFeatureFlagUpdates());
+        Assert.assertEquals(0, featureFlagMetrics.getFeatureFlagContentFailures());
+        Assert.assertEquals(0, featureFlagMetrics.getFeatureFlagNameDuplicates());
+    }
+
     private static MessageDigest createMessageDigest() {
         try {
             return MessageDigest.getInstance("SHA-256");
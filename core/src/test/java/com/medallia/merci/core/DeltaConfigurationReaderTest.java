@@ -0,0 +1,104 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import com.medallia.merci.core.common.EnvironmentConfigurationContext;
+import com.medallia.merci.core.fetcher.ConfigurationDelta;
+import com.medallia.merci.core.fetcher.ConfigurationDeltaFetcher;
+import com.medallia.merci.core.metrics.FeatureFlagMetrics;
+import com.medallia.merci.core.structure.Context;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for {@link DeltaConfigurationReader}, against deltas of a {@link ConfigurationHistory}.
+ */
+public class DeltaConfigurationReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ConfigurationContext qa = new EnvironmentConfigurationContext("qa");
+
+    private final FeatureFlagMetrics featureFlagMetrics = new FeatureFlagMetrics();
+
+    private final FeatureFlagManager remoteManager = new FeatureFlagManager();
+
+    private final ConfigurationHistory<Boolean> history = new ConfigurationHistory<>(remoteManager, "feature-flags", objectMapper, 10);
+
+    private final List<Long> requestedGenerations = new ArrayList<>();
+
+    private final ConfigurationDeltaFetcher fetcher = (application, root, epoch, generation) -> {
+        requestedGenerations.add(generation);
+        return parse(history.getDelta(epoch, generation));
+    };
+
+    private final FeatureFlagManager featureFlagManager = new FeatureFlagManager();
+
+    private final DeltaConfigurationReader<Boolean> reader = new DeltaConfigurationReader<>("myapp", "feature-flags", fetcher,
+            new FeatureFlagMapper("feature-flags", true, objectMapper, featureFlagMetrics), featureFlagManager, featureFlagMetrics);
+
+    @Test
+    public void testExecutePatchesStoreWithChangedConfigurations() throws IOException {
+        remoteManager.updateConfigurations(ImmutableMap.of("enable-all", flag("enable-all", true), "enable-none", flag("enable-none", false)));
+        reader.execute();
+        Assert.assertTrue(featureFlagManager.isActive("enable-all", qa));
+        Assert.assertEquals(1, featureFlagMetrics.getFeatureFlagNewContentsUpdates());
+
+        remoteManager.updateConfigurations(ImmutableMap.of("enable-all", flag("enable-all", false), "enable-one", flag("enable-one", true)));
+        reader.execute();
+        Assert.assertFalse(featureFlagManager.isActive("enable-all", qa));
+        Assert.assertTrue(featureFlagManager.isActive("enable-one", qa));
+        Assert.assertEquals(2, featureFlagManager.getConfigurationNames().size());
+        Assert.assertEquals(2, featureFlagMetrics.getFeatureFlagNewContentsUpdates());
+
+        reader.execute();
+        Assert.assertEquals(1, featureFlagMetrics.getFeatureFlagSameContentsSkips());
+        Assert.assertEquals(2, featureFlagManager.getGeneration());
+        Assert.assertEquals(3, requestedGenerations.size());
+        Assert.assertEquals(Long.valueOf(2), requestedGenerations.get(2));
+    }
+
+    @Test
+    public void testExecuteRemovesChangedConfigurationsSkippedByParser() throws IOException {
+        remoteManager.updateConfigurations(ImmutableMap.of("enable-all", flag("enable-all", true)));
+        reader.execute();
+        String delta = "{ \"epoch\" : \"" + history.getEpoch() + "\", \"generation\" : 2, \"complete\" : false, \"removed\" : [ ],"
+                + " \"feature-flags\" : { \"enable-all\" : { \"value\" : [ \"not-a-boolean\" ] } } }";
+        new DeltaConfigurationReader<>("myapp", "feature-flags", (application, root, epoch, generation) -> parse(delta),
+                new FeatureFlagMapper("feature-flags", true, objectMapper, featureFlagMetrics), featureFlagManager, featureFlagMetrics).execute();
+        Assert.assertTrue(featureFlagManager.getConfigurationNames().isEmpty());
+        Assert.assertEquals(1, featureFlagMetrics.getFeatureFlagNonInstantiableSkips());
+    }
+
+    private ConfigurationDelta parse(String json) throws IOException {
+        JsonNode document = objectMapper.readTree(json);
+        List<String> removedNames = new ArrayList<>();
+        document.get(ConfigurationDelta.REMOVED).forEach(name -> removedNames.add(name.asText()));
+        return new ConfigurationDelta(document.get(ConfigurationDelta.EPOCH).asText(), document.get(ConfigurationDelta.GENERATION).asLong(),
+                document.get(ConfigurationDelta.COMPLETE).asBoolean(), removedNames, document);
+    }
+
+    private static Configuration<Boolean> flag(String name, boolean value) {
+        return new Configuration<>(name, new Context<>(value, null));
+    }
+}
@@ -19,14 +19,20 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.google.common.collect.ImmutableMap;
 import com.medallia.merci.core.common.EnvironmentConfigurationContext;
+import com.medallia.merci.core.metrics.FeatureFlagMetrics;
 import com.medallia.merci.core.structure.Context;
 import com.medallia.merci.core.structure.Modifiers;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
 
 /**
  * Unit tests for {@link FeatureFlagManager}.
@@ -86,6 +92,91 @@ public class FeatureFlagManagerTest {
         Assert.assertTrue(featureFlagManager.isActive(FEATURE_FLAG_NAME, qa));
     }
 
+    @Test
+    public void testUpdateConfigurationsStoresCompiledFeatureFlags() {
+        featureFlagManager.updateConfigurations(multiValueFeatureFlags);
+        Assert.assertTrue(featureFlagManager.getConfiguration(FEATURE_FLAG_NAME) instanceof FeatureFlagConfiguration);
+    }
+
+    @Test
+    public void testUpdateConfigurationsKeepsFeatureFlagsCompiledByMapper() throws IOException {
+        Map<String, Configuration<Boolean>> configurations = new FeatureFlagMapper("feature-flags", true, jsonMapper,
+                new FeatureFlagMetrics()).readValue(SINGLE_VALUE_FEATURE_FLAGS_JSON);
+        Assert.assertTrue(configurations.get(FEATURE_FLAG_NAME) instanceof FeatureFlagConfiguration);
+        featureFlagManager.updateConfigurations(configurations);
+        Assert.assertSame(configurations.get(FEATURE_FLAG_NAME), featureFlagManager.getConfiguration(FEATURE_FLAG_NAME));
+    }
+
+    @Test
+    public void testEvaluateReturnsMatrixForProvidedRuntimeContexts() {
+        featureFlagManager.updateConfigurations(multiValueFeatureFlags);
+        boolean[][] results = featureFlagManager.evaluate(Arrays.asList(FEATURE_FLAG_NAME, "enable-missing"),
+                Arrays.asList(qa, new EnvironmentConfigurationContext("prod")));
+        Assert.assertArrayEquals(new boolean[] { true, false }, results[0]);
+        Assert.assertArrayEquals(new boolean[] { false, false }, results[1]);
+    }
+
+    @Test
+    public void testGetEvaluatorUsesSnapshotOfCreation() {
+        featureFlagManager.updateConfigurations(multiValueFeatureFlags);
+        Function<ConfigurationContext, boolean[]> evaluator = featureFlagManager.getEvaluator(Collections.singletonList(FEATURE_FLAG_NAME));
+        featureFlagManager.updateConfigurations(Collections.emptyMap());
+        Assert.assertArrayEquals(new boolean[] { true }, evaluator.apply(qa));
+        Assert.assertArrayEquals(new boolean[] { false }, featureFlagManager.getEvaluator(Collections.singletonList(FEATURE_FLAG_NAME)).apply(qa));
+    }
+
+    @Test
+    public void testGetGenerationIsIncrementedWithEveryUpdate() {
+        Assert.assertEquals(0, featureFlagManager.getGeneration());
+        featureFlagManager.updateConfigurations(singleValueFeatureFlags);
+        Assert.assertEquals(1, featureFlagManager.getGeneration());
+        featureFlagManager.updateConfigurations(multiValueFeatureFlags);
+        Assert.assertEquals(2, featureFlagManager.getGeneration());
+    }
+
+    @Test
+    public void testUpdateListenerIsNotifiedWithGeneration() {
+        List<Long> generations = new ArrayList<>();
+        LongConsumer updateListener = generations::add;
+        featureFlagManager.addUpdateListener(updateListener);
+        featureFlagManager.updateConfigurations(singleValueFeatureFlags);
+        featureFlagManager.updateConfigurations(multiValueFeatureFlags);
+        featureFlagManager.removeUpdateListener(updateListener);
+        featureFlagManager.updateConfigurations(singleValueFeatureFlags);
+        Assert.assertEquals(Arrays.asList(1L, 2L), generations);
+    }
+
+    @Test
+    public void testRefreshConfigurationsKeepsGenerationForSameNames() {
+        List<Long> generations = new ArrayList<>();
+        featureFlagManager.addUpdateListener(generations::add);
+        featureFlagManager.updateConfigurations(singleValueFeatureFlags);
+        featureFlagManager.refreshConfigurations(singleValueFeatureFlags);
+        Assert.assertEquals(1, featureFlagManager.getGeneration());
+        featureFlagManager.refreshConfigurations(ImmutableMap.of("enable-all", new Configuration<>("enable-all", new Context<>(Boolean.TRUE, null))));
+        Assert.assertEquals(2, featureFlagManager.getGeneration());
+        Assert.assertEquals(Arrays.asList(1L, 2L), generations);
+    }
+
+    @Test
+    public void testPatchConfigurationsKeepsUnchangedAndRemovesRemovedConfigurations() {
+        featureFlagManager.updateConfigurations(multiValueFeatureFlags);
+        featureFlagManager.patchConfigurations(ImmutableMap.of("enable-all", new Configuration<>("enable-all", new Context<>(Boolean.TRUE, null))),
+                Collections.emptyList());
+        Assert.assertEquals(2, featureFlagManager.getGeneration());
+        Assert.assertTrue(featureFlagManager.isActive(FEATURE_FLAG_NAME, qa));
+        Assert.assertTrue(featureFlagManager.isActive("enable-all", qa));
+        featureFlagManager.patchConfigurations(Collections.emptyMap(), Collections.singletonList(FEATURE_FLAG_NAME));
+        Assert.assertEquals(Arrays.asList("enable-all"), featureFlagManager.getConfigurationNames());
+    }
+
+    @Test
+    public void testGetContextTypesReturnsTypesOfConfiguration() {
+        featureFlagManager.updateConfigurations(multiValueFeatureFlags);
+        Assert.assertEquals(Collections.singleton("environment"), featureFlagManager.getContextTypes(FEATURE_FLAG_NAME));
+        Assert.assertTrue(featureFlagManager.getContextTypes("enable-all").isEmpty());
+    }
+
     @Test
     public void testGetConfigNamesReturnsCorrectNames() {
         featureFlagManager.updateConfigurations(multiValueFeatureFlags);
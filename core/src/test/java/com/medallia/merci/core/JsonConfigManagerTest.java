@@ -23,6 +23,8 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.google.common.collect.ImmutableMap;
 import com.medallia.merci.core.common.EnvironmentConfigurationContext;
+import com.medallia.merci.core.json.FrozenJson;
+import com.medallia.merci.core.json.JsonPath;
 import com.medallia.merci.core.structure.Context;
 import com.medallia.merci.core.structure.Modifiers;
 import org.junit.Assert;
@@ -60,40 +62,88 @@ public class JsonConfigManagerTest {
 
     private final ObjectMapper jsonMapper = new ObjectMapper();
     private final JsonNodeFactory jsonNodeFactory = jsonMapper.getNodeFactory();
-    private final ConfigurationWriter<JsonNode> jsonConfigurationWriter = new ConfigurationWriter<>("configs", jsonMapper);
+    private final ConfigurationWriter<FrozenJson> jsonConfigurationWriter = new ConfigurationWriter<>("configs", jsonMapper);
     private final ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
-    private final ConfigurationWriter<JsonNode> yamlConfigurationWriter = new ConfigurationWriter<>("configs", yamlMapper);
+    private final ConfigurationWriter<FrozenJson> yamlConfigurationWriter = new ConfigurationWriter<>("configs", yamlMapper);
 
     private final ConfigurationContext qa = new EnvironmentConfigurationContext("qa");
 
-    private final Map<String, Configuration<JsonNode>> singleValueConfigs = ImmutableMap.of(
+    private final Map<String, Configuration<FrozenJson>> singleValueConfigs = ImmutableMap.of(
             CONFIG_NAME, new Configuration<>(CONFIG_NAME, new Context<>(
-                    new ObjectNode(jsonNodeFactory, ImmutableMap.of("number", new IntNode(1))),
+                    FrozenJson.of(new ObjectNode(jsonNodeFactory, ImmutableMap.of("number", new IntNode(1)))),
                     null)));
 
-    private final Map<String, Configuration<JsonNode>> multiValueConfigs = ImmutableMap.of(
+    private final Map<String, Configuration<FrozenJson>> multiValueConfigs = ImmutableMap.of(
             CONFIG_NAME, new Configuration<>(CONFIG_NAME, new Context<>(
-                    new ObjectNode(jsonNodeFactory, ImmutableMap.of("number", new IntNode(1))),
+                    FrozenJson.of(new ObjectNode(jsonNodeFactory, ImmutableMap.of("number", new IntNode(1)))),
                     new Modifiers<>("environment", ImmutableMap.of(
                             "qa", new Context<>(
-                                    new ObjectNode(jsonNodeFactory, ImmutableMap.of("number", new IntNode(2))),
+                                    FrozenJson.of(new ObjectNode(jsonNodeFactory, ImmutableMap.of("number", new IntNode(2)))),
                                     null))))));
 
     private final JsonConfigManager jsonConfigManager = new JsonConfigManager();
 
     @Test
+    @SuppressWarnings("deprecation")
     public void testGetConfigReturnsEmptyJsonNodeForMissingConfig() {
         JsonNode config = jsonConfigManager.getConfig(CONFIG_NAME, qa);
         Assert.assertEquals(0, config.size());
     }
 
     @Test
+    @SuppressWarnings("deprecation")
     public void testGetConfigReturnsConfigForProvidedRuntimeContext() {
         jsonConfigManager.updateConfigurations(multiValueConfigs);
         JsonNode config = jsonConfigManager.getConfig(CONFIG_NAME, qa);
         Assert.assertEquals(2, config.get("number").asInt());
     }
 
+    @Test
+    public void testEvaluateReturnsMatrixForProvidedRuntimeContexts() {
+        jsonConfigManager.updateConfigurations(multiValueConfigs);
+        FrozenJson[][] results = jsonConfigManager.evaluate(Arrays.asList(CONFIG_NAME, "com.medallia.merci.core.configs.MissingConfig"),
+                Arrays.asList(qa, new EnvironmentConfigurationContext("prod")));
+        Assert.assertEquals(2, results[0][0].get("number").asInt());
+        Assert.assertEquals(0, results[0][1].size());
+        Assert.assertEquals(1, results[1][0].get("number").asInt());
+        Assert.assertEquals(0, results[1][1].size());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testGetConfigReturnsCopyOfConfig() {
+        jsonConfigManager.updateConfigurations(multiValueConfigs);
+        ((ObjectNode) jsonConfigManager.getConfig(CONFIG_NAME, qa)).put("number", 3);
+        Assert.assertEquals(2, jsonConfigManager.getConfig(CONFIG_NAME, qa).get("number").asInt());
+    }
+
+    @Test
+    public void testGetFrozenConfigReturnsSharedConfig() {
+        jsonConfigManager.updateConfigurations(multiValueConfigs);
+        Assert.assertSame(jsonConfigManager.getFrozenConfig(CONFIG_NAME, qa), jsonConfigManager.getFrozenConfig(CONFIG_NAME, qa));
+    }
+
+    @Test
+    public void testTypedAccessorsReturnValuesAtPath() {
+        jsonConfigManager.updateConfigurations(multiValueConfigs);
+        JsonPath number = JsonPath.compile("/number");
+        Assert.assertEquals(2, jsonConfigManager.getInt(CONFIG_NAME, qa, number, -1));
+        Assert.assertEquals(2L, jsonConfigManager.getLong(CONFIG_NAME, qa, number, -1L));
+        Assert.assertEquals("2", jsonConfigManager.getString(CONFIG_NAME, qa, number, null));
+        Assert.assertTrue(jsonConfigManager.getBoolean(CONFIG_NAME, qa, number, false));
+        Assert.assertEquals(1, jsonConfigManager.getInt(CONFIG_NAME, new EnvironmentConfigurationContext("prod"), number, -1));
+    }
+
+    @Test
+    public void testTypedAccessorsReturnDefaultValuesForMissingPath() {
+        jsonConfigManager.updateConfigurations(multiValueConfigs);
+        JsonPath missing = JsonPath.compile("/missing");
+        Assert.assertEquals(-1, jsonConfigManager.getInt(CONFIG_NAME, qa, missing, -1));
+        Assert.assertEquals("none", jsonConfigManager.getString("com.medallia.merci.core.configs.MissingConfig", qa, missing, "none"));
+        Assert.assertEquals(-1, jsonConfigManager.getInt(CONFIG_NAME, qa, JsonPath.compile(""), -1));
+        Assert.assertTrue(jsonConfigManager.getList(CONFIG_NAME, qa, missing).isEmpty());
+    }
+
     @Test
     public void testGetConfigNamesReturnsCorrectNames() {
         jsonConfigManager.updateConfigurations(multiValueConfigs);
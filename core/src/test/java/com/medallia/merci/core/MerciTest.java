@@ -70,7 +70,7 @@ public class MerciTest {
         ConfigurationLoader loader = merci.createLoader(Duration.ofSeconds(10));
         loader.start();
 
-        Mockito.verify(executorService, Mockito.times(2)).scheduleWithFixedDelay(runnableCaptor.capture(), Matchers.anyLong(), Matchers.anyLong(), Matchers.any(TimeUnit.class));
+        Mockito.verify(executorService, Mockito.times(2)).schedule(runnableCaptor.capture(), Matchers.anyLong(), Matchers.any(TimeUnit.class));
         runnableCaptor.getAllValues().get(0).run();
         runnableCaptor.getAllValues().get(1).run();
         Assert.assertEquals(ImmutableList.of("enable-all", "enable-none"), featureFlagManager.getConfigurationNames());
@@ -86,6 +86,29 @@ public class MerciTest {
         Assert.assertEquals(0, configMetrics.getConfigSameContentsSkips());
     }
 
+    @Test
+    public void testLoaderSchedulesManagersWithTheirOwnRefreshPolicies() {
+        ConfigurationFetcher fetcher = (fileNames, application) -> Collections.emptyMap();
+
+        ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+        ArgumentCaptor<Long> delayCaptor = ArgumentCaptor.forClass(Long.class);
+        ScheduledExecutorService executorService = Mockito.mock(ScheduledExecutorService.class);
+
+        Merci merci = new Merci(fetcher, executorService, objectMapper, digest);
+        merci.addFeatureFlagManager("myapp").registerFile("/featureflags.json")
+                .setRefreshPolicy(RefreshPolicy.fixed(Duration.ofMillis(200))).build();
+        merci.addConfigManager("myapp").registerFile("/configs.json").build();
+
+        ConfigurationLoader loader = merci.createLoader(RefreshPolicy.fixed(Duration.ofMinutes(3)));
+        loader.start();
+
+        Mockito.verify(executorService, Mockito.times(2)).schedule(runnableCaptor.capture(), Matchers.anyLong(), Matchers.any(TimeUnit.class));
+        runnableCaptor.getAllValues().get(0).run();
+        runnableCaptor.getAllValues().get(1).run();
+        Mockito.verify(executorService, Mockito.times(4)).schedule(Matchers.any(Runnable.class), delayCaptor.capture(), Matchers.eq(TimeUnit.MILLISECONDS));
+        Assert.assertEquals(ImmutableList.of(0L, 0L, 200L, 180000L), delayCaptor.getAllValues());
+    }
+
     @Test
     public void testMaximumSkips() {
         ConfigurationFetcher fetcher = (fileNames, application) -> {
@@ -111,7 +134,7 @@ public class MerciTest {
         ConfigurationLoader loader = merci.createLoader(Duration.ofSeconds(10));
         loader.start();
 
-        Mockito.verify(executorService).scheduleWithFixedDelay(runnableCaptor.capture(), Matchers.anyLong(), Matchers.anyLong(), Matchers.any(TimeUnit.class));
+        Mockito.verify(executorService).schedule(runnableCaptor.capture(), Matchers.anyLong(), Matchers.any(TimeUnit.class));
         runnableCaptor.getValue().run();
         runnableCaptor.getValue().run();
         runnableCaptor.getValue().run();
@@ -154,7 +177,7 @@ public class MerciTest {
         ConfigurationLoader loader = merci.createLoader(Duration.ofSeconds(10));
         loader.start();
 
-        Mockito.verify(executorService, Mockito.times(2)).scheduleWithFixedDelay(runnableCaptor.capture(), Matchers.anyLong(), Matchers.anyLong(), Matchers.any(TimeUnit.class));
+        Mockito.verify(executorService, Mockito.times(2)).schedule(runnableCaptor.capture(), Matchers.anyLong(), Matchers.any(TimeUnit.class));
         runnableCaptor.getAllValues().get(0).run();
         runnableCaptor.getAllValues().get(1).run();
         Assert.assertEquals(0, configurationLoaderMetrics.getConfigurationFailures());
@@ -200,7 +223,7 @@ public class MerciTest {
 
         merci.createAndStartLoader(Duration.ofSeconds(10));
 
-        Mockito.verify(executorService, Mockito.times(2)).scheduleWithFixedDelay(runnableCaptor.capture(), Matchers.anyLong(), Matchers.anyLong(), Matchers.any(TimeUnit.class));
+        Mockito.verify(executorService, Mockito.times(2)).schedule(runnableCaptor.capture(), Matchers.anyLong(), Matchers.any(TimeUnit.class));
         runnableCaptor.getAllValues().get(0).run();
         runnableCaptor.getAllValues().get(1).run();
         Assert.assertEquals(1, configurationLoaderMetrics.getConfigurationFailures());
@@ -243,7 +266,7 @@ public class MerciTest {
         ConfigurationLoader loader = merci.createLoader(Duration.ofSeconds(10));
         loader.start();
 
-        Mockito.verify(executorService, Mockito.times(2)).scheduleWithFixedDelay(runnableCaptor.capture(), Matchers.anyLong(), Matchers.anyLong(), Matchers.any(TimeUnit.class));
+        Mockito.verify(executorService, Mockito.times(2)).schedule(runnableCaptor.capture(), Matchers.anyLong(), Matchers.any(TimeUnit.class));
         runnableCaptor.getAllValues().get(0).run();
         runnableCaptor.getAllValues().get(1).run();
         Assert.assertEquals(1, configurationLoaderMetrics.getConfigurationFailures());
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+
+/**
+ * Unit tests for {@link RefreshPolicy}.
+ */
+public class RefreshPolicyTest {
+
+    private final RefreshPolicy refreshPolicy = new RefreshPolicy(Duration.ofSeconds(4), Duration.ofSeconds(1), Duration.ofSeconds(10), 3, 0.1);
+
+    @Test
+    public void testFixedRefreshPolicyAlwaysReturnsInterval() {
+        RefreshPolicy fixed = RefreshPolicy.fixed(Duration.ofSeconds(5));
+        Assert.assertEquals(5000, fixed.afterChange());
+        Assert.assertEquals(5000, fixed.afterUnchanged(5000, 100));
+        Assert.assertEquals(5000, fixed.afterFailure(10));
+        Assert.assertEquals(5000, fixed.withJitter(5000));
+    }
+
+    @Test
+    public void testAfterUnchangedDoublesDelayUpToIntervalUntilStable() {
+        Assert.assertEquals(2000, refreshPolicy.afterUnchanged(1000, 1));
+        Assert.assertEquals(4000, refreshPolicy.afterUnchanged(3000, 2));
+        Assert.assertEquals(4000, refreshPolicy.afterUnchanged(8000, 2));
+        Assert.assertEquals(8000, refreshPolicy.afterUnchanged(4000, 3));
+        Assert.assertEquals(10000, refreshPolicy.afterUnchanged(8000, 4));
+    }
+
+    @Test
+    public void testAfterFailureBacksOffExponentiallyUpToMaximum() {
+        Assert.assertEquals(4000, refreshPolicy.afterFailure(1));
+        Assert.assertEquals(8000, refreshPolicy.afterFailure(2));
+        Assert.assertEquals(10000, refreshPolicy.afterFailure(3));
+        Assert.assertEquals(10000, refreshPolicy.afterFailure(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testWithJitterSpreadsDelayWithinJitter() {
+        for (int i = 0; i < 100; i++) {
+            long delay = refreshPolicy.withJitter(1000);
+            Assert.assertTrue(delay >= 900 && delay <= 1100);
+        }
+    }
+
+    @Test
+    public void testAdaptiveRefreshPolicyIsFasterAfterChanges() {
+        RefreshPolicy adaptive = RefreshPolicy.adaptive(Duration.ofSeconds(8));
+        Assert.assertEquals(8000, adaptive.getInterval());
+        Assert.assertEquals(2000, adaptive.afterChange());
+        Assert.assertEquals(64000, adaptive.afterFailure(10));
+    }
+
+    @Test
+    public void testAdaptiveRefreshPolicyKeepsIntervalForStableExecutions() {
+        RefreshPolicy adaptive = RefreshPolicy.adaptive(Duration.ofSeconds(8));
+        Assert.assertEquals(8000, adaptive.afterUnchanged(8000, 1000));
+        RefreshPolicy stable = RefreshPolicy.adaptive(Duration.ofSeconds(8), Duration.ofSeconds(60));
+        Assert.assertEquals(8000, stable.afterUnchanged(8000, 9));
+        Assert.assertEquals(16000, stable.afterUnchanged(8000, 10));
+        Assert.assertEquals(60000, stable.afterFailure(10));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorThrowsExceptionForUnorderedIntervals() {
+        new RefreshPolicy(Duration.ofSeconds(4), Duration.ofSeconds(5), Duration.ofSeconds(10), 3, 0);
+    }
+}
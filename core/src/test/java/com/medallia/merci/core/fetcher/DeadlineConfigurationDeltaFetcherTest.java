@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.fetcher;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.medallia.merci.core.filesystem.ConfigurationFetcherMetrics;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link DeadlineConfigurationDeltaFetcher}.
+ */
+public class DeadlineConfigurationDeltaFetcherTest {
+
+    private static final ConfigurationDelta DELTA = new ConfigurationDelta("epoch", 1, true, Collections.emptyList(),
+            JsonNodeFactory.instance.objectNode());
+
+    private final ConfigurationFetcherMetrics metrics = new ConfigurationFetcherMetrics();
+
+    private final ExecutorService executorService = DeadlineConfigurationFetcher.newExecutorService();
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testFetchReturnsDeltaOfDeltaFetcher() throws IOException {
+        DeadlineConfigurationDeltaFetcher deltaFetcher = new DeadlineConfigurationDeltaFetcher(
+                (application, root, epoch, generation) -> DELTA, executorService, Duration.ofSeconds(5), 0, metrics);
+        Assert.assertSame(DELTA, deltaFetcher.fetch("myapp", "feature-flags", "", 0));
+    }
+
+    @Test
+    public void testFetchCancelsHungFetchAfterDeadline() throws IOException, InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        DeadlineConfigurationDeltaFetcher deltaFetcher = new DeadlineConfigurationDeltaFetcher((application, root, epoch, generation) -> {
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException exception) {
+                interrupted.countDown();
+            }
+            return DELTA;
+        }, executorService, Duration.ofMillis(50), 0, metrics);
+        try {
+            deltaFetcher.fetch("myapp", "feature-flags", "", 0);
+            Assert.fail("Expected InterruptedIOException");
+        } catch (InterruptedIOException exception) {
+            Assert.assertEquals(1, metrics.getTimeouts());
+        }
+        Assert.assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+}
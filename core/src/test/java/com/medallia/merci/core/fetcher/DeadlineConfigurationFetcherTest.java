@@ -0,0 +1,156 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.fetcher;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.medallia.merci.core.filesystem.ConfigurationFetcherMetrics;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for {@link DeadlineConfigurationFetcher}.
+ */
+public class DeadlineConfigurationFetcherTest {
+
+    private static final String APPLICATION = "myapp";
+
+    private static final List<String> FILE_NAMES = ImmutableList.of("/featureflags.json");
+
+    private static final Map<String, String> CONTENTS = ImmutableMap.of("/featureflags.json", "{ \"feature-flags\" : { } }");
+
+    private final ConfigurationFetcherMetrics metrics = new ConfigurationFetcherMetrics();
+
+    private final ExecutorService executorService = DeadlineConfigurationFetcher.newExecutorService();
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testFetchReturnsContentsOfFetcher() throws IOException {
+        DeadlineConfigurationFetcher fetcher = new DeadlineConfigurationFetcher((fileNames, application) -> CONTENTS,
+                executorService, Duration.ofSeconds(5), 0, metrics);
+        Assert.assertSame(CONTENTS, fetcher.fetch(FILE_NAMES, APPLICATION));
+        Assert.assertEquals(0, metrics.getTimeouts());
+    }
+
+    @Test
+    public void testFetchCancelsHungFetchAfterDeadline() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        DeadlineConfigurationFetcher fetcher = new DeadlineConfigurationFetcher((fileNames, application) -> {
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException exception) {
+                interrupted.countDown();
+            }
+            return CONTENTS;
+        }, executorService, Duration.ofMillis(50), 0, metrics);
+        try {
+            fetcher.fetch(FILE_NAMES, APPLICATION);
+            Assert.fail("Expected InterruptedIOException");
+        } catch (InterruptedIOException exception) {
+            Assert.assertEquals(1, metrics.getTimeouts());
+        } catch (IOException exception) {
+            Assert.fail("Expected InterruptedIOException");
+        }
+        Assert.assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFetchSkipsFetchWhileCancelledFetchIsRunning() throws IOException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger fetches = new AtomicInteger();
+        DeadlineConfigurationFetcher fetcher = new DeadlineConfigurationFetcher((fileNames, application) -> {
+            if (fetches.incrementAndGet() == 1) {
+                //ignores interrupts, like a fetch blocked in non-interruptible I/O.
+                Uninterruptibles.awaitUninterruptibly(release);
+            }
+            return CONTENTS;
+        }, executorService, Duration.ofMillis(50), 0, metrics);
+        try {
+            fetcher.fetch(FILE_NAMES, APPLICATION);
+            Assert.fail("Expected InterruptedIOException");
+        } catch (InterruptedIOException exception) {
+            Assert.assertEquals(1, metrics.getTimeouts());
+        }
+        try {
+            fetcher.fetch(FILE_NAMES, APPLICATION);
+            Assert.fail("Expected IOException");
+        } catch (IOException exception) {
+            Assert.assertEquals(1, metrics.getSkippedRequests());
+            Assert.assertEquals(1, fetches.get());
+        }
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (true) {
+            try {
+                Assert.assertSame(CONTENTS, fetcher.fetch(FILE_NAMES, APPLICATION));
+                break;
+            } catch (IOException exception) {
+                //cancelled fetch may not have released its thread yet.
+                Assert.assertTrue(System.nanoTime() < deadline);
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testFetchThrowsExceptionOfFetcher() throws IOException {
+        DeadlineConfigurationFetcher fetcher = new DeadlineConfigurationFetcher((fileNames, application) -> { throw new IOException("problems"); },
+                executorService, Duration.ofSeconds(5), 0.9, metrics);
+        fetcher.fetch(FILE_NAMES, APPLICATION);
+    }
+
+    @Test
+    public void testFetchIssuesHedgedFetchForSlowFetch() throws IOException {
+        AtomicInteger fetches = new AtomicInteger();
+        DeadlineConfigurationFetcher fetcher = new DeadlineConfigurationFetcher((fileNames, application) -> {
+            if (fetches.incrementAndGet() == 17) {
+                try {
+                    Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                } catch (InterruptedException exception) {
+                    throw new InterruptedIOException();
+                }
+            }
+            return CONTENTS;
+        }, executorService, Duration.ofSeconds(30), 0.5, metrics);
+        for (int i = 0; i < 16; i++) {
+            fetcher.fetch(FILE_NAMES, APPLICATION);
+        }
+        Assert.assertEquals(0, metrics.getHedgedRequests());
+        Assert.assertSame(CONTENTS, fetcher.fetch(FILE_NAMES, APPLICATION));
+        Assert.assertEquals(1, metrics.getHedgedRequests());
+        Assert.assertEquals(18, fetches.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorThrowsExceptionForInvalidPercentile() {
+        new DeadlineConfigurationFetcher((fileNames, application) -> CONTENTS, executorService, Duration.ofSeconds(5), 1, metrics);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.medallia.merci.core.Configuration;
+import com.medallia.merci.core.ConfigurationHistory;
+import com.medallia.merci.core.FeatureFlagManager;
+import com.medallia.merci.core.fetcher.ConfigurationDelta;
+import com.medallia.merci.core.filesystem.ConfigurationFetcherMetrics;
+import com.medallia.merci.core.structure.Context;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Unit tests for {@link HttpConfigurationDeltaFetcher}, against a local HTTP server with a {@link ConfigurationHistory}.
+ */
+public class HttpConfigurationDeltaFetcherTest {
+
+    private static final String APPLICATION_SMILE = "application/x-jackson-smile";
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+    private final ConfigurationFetcherMetrics metrics = new ConfigurationFetcherMetrics();
+
+    private final FeatureFlagManager remoteManager = new FeatureFlagManager();
+
+    private final ConfigurationHistory<Boolean> history = new ConfigurationHistory<>(remoteManager, "feature-flags", jsonMapper, 10);
+
+    /** Received Accept headers. */
+    private final List<String> accepts = new CopyOnWriteArrayList<>();
+
+    private HttpServer server;
+    private String baseUrl;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/deltas", this::handle);
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort() + "/deltas";
+        remoteManager.updateConfigurations(ImmutableMap.of("enable-all", new Configuration<>("enable-all", new Context<>(Boolean.TRUE, null))));
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testFetchReturnsJsonDelta() throws IOException {
+        ConfigurationDelta delta = new HttpConfigurationDeltaFetcher(baseUrl, jsonMapper, metrics).fetch("myapp", "feature-flags", "", 0);
+        Assert.assertTrue(delta.isComplete());
+        Assert.assertEquals(history.getEpoch(), delta.getEpoch());
+        Assert.assertEquals(1, delta.getGeneration());
+        Assert.assertTrue(delta.getDocument().get("feature-flags").get("enable-all").get("value").asBoolean());
+        Assert.assertEquals(ImmutableList.of("application/json"), accepts);
+    }
+
+    @Test
+    public void testFetchReturnsSmileDelta() throws IOException {
+        HttpConfigurationDeltaFetcher fetcher = new HttpConfigurationDeltaFetcher(baseUrl, smileMapper, metrics);
+        ConfigurationDelta delta = fetcher.fetch("myapp", "feature-flags", "", 0);
+        remoteManager.updateConfigurations(ImmutableMap.of());
+        ConfigurationDelta nextDelta = fetcher.fetch("myapp", "feature-flags", delta.getEpoch(), delta.getGeneration());
+        Assert.assertTrue(delta.getDocument().get("feature-flags").get("enable-all").get("value").asBoolean());
+        Assert.assertFalse(nextDelta.isComplete());
+        Assert.assertEquals(ImmutableList.of("enable-all"), nextDelta.getRemovedNames());
+        Assert.assertEquals(ImmutableList.of(APPLICATION_SMILE, APPLICATION_SMILE), accepts);
+        Assert.assertEquals(2, metrics.getRequests());
+    }
+
+    /**
+     * Serves deltas of the history as JSON or Smile, depending on the Accept header.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        accepts.add(accept);
+        String query = exchange.getRequestURI().getQuery();
+        String epoch = query.substring(query.indexOf("epoch=") + 6, query.indexOf('&'));
+        long since = Long.parseLong(query.substring(query.indexOf("since=") + 6));
+        byte[] body = APPLICATION_SMILE.equals(accept)
+                ? history.getDelta(epoch, since, smileMapper) : history.getDelta(epoch, since).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", accept);
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+}
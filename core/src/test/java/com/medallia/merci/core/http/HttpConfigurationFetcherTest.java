@@ -0,0 +1,182 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.http;
+
+import com.google.common.collect.ImmutableList;
+import com.medallia.merci.core.filesystem.ConfigurationFetcherMetrics;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Unit tests for {@link HttpConfigurationFetcher}, against a local HTTP server.
+ */
+public class HttpConfigurationFetcherTest {
+
+    private static final String APPLICATION = "myapp";
+
+    private static final String FILE_ONE = "/first-featureflags.json";
+
+    private static final String FILE_TWO = "/second-featureflags.json";
+
+    private static final String FILE_ONE_CONTENT = "{ \"feature-flags\" : { \"enable-none\" : { \"value\" : false } } }";
+
+    private static final String FILE_TWO_CONTENT = "{ \"feature-flags\" : { \"enable-all\" : { \"value\" : true } } }";
+
+    private final ConfigurationFetcherMetrics metrics = new ConfigurationFetcherMetrics();
+
+    /** Served content per path. */
+    private final Map<String, String> files = new ConcurrentHashMap<>();
+
+    /** Received If-None-Match headers, "-" for requests without header. */
+    private final List<String> conditions = new CopyOnWriteArrayList<>();
+
+    private HttpServer server;
+    private String baseUrl;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/files", this::handle);
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort() + "/files";
+        files.put("/files/" + APPLICATION + FILE_ONE, FILE_ONE_CONTENT);
+        files.put("/files/" + APPLICATION + FILE_TWO, FILE_TWO_CONTENT);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testFetchReturnsContentFromFiles() throws IOException {
+        HttpConfigurationFetcher fetcher = new HttpConfigurationFetcher(baseUrl, false, metrics);
+        Map<String, String> contents = fetcher.fetch(ImmutableList.of(FILE_ONE, FILE_TWO), APPLICATION);
+        Assert.assertEquals(FILE_ONE_CONTENT, contents.get(FILE_ONE));
+        Assert.assertEquals(FILE_TWO_CONTENT, contents.get(FILE_TWO));
+        Assert.assertEquals(ImmutableList.of("-", "-"), conditions);
+        Assert.assertEquals(1, metrics.getRequests());
+    }
+
+    @Test
+    public void testFetchReturnsPreviousContentsForUnchangedFiles() throws IOException {
+        HttpConfigurationFetcher fetcher = new HttpConfigurationFetcher(baseUrl, false, metrics);
+        Map<String, String> contents = fetcher.fetch(ImmutableList.of(FILE_ONE, FILE_TWO), APPLICATION);
+        Assert.assertSame(contents, fetcher.fetch(ImmutableList.of(FILE_ONE, FILE_TWO), APPLICATION));
+        Assert.assertEquals(ImmutableList.of("-", "-", etag(FILE_ONE_CONTENT), etag(FILE_TWO_CONTENT)), conditions);
+        Assert.assertEquals(2, metrics.getUnchangedFiles());
+    }
+
+    @Test
+    public void testFetchReturnsNewContentsForChangedFile() throws IOException {
+        HttpConfigurationFetcher fetcher = new HttpConfigurationFetcher(baseUrl, false, metrics);
+        Map<String, String> contents = fetcher.fetch(ImmutableList.of(FILE_ONE, FILE_TWO), APPLICATION);
+        files.put("/files/" + APPLICATION + FILE_TWO, FILE_ONE_CONTENT);
+        Map<String, String> changedContents = fetcher.fetch(ImmutableList.of(FILE_ONE, FILE_TWO), APPLICATION);
+        Assert.assertNotSame(contents, changedContents);
+        Assert.assertSame(contents.get(FILE_ONE), changedContents.get(FILE_ONE));
+        Assert.assertEquals(FILE_ONE_CONTENT, changedContents.get(FILE_TWO));
+        Assert.assertEquals(1, metrics.getUnchangedFiles());
+    }
+
+    @Test
+    public void testFetchReturnsPreviousContentsPerFileNames() throws IOException {
+        HttpConfigurationFetcher fetcher = new HttpConfigurationFetcher(baseUrl, false, metrics);
+        Map<String, String> contents = fetcher.fetch(ImmutableList.of(FILE_ONE, FILE_TWO), APPLICATION);
+        Map<String, String> otherContents = fetcher.fetch(ImmutableList.of(FILE_ONE), APPLICATION);
+        Assert.assertSame(contents, fetcher.fetch(ImmutableList.of(FILE_ONE, FILE_TWO), APPLICATION));
+        Assert.assertSame(otherContents, fetcher.fetch(ImmutableList.of(FILE_ONE), APPLICATION));
+    }
+
+    @Test
+    public void testFetchReturnsNewContentsForFileChangedByFetchOfOtherFileNames() throws IOException {
+        HttpConfigurationFetcher fetcher = new HttpConfigurationFetcher(baseUrl, false, metrics);
+        Map<String, String> contents = fetcher.fetch(ImmutableList.of(FILE_ONE, FILE_TWO), APPLICATION);
+        files.put("/files/" + APPLICATION + FILE_ONE, FILE_TWO_CONTENT);
+        fetcher.fetch(ImmutableList.of(FILE_ONE), APPLICATION);
+        Map<String, String> changedContents = fetcher.fetch(ImmutableList.of(FILE_ONE, FILE_TWO), APPLICATION);
+        Assert.assertNotSame(contents, changedContents);
+        Assert.assertEquals(FILE_TWO_CONTENT, changedContents.get(FILE_ONE));
+    }
+
+    @Test
+    public void testFetchSkipsMissingFile() throws IOException {
+        files.remove("/files/" + APPLICATION + FILE_TWO);
+        HttpConfigurationFetcher fetcher = new HttpConfigurationFetcher(baseUrl, true, metrics);
+        Map<String, String> contents = fetcher.fetch(ImmutableList.of(FILE_ONE, FILE_TWO), APPLICATION);
+        Assert.assertEquals(1, contents.size());
+        Assert.assertEquals(1, metrics.getMissingFiles());
+        Assert.assertEquals(0, metrics.getFailures());
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void testFetchThrowsExceptionForMissingFile() throws IOException {
+        files.remove("/files/" + APPLICATION + FILE_TWO);
+        HttpConfigurationFetcher fetcher = new HttpConfigurationFetcher(baseUrl, false, metrics);
+        try {
+            fetcher.fetch(ImmutableList.of(FILE_ONE, FILE_TWO), APPLICATION);
+        } finally {
+            Assert.assertEquals(1, metrics.getFailures());
+        }
+    }
+
+    /**
+     * Serves gzip-encoded files with entity tags, answers matching If-None-Match headers with 304.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        String condition = exchange.getRequestHeaders().getFirst("If-None-Match");
+        conditions.add(condition == null ? "-" : condition);
+        String content = files.get(exchange.getRequestURI().getPath());
+        if (content == null) {
+            exchange.sendResponseHeaders(404, -1);
+        } else if (etag(content).equals(condition)) {
+            exchange.getResponseHeaders().set("ETag", etag(content));
+            exchange.sendResponseHeaders(304, -1);
+        } else {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            try (OutputStream gzip = new GZIPOutputStream(body)) {
+                gzip.write(content.getBytes(StandardCharsets.UTF_8));
+            }
+            Assert.assertEquals("gzip", exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+            exchange.getResponseHeaders().set("ETag", etag(content));
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, body.size());
+            exchange.getResponseBody().write(body.toByteArray());
+        }
+        exchange.close();
+    }
+
+    private static String etag(String content) {
+        return "\"" + Integer.toHexString(content.hashCode()) + "\"";
+    }
+}
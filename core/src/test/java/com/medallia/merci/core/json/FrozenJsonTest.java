@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Unit tests for {@link FrozenJson}.
+ */
+public class FrozenJsonTest {
+
+    private static final String JSON = "{\"name\":\"merci\",\"count\":3,\"ratio\":0.5,\"big\":12345678901234567890,"
+            + "\"enabled\":true,\"missing\":null,\"list\":[1,\"two\",{}],\"nested\":{\"a\":{\"b\":[]}}}";
+
+    private static final String LARGE_JSON = "{\"f0\":0,\"f1\":1,\"f2\":2,\"f3\":3,\"f4\":4,\"f5\":5,\"f6\":6,\"f7\":7,"
+            + "\"f8\":8,\"f9\":9,\"f10\":10}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testReadValueReturnsFrozenJsonWithAllValues() throws IOException {
+        FrozenJson json = objectMapper.readValue(JSON, FrozenJson.class);
+        Assert.assertEquals(Arrays.asList("name", "count", "ratio", "big", "enabled", "missing", "list", "nested"), json.fieldNames());
+        Assert.assertEquals("merci", json.get("name").asText());
+        Assert.assertEquals(3, json.get("count").asInt());
+        Assert.assertEquals(0.5, json.get("ratio").asDouble(), 0.0);
+        Assert.assertEquals("12345678901234567890", json.get("big").asText());
+        Assert.assertTrue(json.get("enabled").asBoolean());
+        Assert.assertTrue(json.get("missing").isNull());
+        Assert.assertEquals("two", json.get("list").get(1).asText());
+        Assert.assertEquals(0, json.get("nested").get("a").get("b").size());
+        Assert.assertNull(json.get("other"));
+        Assert.assertNull(json.get("list").get(3));
+    }
+
+    @Test
+    public void testWriteValueReturnsOriginalJson() throws IOException {
+        Assert.assertEquals(JSON, objectMapper.writeValueAsString(objectMapper.readValue(JSON, FrozenJson.class)));
+    }
+
+    @Test
+    public void testToJsonNodeReturnsEqualJsonNode() throws IOException {
+        JsonNode node = objectMapper.readTree(JSON);
+        Assert.assertEquals(node, objectMapper.readValue(JSON, FrozenJson.class).toJsonNode());
+        Assert.assertEquals(node, FrozenJson.of(node).toJsonNode());
+    }
+
+    @Test
+    public void testOfReturnsValueEqualToReadValue() throws IOException {
+        Assert.assertEquals(objectMapper.readValue(JSON, FrozenJson.class), FrozenJson.of(objectMapper.readTree(JSON)));
+    }
+
+    @Test
+    public void testReadValueFromTreeReturnsFrozenJson() throws IOException {
+        JsonNode node = objectMapper.readTree(JSON);
+        Assert.assertEquals(FrozenJson.of(node), objectMapper.readerFor(FrozenJson.class).readValue(node));
+    }
+
+    @Test
+    public void testEqualsIgnoresOrderOfFields() throws IOException {
+        FrozenJson first = objectMapper.readValue("{\"a\":1,\"b\":[true]}", FrozenJson.class);
+        FrozenJson second = objectMapper.readValue("{\"b\":[true],\"a\":1}", FrozenJson.class);
+        Assert.assertEquals(first, second);
+        Assert.assertEquals(first.hashCode(), second.hashCode());
+        Assert.assertNotEquals(first, objectMapper.readValue("{\"a\":1,\"b\":[false]}", FrozenJson.class));
+    }
+
+    @Test
+    public void testGetReturnsFieldsOfLargeObject() throws IOException {
+        FrozenJson json = objectMapper.readValue(LARGE_JSON, FrozenJson.class);
+        for (int index = 0; index <= 10; index++) {
+            Assert.assertEquals(index, json.get("f" + index).asInt());
+        }
+        Assert.assertNull(json.get("f11"));
+    }
+
+    @Test
+    public void testOfReturnsSharedInstancesForCommonValues() {
+        Assert.assertSame(FrozenJson.of(7L), FrozenJson.of(7L));
+        Assert.assertSame(FrozenJson.TRUE, FrozenJson.of(true));
+        Assert.assertSame(FrozenJson.NULL, FrozenJson.of((JsonNode) null));
+        Assert.assertSame(FrozenJson.EMPTY_OBJECT, FrozenJson.of(objectMapper.createObjectNode()));
+    }
+
+    @Test
+    public void testOfNumbersWritesSameJsonAsJsonNode() throws IOException {
+        Integer boxed = 42;
+        Assert.assertEquals("42", objectMapper.writeValueAsString(FrozenJson.of(boxed)));
+        Assert.assertEquals("12345678901234567890", objectMapper.writeValueAsString(FrozenJson.of(new BigInteger("12345678901234567890"))));
+        Assert.assertEquals("0.125", FrozenJson.of(new BigDecimal("0.125")).toJsonNode().toString());
+        Assert.assertSame(FrozenJson.NULL, FrozenJson.of((BigDecimal) null));
+    }
+
+    @Test
+    public void testReadValueKeepsLastValueOfDuplicateFields() throws IOException {
+        String json = "{\"a\":1,\"b\":2,\"a\":3}";
+        FrozenJson frozenJson = objectMapper.readValue(json, FrozenJson.class);
+        Assert.assertEquals(Arrays.asList("a", "b"), frozenJson.fieldNames());
+        Assert.assertEquals(3, frozenJson.get("a").asInt());
+        Assert.assertEquals(objectMapper.readTree(json), frozenJson.toJsonNode());
+        Assert.assertEquals("{\"a\":3,\"b\":2}", objectMapper.writeValueAsString(frozenJson));
+        FrozenJson large = objectMapper.readValue(LARGE_JSON.replace("}", ",\"f0\":11}"), FrozenJson.class);
+        Assert.assertEquals(11, large.size());
+        Assert.assertEquals(11, large.get("f0").asInt());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testElementsAreReadOnly() throws IOException {
+        objectMapper.readValue("[1]", FrozenJson.class).elements().set(0, FrozenJson.NULL);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+
+/**
+ * Unit tests for {@link JsonPath}.
+ */
+public class JsonPathTest {
+
+    private static final String JSON = "{\"database\":{\"hosts\":[\"one\",\"two\"],\"a/b\":1,\"0\":\"zero\"}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testResolveReturnsValuesAtPaths() throws IOException {
+        FrozenJson json = objectMapper.readValue(JSON, FrozenJson.class);
+        Assert.assertSame(json, JsonPath.compile("").resolve(json));
+        Assert.assertEquals("two", JsonPath.compile("/database/hosts/1").resolve(json).asText());
+        Assert.assertEquals(1, JsonPath.compile("/database/a~1b").resolve(json).asInt());
+        Assert.assertEquals("zero", JsonPath.compile("/database/0").resolve(json).asText());
+    }
+
+    @Test
+    public void testResolveReturnsNullForMissingValues() throws IOException {
+        FrozenJson json = objectMapper.readValue(JSON, FrozenJson.class);
+        Assert.assertNull(JsonPath.compile("/database/hosts/2").resolve(json));
+        Assert.assertNull(JsonPath.compile("/database/hosts/first").resolve(json));
+        Assert.assertNull(JsonPath.compile("/other/hosts").resolve(json));
+        Assert.assertNull(JsonPath.compile("/database").resolve(null));
+    }
+
+    @Test
+    public void testResolveReturnsValueOfProvidedRoot() throws IOException {
+        JsonPath path = JsonPath.compile("/database/a~1b");
+        FrozenJson first = objectMapper.readValue(JSON, FrozenJson.class);
+        FrozenJson second = objectMapper.readValue(JSON.replace("\"a/b\":1", "\"a/b\":2"), FrozenJson.class);
+        Assert.assertEquals(1, path.resolve(first).asInt());
+        Assert.assertEquals(2, path.resolve(second).asInt());
+        Assert.assertEquals(1, path.resolve(first).asInt());
+    }
+
+    @Test
+    public void testResolveListReturnsElementsOfArray() throws IOException {
+        FrozenJson json = objectMapper.readValue(JSON, FrozenJson.class);
+        Assert.assertEquals(2, JsonPath.compile("/database/hosts").resolveList(json).size());
+        Assert.assertTrue(JsonPath.compile("/database").resolveList(json).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompileThrowsExceptionForRelativePointer() {
+        JsonPath.compile("database/hosts");
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.matcher;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ContextMatcher} implementations compiled by {@link MatchType}.
+ */
+public class ContextMatcherTest {
+
+    @Test
+    public void testExactMatchTypeCompilesToNoMatcher() {
+        Assert.assertNull(MatchType.EXACT.compile(ImmutableList.of("qa", "prod")));
+    }
+
+    @Test
+    public void testPrefixMatcherReturnsLongestPrefix() {
+        ContextMatcher matcher = MatchType.PREFIX.compile(ImmutableList.of("xj", "xj10", "cem"));
+        Assert.assertEquals(1, matcher.match("xj1001"));
+        Assert.assertEquals(1, matcher.match("xj10"));
+        Assert.assertEquals(0, matcher.match("xj2001"));
+        Assert.assertEquals(0, matcher.match("xj"));
+        Assert.assertEquals(2, matcher.match("cem341"));
+        Assert.assertEquals(-1, matcher.match("x"));
+        Assert.assertEquals(-1, matcher.match(""));
+        Assert.assertEquals(-1, matcher.match("db1001"));
+    }
+
+    @Test
+    public void testPrefixMatcherWithEmptyPrefixMatchesEverything() {
+        ContextMatcher matcher = MatchType.PREFIX.compile(ImmutableList.of("", "xj"));
+        Assert.assertEquals(0, matcher.match(""));
+        Assert.assertEquals(0, matcher.match("db1001"));
+        Assert.assertEquals(1, matcher.match("xj1001"));
+    }
+
+    @Test
+    public void testGlobMatcherReturnsFirstMatchingGlob() {
+        ContextMatcher matcher = MatchType.GLOB.compile(ImmutableList.of("xj10??", "xj*", "cem[0-9][0-9][!0]", "*.prod"));
+        Assert.assertEquals(0, matcher.match("xj1001"));
+        Assert.assertEquals(1, matcher.match("xj10011"));
+        Assert.assertEquals(1, matcher.match("xj"));
+        Assert.assertEquals(2, matcher.match("cem341"));
+        Assert.assertEquals(-1, matcher.match("cem340"));
+        Assert.assertEquals(-1, matcher.match("cem3411"));
+        Assert.assertEquals(3, matcher.match("db1.prod"));
+        Assert.assertEquals(-1, matcher.match("db1.prod.qa"));
+    }
+
+    @Test
+    public void testGlobMatcherTreatsUnclosedClassAndEscapesAsLiterals() {
+        ContextMatcher matcher = MatchType.GLOB.compile(ImmutableList.of("a[b", "c\\*"));
+        Assert.assertEquals(0, matcher.match("a[b"));
+        Assert.assertEquals(1, matcher.match("c*"));
+        Assert.assertEquals(-1, matcher.match("cd"));
+    }
+
+    @Test
+    public void testRegexMatcherReturnsFirstMatchingExpression() {
+        ContextMatcher matcher = MatchType.REGEX.compile(ImmutableList.of("^xj1\\d{3}$", "xj(?:20|30)[0-9]+", "cem3[4-5]\\d|cem9.*", "[^a-z].*"));
+        Assert.assertEquals(0, matcher.match("xj1001"));
+        Assert.assertEquals(-1, matcher.match("xj10011"));
+        Assert.assertEquals(1, matcher.match("xj2001"));
+        Assert.assertEquals(1, matcher.match("xj30012345"));
+        Assert.assertEquals(-1, matcher.match("xj40"));
+        Assert.assertEquals(2, matcher.match("cem341"));
+        Assert.assertEquals(2, matcher.match("cem9"));
+        Assert.assertEquals(-1, matcher.match("cem361"));
+        Assert.assertEquals(3, matcher.match("1cem"));
+        Assert.assertEquals(3, matcher.match("\u00e9t\u00e9"));
+    }
+
+    @Test
+    public void testRegexMatcherSupportsOptionalAndBoundedRepetitions() {
+        ContextMatcher matcher = MatchType.REGEX.compile(ImmutableList.of("a{2,3}b?", "(ab)+", "x{2,}", "\\w+\\.\\s?\\W"));
+        Assert.assertEquals(-1, matcher.match("a"));
+        Assert.assertEquals(0, matcher.match("aa"));
+        Assert.assertEquals(0, matcher.match("aaab"));
+        Assert.assertEquals(-1, matcher.match("aaaa"));
+        Assert.assertEquals(1, matcher.match("abab"));
+        Assert.assertEquals(-1, matcher.match("aba"));
+        Assert.assertEquals(-1, matcher.match("x"));
+        Assert.assertEquals(2, matcher.match("xxxxx"));
+        Assert.assertEquals(3, matcher.match("word. !"));
+    }
+
+    @Test
+    public void testRegexMatcherCompilesAllExpressionsIntoSingleAutomaton() {
+        DfaMatcher matcher = (DfaMatcher) MatchType.REGEX.compile(ImmutableList.of("qa", "prod", "dev"));
+        Assert.assertEquals(1, matcher.match("prod"));
+        Assert.assertEquals(10, matcher.getStates());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRegexMatcherRejectsBackReferences() {
+        MatchType.REGEX.compile(ImmutableList.of("(a)\\1"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRegexMatcherRejectsLookArounds() {
+        MatchType.REGEX.compile(ImmutableList.of("(?=a)a"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRegexMatcherRejectsUnclosedGroups() {
+        MatchType.REGEX.compile(ImmutableList.of("(ab"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRegexMatcherRejectsDanglingQuantifiers() {
+        MatchType.REGEX.compile(ImmutableList.of("*a"));
+    }
+}
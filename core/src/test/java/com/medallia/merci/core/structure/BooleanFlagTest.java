@@ -0,0 +1,107 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.structure;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.medallia.merci.core.ConfigurationContext;
+import com.medallia.merci.core.common.EnvironmentConfigurationContext;
+import com.medallia.merci.core.common.UserConfigurationContext;
+import com.medallia.merci.core.matcher.MatchType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link BooleanFlag}.
+ */
+public class BooleanFlagTest {
+
+    private final List<ConfigurationContext> runtimeContexts = ImmutableList.of(
+            new ConfigurationContext(),
+            new EnvironmentConfigurationContext("qa"),
+            new EnvironmentConfigurationContext("prod"),
+            new UserConfigurationContext("qa", "cem341", "joe"),
+            new UserConfigurationContext("qa", "cem341", "jack"),
+            new UserConfigurationContext("prod", "cem1001", "joe"));
+
+    /** Value of feature flag is only true for user "joe" in environment "qa". */
+    private final Context<Boolean> onlyTrueForJoeInQa = new Context<>(
+            Boolean.FALSE,
+            new Modifiers<>("environment", ImmutableMap.of(
+                    "qa", new Context<>(
+                            Boolean.FALSE,
+                            new Modifiers<>("user", ImmutableMap.of(
+                                    "joe", new Context<>(Boolean.TRUE, null)))),
+                    "prod", new Context<>(Boolean.FALSE, null))));
+
+    @Test
+    public void testIsActiveReturnsValuesOfContext() {
+        assertSameValues(onlyTrueForJoeInQa);
+    }
+
+    @Test
+    public void testCompileFoldsContextWithSameValuesIntoConstant() {
+        Context<Boolean> context = new Context<>(Boolean.TRUE, new Modifiers<>("environment", ImmutableMap.of(
+                "qa", new Context<>(Boolean.TRUE, null),
+                "prod", new Context<>(Boolean.TRUE, new Modifiers<>("user", ImmutableMap.of(
+                        "joe", new Context<>(Boolean.TRUE, null)))))));
+        Assert.assertTrue(BooleanFlag.compile(context).isConstant());
+        Assert.assertFalse(BooleanFlag.compile(onlyTrueForJoeInQa).isConstant());
+        assertSameValues(context);
+    }
+
+    @Test
+    public void testIsActiveReturnsValuesOfManyContexts() {
+        Map<String, Context<Boolean>> contexts = new LinkedHashMap<>();
+        for (int index = 0; index < 100; index++) {
+            contexts.put("env" + index, new Context<>(index % 3 == 0, null));
+        }
+        contexts.put("qa", new Context<>(Boolean.TRUE, null));
+        BooleanFlag flag = BooleanFlag.compile(new Context<>(Boolean.FALSE, new Modifiers<>("environment", contexts)));
+        for (int index = 0; index < 100; index++) {
+            Assert.assertEquals(index % 3 == 0, flag.isActive(new EnvironmentConfigurationContext("env" + index), false));
+        }
+        Assert.assertTrue(flag.isActive(new EnvironmentConfigurationContext("qa"), false));
+        Assert.assertFalse(flag.isActive(new EnvironmentConfigurationContext("other"), true));
+    }
+
+    @Test
+    public void testIsActiveReturnsValuesOfPatternModifiers() {
+        Context<Boolean> context = new Context<>(Boolean.FALSE, new Modifiers<>("user", MatchType.PREFIX, ImmutableMap.of(
+                "jo", new Context<>(Boolean.TRUE, null))));
+        assertSameValues(context);
+    }
+
+    @Test
+    public void testIsActiveFallsBackForContextsWithoutValue() {
+        Context<Boolean> context = new Context<>(Boolean.TRUE, new Modifiers<>("environment", ImmutableMap.of(
+                "qa", new Context<>(null, new Modifiers<>("user", ImmutableMap.of(
+                        "joe", new Context<>(Boolean.FALSE, null)))))));
+        assertSameValues(context);
+        Assert.assertTrue(BooleanFlag.compile(new Context<>(null, null)).isActive(new ConfigurationContext(), true));
+    }
+
+    private void assertSameValues(Context<Boolean> context) {
+        BooleanFlag flag = BooleanFlag.compile(context);
+        for (ConfigurationContext runtimeContext : runtimeContexts) {
+            Assert.assertEquals(runtimeContext.toString(), context.getValue(runtimeContext), flag.isActive(runtimeContext, false));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.structure;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import com.medallia.merci.core.common.ClusterConfigurationContext;
+import com.medallia.merci.core.common.EnvironmentConfigurationContext;
+import com.medallia.merci.core.configs.NumberConfig;
+import com.medallia.merci.core.matcher.MatchType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for {@link ContextCanonicalizer}.
+ */
+public class ContextCanonicalizerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ContextCanonicalizer<NumberConfig> canonicalizer = new ContextCanonicalizer<>(
+            json -> objectMapper.convertValue(json, NumberConfig.class));
+
+    @Test
+    public void testCanonicalizeSharesIdenticalValueObjects() {
+        Context<JsonNode> context = new Context<>(
+                number(1),
+                new Modifiers<>("environment", ImmutableMap.of(
+                        "qa", new Context<>(
+                                number(2),
+                                new Modifiers<>("cluster", MatchType.GLOB, ImmutableMap.of(
+                                        "cem3*", new Context<>(number(1), null)))),
+                        "prod", new Context<>(number(2), null))));
+        Context<NumberConfig> canonical = canonicalizer.canonicalize(context);
+        Assert.assertEquals(2, canonicalizer.size());
+        Assert.assertEquals(1, canonical.getValue(new ClusterConfigurationContext("qa", "cem341")).getNumber());
+        Assert.assertEquals(2, canonical.getValue(new ClusterConfigurationContext("qa", "cem441")).getNumber());
+        Assert.assertSame(canonical.getDefaultValue(), canonical.getValue(new ClusterConfigurationContext("qa", "cem341")));
+        Assert.assertSame(canonical.getValue(new EnvironmentConfigurationContext("qa")),
+                canonical.getValue(new EnvironmentConfigurationContext("prod")));
+    }
+
+    @Test
+    public void testCanonicalizeWithoutSharingConvertsValuePerContext() {
+        ContextCanonicalizer<NumberConfig> unshared = new ContextCanonicalizer<>(
+                json -> objectMapper.convertValue(json, NumberConfig.class), false, false);
+        Context<NumberConfig> canonical = unshared.canonicalize(new Context<>(
+                number(2),
+                new Modifiers<>("environment", ImmutableMap.of("qa", new Context<>(number(2), null)))));
+        Assert.assertEquals(2, unshared.size());
+        Assert.assertEquals(2, canonical.getValue(new EnvironmentConfigurationContext("qa")).getNumber());
+        Assert.assertNotSame(canonical.getDefaultValue(), canonical.getValue(new EnvironmentConfigurationContext("qa")));
+    }
+
+    @Test
+    public void testCanonicalizeInternsTypesAndKeys() {
+        String type = new String("environment");
+        String key = new String("qa");
+        Context<NumberConfig> canonical = canonicalizer.canonicalize(new Context<>(
+                number(1),
+                new Modifiers<>(type, ImmutableMap.of(key, new Context<>(number(2), null)))));
+        Modifiers<NumberConfig> modifiers = canonical.getModifiers();
+        Assert.assertSame("environment", modifiers.getTypes().get(0));
+        Assert.assertSame("qa", modifiers.getContexts().keySet().iterator().next());
+    }
+
+    @Test
+    public void testCanonicalizeKeepsNullValues() {
+        Context<NumberConfig> canonical = canonicalizer.canonicalize(new Context<>(null, null));
+        Assert.assertNull(canonical.getDefaultValue());
+        Assert.assertEquals(0, canonicalizer.size());
+    }
+
+    @Test
+    public void testLazyCanonicalizeBindsSharedValuesOnFirstEvaluation() {
+        AtomicInteger conversions = new AtomicInteger();
+        ContextCanonicalizer<NumberConfig> lazyCanonicalizer = new ContextCanonicalizer<>(json -> {
+            conversions.incrementAndGet();
+            return objectMapper.convertValue(json, NumberConfig.class);
+        }, true);
+        Context<NumberConfig> canonical = lazyCanonicalizer.canonicalize(new Context<>(
+                number(1),
+                new Modifiers<>("environment", ImmutableMap.of(
+                        "qa", new Context<>(number(2), null),
+                        "prod", new Context<>(number(2), null),
+                        "dev", new Context<>(number(3), null)))));
+        Assert.assertEquals(3, lazyCanonicalizer.size());
+        Assert.assertEquals(0, conversions.get());
+        NumberConfig qa = canonical.getValue(new EnvironmentConfigurationContext("qa"));
+        Assert.assertEquals(2, qa.getNumber());
+        Assert.assertSame(qa, canonical.getValue(new EnvironmentConfigurationContext("prod")));
+        Assert.assertEquals(1, conversions.get());
+        Assert.assertEquals(1, canonical.getValue(new EnvironmentConfigurationContext("other")).getNumber());
+        Assert.assertEquals(2, conversions.get());
+    }
+
+    private JsonNode number(int number) {
+        return objectMapper.createObjectNode().put("number", number);
+    }
+}
@@ -15,12 +15,14 @@
  */
 package com.medallia.merci.core.structure;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.medallia.merci.core.common.ClusterConfigurationContext;
 import com.medallia.merci.core.common.EnvironmentConfigurationContext;
 import com.medallia.merci.core.common.UserConfigurationContext;
 import com.medallia.merci.core.ConfigurationContext;
 import com.medallia.merci.core.configs.MessageConfig;
+import com.medallia.merci.core.matcher.MatchType;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -105,6 +107,12 @@ public class ContextTest {
     /**
      * Tests {@link Context} for a feature flag, that is active for any runtime configuration context.
      */
+    @Test
+    public void testGetContextTypesReturnsTypesOfAllNestedModifiers() {
+        Assert.assertEquals(ImmutableList.of("environment", "user"), ImmutableList.copyOf(onlyTrueForJoeInQa.getContextTypes()));
+        Assert.assertTrue(new Context<>(Boolean.TRUE, null).getContextTypes().isEmpty());
+    }
+
     @Test
     public void testContextForEnableFeatureOne() {
         Assert.assertFalse(onlyTrueForJoeInQa.getValue(empty));
@@ -132,4 +140,65 @@ public class ContextTest {
         Assert.assertEquals("Someone is testing in cem341.", messageConfig.getValue(jackInQA).getMessage());
         Assert.assertEquals("I am testing in cem341, Joe.", messageConfig.getValue(joeInQA).getMessage());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests {@link Context} for a feature flag with prefix and glob modifiers for hosts in clusters.
+     */
+    @Test
+    public void testContextForPatternModifiers() {
+        Context<Boolean> onlyTrueForXJHosts = new Context<>(
+                Boolean.FALSE,
+                new Modifiers<>("environment", MatchType.GLOB, ImmutableMap.of(
+                        "q*", new Context<>(
+                                Boolean.FALSE,
+                                new Modifiers<>("host", MatchType.PREFIX, ImmutableMap.of(
+                                        "xj", new Context<>(Boolean.TRUE, null),
+                                        "xj9", new Context<>(Boolean.FALSE, null)))))));
+        ConfigurationContext xj1001InQA = new EnvironmentConfigurationContext("qa");
+        xj1001InQA.put("host", "xj1001");
+        ConfigurationContext xj9012InQA = new EnvironmentConfigurationContext("qa");
+        xj9012InQA.put("host", "xj9012");
+        ConfigurationContext xj1001InProd = new EnvironmentConfigurationContext("prod");
+        xj1001InProd.put("host", "xj1001");
+        Assert.assertTrue(onlyTrueForXJHosts.getValue(xj1001InQA));
+        Assert.assertFalse(onlyTrueForXJHosts.getValue(xj9012InQA));
+        Assert.assertFalse(onlyTrueForXJHosts.getValue(xj1001InProd));
+        Assert.assertFalse(onlyTrueForXJHosts.getValue(qa));
+        Assert.assertFalse(onlyTrueForXJHosts.getValue(empty));
+    }
+
+    /**
+     * Tests {@link Context} for {@link MessageConfig} objects with composite modifiers and partial keys.
+     */
+    @Test
+    public void testContextForCompositeModifiers() {
+        Context<MessageConfig> compositeConfig = new Context<>(
+                new MessageConfig("I just started."),
+                new Modifiers<>(ImmutableList.of("environment", "cluster", "user"), null, ImmutableMap.of(
+                        "qa", new Context<>(new MessageConfig("I am almost there."), null),
+                        "qa/cem341", new Context<>(new MessageConfig("Someone is testing in cem341."), null),
+                        "qa/cem341/joe", new Context<>(new MessageConfig("I am testing in cem341, Joe."), null),
+                        "qa/cem341/jack", new Context<>(null, null),
+                        "prod", new Context<>(new MessageConfig("Yeah. I made it."), null))));
+        Assert.assertEquals("I just started.", compositeConfig.getValue(empty).getMessage());
+        Assert.assertEquals("I am almost there.", compositeConfig.getValue(qa).getMessage());
+        Assert.assertEquals("Yeah. I made it.", compositeConfig.getValue(prod).getMessage());
+        Assert.assertEquals("Someone is testing in cem341.", compositeConfig.getValue(cem341).getMessage());
+        Assert.assertEquals("Yeah. I made it.", compositeConfig.getValue(cem1001).getMessage());
+        Assert.assertEquals("Yeah. I made it.", compositeConfig.getValue(joeInProd).getMessage());
+        Assert.assertEquals("Someone is testing in cem341.", compositeConfig.getValue(jackInQA).getMessage());
+        Assert.assertEquals("I am testing in cem341, Joe.", compositeConfig.getValue(joeInQA).getMessage());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompositeModifiersRejectKeysWithTooManyValues() {
+        new Modifiers<>(ImmutableList.of("environment", "cluster"), null, ImmutableMap.of(
+                "qa/cem341/joe", new Context<>(Boolean.TRUE, null)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompositeModifiersRejectPatternMatching() {
+        new Modifiers<>(ImmutableList.of("environment", "cluster"), MatchType.PREFIX, ImmutableMap.of(
+                "qa/cem", new Context<>(Boolean.TRUE, null)));
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.core.structure;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.medallia.merci.core.ConfigurationContext;
+import com.medallia.merci.core.common.ClusterConfigurationContext;
+import com.medallia.merci.core.common.EnvironmentConfigurationContext;
+import com.medallia.merci.core.common.UserConfigurationContext;
+import com.medallia.merci.core.matcher.MatchType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Unit tests for {@link ModifiersFlattener}.
+ */
+public class ModifiersFlattenerTest {
+
+    private final List<ConfigurationContext> runtimeContexts = ImmutableList.of(
+            new ConfigurationContext(),
+            new EnvironmentConfigurationContext("qa"),
+            new EnvironmentConfigurationContext("prod"),
+            new ClusterConfigurationContext("qa", "cem341"),
+            new ClusterConfigurationContext("qa", "cem342"),
+            new ClusterConfigurationContext("prod", "cem1001"),
+            new UserConfigurationContext("qa", "cem341", "joe"),
+            new UserConfigurationContext("qa", "cem341", "jack"),
+            new UserConfigurationContext("qa", "cem342", "joe"),
+            new UserConfigurationContext("prod", "cem1001", "joe"));
+
+    /** Nested modifiers of types environment, cluster and user, including a null value in between. */
+    private final Context<String> nested = new Context<>(
+            "default",
+            new Modifiers<>("environment", ImmutableMap.of(
+                    "qa", new Context<>(
+                            "qa",
+                            new Modifiers<>("cluster", ImmutableMap.of(
+                                    "cem341", new Context<>(
+                                            null,
+                                            new Modifiers<>("user", ImmutableMap.of(
+                                                    "joe", new Context<>("joe in cem341", null),
+                                                    "jack", new Context<>(null, null)))),
+                                    "cem342", new Context<>("cem342", null)))),
+                    "prod", new Context<>("prod", null))));
+
+    @Test
+    public void testFlattenNestedModifiersIntoCompositeModifiers() {
+        Context<String> flattened = ModifiersFlattener.flatten(nested);
+        Modifiers<String> modifiers = flattened.getModifiers();
+        Assert.assertEquals(ImmutableList.of("environment", "cluster", "user"), modifiers.getTypes());
+        Assert.assertEquals(ImmutableList.of("qa", "qa/cem341", "qa/cem341/joe", "qa/cem341/jack", "qa/cem342", "prod"),
+                ImmutableList.copyOf(modifiers.getContexts().keySet()));
+        assertSameValues(nested, flattened);
+    }
+
+    @Test
+    public void testFlattenStopsAtPatternModifiers() {
+        Context<String> withPatterns = new Context<>(
+                "default",
+                new Modifiers<>("environment", ImmutableMap.of(
+                        "qa", new Context<>(
+                                "qa",
+                                new Modifiers<>("cluster", ImmutableMap.of(
+                                        "cem341", new Context<>(
+                                                "cem341",
+                                                new Modifiers<>("user", MatchType.PREFIX, ImmutableMap.of(
+                                                        "jo", new Context<>("jo in cem341", null))))))))));
+        Context<String> flattened = ModifiersFlattener.flatten(withPatterns);
+        Assert.assertEquals(ImmutableList.of("environment", "cluster"), flattened.getModifiers().getTypes());
+        Assert.assertEquals(MatchType.PREFIX,
+                flattened.getModifiers().getContexts().get("qa/cem341").getModifiers().getMatch());
+        assertSameValues(withPatterns, flattened);
+    }
+
+    @Test
+    public void testFlattenStopsAtDifferentTypes() {
+        Context<String> differentTypes = new Context<>(
+                "default",
+                new Modifiers<>("environment", ImmutableMap.of(
+                        "qa", new Context<>(
+                                "qa",
+                                new Modifiers<>("cluster", ImmutableMap.of(
+                                        "cem341", new Context<>("cem341", null)))),
+                        "prod", new Context<>(
+                                "prod",
+                                new Modifiers<>("user", ImmutableMap.of(
+                                        "joe", new Context<>("joe in prod", null)))))));
+        Context<String> flattened = ModifiersFlattener.flatten(differentTypes);
+        Assert.assertEquals(ImmutableList.of("environment"), flattened.getModifiers().getTypes());
+        assertSameValues(differentTypes, flattened);
+    }
+
+    @Test
+    public void testFlattenReturnsContextWithoutModifiers() {
+        Context<String> context = new Context<>("default", null);
+        Assert.assertSame(context, ModifiersFlattener.flatten(context));
+    }
+
+    private void assertSameValues(Context<String> expected, Context<String> actual) {
+        for (ConfigurationContext runtimeContext : runtimeContexts) {
+            Assert.assertEquals(expected.getValue(runtimeContext), actual.getValue(runtimeContext));
+        }
+    }
+}
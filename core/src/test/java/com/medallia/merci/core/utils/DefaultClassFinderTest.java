@@ -1,9 +1,12 @@
 package com.medallia.merci.core.utils;
 
+import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.medallia.merci.core.configs.NumberConfig;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Unit test for {@link DefaultClassFinder}.
  */
@@ -22,4 +25,37 @@ public class DefaultClassFinderTest {
     public void testFindClassReturnsBooleanClass() throws ClassNotFoundException {
         Assert.assertEquals(Boolean.class, classFinder.findClass("java.lang.Boolean"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFindClassReturnsCachedClass() throws ClassNotFoundException {
+        Assert.assertSame(classFinder.findClass(CONFIG_NAME), classFinder.findClass(CONFIG_NAME));
+    }
+
+    @Test
+    public void testFindClassSearchesMissingClassOnlyOnceUntilInvalidated() {
+        AtomicInteger lookups = new AtomicInteger();
+        ClassLoader countingClassLoader = new ClassLoader(getClass().getClassLoader()) {
+            @Override
+            protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+                lookups.incrementAndGet();
+                return super.loadClass(name, resolve);
+            }
+        };
+        DefaultClassFinder countingClassFinder = new DefaultClassFinder(TypeFactory.defaultInstance().withClassLoader(countingClassLoader));
+        assertClassNotFound(countingClassFinder, "com.medallia.merci.core.configs.MissingConfig");
+        assertClassNotFound(countingClassFinder, "com.medallia.merci.core.configs.MissingConfig");
+        Assert.assertEquals(1, lookups.get());
+        countingClassFinder.invalidateMissingClasses();
+        assertClassNotFound(countingClassFinder, "com.medallia.merci.core.configs.MissingConfig");
+        Assert.assertEquals(2, lookups.get());
+    }
+
+    private static void assertClassNotFound(DefaultClassFinder classFinder, String className) {
+        try {
+            classFinder.findClass(className);
+            Assert.fail("Expected ClassNotFoundException for " + className);
+        } catch (ClassNotFoundException exception) {
+            Assert.assertTrue(exception.getMessage().contains(className));
+        }
+    }
+}
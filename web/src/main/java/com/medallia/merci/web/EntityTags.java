@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web;
+
+import javax.ws.rs.core.EntityTag;
+import java.util.Objects;
+
+/**
+ * Factory for strong entity tags of evaluation results.
+ *
+ * An entity tag is derived from the generation of a configuration store, the id of the evaluated configuration and
+ * the configuration context, so that it only changes when the configuration store is updated. The start time of this
+ * process is part of each tag, because generations restart with every process.
+ */
+public final class EntityTags {
+
+    private static final String EPOCH = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private EntityTags() {
+        // Utility class with static methods only.
+    }
+
+    /**
+     * Creates strong entity tag for provided generation, configuration id and configuration context.
+     *
+     * @param generation generation of configuration store
+     * @param id id of evaluated configuration
+     * @param queryParameters query parameters with configuration context mappings
+     * @return new strong entity tag
+     */
+    public static EntityTag create(long generation, String id, QueryParameters queryParameters) {
+        return create(generation, id, queryParameters, "");
+    }
+
+    /**
+     * Creates strong entity tag for provided generation, configuration id, configuration context and representation.
+     *
+     * @param generation generation of configuration store
+     * @param id id of evaluated configuration
+     * @param queryParameters query parameters with configuration context mappings
+     * @param suffix suffix of representation, i.e. {@link MediaTypes#SMILE_TAG_SUFFIX}, empty for JSON
+     * @return new strong entity tag
+     */
+    public static EntityTag create(long generation, String id, QueryParameters queryParameters, String suffix) {
+        int parametersHash = 0;
+        for (String key : queryParameters.keySet()) {
+            parametersHash += parameterHash(key, queryParameters.get(key));
+        }
+        return new EntityTag(value(generation, id, parametersHash) + suffix);
+    }
+
+    /**
+     * Returns value of strong entity tag for provided generation, configuration id and hash of query parameters.
+     *
+     * @param generation generation of configuration store
+     * @param id id of evaluated configuration
+     * @param parametersHash sum of {@link #parameterHash(String, String)} of all query parameters
+     * @return value of entity tag without quotes
+     */
+    public static String value(long generation, String id, int parametersHash) {
+        return EPOCH + '-' + Long.toString(generation, Character.MAX_RADIX) + '-' + Integer.toHexString(31 * id.hashCode() + parametersHash);
+    }
+
+    /**
+     * Returns hash of a single query parameter, that is summed up independent of the order of query parameters.
+     *
+     * @param key key of query parameter
+     * @param value value of query parameter
+     * @return hash of query parameter
+     */
+    public static int parameterHash(String key, String value) {
+        return key.hashCode() ^ Objects.hashCode(value);
+    }
+}
@@ -16,6 +16,7 @@
 package com.medallia.merci.web;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medallia.merci.core.ConfigurationHistory;
 import com.medallia.merci.core.ConfigurationLoader;
 import com.medallia.merci.core.FeatureFlagManager;
 import com.medallia.merci.core.JsonConfigManager;
@@ -23,18 +24,40 @@ import com.medallia.merci.core.Merci;
 import com.medallia.merci.core.filesystem.ConfigurationFetcherMetrics;
 import com.medallia.merci.core.fetcher.ConfigurationFetcher;
 import com.medallia.merci.core.filesystem.FilesystemConfigurationFetcher;
+import com.medallia.merci.core.metrics.FeatureFlagMetrics;
+import com.medallia.merci.core.metrics.JsonConfigMetrics;
 import com.medallia.merci.web.environment.Environment;
+import com.medallia.merci.web.files.DistributingConfigurationFetcher;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
 import java.net.URI;
 import java.nio.file.FileSystems;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * Example of Jetty based application for 'Merci as a Service'.
+ *
+ * Hosts all applications listed in MERCI_APPLICATIONS (comma separated, the first one is the default application) with
+ * a single configuration loader, whose tasks share a bounded pool of MERCI_LOADER_THREADS threads. Metrics of the
+ * managers of each application are registered as MBeans with the application as key property.
  */
 public class JettyRunner {
 
+    private static final int HISTORY_GENERATIONS = 100;
+    private static final String APPLICATIONS_NAME = "MERCI_APPLICATIONS";
+    private static final String LOADER_THREADS_NAME = "MERCI_LOADER_THREADS";
+    private static final int DEFAULT_LOADER_THREADS = 3;
+
     /**
      * Main method of the application, initializes Merci runner and starts it.
      *
@@ -46,19 +69,53 @@ public class JettyRunner {
         Environment environment = new Environment("local", System.getenv(), System.getProperties());
         URI resource = Thread.currentThread().getContextClassLoader() .getResource("configurations").toURI();
         String path = Paths.get(resource).toAbsolutePath().toString();
-        ConfigurationFetcher fetcher = new FilesystemConfigurationFetcher(FileSystems.getDefault(), path,true, new ConfigurationFetcherMetrics());
+        ConfigurationFetcher filesystemFetcher = new FilesystemConfigurationFetcher(FileSystems.getDefault(), path,true, new ConfigurationFetcherMetrics());
+        DistributingConfigurationFetcher fetcher = new DistributingConfigurationFetcher(filesystemFetcher);
 
-        Merci merci = new Merci(fetcher);
+        ObjectMapper objectMapper = new ObjectMapper();
+        int loaderThreads = environment.getIntVariable(LOADER_THREADS_NAME, DEFAULT_LOADER_THREADS);
+        ScheduledExecutorService loaderExecutorService = Executors.newScheduledThreadPool(loaderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "merci-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Merci merci = new Merci(fetcher, loaderExecutorService, objectMapper, MessageDigest.getInstance("SHA-256"));
         merci.setMaximumSkips(0);
         merci.skipNonInstantiableConfiguration();
 
-        FeatureFlagManager featureFlagManager = merci.addFeatureFlagManager("medallia-merci")
-                .registerFile("/featureflags.json").build();
-        JsonConfigManager jsonConfigManager = merci.addJsonConfigManager("medallia-merci")
-                .registerFile("/configs.json").build();
+        MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+        Map<String, FeatureFlagManager> featureFlagManagers = new LinkedHashMap<>();
+        Map<String, JsonConfigManager> jsonConfigManagers = new LinkedHashMap<>();
+        Map<String, ConfigurationHistory<?>> histories = new HashMap<>();
+        for (String application : environment.getStringVariable(APPLICATIONS_NAME, "medallia-merci").split(",")) {
+            String name = application.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            FeatureFlagMetrics featureFlagMetrics = new FeatureFlagMetrics();
+            JsonConfigMetrics jsonConfigMetrics = new JsonConfigMetrics();
+            registerMetrics(mbeanServer, name, featureFlagMetrics);
+            registerMetrics(mbeanServer, name, jsonConfigMetrics);
+            FeatureFlagManager featureFlagManager = merci.addFeatureFlagManager(name)
+                    .registerFile("/featureflags.json").setMetrics(featureFlagMetrics).build();
+            JsonConfigManager jsonConfigManager = merci.addJsonConfigManager(name)
+                    .registerFile("/configs.json").setMetrics(jsonConfigMetrics).build();
+            featureFlagManagers.put(name, featureFlagManager);
+            jsonConfigManagers.put(name, jsonConfigManager);
+            histories.put(name + "/feature-flags", new ConfigurationHistory<>(featureFlagManager, "feature-flags", objectMapper, HISTORY_GENERATIONS));
+            histories.put(name + "/configs", new ConfigurationHistory<>(jsonConfigManager, "configs", objectMapper, HISTORY_GENERATIONS));
+        }
         ConfigurationLoader loader = merci.createLoader(Duration.ofSeconds(10));
 
-        MerciRunner runner = new MerciRunner(environment, new ObjectMapper(), loader, featureFlagManager, jsonConfigManager);
+        MerciRunner runner = new MerciRunner(environment, objectMapper, loader, featureFlagManagers, jsonConfigManagers, fetcher, histories);
         runner.start();
     }
+
+    /**
+     * Registers provided metrics of a manager as MBean, i.e. "com.medallia.merci:type=FeatureFlagMetrics,application=myapp".
+     */
+    private static void registerMetrics(MBeanServer mbeanServer, String application, Object metrics) throws JMException {
+        mbeanServer.registerMBean(metrics, new ObjectName("com.medallia.merci:type=" + metrics.getClass().getSimpleName()
+                + ",application=" + ObjectName.quote(application)));
+    }
 }
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web;
+
+/**
+ * Media types of responses next to "application/json".
+ */
+public final class MediaTypes {
+
+    /** Binary JSON format Smile, i.e. for Java clients with a Smile-based ObjectMapper. */
+    public static final String APPLICATION_SMILE = "application/x-jackson-smile";
+
+    /** Suffix of entity tags of Smile representations, so that entity tags differ between representations. */
+    public static final String SMILE_TAG_SUFFIX = "-smile";
+
+    private MediaTypes() {
+        // Utility class with constants only.
+    }
+}
@@ -16,87 +16,154 @@
 package com.medallia.merci.web;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.jaxrs.json.JacksonJaxbJsonProvider;
 
+import com.medallia.merci.web.applications.ApplicationController;
+import com.medallia.merci.web.applications.ApplicationControllerFactory;
+import com.medallia.merci.web.applications.Applications;
+import com.medallia.merci.web.applications.HostedApplication;
+import com.medallia.merci.web.configs.Config;
 import com.medallia.merci.web.configs.ConfigController;
 import com.medallia.merci.web.configs.ConfigControllerFactory;
+import com.medallia.merci.core.ConfigurationHistory;
 import com.medallia.merci.core.ConfigurationLoader;
+import com.medallia.merci.web.batch.BatchController;
+import com.medallia.merci.web.batch.BatchControllerFactory;
+import com.medallia.merci.web.deltas.DeltaController;
+import com.medallia.merci.web.deltas.DeltaControllerFactory;
 import com.medallia.merci.web.environment.Environment;
+import com.medallia.merci.web.evaluation.EvaluationServlet;
 import com.medallia.merci.web.exception.ApiExceptionMapper;
+import com.medallia.merci.web.featureflags.FeatureFlag;
 import com.medallia.merci.web.featureflags.FeatureFlagController;
 import com.medallia.merci.web.featureflags.FeatureFlagControllerFactory;
+import com.medallia.merci.web.files.DistributingConfigurationFetcher;
+import com.medallia.merci.web.files.FileController;
+import com.medallia.merci.web.files.FileControllerFactory;
 import com.medallia.merci.core.FeatureFlagManager;
 import com.medallia.merci.core.JsonConfigManager;
+import com.medallia.merci.web.streams.ChangeStreamServlet;
+import com.medallia.merci.web.server.LoadSheddingFilter;
+import com.medallia.merci.web.server.ReadinessFilter;
+import com.medallia.merci.web.server.ReadinessServlet;
+import com.medallia.merci.web.server.ServerSettings;
+import com.medallia.merci.web.server.ThreadPools;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.FilterHolder;
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
 import org.eclipse.jetty.webapp.WebAppContext;
 import org.glassfish.hk2.utilities.binding.AbstractBinder;
 import org.glassfish.jersey.process.internal.RequestScoped;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.servlet.ServletContainer;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.servlet.DispatcherType;
 import java.io.File;
-import java.time.Duration;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * Runner, that uses Jetty to run a  Feature Flags and Configs web application.
  */
 public class MerciRunner {
 
-    private static final int DEFAULT_PORT = 8080;
-    private static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMillis(300000);
     private static final String JAVA_IO_TMPDIR_NAME = "java.io.tmpdir";
+    private static final int STREAM_THREADS = 2;
+    private static final String EVALUATION_SERVLETS_NAME = "MERCI_EVALUATION_SERVLETS";
+    private static final String API_PREFIX = "/apis/v0";
 
     private final Server server;
+    private final ServerSettings settings;
+    private final ObjectMapper smileMapper;
+    private final Applications applications;
     private final ObjectMapper objectMapper;
     private final Environment environment;
     private final ConfigurationLoader configurationLoader;
+    private final DistributingConfigurationFetcher fetcher;
+    private final Map<String, ConfigurationHistory<?>> histories;
 
     /**
      * Creates Merci Runner based on provided dependencies.
      *
      * @param environment environment
      * @param objectMapper JSON de-serializer for JSON and YAML
-     * @param configurationLoader configuration loader
-     * @param featureFlagManager feature flag manager
-     * @param jsonConfigManager JsonNode config manager
+     * @param configurationLoader configuration loader of all applications
+     * @param featureFlagManagers feature flag managers keyed by application, the first application is the default application
+     * @param jsonConfigManagers JsonNode config managers keyed by application
+     * @param fetcher configuration fetcher of the loader, that keeps fetched files for distribution
+     * @param histories configuration histories for deltas, keyed by application and root field, i.e. "myapp/feature-flags"
+     * @throws IllegalArgumentException, if applications of feature flag and config managers differ
      */
     public MerciRunner(Environment environment,
                        ObjectMapper objectMapper,
                        ConfigurationLoader configurationLoader,
-                       FeatureFlagManager featureFlagManager,
-                       JsonConfigManager jsonConfigManager) {
+                       Map<String, FeatureFlagManager> featureFlagManagers,
+                       Map<String, JsonConfigManager> jsonConfigManagers,
+                       DistributingConfigurationFetcher fetcher,
+                       Map<String, ConfigurationHistory<?>> histories) {
+        if (!featureFlagManagers.keySet().equals(jsonConfigManagers.keySet())) {
+            throw new IllegalArgumentException("Applications of feature flag managers " + featureFlagManagers.keySet()
+                    + " and config managers " + jsonConfigManagers.keySet() + " differ.");
+        }
         this.objectMapper = objectMapper;
         this.environment = environment;
         this.configurationLoader = configurationLoader;
-        server = createServer(featureFlagManager, jsonConfigManager);
+        this.fetcher = fetcher;
+        this.histories = histories;
+        settings = ServerSettings.fromEnvironment(environment);
+        smileMapper = new ObjectMapper(new SmileFactory());
+        List<HostedApplication> hostedApplications = new ArrayList<>();
+        for (Map.Entry<String, FeatureFlagManager> entry : featureFlagManagers.entrySet()) {
+            hostedApplications.add(new HostedApplication(entry.getKey(), entry.getValue(), jsonConfigManagers.get(entry.getKey()),
+                    objectMapper, smileMapper, settings.getResponseCacheSize()));
+        }
+        applications = new Applications(hostedApplications);
+        server = createServer();
     }
 
-    /**
-     *
-     * @param objectMapper JSON and YAML de-serializer
-     * @return new application configuration
-     */
 
     /**
-     * Creates new application (resource) configuration based on provided featureFlagManager, JsonConfigManager and Jackson JSON deserializer.
+     * Creates new application (resource) configuration based on provided default application and Jackson JSON deserializer.
      *
-     * @param featureFlagManager manager (store) for feature flags
-     * @param jsonConfigManager manager (store) for JSON configs
+     * @param defaultApplication application served by the routes without application name
      * @param objectMapper JSON and YAML de-serializer
      * @return new ResourceConfig
      */
-    private ResourceConfig createApplicationConfiguration(FeatureFlagManager featureFlagManager, JsonConfigManager jsonConfigManager,
-                                                          ObjectMapper objectMapper) {
+    private ResourceConfig createApplicationConfiguration(HostedApplication defaultApplication, ObjectMapper objectMapper) {
         JacksonJaxbJsonProvider jacksonJsonProvider = new JacksonJaxbJsonProvider();
         jacksonJsonProvider.setMapper(objectMapper);
+        FeatureFlagManager featureFlagManager = defaultApplication.getFeatureFlagManager();
+        JsonConfigManager jsonConfigManager = defaultApplication.getJsonConfigManager();
         final AbstractBinder binder = new ControllerFactoryBinder(
-                new FeatureFlagControllerFactory(featureFlagManager),
-                new ConfigControllerFactory(jsonConfigManager));
+                new FeatureFlagControllerFactory(featureFlagManager, defaultApplication.getFeatureFlagJsonCache(),
+                        defaultApplication.getFeatureFlagSmileCache()),
+                new ConfigControllerFactory(jsonConfigManager, defaultApplication.getConfigJsonCache(),
+                        defaultApplication.getConfigSmileCache()),
+                new ApplicationControllerFactory(applications),
+                new FileControllerFactory(fetcher),
+                new DeltaControllerFactory(histories, smileMapper),
+                new BatchControllerFactory(featureFlagManager, jsonConfigManager, objectMapper, smileMapper));
         return new ConfigurationResourceConfig(jacksonJsonProvider, binder,
-                FeatureFlagController.class, ConfigController.class, ApiExceptionMapper.class
+                FeatureFlagController.class, ConfigController.class, ApplicationController.class, FileController.class,
+                DeltaController.class, BatchController.class, ApiExceptionMapper.class
         );
     }
 
@@ -105,11 +172,23 @@ public class MerciRunner {
 
         private final FeatureFlagControllerFactory featureFlagControllerFactory;
         private final ConfigControllerFactory configControllerFactory;
+        private final ApplicationControllerFactory applicationControllerFactory;
+        private final FileControllerFactory fileControllerFactory;
+        private final DeltaControllerFactory deltaControllerFactory;
+        private final BatchControllerFactory batchControllerFactory;
 
         public ControllerFactoryBinder(FeatureFlagControllerFactory featureFlagControllerFactory,
-                                       ConfigControllerFactory configControllerFactory) {
+                                       ConfigControllerFactory configControllerFactory,
+                                       ApplicationControllerFactory applicationControllerFactory,
+                                       FileControllerFactory fileControllerFactory,
+                                       DeltaControllerFactory deltaControllerFactory,
+                                       BatchControllerFactory batchControllerFactory) {
             this.featureFlagControllerFactory = featureFlagControllerFactory;
             this.configControllerFactory = configControllerFactory;
+            this.applicationControllerFactory = applicationControllerFactory;
+            this.fileControllerFactory = fileControllerFactory;
+            this.deltaControllerFactory = deltaControllerFactory;
+            this.batchControllerFactory = batchControllerFactory;
         }
 
         @Override
@@ -117,21 +196,31 @@ public class MerciRunner {
             bindFactory(QueryParametersFactory.class).to(QueryParameters.class).in(RequestScoped.class);
             bindFactory(featureFlagControllerFactory).to(FeatureFlagController.class).in(RequestScoped.class);
             bindFactory(configControllerFactory).to(ConfigController.class).in(RequestScoped.class);
+            bindFactory(applicationControllerFactory).to(ApplicationController.class).in(RequestScoped.class);
+            bindFactory(fileControllerFactory).to(FileController.class).in(RequestScoped.class);
+            bindFactory(deltaControllerFactory).to(DeltaController.class).in(RequestScoped.class);
+            bindFactory(batchControllerFactory).to(BatchController.class).in(RequestScoped.class);
         }
     }
 
     /**
-     * Creates new Jetty server and adds a
+     * Creates new Jetty server with thread pool and connector, tuned by the server settings, and adds all servlets.
+     * Streams and evaluation servlets serve every application on the routes with its name, i.e.
+     * "/apis/v0/myapp/streams/featureflags", and the default application also on the routes without application name.
      *
-     * @param featureFlagManager manager (store) for feature flags
-     * @param configManager manager (store) for JSON configs
      * @return new Jetty server
      */
-    private Server createServer(FeatureFlagManager featureFlagManager, JsonConfigManager configManager) {
-        Server jettyServer = new Server();
-        ServerConnector serverConnector = new ServerConnector(jettyServer);
-        serverConnector.setPort(DEFAULT_PORT);
-        serverConnector.setIdleTimeout(DEFAULT_IDLE_TIMEOUT.toMillis());
+    private Server createServer() {
+        HostedApplication defaultApplication = applications.getDefaultApplication();
+        ThreadPool threadPool = ThreadPools.create(settings);
+        Server jettyServer = new Server(threadPool);
+        HttpConfiguration httpConfiguration = new HttpConfiguration();
+        ServerConnector serverConnector = settings.isH2c()
+                ? new ServerConnector(jettyServer, settings.getAcceptors(), settings.getSelectors(),
+                        new HttpConnectionFactory(httpConfiguration), new HTTP2CServerConnectionFactory(httpConfiguration))
+                : new ServerConnector(jettyServer, settings.getAcceptors(), settings.getSelectors(), new HttpConnectionFactory(httpConfiguration));
+        serverConnector.setPort(settings.getPort());
+        serverConnector.setIdleTimeout(settings.getIdleTimeout().toMillis());
         jettyServer.addConnector(serverConnector);
 
         ServletContextHandler servletContext = new ServletContextHandler(ServletContextHandler.SESSIONS);
@@ -142,10 +231,27 @@ public class MerciRunner {
 
         servletContext.setContextPath("/");
         servletContext.setResourceBase(environment.getStringProperty(JAVA_IO_TMPDIR_NAME, ""));
-        ResourceConfig application = createApplicationConfiguration(featureFlagManager, configManager, objectMapper);
+        ResourceConfig application = createApplicationConfiguration(defaultApplication, objectMapper);
         ServletContainer servletContainer = new ServletContainer(application);
 
         servletContext.addServlet(new ServletHolder(servletContainer), "/*");
+        if (settings.getSheddingQueueSize() > 0 && threadPool instanceof QueuedThreadPool) {
+            LoadSheddingFilter loadSheddingFilter = new LoadSheddingFilter((QueuedThreadPool) threadPool, settings.getSheddingQueueSize());
+            registerMBean(loadSheddingFilter, "com.medallia.merci:type=LoadSheddingFilter");
+            servletContext.addFilter(new FilterHolder(loadSheddingFilter), "/*", EnumSet.of(DispatcherType.REQUEST));
+        }
+        servletContext.addFilter(new FilterHolder(new ReadinessFilter(configurationLoader)), "/*", EnumSet.of(DispatcherType.REQUEST));
+        servletContext.addServlet(new ServletHolder(new ReadinessServlet(configurationLoader)), "/apis/v0/ready");
+        boolean evaluationServlets = environment.getBooleanVariable(EVALUATION_SERVLETS_NAME, false);
+        for (HostedApplication hostedApplication : applications.getAll()) {
+            List<String> prefixes = hostedApplication == defaultApplication
+                    ? Arrays.asList(API_PREFIX, API_PREFIX + "/" + hostedApplication.getName())
+                    : Collections.singletonList(API_PREFIX + "/" + hostedApplication.getName());
+            addChangeStreamServlets(servletContext, hostedApplication, prefixes);
+            if (evaluationServlets) {
+                addEvaluationServlets(servletContext, hostedApplication, prefixes);
+            }
+        }
 
         jettyServer.setHandler(servletContext);
         jettyServer.setStopAtShutdown(true);
@@ -153,15 +259,99 @@ public class MerciRunner {
     }
 
     /**
-     * Starts Jetty server after initializing and starting configuration loader.
+     * Registers provided mbean with provided name at the platform mbean server.
+     *
+     * @throws IllegalStateException, if mbean could not be registered, i.e. for a name, that is already registered
+     */
+    private static void registerMBean(Object mbean, String name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(mbean, new ObjectName(name));
+        } catch (JMException exception) {
+            throw new IllegalStateException("Failed to register mbean " + name, exception);
+        }
+    }
+
+    /**
+     * Adds servlets for Server-Sent Events streams of feature flag and config changes of provided application.
      *
-     * @throws Exception in case of initialization or start error
+     * @param servletContext servlet context
+     * @param hostedApplication application, whose managers (stores) are streamed
+     * @param prefixes route prefixes of application
+     */
+    private void addChangeStreamServlets(ServletContextHandler servletContext, HostedApplication hostedApplication,
+                                         List<String> prefixes) {
+        FeatureFlagManager featureFlagManager = hostedApplication.getFeatureFlagManager();
+        ServletHolder featureFlagStreams = new ServletHolder(new ChangeStreamServlet(featureFlagManager,
+                (id, context) -> objectMapper.writeValueAsString(new FeatureFlag(id, featureFlagManager.isActive(id, context))),
+                createStreamExecutorService()));
+        featureFlagStreams.setAsyncSupported(true);
+        addServlet(servletContext, featureFlagStreams, prefixes, "/streams/featureflags");
+
+        JsonConfigManager configManager = hostedApplication.getJsonConfigManager();
+        ServletHolder configStreams = new ServletHolder(new ChangeStreamServlet(configManager,
+                (id, context) -> objectMapper.writeValueAsString(new Config(id, configManager.getFrozenConfig(id, context))),
+                createStreamExecutorService()));
+        configStreams.setAsyncSupported(true);
+        addServlet(servletContext, configStreams, prefixes, "/streams/configs");
+    }
+
+    /**
+     * Adds provided servlet with provided path below each of provided route prefixes.
+     */
+    private static void addServlet(ServletContextHandler servletContext, ServletHolder servlet, List<String> prefixes, String path) {
+        for (String prefix : prefixes) {
+            servletContext.addServlet(servlet, prefix + path);
+        }
+    }
+
+    /**
+     * @return new executor service for re-evaluations and heartbeats of a single change stream servlet.
+     */
+    private static ScheduledExecutorService createStreamExecutorService() {
+        return Executors.newScheduledThreadPool(STREAM_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "merci-streams");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Adds singleton servlets for evaluations of feature flags and configs of provided application, that take precedence
+     * over the Jersey controllers.
+     *
+     * @param servletContext servlet context
+     * @param hostedApplication application, whose feature flags and configs are evaluated
+     * @param prefixes route prefixes of application
+     */
+    private void addEvaluationServlets(ServletContextHandler servletContext, HostedApplication hostedApplication,
+                                       List<String> prefixes) {
+        addServlet(servletContext, new ServletHolder(new EvaluationServlet(hostedApplication.getFeatureFlagManager(),
+                        hostedApplication.getFeatureFlagJsonCache(), hostedApplication.getFeatureFlagSmileCache())),
+                prefixes, "/featureflags/*");
+        addServlet(servletContext, new ServletHolder(new EvaluationServlet(hostedApplication.getJsonConfigManager(),
+                        hostedApplication.getConfigJsonCache(), hostedApplication.getConfigSmileCache())),
+                prefixes, "/configs/*");
+    }
+
+    /**
+     * Starts Jetty server, then starts configuration loader and waits for its initial load of all configurations.
+     * Until then, all requests are rejected with 503 (Service Unavailable), so that readiness probes can observe the
+     * load and the server never serves defaults instead of loaded configurations. If the initial load does not finish
+     * within the startup timeout, server and loader are stopped.
+     *
+     * @throws Exception in case of initialization or start error, i.e. a failed or timed out initial load
      */
     @SuppressWarnings("PMD.SignatureDeclareThrowsException")
     public void start() throws Exception {
-        configurationLoader.start();
         //start Jetty HTTP Servlet container.
         server.start();
+        try {
+            configurationLoader.startAndAwait(settings.getStartupTimeout());
+        } catch (IOException | RuntimeException exception) {
+            configurationLoader.shutdown();
+            server.stop();
+            throw exception;
+        }
         server.join();
     }
 }
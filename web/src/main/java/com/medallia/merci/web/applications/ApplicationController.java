@@ -0,0 +1,69 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.applications;
+
+import com.medallia.merci.web.batch.BatchController;
+import com.medallia.merci.web.configs.ConfigController;
+import com.medallia.merci.web.featureflags.FeatureFlagController;
+
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+
+/**
+ * Controller (Jersey resource) for the Feature Flag, Config and Batch APIs of a hosted application, i.e.
+ * "/apis/v0/myapp/featureflags/{id}". Streams of changes and evaluation servlets of a hosted application are registered
+ * as servlets on the same prefix, i.e. "/apis/v0/myapp/streams/featureflags".
+ *
+ * Requests are delegated to the controllers of the application as sub-resources. Application names, that are equal to
+ * the literal routes of the API (i.e. "featureflags", "configs", "files", "deltas", "batch", "streams" and "ready"), are
+ * served by those routes instead.
+ */
+@Path("/apis/v0/{application}")
+public class ApplicationController {
+
+    private final Applications applications;
+
+    public ApplicationController(Applications applications) {
+        this.applications = applications;
+    }
+
+    /**
+     * @param application name of application
+     * @return feature flag controller of application
+     */
+    @Path("/featureflags")
+    public FeatureFlagController featureFlags(@PathParam("application") String application) {
+        return applications.get(application).getFeatureFlagController();
+    }
+
+    /**
+     * @param application name of application
+     * @return config controller of application
+     */
+    @Path("/configs")
+    public ConfigController configs(@PathParam("application") String application) {
+        return applications.get(application).getConfigController();
+    }
+
+    /**
+     * @param application name of application
+     * @return batch controller of application
+     */
+    @Path("/batch")
+    public BatchController batch(@PathParam("application") String application) {
+        return applications.get(application).getBatchController();
+    }
+}
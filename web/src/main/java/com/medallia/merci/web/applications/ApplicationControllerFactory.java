@@ -0,0 +1,37 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.applications;
+
+import org.glassfish.hk2.api.Factory;
+
+public class ApplicationControllerFactory implements Factory<ApplicationController> {
+
+    private final Applications applications;
+
+    public ApplicationControllerFactory(Applications applications) {
+        this.applications = applications;
+    }
+
+    @Override
+    public ApplicationController provide() {
+        return new ApplicationController(applications);
+    }
+
+    @Override
+    public void dispose(ApplicationController instance) {
+        //Nothing to do.
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.applications;
+
+import com.medallia.merci.web.exception.NotFoundException;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of all applications hosted by the web module, keyed by application name.
+ *
+ * The first application is the default application, that is served by the routes without application name.
+ */
+public class Applications {
+
+    private final Map<String, HostedApplication> applications;
+    private final HostedApplication defaultApplication;
+
+    /**
+     * Creates registry of provided applications.
+     *
+     * @param applications hosted applications, the first one is the default application
+     * @throws IllegalArgumentException, if no applications are provided or names are not unique
+     */
+    public Applications(List<HostedApplication> applications) {
+        if (applications.isEmpty()) {
+            throw new IllegalArgumentException("At least one application must be hosted.");
+        }
+        Map<String, HostedApplication> applicationsByName = new LinkedHashMap<>();
+        for (HostedApplication application : applications) {
+            if (applicationsByName.put(application.getName(), application) != null) {
+                throw new IllegalArgumentException("Application '" + application.getName() + "' is hosted more than once.");
+            }
+        }
+        this.applications = Collections.unmodifiableMap(applicationsByName);
+        defaultApplication = applications.get(0);
+    }
+
+    /**
+     * Returns hosted application with provided name.
+     *
+     * @param name name of application
+     * @return hosted application
+     * @throws NotFoundException, if no application with provided name is hosted
+     */
+    public HostedApplication get(String name) {
+        HostedApplication application = applications.get(name);
+        if (application == null) {
+            throw new NotFoundException(NotFoundException.ErrorType.APPLICATIONS);
+        }
+        return application;
+    }
+
+    public HostedApplication getDefaultApplication() {
+        return defaultApplication;
+    }
+
+    public Collection<HostedApplication> getAll() {
+        return applications.values();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.applications;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medallia.merci.core.FeatureFlagManager;
+import com.medallia.merci.core.JsonConfigManager;
+import com.medallia.merci.web.batch.BatchController;
+import com.medallia.merci.web.configs.Config;
+import com.medallia.merci.web.configs.ConfigController;
+import com.medallia.merci.web.evaluation.EvaluationServlet;
+import com.medallia.merci.web.evaluation.ResponseCache;
+import com.medallia.merci.web.featureflags.FeatureFlag;
+import com.medallia.merci.web.featureflags.FeatureFlagController;
+
+/**
+ * Application hosted by the web module, with its own feature flag and config managers and its own response caches.
+ */
+public class HostedApplication {
+
+    private final String name;
+    private final FeatureFlagManager featureFlagManager;
+    private final JsonConfigManager jsonConfigManager;
+    private final ResponseCache featureFlagJsonCache;
+    private final ResponseCache featureFlagSmileCache;
+    private final ResponseCache configJsonCache;
+    private final ResponseCache configSmileCache;
+    private final FeatureFlagController featureFlagController;
+    private final ConfigController configController;
+    private final BatchController batchController;
+
+    /**
+     * Creates hosted application, its response caches for JSON and Smile responses and its controllers.
+     *
+     * @param name name of application
+     * @param featureFlagManager manager (store) for feature flags of application
+     * @param jsonConfigManager manager (store) for JSON configs of application
+     * @param objectMapper JSON serializer
+     * @param smileMapper Smile serializer
+     * @param responseCacheSize maximum number of responses per cache
+     */
+    public HostedApplication(String name, FeatureFlagManager featureFlagManager, JsonConfigManager jsonConfigManager,
+                             ObjectMapper objectMapper, ObjectMapper smileMapper, int responseCacheSize) {
+        this.name = name;
+        this.featureFlagManager = featureFlagManager;
+        this.jsonConfigManager = jsonConfigManager;
+        EvaluationServlet.Evaluator featureFlagEvaluator = (id, context) -> new FeatureFlag(id, featureFlagManager.isActive(id, context));
+        EvaluationServlet.Evaluator configEvaluator = (id, context) -> new Config(id, jsonConfigManager.getFrozenConfig(id, context));
+        featureFlagJsonCache = new ResponseCache(featureFlagManager, featureFlagEvaluator,
+                objectMapper.writerFor(FeatureFlag.class), responseCacheSize);
+        featureFlagSmileCache = new ResponseCache(featureFlagManager, featureFlagEvaluator,
+                smileMapper.writerFor(FeatureFlag.class), responseCacheSize);
+        configJsonCache = new ResponseCache(jsonConfigManager, configEvaluator,
+                objectMapper.writerFor(Config.class), responseCacheSize);
+        configSmileCache = new ResponseCache(jsonConfigManager, configEvaluator,
+                smileMapper.writerFor(Config.class), responseCacheSize);
+        featureFlagController = new FeatureFlagController(featureFlagManager, featureFlagJsonCache, featureFlagSmileCache);
+        configController = new ConfigController(jsonConfigManager, configJsonCache, configSmileCache);
+        batchController = new BatchController(featureFlagManager, jsonConfigManager, objectMapper, smileMapper);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public FeatureFlagManager getFeatureFlagManager() {
+        return featureFlagManager;
+    }
+
+    public JsonConfigManager getJsonConfigManager() {
+        return jsonConfigManager;
+    }
+
+    public ResponseCache getFeatureFlagJsonCache() {
+        return featureFlagJsonCache;
+    }
+
+    public ResponseCache getFeatureFlagSmileCache() {
+        return featureFlagSmileCache;
+    }
+
+    public ResponseCache getConfigJsonCache() {
+        return configJsonCache;
+    }
+
+    public ResponseCache getConfigSmileCache() {
+        return configSmileCache;
+    }
+
+    /**
+     * @return stateless controller for feature flags of application, shared between requests.
+     */
+    public FeatureFlagController getFeatureFlagController() {
+        return featureFlagController;
+    }
+
+    /**
+     * @return stateless controller for configs of application, shared between requests.
+     */
+    public ConfigController getConfigController() {
+        return configController;
+    }
+
+    /**
+     * @return stateless controller for batch evaluations of application, shared between requests.
+     */
+    public BatchController getBatchController() {
+        return batchController;
+    }
+}
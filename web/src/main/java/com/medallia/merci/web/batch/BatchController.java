@@ -0,0 +1,207 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.batch;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medallia.merci.core.ConfigurationContext;
+import com.medallia.merci.core.FeatureFlagManager;
+import com.medallia.merci.core.JsonConfigManager;
+import com.medallia.merci.core.json.FrozenJson;
+import com.medallia.merci.web.MediaTypes;
+import com.medallia.merci.web.exception.InvalidInputException;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Controller (Jersey resource) for batch evaluations of many feature flags or configs for many configuration contexts.
+ *
+ * A request contains a list of ids and a list of configuration contexts, i.e. <code>{ "ids" : [ "enable-feature-one" ],
+ * "contexts" : [ { "environment" : "qa", "user" : "joe" }, { "environment" : "prod" } ] }</code>. All results are
+ * evaluated from a single snapshot of the configuration store and streamed as matrix, indexed by context and then by
+ * id, i.e. <code>{ "ids" : [ "enable-feature-one" ], "results" : [ [ true ], [ false ] ] }</code>. Results are evaluated
+ * one context at a time while writing, so that a response never holds the whole matrix in memory.
+ *
+ * Requests with more than {@value #MAXIMUM_IDS} ids, more than {@value #MAXIMUM_CONTEXTS} contexts or more than
+ * {@value #MAXIMUM_RESULTS} results are rejected as invalid input. Batch evaluations of other than the default application
+ * are served by "/apis/v0/{application}/batch".
+ */
+@Consumes("application/json")
+@Path("/apis/v0/batch")
+public class BatchController {
+
+    /** Maximum number of ids of a request. */
+    public static final int MAXIMUM_IDS = 1000;
+
+    /** Maximum number of contexts of a request. */
+    public static final int MAXIMUM_CONTEXTS = 10000;
+
+    /** Maximum number of results, i.e. ids times contexts, of a request. */
+    public static final int MAXIMUM_RESULTS = 100000;
+
+    private final FeatureFlagManager featureFlagManager;
+    private final JsonConfigManager jsonConfigManager;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper smileMapper;
+
+    /**
+     * Creates controller for batch evaluations.
+     */
+    public BatchController(FeatureFlagManager featureFlagManager, JsonConfigManager jsonConfigManager,
+                           ObjectMapper jsonMapper, ObjectMapper smileMapper) {
+        this.featureFlagManager = featureFlagManager;
+        this.jsonConfigManager = jsonConfigManager;
+        this.jsonMapper = jsonMapper;
+        this.smileMapper = smileMapper;
+    }
+
+    /**
+     * Returns streamed JSON matrix of evaluated feature flags.
+     *
+     * @param request ids of feature flags and configuration contexts
+     * @return streamed matrix of evaluated feature flags
+     */
+    @POST
+    @Path("/featureflags")
+    @Produces("application/json; qs=1")
+    public StreamingOutput evaluateFeatureFlags(BatchRequest request) {
+        return evaluateFeatureFlags(request, jsonMapper);
+    }
+
+    /**
+     * Returns streamed Smile matrix of evaluated feature flags.
+     *
+     * @param request ids of feature flags and configuration contexts
+     * @return streamed matrix of evaluated feature flags
+     */
+    @POST
+    @Path("/featureflags")
+    @Produces(MediaTypes.APPLICATION_SMILE + "; qs=0.5")
+    public StreamingOutput evaluateFeatureFlagsAsSmile(BatchRequest request) {
+        return evaluateFeatureFlags(request, smileMapper);
+    }
+
+    /**
+     * Returns streamed JSON matrix of evaluated configs.
+     *
+     * @param request ids of configs and configuration contexts
+     * @return streamed matrix of evaluated configs
+     */
+    @POST
+    @Path("/configs")
+    @Produces("application/json; qs=1")
+    public StreamingOutput evaluateConfigs(BatchRequest request) {
+        return evaluateConfigs(request, jsonMapper);
+    }
+
+    /**
+     * Returns streamed Smile matrix of evaluated configs.
+     *
+     * @param request ids of configs and configuration contexts
+     * @return streamed matrix of evaluated configs
+     */
+    @POST
+    @Path("/configs")
+    @Produces(MediaTypes.APPLICATION_SMILE + "; qs=0.5")
+    public StreamingOutput evaluateConfigsAsSmile(BatchRequest request) {
+        return evaluateConfigs(request, smileMapper);
+    }
+
+    private StreamingOutput evaluateFeatureFlags(BatchRequest request, ObjectMapper mapper) {
+        List<String> ids = validate(request);
+        Function<ConfigurationContext, boolean[]> evaluator = featureFlagManager.getEvaluator(ids);
+        return outputStream -> {
+            try (JsonGenerator generator = mapper.getFactory().createGenerator(outputStream)) {
+                writeStart(generator, ids);
+                for (Map<String, String> context : request.getContexts()) {
+                    generator.writeStartArray();
+                    for (boolean result : evaluator.apply(toConfigurationContext(context))) {
+                        generator.writeBoolean(result);
+                    }
+                    generator.writeEndArray();
+                }
+                writeEnd(generator);
+            }
+        };
+    }
+
+    private StreamingOutput evaluateConfigs(BatchRequest request, ObjectMapper mapper) {
+        List<String> ids = validate(request);
+        Function<ConfigurationContext, FrozenJson[]> evaluator = jsonConfigManager.getEvaluator(ids);
+        return outputStream -> {
+            try (JsonGenerator generator = mapper.getFactory().createGenerator(outputStream)) {
+                writeStart(generator, ids);
+                for (Map<String, String> context : request.getContexts()) {
+                    generator.writeStartArray();
+                    for (FrozenJson result : evaluator.apply(toConfigurationContext(context))) {
+                        generator.writeObject(result);
+                    }
+                    generator.writeEndArray();
+                }
+                writeEnd(generator);
+            }
+        };
+    }
+
+    /**
+     * @return ids of provided request.
+     * @throws InvalidInputException in case of a missing request, ids or contexts, or in case of too many results
+     */
+    private static List<String> validate(BatchRequest request) {
+        if (request == null || request.getIds() == null || request.getContexts() == null) {
+            throw new InvalidInputException(InvalidInputException.ErrorType.BATCH_REQUEST);
+        }
+        int ids = request.getIds().size();
+        int contexts = request.getContexts().size();
+        if (ids > MAXIMUM_IDS || contexts > MAXIMUM_CONTEXTS || (long) ids * contexts > MAXIMUM_RESULTS) {
+            throw new InvalidInputException(InvalidInputException.ErrorType.BATCH_REQUEST_TOO_LARGE);
+        }
+        return request.getIds();
+    }
+
+    private static ConfigurationContext toConfigurationContext(Map<String, String> context) {
+        ConfigurationContext configurationContext = new ConfigurationContext();
+        if (context != null) {
+            for (Map.Entry<String, String> mapping : context.entrySet()) {
+                configurationContext.put(mapping.getKey(), mapping.getValue());
+            }
+        }
+        return configurationContext;
+    }
+
+    private static void writeStart(JsonGenerator generator, List<String> ids) throws IOException {
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("ids");
+        for (String id : ids) {
+            generator.writeString(id);
+        }
+        generator.writeEndArray();
+        generator.writeArrayFieldStart("results");
+    }
+
+    private static void writeEnd(JsonGenerator generator) throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+}
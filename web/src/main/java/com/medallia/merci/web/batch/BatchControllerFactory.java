@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medallia.merci.core.FeatureFlagManager;
+import com.medallia.merci.core.JsonConfigManager;
+import org.glassfish.hk2.api.Factory;
+
+public class BatchControllerFactory implements Factory<BatchController> {
+
+    private final FeatureFlagManager featureFlagManager;
+    private final JsonConfigManager jsonConfigManager;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper smileMapper;
+
+    public BatchControllerFactory(FeatureFlagManager featureFlagManager, JsonConfigManager jsonConfigManager,
+                                  ObjectMapper jsonMapper, ObjectMapper smileMapper) {
+        this.featureFlagManager = featureFlagManager;
+        this.jsonConfigManager = jsonConfigManager;
+        this.jsonMapper = jsonMapper;
+        this.smileMapper = smileMapper;
+    }
+
+    @Override
+    public BatchController provide() {
+        return new BatchController(featureFlagManager, jsonConfigManager, jsonMapper, smileMapper);
+    }
+
+    @Override
+    public void dispose(BatchController instance) {
+        //Nothing to do.
+    }
+}
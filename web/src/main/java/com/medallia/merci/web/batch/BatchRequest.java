@@ -0,0 +1,50 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.batch;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch evaluation request with ids of configurations and configuration contexts.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BatchRequest {
+
+    private final List<String> ids;
+    private final List<Map<String, String>> contexts;
+
+    @JsonCreator
+    public BatchRequest(@JsonProperty("ids") List<String> ids,
+                        @JsonProperty("contexts") List<Map<String, String>> contexts) {
+        this.ids = ids;
+        this.contexts = contexts;
+    }
+
+    @JsonProperty("ids")
+    public List<String> getIds() {
+        return ids;
+    }
+
+    @JsonProperty("contexts")
+    public List<Map<String, String>> getContexts() {
+        return contexts;
+    }
+}
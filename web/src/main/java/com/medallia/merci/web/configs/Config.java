@@ -18,7 +18,7 @@ package com.medallia.merci.web.configs;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.medallia.merci.core.json.FrozenJson;
 
 /**
  * Config.
@@ -27,11 +27,11 @@ import com.fasterxml.jackson.databind.JsonNode;
 public class Config {
 
     private final String configId;
-    private final JsonNode value;
+    private final FrozenJson value;
 
     @JsonCreator
     public Config(@JsonProperty(value = "id", required = true) String configId,
-                  @JsonProperty(value = "value", required = true) JsonNode value) {
+                  @JsonProperty(value = "value", required = true) FrozenJson value) {
         this.configId = configId;
         this.value = value;
     }
@@ -42,7 +42,7 @@ public class Config {
     }
 
     @JsonProperty("value")
-    public JsonNode getValue() {
+    public FrozenJson getValue() {
         return value;
     }
 }
@@ -15,9 +15,12 @@
  */
 package com.medallia.merci.web.configs;
 
+import com.medallia.merci.core.ConfigurationContext;
 import com.medallia.merci.core.JsonConfigManager;
+import com.medallia.merci.web.EntityTags;
+import com.medallia.merci.web.MediaTypes;
 import com.medallia.merci.web.QueryParameters;
-import com.medallia.merci.core.ConfigurationContext;
+import com.medallia.merci.web.evaluation.ResponseCache;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
@@ -25,38 +28,83 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
 
 /**
  * Controller (Jersey resource) for Config API.
+ *
+ * Responses are negotiated between JSON and the binary Smile format, JSON is preferred for clients accepting both.
  */
 @Consumes("application/json")
-@Produces("application/json")
 @Path("/apis/v0/configs")
 public class ConfigController {
 
     private final JsonConfigManager jsonConfigManager;
+    private final ResponseCache jsonResponseCache;
+    private final ResponseCache smileResponseCache;
 
     /**
-     * Creates controller for configs.
+     * Creates controller for configs, that responds with serialized configs from provided response caches.
      */
-    public ConfigController(JsonConfigManager jsonConfigManager) {
+    public ConfigController(JsonConfigManager jsonConfigManager, ResponseCache jsonResponseCache, ResponseCache smileResponseCache) {
         this.jsonConfigManager = jsonConfigManager;
+        this.jsonResponseCache = jsonResponseCache;
+        this.smileResponseCache = smileResponseCache;
+    }
+
+    /**
+     * Returns evaluated Config as JSON based on provided id and query parameters.
+     *
+     * @param configId id of config
+     * @param queryParameters query parameters with configuration context mappings
+     * @param request request with optional If-None-Match precondition
+     * @return 304 (Not Modified), if If-None-Match matches entity tag of current generation, otherwise serialized evaluated Json config
+     * @throws IOException in case of serialization issues
+     */
+    @GET
+    @Path("/{id}")
+    @Produces("application/json; qs=1")
+    public Response get(@PathParam("id") String configId, @Context QueryParameters queryParameters, @Context Request request) throws IOException {
+        return respond(configId, queryParameters, request, jsonResponseCache, "");
     }
 
     /**
-     * Returns evaluated Json Config object based on provided id and query parameters.
+     * Returns evaluated Config in Smile format based on provided id and query parameters.
      *
      * @param configId id of config
      * @param queryParameters query parameters with configuration context mappings
-     * @return evaluated Json config
+     * @param request request with optional If-None-Match precondition
+     * @return 304 (Not Modified), if If-None-Match matches entity tag of current generation, otherwise serialized evaluated Json config
+     * @throws IOException in case of serialization issues
      */
     @GET
     @Path("/{id}")
-    public Config get(@PathParam("id") String configId, @Context QueryParameters queryParameters) {
+    @Produces(MediaTypes.APPLICATION_SMILE + "; qs=0.5")
+    public Response getSmile(@PathParam("id") String configId, @Context QueryParameters queryParameters, @Context Request request) throws IOException {
+        return respond(configId, queryParameters, request, smileResponseCache, MediaTypes.SMILE_TAG_SUFFIX);
+    }
+
+    private Response respond(String id, QueryParameters queryParameters, Request request, ResponseCache responseCache,
+                             String tagSuffix) throws IOException {
+        long generation = jsonConfigManager.getGeneration();
+        EntityTag entityTag = EntityTags.create(generation, id, queryParameters, tagSuffix);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(entityTag);
+        if (notModified != null) {
+            return notModified.tag(entityTag).header(HttpHeaders.VARY, HttpHeaders.ACCEPT).build();
+        }
         ConfigurationContext configurationContext = new ConfigurationContext();
         for (String key : queryParameters.keySet()) {
             configurationContext.put(key, queryParameters.get(key));
         }
-        return new Config(configId, jsonConfigManager.getConfig(configId, configurationContext));
+        byte[] config = responseCache.get(id, configurationContext);
+        if (jsonConfigManager.getGeneration() != generation) {
+            //configuration store was updated during evaluation.
+            return Response.ok(config).header(HttpHeaders.VARY, HttpHeaders.ACCEPT).build();
+        }
+        return Response.ok(config).tag(entityTag).header(HttpHeaders.VARY, HttpHeaders.ACCEPT).build();
     }
 }
@@ -16,23 +16,28 @@
 package com.medallia.merci.web.configs;
 
 import com.medallia.merci.core.JsonConfigManager;
+import com.medallia.merci.web.evaluation.ResponseCache;
 import org.glassfish.hk2.api.Factory;
 
 public class ConfigControllerFactory implements Factory<ConfigController> {
 
     private final JsonConfigManager jsonConfigManager;
+    private final ResponseCache jsonResponseCache;
+    private final ResponseCache smileResponseCache;
 
-    public ConfigControllerFactory(JsonConfigManager jsonConfigManager) {
+    public ConfigControllerFactory(JsonConfigManager jsonConfigManager, ResponseCache jsonResponseCache, ResponseCache smileResponseCache) {
         this.jsonConfigManager = jsonConfigManager;
+        this.jsonResponseCache = jsonResponseCache;
+        this.smileResponseCache = smileResponseCache;
     }
 
     @Override
     public ConfigController provide() {
-        return new ConfigController(jsonConfigManager);
+        return new ConfigController(jsonConfigManager, jsonResponseCache, smileResponseCache);
     }
 
     @Override
     public void dispose(ConfigController instance) {
         //Nothing to do.
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.deltas;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medallia.merci.core.ConfigurationHistory;
+import com.medallia.merci.web.MediaTypes;
+import com.medallia.merci.web.exception.NotFoundException;
+
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Controller (Jersey resource) for deltas of configurations, i.e. for {@code HttpConfigurationDeltaFetcher}.
+ */
+@Path("/apis/v0/deltas")
+public class DeltaController {
+
+    private final Map<String, ConfigurationHistory<?>> histories;
+    private final ObjectMapper smileMapper;
+
+    /**
+     * Creates controller for deltas of configurations.
+     *
+     * @param histories configuration histories, keyed by application and root field, i.e. "myapp/feature-flags"
+     * @param smileMapper Smile serializer
+     */
+    public DeltaController(Map<String, ConfigurationHistory<?>> histories, ObjectMapper smileMapper) {
+        this.histories = histories;
+        this.smileMapper = smileMapper;
+    }
+
+    /**
+     * Returns delta of configurations changed since provided generation, complete delta for an unknown epoch or generation.
+     *
+     * @param application name of application
+     * @param root root field of configurations
+     * @param epoch epoch of client's generation
+     * @param since generation of client
+     * @return JSON document of delta
+     * @throws IOException in case of serialization issues
+     */
+    @GET
+    @Path("/{application}/{root}")
+    @Produces(MediaType.APPLICATION_JSON + "; qs=1")
+    public String get(@PathParam("application") String application,
+                      @PathParam("root") String root,
+                      @QueryParam("epoch") @DefaultValue("") String epoch,
+                      @QueryParam("since") @DefaultValue("0") long since) throws IOException {
+        return getHistory(application, root).getDelta(epoch, since);
+    }
+
+    /**
+     * Returns delta of configurations in Smile format, see {@link #get(String, String, String, long)}.
+     *
+     * @param application name of application
+     * @param root root field of configurations
+     * @param epoch epoch of client's generation
+     * @param since generation of client
+     * @return Smile document of delta
+     * @throws IOException in case of serialization issues
+     */
+    @GET
+    @Path("/{application}/{root}")
+    @Produces(MediaTypes.APPLICATION_SMILE + "; qs=0.5")
+    public byte[] getSmile(@PathParam("application") String application,
+                           @PathParam("root") String root,
+                           @QueryParam("epoch") @DefaultValue("") String epoch,
+                           @QueryParam("since") @DefaultValue("0") long since) throws IOException {
+        return getHistory(application, root).getDelta(epoch, since, smileMapper);
+    }
+
+    private ConfigurationHistory<?> getHistory(String application, String root) {
+        ConfigurationHistory<?> history = histories.get(application + "/" + root);
+        if (history == null) {
+            throw new NotFoundException(NotFoundException.ErrorType.DELTAS);
+        }
+        return history;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.deltas;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medallia.merci.core.ConfigurationHistory;
+import org.glassfish.hk2.api.Factory;
+
+import java.util.Map;
+
+public class DeltaControllerFactory implements Factory<DeltaController> {
+
+    private final Map<String, ConfigurationHistory<?>> histories;
+    private final ObjectMapper smileMapper;
+
+    public DeltaControllerFactory(Map<String, ConfigurationHistory<?>> histories, ObjectMapper smileMapper) {
+        this.histories = histories;
+        this.smileMapper = smileMapper;
+    }
+
+    @Override
+    public DeltaController provide() {
+        return new DeltaController(histories, smileMapper);
+    }
+
+    @Override
+    public void dispose(DeltaController instance) {
+        //Nothing to do.
+    }
+}
@@ -77,6 +77,21 @@ public class Environment {
         return Integer.parseInt(stringValue);
     }
 
+    /**
+     * Return value of system variable as boolean.
+     *
+     * @param name name of system variable
+     * @param defaultValue default value if no value found for system variable
+     * @return value of system variable as boolean
+     */
+    public boolean getBooleanVariable(String name, boolean defaultValue) {
+        String stringValue = systemVariables.get(name);
+        if (stringValue == null) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(stringValue);
+    }
+
     /**
      * Return value of system variable as String.
      *
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.evaluation;
+
+import com.medallia.merci.core.AbstractConfigurationManager;
+import com.medallia.merci.core.ConfigurationContext;
+import com.medallia.merci.web.EntityTags;
+import com.medallia.merci.web.MediaTypes;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Singleton servlet for evaluations of configurations, i.e. "/apis/v0/featureflags/{id}?environment=qa", that bypasses
+ * per-request resource construction and injection of Jersey.
+ *
+ * Query strings are parsed straight into a configuration context, that is reused per thread, and serialized results are
+ * written from a {@link ResponseCache}. Responses are identical to those of the Jersey controllers, including negotiation
+ * of JSON and Smile, entity tags and 304 (Not Modified) responses.
+ */
+public class EvaluationServlet extends HttpServlet {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String APPLICATION_JSON = "application/json";
+
+    private final transient AbstractConfigurationManager<?> manager;
+    private final transient ResponseCache jsonResponseCache;
+    private final transient ResponseCache smileResponseCache;
+
+    /** Configuration context per thread, cleared before every evaluation. */
+    private final transient ThreadLocal<ConfigurationContext> configurationContexts;
+
+    /**
+     * Creates servlet for evaluations of configurations of provided configuration manager.
+     *
+     * @param manager configuration manager, whose generation is part of entity tags
+     * @param jsonResponseCache cache of JSON serialized results of evaluations
+     * @param smileResponseCache cache of Smile serialized results of evaluations
+     */
+    public EvaluationServlet(AbstractConfigurationManager<?> manager, ResponseCache jsonResponseCache, ResponseCache smileResponseCache) {
+        this.manager = manager;
+        this.jsonResponseCache = jsonResponseCache;
+        this.smileResponseCache = smileResponseCache;
+        configurationContexts = ThreadLocal.withInitial(ConfigurationContext::new);
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String pathInfo = request.getPathInfo();
+        if (pathInfo == null || pathInfo.length() < 2 || pathInfo.indexOf('/', 1) >= 0) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String id = pathInfo.substring(1);
+        ConfigurationContext configurationContext = configurationContexts.get();
+        configurationContext.clear();
+        int parametersHash;
+        try {
+            parametersHash = parse(request.getQueryString(), configurationContext);
+        } catch (IllegalArgumentException | UnsupportedEncodingException exception) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Malformed query string");
+            return;
+        }
+        boolean smile = acceptsOnlySmile(request.getHeader("Accept"));
+        long generation = manager.getGeneration();
+        String entityTag = '"' + EntityTags.value(generation, id, parametersHash) + (smile ? MediaTypes.SMILE_TAG_SUFFIX : "") + '"';
+        response.setHeader("Vary", "Accept");
+        if (matches(request.getHeader("If-None-Match"), entityTag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setHeader("ETag", entityTag);
+            return;
+        }
+        byte[] body = (smile ? smileResponseCache : jsonResponseCache).get(id, configurationContext);
+        if (manager.getGeneration() == generation) {
+            response.setHeader("ETag", entityTag);
+        }
+        response.setContentType(smile ? MediaTypes.APPLICATION_SMILE : APPLICATION_JSON);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Puts first value of each query parameter of provided query string into provided configuration context.
+     *
+     * @return sum of hashes of all put query parameters
+     * @throws IllegalArgumentException in case of malformed percent-encoding
+     * @throws UnsupportedEncodingException never for UTF-8
+     */
+    private static int parse(String queryString, ConfigurationContext configurationContext) throws UnsupportedEncodingException {
+        if (queryString == null) {
+            return 0;
+        }
+        int parametersHash = 0;
+        int start = 0;
+        while (start <= queryString.length()) {
+            int end = queryString.indexOf('&', start);
+            if (end < 0) {
+                end = queryString.length();
+            }
+            if (end > start) {
+                int separator = queryString.indexOf('=', start);
+                String key;
+                String value;
+                if (separator < 0 || separator > end) {
+                    key = decode(queryString.substring(start, end));
+                    value = "";
+                } else {
+                    key = decode(queryString.substring(start, separator));
+                    value = decode(queryString.substring(separator + 1, end));
+                }
+                if (configurationContext.get(key) == null) {
+                    configurationContext.put(key, value);
+                    parametersHash += EntityTags.parameterHash(key, value);
+                }
+            }
+            start = end + 1;
+        }
+        return parametersHash;
+    }
+
+    private static String decode(String encoded) throws UnsupportedEncodingException {
+        if (encoded.indexOf('%') < 0 && encoded.indexOf('+') < 0) {
+            return encoded;
+        }
+        return URLDecoder.decode(encoded, StandardCharsets.UTF_8.name());
+    }
+
+    /**
+     * @return true, if provided Accept header accepts Smile, but not JSON, like the negotiation of the Jersey controllers.
+     */
+    private static boolean acceptsOnlySmile(String accept) {
+        return accept != null && accept.contains(MediaTypes.APPLICATION_SMILE)
+                && !accept.contains(APPLICATION_JSON) && !accept.contains("*/*") && !accept.contains("application/*");
+    }
+
+    /**
+     * @return true, if provided If-None-Match header matches provided entity tag.
+     */
+    private static boolean matches(String ifNoneMatch, String entityTag) {
+        return ifNoneMatch != null && ("*".equals(ifNoneMatch.trim()) || ifNoneMatch.contains(entityTag));
+    }
+
+    /**
+     * Evaluator of configurations to result objects, that are serialized as JSON response.
+     */
+    @FunctionalInterface
+    public interface Evaluator {
+
+        /**
+         * Returns result of evaluation of configuration with provided id for provided configuration context.
+         *
+         * @param id id of configuration
+         * @param configurationContext configuration context, only valid during this call
+         * @return result object
+         */
+        Object evaluate(String id, ConfigurationContext configurationContext);
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.evaluation;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.medallia.merci.core.AbstractConfigurationManager;
+import com.medallia.merci.core.ConfigurationContext;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Cache of serialized evaluation results per generation of a configuration store.
+ *
+ * Results of context-independent configurations are cached per (generation, id). Results of all other configurations
+ * are cached per (generation, id, values of the context types the configuration depends on), so that irrelevant query
+ * parameters do not fragment the cache. Entries of older generations are never returned. Results for ids, that are not
+ * part of the configuration store, are never cached, so that requests for arbitrary ids do not grow the cache.
+ *
+ * Both maps are bounded and cache hits do not take any lock. Eviction is approximate: once a bound is exceeded, entries
+ * of older generations are removed first and then arbitrary entries until a quarter of the bound is free again.
+ */
+public class ResponseCache {
+
+    private static final String[] NO_TYPES = new String[0];
+
+    private final AbstractConfigurationManager<?> manager;
+    private final EvaluationServlet.Evaluator evaluator;
+    private final ObjectWriter writer;
+
+    /** Latest entry per configuration id. */
+    private final Map<String, Entry> entries;
+
+    /** Serialized results of context-dependent configurations. */
+    private final Map<Key, byte[]> contextDependentResults;
+
+    /** Maximum number of entries per map. */
+    private final int maximumEntries;
+
+    /**
+     * Creates response cache.
+     *
+     * @param manager configuration manager
+     * @param evaluator evaluator of configurations
+     * @param writer JSON writer for results of evaluator
+     * @param maximumEntries maximum number of cached configuration ids and of cached results of context-dependent configurations
+     */
+    public ResponseCache(AbstractConfigurationManager<?> manager, EvaluationServlet.Evaluator evaluator, ObjectWriter writer,
+                         int maximumEntries) {
+        this.manager = manager;
+        this.evaluator = evaluator;
+        this.writer = writer;
+        entries = new ConcurrentHashMap<>();
+        contextDependentResults = new ConcurrentHashMap<>();
+        this.maximumEntries = maximumEntries;
+    }
+
+    /**
+     * Returns serialized result of evaluation of configuration with provided id for provided configuration context.
+     *
+     * @param id id of configuration
+     * @param configurationContext configuration context
+     * @return serialized JSON result, must not be modified
+     * @throws IOException in case of serialization issues
+     */
+    public byte[] get(String id, ConfigurationContext configurationContext) throws IOException {
+        long generation = manager.getGeneration();
+        Entry entry = entries.get(id);
+        if (entry == null || entry.generation != generation) {
+            if (!manager.containsConfiguration(id)) {
+                return serialize(id, configurationContext);
+            }
+            String[] types = manager.getContextTypes(id).toArray(NO_TYPES);
+            entry = new Entry(generation, types, types.length == 0 ? serialize(id, configurationContext) : null);
+            if (manager.getGeneration() == generation && entries.put(id, entry) == null && entries.size() > maximumEntries) {
+                evict(entries, mapping -> mapping.getValue().generation != generation);
+            }
+        }
+        if (entry.result != null) {
+            return entry.result;
+        }
+        String[] values = new String[entry.types.length];
+        for (int index = 0; index < values.length; index++) {
+            values[index] = configurationContext.get(entry.types[index]);
+        }
+        Key key = new Key(generation, id, values);
+        byte[] result = contextDependentResults.get(key);
+        if (result == null) {
+            result = serialize(id, configurationContext);
+            if (manager.getGeneration() == generation && contextDependentResults.put(key, result) == null
+                    && contextDependentResults.size() > maximumEntries) {
+                evict(contextDependentResults, mapping -> mapping.getKey().generation != generation);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes stale entries of provided map and then arbitrary entries until the map is at most three quarters full.
+     * Concurrent evictions may remove slightly more entries than necessary.
+     */
+    private <K, V> void evict(Map<K, V> map, Predicate<Map.Entry<K, V>> stale) {
+        map.entrySet().removeIf(stale);
+        int target = maximumEntries - maximumEntries / 4;
+        Iterator<K> keys = map.keySet().iterator();
+        while (map.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private byte[] serialize(String id, ConfigurationContext configurationContext) throws IOException {
+        return writer.writeValueAsBytes(evaluator.evaluate(id, configurationContext));
+    }
+
+    /**
+     * Context types and, for context-independent configurations, serialized result of a configuration in a generation.
+     */
+    private static final class Entry {
+
+        private final long generation;
+        private final String[] types;
+        private final byte[] result;
+
+        private Entry(long generation, String[] types, byte[] result) {
+            this.generation = generation;
+            this.types = types;
+            this.result = result;
+        }
+    }
+
+    /**
+     * Key of a serialized result of a context-dependent configuration.
+     */
+    private static final class Key {
+
+        private final long generation;
+        private final String id;
+        private final String[] values;
+        private final int hash;
+
+        private Key(long generation, String id, String[] values) {
+            this.generation = generation;
+            this.id = id;
+            this.values = values;
+            hash = 31 * (31 * Long.hashCode(generation) + id.hashCode()) + Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return generation == key.generation && id.equals(key.id) && Arrays.equals(values, key.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -60,7 +60,9 @@ public class InvalidInputException extends RuntimeException {
      */
     public enum ErrorType {
         CONFIG_ID,
-        FEATURE_FLAG_ID
+        FEATURE_FLAG_ID,
+        BATCH_REQUEST,
+        BATCH_REQUEST_TOO_LARGE
     }
 
     @Override
@@ -40,7 +40,10 @@ public class NotFoundException extends RuntimeException {
      */
     public enum ErrorType {
         CONFIGS,
-        FEATURE_FLAGS
+        FEATURE_FLAGS,
+        FILES,
+        DELTAS,
+        APPLICATIONS
     }
 
     @Override
@@ -17,7 +17,10 @@ package com.medallia.merci.web.featureflags;
 
 import com.medallia.merci.core.ConfigurationContext;
 import com.medallia.merci.core.FeatureFlagManager;
+import com.medallia.merci.web.EntityTags;
+import com.medallia.merci.web.MediaTypes;
 import com.medallia.merci.web.QueryParameters;
+import com.medallia.merci.web.evaluation.ResponseCache;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
@@ -25,38 +28,83 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
 
 /**
  * Controller (Jersey resource) for Feature Flag API.
+ *
+ * Responses are negotiated between JSON and the binary Smile format, JSON is preferred for clients accepting both.
  */
 @Consumes("application/json")
-@Produces("application/json")
 @Path("/apis/v0/featureflags")
 public class FeatureFlagController {
 
     private final FeatureFlagManager featureFlagManager;
+    private final ResponseCache jsonResponseCache;
+    private final ResponseCache smileResponseCache;
 
     /**
-     * Creates controller for feature flags.
+     * Creates controller for feature flags, that responds with serialized feature flags from provided response caches.
      */
-    public FeatureFlagController(FeatureFlagManager featureFlagManager) {
+    public FeatureFlagController(FeatureFlagManager featureFlagManager, ResponseCache jsonResponseCache, ResponseCache smileResponseCache) {
         this.featureFlagManager = featureFlagManager;
+        this.jsonResponseCache = jsonResponseCache;
+        this.smileResponseCache = smileResponseCache;
     }
 
     /**
-     * Returns evaluated feature flag based on provided id and query parameters.
+     * Returns evaluated Feature Flag as JSON based on provided id and query parameters.
      *
-     * @param featureFlagId if of feature flag
+     * @param featureFlagId id of feature flag
      * @param queryParameters query parameters with configuration context mappings
-     * @return evaluated feature flag
+     * @param request request with optional If-None-Match precondition
+     * @return 304 (Not Modified), if If-None-Match matches entity tag of current generation, otherwise serialized evaluated feature flag
+     * @throws IOException in case of serialization issues
      */
     @GET
     @Path("/{id}")
-    public FeatureFlag get(@PathParam("id") String featureFlagId, @Context QueryParameters queryParameters) {
+    @Produces("application/json; qs=1")
+    public Response get(@PathParam("id") String featureFlagId, @Context QueryParameters queryParameters, @Context Request request) throws IOException {
+        return respond(featureFlagId, queryParameters, request, jsonResponseCache, "");
+    }
+
+    /**
+     * Returns evaluated Feature Flag in Smile format based on provided id and query parameters.
+     *
+     * @param featureFlagId id of feature flag
+     * @param queryParameters query parameters with configuration context mappings
+     * @param request request with optional If-None-Match precondition
+     * @return 304 (Not Modified), if If-None-Match matches entity tag of current generation, otherwise serialized evaluated feature flag
+     * @throws IOException in case of serialization issues
+     */
+    @GET
+    @Path("/{id}")
+    @Produces(MediaTypes.APPLICATION_SMILE + "; qs=0.5")
+    public Response getSmile(@PathParam("id") String featureFlagId, @Context QueryParameters queryParameters, @Context Request request) throws IOException {
+        return respond(featureFlagId, queryParameters, request, smileResponseCache, MediaTypes.SMILE_TAG_SUFFIX);
+    }
+
+    private Response respond(String id, QueryParameters queryParameters, Request request, ResponseCache responseCache,
+                             String tagSuffix) throws IOException {
+        long generation = featureFlagManager.getGeneration();
+        EntityTag entityTag = EntityTags.create(generation, id, queryParameters, tagSuffix);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(entityTag);
+        if (notModified != null) {
+            return notModified.tag(entityTag).header(HttpHeaders.VARY, HttpHeaders.ACCEPT).build();
+        }
         ConfigurationContext configurationContext = new ConfigurationContext();
         for (String key : queryParameters.keySet()) {
             configurationContext.put(key, queryParameters.get(key));
         }
-        return new FeatureFlag(featureFlagId, featureFlagManager.isActive(featureFlagId, configurationContext));
+        byte[] featureFlag = responseCache.get(id, configurationContext);
+        if (featureFlagManager.getGeneration() != generation) {
+            //configuration store was updated during evaluation.
+            return Response.ok(featureFlag).header(HttpHeaders.VARY, HttpHeaders.ACCEPT).build();
+        }
+        return Response.ok(featureFlag).tag(entityTag).header(HttpHeaders.VARY, HttpHeaders.ACCEPT).build();
     }
 }
@@ -16,23 +16,28 @@
 package com.medallia.merci.web.featureflags;
 
 import com.medallia.merci.core.FeatureFlagManager;
+import com.medallia.merci.web.evaluation.ResponseCache;
 import org.glassfish.hk2.api.Factory;
 
 public class FeatureFlagControllerFactory implements Factory<FeatureFlagController> {
 
     private final FeatureFlagManager featureFlagManager;
+    private final ResponseCache jsonResponseCache;
+    private final ResponseCache smileResponseCache;
 
-    public FeatureFlagControllerFactory(FeatureFlagManager featureFlagManager) {
+    public FeatureFlagControllerFactory(FeatureFlagManager featureFlagManager, ResponseCache jsonResponseCache, ResponseCache smileResponseCache) {
         this.featureFlagManager = featureFlagManager;
+        this.jsonResponseCache = jsonResponseCache;
+        this.smileResponseCache = smileResponseCache;
     }
 
     @Override
     public FeatureFlagController provide() {
-        return new FeatureFlagController(featureFlagManager);
+        return new FeatureFlagController(featureFlagManager, jsonResponseCache, smileResponseCache);
     }
 
     @Override
     public void dispose(FeatureFlagController instance) {
         //Nothing to do.
     }
-}
+}
\ No newline at end of file
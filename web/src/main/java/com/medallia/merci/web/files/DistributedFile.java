@@ -0,0 +1,116 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.files;
+
+import javax.ws.rs.core.EntityTag;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Immutable raw configuration file, prepared once for distribution with its entity tag and gzip-encoded content.
+ */
+public final class DistributedFile {
+
+    /** Suffix of entity tags of gzip-encoded representations, so that entity tags differ between representations. */
+    private static final String GZIP_TAG_SUFFIX = "-gzip";
+
+    private final String content;
+    private final byte[] bytes;
+    private final byte[] gzipBytes;
+    private final EntityTag entityTag;
+    private final EntityTag gzipEntityTag;
+
+    /**
+     * Creates distributed file for provided textual content.
+     *
+     * @param content textual configuration content
+     */
+    public DistributedFile(String content) {
+        this.content = content;
+        bytes = content.getBytes(StandardCharsets.UTF_8);
+        gzipBytes = gzip(bytes);
+        String hash = hex(sha256().digest(bytes));
+        entityTag = new EntityTag(hash);
+        gzipEntityTag = new EntityTag(hash + GZIP_TAG_SUFFIX);
+    }
+
+    /**
+     * @return textual configuration content.
+     */
+    public String getContent() {
+        return content;
+    }
+
+    /**
+     * @return UTF-8 encoded content.
+     */
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return gzip-encoded UTF-8 content.
+     */
+    public byte[] getGzipBytes() {
+        return gzipBytes;
+    }
+
+    /**
+     * @return strong entity tag, derived from the SHA-256 hash of the content.
+     */
+    public EntityTag getEntityTag() {
+        return entityTag;
+    }
+
+    /**
+     * @return strong entity tag of gzip-encoded content, different from the entity tag of the content.
+     */
+    public EntityTag getGzipEntityTag() {
+        return gzipEntityTag;
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream gzipBytes = new ByteArrayOutputStream(bytes.length / 4 + 32);
+        try (OutputStream outputStream = new GZIPOutputStream(gzipBytes)) {
+            outputStream.write(bytes);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return gzipBytes.toByteArray();
+    }
+
+    private static String hex(byte[] hash) {
+        StringBuilder hex = new StringBuilder(hash.length * 2);
+        for (byte value : hash) {
+            hex.append(Character.forDigit((value >> 4) & 0xF, 16)).append(Character.forDigit(value & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
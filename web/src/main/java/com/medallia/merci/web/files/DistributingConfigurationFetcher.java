@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.files;
+
+import com.medallia.merci.core.fetcher.ConfigurationFetcher;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Configuration fetcher, that decorates the fetcher of this service and keeps the latest content of every registered
+ * file for distribution to other Merci instances.
+ */
+public class DistributingConfigurationFetcher implements ConfigurationFetcher {
+
+    private final ConfigurationFetcher fetcher;
+
+    /** Latest distributed file per application and file name. */
+    private final Map<String, DistributedFile> files;
+
+    /**
+     * Creates fetcher, that decorates provided fetcher.
+     *
+     * @param fetcher decorated configuration fetcher
+     */
+    public DistributingConfigurationFetcher(ConfigurationFetcher fetcher) {
+        this.fetcher = fetcher;
+        files = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Map<String, String> fetch(List<String> fileNames, String application) throws IOException {
+        Map<String, String> contents = fetcher.fetch(fileNames, application);
+        for (Map.Entry<String, String> entry : contents.entrySet()) {
+            String key = key(application, entry.getKey());
+            DistributedFile file = files.get(key);
+            if (file == null || !file.getContent().equals(entry.getValue())) {
+                files.put(key, new DistributedFile(entry.getValue()));
+            }
+        }
+        return contents;
+    }
+
+    /**
+     * Returns latest fetched file with provided name for provided application, null if none.
+     *
+     * @param application name of application
+     * @param fileName name of registered file, i.e. "/featureflags.json"
+     * @return latest fetched file, null if none
+     */
+    public DistributedFile getFile(String application, String fileName) {
+        return files.get(key(application, fileName));
+    }
+
+    private static String key(String application, String fileName) {
+        return application + fileName;
+    }
+}
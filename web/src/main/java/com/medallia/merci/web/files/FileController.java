@@ -0,0 +1,136 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.files;
+
+import com.medallia.merci.web.exception.NotFoundException;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+
+/**
+ * Controller (Jersey resource) for distribution of raw configuration files, i.e. to {@code HttpConfigurationFetcher}.
+ */
+@Path("/apis/v0/files")
+public class FileController {
+
+    private static final String GZIP = "gzip";
+    private static final String ANY_ENCODING = "*";
+
+    private final DistributingConfigurationFetcher fetcher;
+
+    /**
+     * Creates controller for raw configuration files.
+     */
+    public FileController(DistributingConfigurationFetcher fetcher) {
+        this.fetcher = fetcher;
+    }
+
+    /**
+     * Returns latest content of registered file, gzip-encoded if accepted by the client. Both representations have
+     * different entity tags.
+     *
+     * @param application name of application
+     * @param fileName name of registered file without leading '/'
+     * @param acceptEncoding accepted content encodings
+     * @param request request with optional If-None-Match precondition
+     * @return 304 (Not Modified), if If-None-Match matches entity tag of latest content, otherwise latest content
+     */
+    @GET
+    @Path("/{application}/{fileName: .+}")
+    public Response get(@PathParam("application") String application,
+                        @PathParam("fileName") String fileName,
+                        @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding,
+                        @Context Request request) {
+        DistributedFile file = fetcher.getFile(application, "/" + fileName);
+        if (file == null) {
+            throw new NotFoundException(NotFoundException.ErrorType.FILES);
+        }
+        boolean gzip = acceptsGzip(acceptEncoding);
+        EntityTag entityTag = gzip ? file.getGzipEntityTag() : file.getEntityTag();
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(entityTag);
+        if (notModified != null) {
+            return notModified.tag(entityTag).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        Response.ResponseBuilder response = Response.ok()
+                .type(mediaType(fileName))
+                .tag(entityTag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.entity(file.getGzipBytes()).encoding(GZIP).build();
+        }
+        return response.entity(file.getBytes()).build();
+    }
+
+    /**
+     * Returns whether provided Accept-Encoding header accepts gzip with a quality value above 0, either explicitly or
+     * with "*".
+     *
+     * @param acceptEncoding value of Accept-Encoding header, may be null
+     * @return true, if gzip is accepted
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean anyAccepted = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim();
+            boolean accepted = quality(parts) > 0;
+            if (GZIP.equalsIgnoreCase(coding)) {
+                return accepted;
+            }
+            if (ANY_ENCODING.equals(coding)) {
+                anyAccepted = accepted;
+            }
+        }
+        return anyAccepted != null && anyAccepted;
+    }
+
+    /**
+     * @return quality value of content coding with provided parameters, 1 if missing, 0 if invalid.
+     */
+    private static double quality(String[] parts) {
+        for (int index = 1; index < parts.length; index++) {
+            String parameter = parts[index].trim();
+            if (parameter.length() > 1 && (parameter.charAt(0) == 'q' || parameter.charAt(0) == 'Q') && parameter.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException exception) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static String mediaType(String fileName) {
+        if (fileName.endsWith(".json")) {
+            return "application/json";
+        }
+        if (fileName.endsWith(".yaml") || fileName.endsWith(".yml")) {
+            return "application/x-yaml";
+        }
+        return "text/plain";
+    }
+}
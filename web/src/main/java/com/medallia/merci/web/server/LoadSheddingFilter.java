@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.server;
+
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filter, that rejects requests with 503 (Service Unavailable), while the job queue of the thread pool is at least
+ * as large as a threshold, so that queued requests are served within bounded latency.
+ *
+ * Implements mbean defined in {@link LoadSheddingFilterMBean}.
+ */
+public class LoadSheddingFilter implements Filter, LoadSheddingFilterMBean {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final QueuedThreadPool threadPool;
+    private final int sheddingQueueSize;
+    private final LongAdder shedRequests;
+
+    /**
+     * Creates load shedding filter.
+     *
+     * @param threadPool thread pool of the server
+     * @param sheddingQueueSize queue size, from which requests are rejected
+     */
+    public LoadSheddingFilter(QueuedThreadPool threadPool, int sheddingQueueSize) {
+        this.threadPool = threadPool;
+        this.sheddingQueueSize = sheddingQueueSize;
+        shedRequests = new LongAdder();
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) {
+        //Nothing to do.
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        if (threadPool.getQueueSize() >= sheddingQueueSize) {
+            shedRequests.increment();
+            HttpServletResponse httpResponse = (HttpServletResponse) response;
+            httpResponse.setHeader("Retry-After", RETRY_AFTER_SECONDS);
+            httpResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    @Override
+    public void destroy() {
+        //Nothing to do.
+    }
+
+    @Override
+    public long getShedRequests() {
+        return shedRequests.sum();
+    }
+}
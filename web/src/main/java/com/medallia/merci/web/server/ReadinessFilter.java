@@ -0,0 +1,68 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.server;
+
+import com.medallia.merci.core.ConfigurationLoader;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Filter, that rejects requests with 503 (Service Unavailable), until the configuration loader loaded all
+ * configurations, so that the server never serves defaults instead of loaded configurations.
+ */
+public class ReadinessFilter implements Filter {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final ConfigurationLoader configurationLoader;
+
+    /**
+     * Creates readiness filter for provided configuration loader.
+     *
+     * @param configurationLoader configuration loader
+     */
+    public ReadinessFilter(ConfigurationLoader configurationLoader) {
+        this.configurationLoader = configurationLoader;
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) {
+        //Nothing to do.
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        if (!configurationLoader.isReady()) {
+            HttpServletResponse httpResponse = (HttpServletResponse) response;
+            httpResponse.setHeader("Retry-After", RETRY_AFTER_SECONDS);
+            httpResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    @Override
+    public void destroy() {
+        //Nothing to do.
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.server;
+
+import com.medallia.merci.core.ConfigurationLoader;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Servlet for readiness probes, that responds with 200 (OK), once the configuration loader loaded all configurations,
+ * and with 503 (Service Unavailable) before.
+ */
+public class ReadinessServlet extends HttpServlet {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient ConfigurationLoader configurationLoader;
+
+    /**
+     * Creates readiness servlet for provided configuration loader.
+     *
+     * @param configurationLoader configuration loader
+     */
+    public ReadinessServlet(ConfigurationLoader configurationLoader) {
+        this.configurationLoader = configurationLoader;
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader("Cache-Control", "no-cache");
+        response.setContentType("text/plain");
+        if (configurationLoader.isReady()) {
+            response.getWriter().write("ready");
+        } else {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.getWriter().write("loading");
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.server;
+
+import com.medallia.merci.web.environment.Environment;
+
+import java.time.Duration;
+
+/**
+ * Tuning settings of the Jetty server, read from system environment variables.
+ *
+ * <ul>
+ *     <li>MERCI_PORT: port of HTTP connector, default 8080</li>
+ *     <li>MERCI_IDLE_TIMEOUT_MS: idle timeout of connections in milliseconds, default 300000</li>
+ *     <li>MERCI_ACCEPTORS, MERCI_SELECTORS: number of acceptor and selector threads, default -1 for Jetty's defaults</li>
+ *     <li>MERCI_MIN_THREADS, MERCI_MAX_THREADS: size of thread pool, default 8 and 200</li>
+ *     <li>MERCI_QUEUE_CAPACITY: capacity of job queue of thread pool, default 0 for an unbounded queue</li>
+ *     <li>MERCI_SHEDDING_QUEUE_SIZE: queue size, from which requests are rejected with 503, default 0 for no load shedding</li>
+ *     <li>MERCI_VIRTUAL_THREADS: true, if jobs should run on virtual threads on supporting JDKs, default false</li>
+ *     <li>MERCI_H2C: true, if connector should support HTTP/2 cleartext next to HTTP/1.1, default false</li>
+ *     <li>MERCI_RESPONSE_CACHE_SIZE: maximum number of cached configuration ids and context-dependent responses per endpoint, default 10000</li>
+ *     <li>MERCI_STARTUP_TIMEOUT_MS: maximum time in milliseconds for the initial load of configurations, default 60000</li>
+ * </ul>
+ */
+public final class ServerSettings {
+
+    private static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_IDLE_TIMEOUT_MS = 300000;
+    private static final int DEFAULT_MIN_THREADS = 8;
+    private static final int DEFAULT_MAX_THREADS = 200;
+    private static final int JETTY_DEFAULT = -1;
+    private static final int DEFAULT_RESPONSE_CACHE_SIZE = 10000;
+    private static final int DEFAULT_STARTUP_TIMEOUT_MS = 60000;
+
+    private final int port;
+    private final Duration idleTimeout;
+    private final int acceptors;
+    private final int selectors;
+    private final int minThreads;
+    private final int maxThreads;
+    private final int queueCapacity;
+    private final int sheddingQueueSize;
+    private final boolean virtualThreads;
+    private final boolean h2c;
+    private final int responseCacheSize;
+    private final Duration startupTimeout;
+
+    private ServerSettings(Environment environment) {
+        port = environment.getIntVariable("MERCI_PORT", DEFAULT_PORT);
+        idleTimeout = Duration.ofMillis(environment.getIntVariable("MERCI_IDLE_TIMEOUT_MS", DEFAULT_IDLE_TIMEOUT_MS));
+        acceptors = environment.getIntVariable("MERCI_ACCEPTORS", JETTY_DEFAULT);
+        selectors = environment.getIntVariable("MERCI_SELECTORS", JETTY_DEFAULT);
+        minThreads = environment.getIntVariable("MERCI_MIN_THREADS", DEFAULT_MIN_THREADS);
+        maxThreads = environment.getIntVariable("MERCI_MAX_THREADS", DEFAULT_MAX_THREADS);
+        queueCapacity = environment.getIntVariable("MERCI_QUEUE_CAPACITY", 0);
+        sheddingQueueSize = environment.getIntVariable("MERCI_SHEDDING_QUEUE_SIZE", 0);
+        virtualThreads = environment.getBooleanVariable("MERCI_VIRTUAL_THREADS", false);
+        h2c = environment.getBooleanVariable("MERCI_H2C", false);
+        responseCacheSize = environment.getIntVariable("MERCI_RESPONSE_CACHE_SIZE", DEFAULT_RESPONSE_CACHE_SIZE);
+        startupTimeout = Duration.ofMillis(environment.getIntVariable("MERCI_STARTUP_TIMEOUT_MS", DEFAULT_STARTUP_TIMEOUT_MS));
+        if (minThreads <= 0 || maxThreads < minThreads) {
+            throw new IllegalArgumentException("Invalid thread pool size " + minThreads + ".." + maxThreads);
+        }
+    }
+
+    /**
+     * Creates server settings from system environment variables of provided environment.
+     *
+     * @param environment environment
+     * @return new server settings
+     * @throws IllegalArgumentException in case of invalid settings
+     */
+    public static ServerSettings fromEnvironment(Environment environment) {
+        return new ServerSettings(environment);
+    }
+
+    /** @return port of HTTP connector. */
+    public int getPort() {
+        return port;
+    }
+
+    /** @return idle timeout of connections. */
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /** @return number of acceptor threads, -1 for Jetty's default. */
+    public int getAcceptors() {
+        return acceptors;
+    }
+
+    /** @return number of selector threads, -1 for Jetty's default. */
+    public int getSelectors() {
+        return selectors;
+    }
+
+    /** @return minimum number of threads of thread pool. */
+    public int getMinThreads() {
+        return minThreads;
+    }
+
+    /** @return maximum number of threads of thread pool. */
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    /** @return capacity of job queue, 0 for an unbounded queue. */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /** @return queue size, from which requests are rejected, 0 for no load shedding. */
+    public int getSheddingQueueSize() {
+        return sheddingQueueSize;
+    }
+
+    /** @return true, if jobs should run on virtual threads on supporting JDKs. */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /** @return true, if connector should support HTTP/2 cleartext. */
+    public boolean isH2c() {
+        return h2c;
+    }
+
+    /** @return maximum number of cached configuration ids and context-dependent responses per endpoint. */
+    public int getResponseCacheSize() {
+        return responseCacheSize;
+    }
+
+    /** @return maximum time for the initial load of configurations. */
+    public Duration getStartupTimeout() {
+        return startupTimeout;
+    }
+}
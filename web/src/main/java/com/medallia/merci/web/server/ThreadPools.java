@@ -0,0 +1,78 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.server;
+
+import org.eclipse.jetty.util.BlockingArrayQueue;
+import org.eclipse.jetty.util.thread.ExecutorThreadPool;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Factory for thread pools of the Jetty server.
+ */
+public final class ThreadPools {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ThreadPools.class);
+
+    private static final int THREAD_IDLE_TIMEOUT_MS = 60000;
+
+    private ThreadPools() {
+        // Utility class with static methods only.
+    }
+
+    /**
+     * Creates thread pool for provided server settings.
+     *
+     * If virtual threads are requested and supported by the JDK, every job runs on a new virtual thread, otherwise jobs
+     * run on a queued thread pool, whose queue is bounded, if a queue capacity is set. A full queue rejects further jobs.
+     *
+     * @param settings server settings
+     * @return new thread pool
+     */
+    public static ThreadPool create(ServerSettings settings) {
+        if (settings.isVirtualThreads()) {
+            ExecutorService virtualThreadExecutor = newVirtualThreadPerTaskExecutor();
+            if (virtualThreadExecutor != null) {
+                return new ExecutorThreadPool(virtualThreadExecutor);
+            }
+            LOG.warn("Virtual threads are not supported by this JDK, using platform threads instead");
+        }
+        QueuedThreadPool threadPool = settings.getQueueCapacity() > 0
+                ? new QueuedThreadPool(settings.getMaxThreads(), settings.getMinThreads(), THREAD_IDLE_TIMEOUT_MS,
+                        new BlockingArrayQueue<>(settings.getQueueCapacity(), 0, settings.getQueueCapacity()))
+                : new QueuedThreadPool(settings.getMaxThreads(), settings.getMinThreads(), THREAD_IDLE_TIMEOUT_MS);
+        threadPool.setName("merci-http");
+        return threadPool;
+    }
+
+    /**
+     * @return new virtual thread per task executor, looked up reflectively, null if not supported by this JDK.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException exception) {
+            //JDK without (enabled) virtual threads.
+            return null;
+        }
+    }
+}
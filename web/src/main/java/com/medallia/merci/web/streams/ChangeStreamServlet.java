@@ -0,0 +1,229 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.streams;
+
+import com.medallia.merci.core.AbstractConfigurationManager;
+import com.medallia.merci.core.ConfigurationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+/**
+ * Servlet for Server-Sent Events streams of configuration changes, based on asynchronous servlet requests.
+ *
+ * A client subscribes with one or more 'id' query parameters and the configuration context as further query parameters,
+ * i.e. "?id=enable-feature-one&amp;id=enable-feature-two&amp;environment=qa". The current values are sent right away,
+ * afterwards an event is only sent for an id, if an update of the configuration store changes its value. The id of each
+ * event is the generation of the configuration store.
+ *
+ * Events are written with non-blocking output, so the threads of the executor service only evaluate and never wait for
+ * slow clients.
+ */
+public class ChangeStreamServlet extends HttpServlet {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String ID_PARAMETER = "id";
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(30);
+
+    private final transient Logger log = LoggerFactory.getLogger(ChangeStreamServlet.class);
+    private final transient AbstractConfigurationManager<?> manager;
+    private final transient Evaluator evaluator;
+    private final transient ScheduledExecutorService executorService;
+    private final transient Set<Subscription> subscriptions;
+    private final transient LongConsumer updateListener;
+    private transient ScheduledFuture<?> heartbeats;
+
+    /**
+     * Creates servlet for event streams of configuration changes of provided configuration manager.
+     *
+     * @param manager configuration manager, whose updates trigger re-evaluations
+     * @param evaluator evaluator of serialized values
+     * @param executorService executor service for re-evaluations and heartbeats, shared by all subscriptions, owned by
+     *                        this servlet and shut down when it is destroyed
+     */
+    public ChangeStreamServlet(AbstractConfigurationManager<?> manager, Evaluator evaluator, ScheduledExecutorService executorService) {
+        this.manager = manager;
+        this.evaluator = evaluator;
+        this.executorService = executorService;
+        subscriptions = ConcurrentHashMap.newKeySet();
+        updateListener = this::onUpdate;
+    }
+
+    @Override
+    public void init() {
+        manager.addUpdateListener(updateListener);
+        heartbeats = executorService.scheduleWithFixedDelay(this::sendHeartbeats,
+                HEARTBEAT_INTERVAL.getSeconds(), HEARTBEAT_INTERVAL.getSeconds(), TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops re-evaluations and heartbeats, closes all event streams and shuts down the executor service.
+     */
+    @Override
+    public void destroy() {
+        manager.removeUpdateListener(updateListener);
+        if (heartbeats != null) {
+            heartbeats.cancel(false);
+        }
+        executorService.shutdown();
+        for (Subscription subscription : subscriptions) {
+            close(subscription);
+        }
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String[] ids = request.getParameterValues(ID_PARAMETER);
+        if (ids == null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing query parameter " + ID_PARAMETER);
+            return;
+        }
+        ConfigurationContext configurationContext = new ConfigurationContext();
+        Enumeration<String> names = request.getParameterNames();
+        while (names.hasMoreElements()) {
+            String name = names.nextElement();
+            if (!ID_PARAMETER.equals(name)) {
+                configurationContext.put(name, request.getParameter(name));
+            }
+        }
+        response.setContentType("text/event-stream");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-cache");
+        response.flushBuffer();
+
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(0);
+        Subscription subscription = new Subscription(asyncContext, Arrays.asList(ids), configurationContext);
+        asyncContext.addListener(new SubscriptionListener(subscription));
+        subscriptions.add(subscription);
+        subscription.start();
+        send(subscription, manager.getGeneration());
+    }
+
+    /**
+     * Schedules re-evaluation of all subscriptions for provided generation.
+     */
+    private void onUpdate(long generation) {
+        for (Subscription subscription : subscriptions) {
+            try {
+                executorService.execute(() -> send(subscription, generation));
+            } catch (RejectedExecutionException exception) {
+                //executor service is shut down.
+                return;
+            }
+        }
+    }
+
+    private void send(Subscription subscription, long generation) {
+        try {
+            subscription.send(generation, evaluator);
+        } catch (IOException exception) {
+            close(subscription);
+        } catch (RuntimeException exception) {
+            log.error("Closing event stream due to exception ", exception);
+            close(subscription);
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Subscription subscription : subscriptions) {
+            try {
+                subscription.sendHeartbeat();
+            } catch (IOException exception) {
+                close(subscription);
+            }
+        }
+    }
+
+    private void close(Subscription subscription) {
+        subscriptions.remove(subscription);
+        subscription.complete();
+    }
+
+    /**
+     * @return number of open event streams.
+     */
+    public int getSubscriptions() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Evaluator of configurations to serialized JSON values of event data.
+     */
+    @FunctionalInterface
+    public interface Evaluator {
+
+        /**
+         * Returns serialized value of configuration with provided id for provided configuration context.
+         *
+         * @param id id of configuration
+         * @param configurationContext configuration context
+         * @return serialized JSON value without line breaks
+         * @throws IOException in case of serialization issues
+         */
+        String evaluate(String id, ConfigurationContext configurationContext) throws IOException;
+    }
+
+    /**
+     * Removes subscription, once its asynchronous request is completed, failed or timed out.
+     */
+    private final class SubscriptionListener implements AsyncListener {
+
+        private final Subscription subscription;
+
+        private SubscriptionListener(Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            subscriptions.remove(subscription);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            close(subscription);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            close(subscription);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            //Nothing to do.
+        }
+    }
+}
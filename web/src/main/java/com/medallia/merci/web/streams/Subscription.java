@@ -0,0 +1,167 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.streams;
+
+import com.medallia.merci.core.ConfigurationContext;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Subscription of a single event stream client to a list of configuration ids for a configuration context.
+ *
+ * Events are queued and written with non-blocking output of the asynchronous request, so that a client, that does not
+ * read its stream, never blocks the threads of other subscriptions. A client, whose queue of unwritten events is full,
+ * is disconnected and can reconnect to receive the current values. Queueing and writing is synchronized per
+ * subscription, so that concurrent re-evaluations never interleave events.
+ */
+final class Subscription implements WriteListener {
+
+    private static final byte[] HEARTBEAT = ":\n\n".getBytes(StandardCharsets.UTF_8);
+
+    /** Maximum number of queued writes, i.e. events of one re-evaluation or heartbeats, per subscription. */
+    private static final int MAX_QUEUED_WRITES = 64;
+
+    private final AsyncContext asyncContext;
+    private final List<String> ids;
+    private final ConfigurationContext configurationContext;
+
+    /** Last sent serialized value per id. */
+    private final Map<String, String> sentValues;
+
+    /** Writes, that are not yet handed to the output stream. */
+    private final Deque<byte[]> queue;
+
+    /** Output stream in non-blocking mode, null until the write listener is registered. */
+    private ServletOutputStream outputStream;
+
+    /** True, if bytes were written since the last flush. */
+    private boolean flushPending;
+
+    /**
+     * Creates subscription for provided asynchronous request.
+     *
+     * @param asyncContext context of asynchronous request
+     * @param ids ids of subscribed configurations
+     * @param configurationContext configuration context for evaluations
+     */
+    Subscription(AsyncContext asyncContext, List<String> ids, ConfigurationContext configurationContext) {
+        this.asyncContext = asyncContext;
+        this.ids = ids;
+        this.configurationContext = configurationContext;
+        sentValues = new HashMap<>();
+        queue = new ArrayDeque<>();
+    }
+
+    /**
+     * Switches output stream of asynchronous request to non-blocking mode with this subscription as write listener.
+     *
+     * @throws IOException in case of a failure getting the output stream
+     */
+    synchronized void start() throws IOException {
+        ServletOutputStream stream = asyncContext.getResponse().getOutputStream();
+        stream.setWriteListener(this);
+        outputStream = stream;
+    }
+
+    /**
+     * Evaluates all subscribed ids and sends an event for every id, whose serialized value changed since the last event.
+     *
+     * @param generation generation of configuration store, sent as event id
+     * @param evaluator evaluator of serialized values
+     * @throws IOException in case of a write failure, i.e. closed connection, or a full queue
+     */
+    synchronized void send(long generation, ChangeStreamServlet.Evaluator evaluator) throws IOException {
+        StringBuilder events = new StringBuilder();
+        for (String id : ids) {
+            String value = evaluator.evaluate(id, configurationContext);
+            if (!value.equals(sentValues.put(id, value))) {
+                events.append("id: ").append(generation).append('\n').append("data: ").append(value).append("\n\n");
+            }
+        }
+        if (events.length() > 0) {
+            write(events.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Sends a comment, that keeps the connection alive and detects closed connections.
+     *
+     * @throws IOException in case of a write failure, i.e. closed connection, or a full queue
+     */
+    synchronized void sendHeartbeat() throws IOException {
+        write(HEARTBEAT);
+    }
+
+    /**
+     * Completes asynchronous request, ignoring already completed requests.
+     */
+    void complete() {
+        try {
+            asyncContext.complete();
+        } catch (IllegalStateException exception) {
+            //request already completed.
+        }
+    }
+
+    @Override
+    public synchronized void onWritePossible() throws IOException {
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        complete();
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        if (queue.size() >= MAX_QUEUED_WRITES) {
+            throw new IOException("Event stream client does not read its events.");
+        }
+        queue.add(bytes);
+        drain();
+    }
+
+    /**
+     * Writes queued bytes and flushes them, as long as the output stream is ready. Once the output stream is not ready,
+     * the container calls {@link #onWritePossible()} as soon as it is ready again.
+     */
+    private void drain() throws IOException {
+        if (outputStream == null) {
+            return;
+        }
+        while (outputStream.isReady()) {
+            byte[] bytes = queue.poll();
+            if (bytes != null) {
+                outputStream.write(bytes);
+                flushPending = true;
+            } else if (flushPending) {
+                outputStream.flush();
+                flushPending = false;
+            } else {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link EntityTags}.
+ */
+public class EntityTagsTest {
+
+    @Test
+    public void testCreateIgnoresOrderOfQueryParameters() {
+        Map<String, String> first = new LinkedHashMap<>();
+        first.put("environment", "qa");
+        first.put("user", "joe");
+        Map<String, String> second = new LinkedHashMap<>();
+        second.put("user", "joe");
+        second.put("environment", "qa");
+        Assert.assertEquals(EntityTags.create(3, "enable-all", new QueryParameters(first)),
+                EntityTags.create(3, "enable-all", new QueryParameters(second)));
+    }
+
+    @Test
+    public void testCreateChangesWithGenerationIdContextAndSuffix() {
+        Map<String, String> context = new LinkedHashMap<>();
+        context.put("environment", "qa");
+        QueryParameters queryParameters = new QueryParameters(context);
+        String value = EntityTags.create(3, "enable-all", queryParameters).getValue();
+        Assert.assertNotEquals(value, EntityTags.create(4, "enable-all", queryParameters).getValue());
+        Assert.assertNotEquals(value, EntityTags.create(3, "enable-none", queryParameters).getValue());
+        Assert.assertEquals(value + MediaTypes.SMILE_TAG_SUFFIX,
+                EntityTags.create(3, "enable-all", queryParameters, MediaTypes.SMILE_TAG_SUFFIX).getValue());
+        context.put("environment", "prod");
+        Assert.assertNotEquals(value, EntityTags.create(3, "enable-all", new QueryParameters(context)).getValue());
+    }
+
+    @Test
+    public void testValueMatchesCreateForSummedParameterHashes() {
+        Map<String, String> context = new LinkedHashMap<>();
+        context.put("environment", "qa");
+        context.put("user", null);
+        int parametersHash = EntityTags.parameterHash("environment", "qa") + EntityTags.parameterHash("user", null);
+        Assert.assertEquals(EntityTags.value(7, "config", parametersHash),
+                EntityTags.create(7, "config", new QueryParameters(context)).getValue());
+        Assert.assertFalse(EntityTags.create(7, "config", new QueryParameters(context)).isWeak());
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medallia.merci.core.Configuration;
+import com.medallia.merci.core.FeatureFlagManager;
+import com.medallia.merci.core.JsonConfigManager;
+import com.medallia.merci.core.json.FrozenJson;
+import com.medallia.merci.core.structure.Context;
+import com.medallia.merci.core.structure.Modifiers;
+import com.medallia.merci.web.exception.InvalidInputException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.core.StreamingOutput;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link BatchController}.
+ */
+public class BatchControllerTest {
+
+    private static final String FEATURE_FLAG_NAME = "enable-qa";
+    private static final String CONFIG_NAME = "timeouts";
+
+    private final FeatureFlagManager featureFlagManager = new FeatureFlagManager();
+    private final JsonConfigManager jsonConfigManager = new JsonConfigManager();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private BatchController controller;
+
+    @Before
+    public void setUp() throws IOException {
+        featureFlagManager.updateConfigurations(Collections.singletonMap(FEATURE_FLAG_NAME, new Configuration<>(FEATURE_FLAG_NAME,
+                new Context<>(Boolean.FALSE, new Modifiers<>("environment",
+                        Collections.singletonMap("qa", new Context<>(Boolean.TRUE, null)))))));
+        jsonConfigManager.updateConfigurations(Collections.singletonMap(CONFIG_NAME, new Configuration<>(CONFIG_NAME,
+                new Context<>(FrozenJson.of(objectMapper.readTree("{\"seconds\":1}")), null))));
+        controller = new BatchController(featureFlagManager, jsonConfigManager, objectMapper, objectMapper);
+    }
+
+    @Test
+    public void testEvaluateFeatureFlagsStreamsResultsPerContext() throws IOException {
+        StreamingOutput output = controller.evaluateFeatureFlags(new BatchRequest(Arrays.asList(FEATURE_FLAG_NAME, "missing"),
+                Arrays.asList(Collections.singletonMap("environment", "qa"), Collections.singletonMap("environment", "prod"), null)));
+        Assert.assertEquals("{\"ids\":[\"enable-qa\",\"missing\"],\"results\":[[true,false],[false,false],[false,false]]}",
+                write(output));
+    }
+
+    @Test
+    public void testEvaluateConfigsStreamsResultsPerContext() throws IOException {
+        StreamingOutput output = controller.evaluateConfigs(new BatchRequest(Arrays.asList(CONFIG_NAME, "missing"),
+                Collections.singletonList(Collections.emptyMap())));
+        Assert.assertEquals("{\"ids\":[\"timeouts\",\"missing\"],\"results\":[[{\"seconds\":1},{}]]}", write(output));
+    }
+
+    @Test
+    public void testEvaluateFeatureFlagsRejectsIncompleteRequests() {
+        assertRejected(new BatchRequest(null, Collections.emptyList()), InvalidInputException.ErrorType.BATCH_REQUEST);
+        assertRejected(new BatchRequest(Collections.emptyList(), null), InvalidInputException.ErrorType.BATCH_REQUEST);
+        assertRejected(null, InvalidInputException.ErrorType.BATCH_REQUEST);
+    }
+
+    @Test
+    public void testEvaluateFeatureFlagsRejectsTooManyIds() {
+        assertRejected(new BatchRequest(ids(BatchController.MAXIMUM_IDS + 1), contexts(1)),
+                InvalidInputException.ErrorType.BATCH_REQUEST_TOO_LARGE);
+    }
+
+    @Test
+    public void testEvaluateFeatureFlagsRejectsTooManyContexts() {
+        assertRejected(new BatchRequest(ids(1), contexts(BatchController.MAXIMUM_CONTEXTS + 1)),
+                InvalidInputException.ErrorType.BATCH_REQUEST_TOO_LARGE);
+    }
+
+    @Test
+    public void testEvaluateConfigsRejectsTooManyResults() {
+        int ids = BatchController.MAXIMUM_RESULTS / BatchController.MAXIMUM_CONTEXTS + 1;
+        try {
+            controller.evaluateConfigs(new BatchRequest(ids(ids), contexts(BatchController.MAXIMUM_CONTEXTS)));
+            Assert.fail("Expected rejection of batch request.");
+        } catch (InvalidInputException exception) {
+            Assert.assertEquals(InvalidInputException.ErrorType.BATCH_REQUEST_TOO_LARGE, exception.getErrorType());
+        }
+    }
+
+    @Test
+    public void testEvaluateFeatureFlagsAcceptsRequestsAtLimits() throws IOException {
+        int contexts = BatchController.MAXIMUM_RESULTS / BatchController.MAXIMUM_IDS;
+        StreamingOutput output = controller.evaluateFeatureFlags(new BatchRequest(ids(BatchController.MAXIMUM_IDS),
+                contexts(contexts)));
+        Assert.assertEquals(contexts, objectMapper.readTree(write(output)).get("results").size());
+    }
+
+    private void assertRejected(BatchRequest request, InvalidInputException.ErrorType errorType) {
+        try {
+            controller.evaluateFeatureFlags(request);
+            Assert.fail("Expected rejection of batch request.");
+        } catch (InvalidInputException exception) {
+            Assert.assertEquals(errorType, exception.getErrorType());
+        }
+    }
+
+    private static String write(StreamingOutput output) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        output.write(outputStream);
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static List<String> ids(int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            ids.add("flag-" + index);
+        }
+        return ids;
+    }
+
+    private static List<Map<String, String>> contexts(int count) {
+        return Collections.nCopies(count, Collections.singletonMap("environment", "qa"));
+    }
+}
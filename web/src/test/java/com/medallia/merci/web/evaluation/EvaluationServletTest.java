@@ -0,0 +1,128 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.evaluation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medallia.merci.core.Configuration;
+import com.medallia.merci.core.FeatureFlagManager;
+import com.medallia.merci.core.structure.Context;
+import com.medallia.merci.core.structure.Modifiers;
+import com.medallia.merci.web.featureflags.FeatureFlag;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+/**
+ * Unit tests for {@link EvaluationServlet}.
+ */
+public class EvaluationServletTest {
+
+    private static final String FEATURE_FLAG_NAME = "enable-qa";
+
+    private final FeatureFlagManager featureFlagManager = new FeatureFlagManager();
+
+    private EvaluationServlet servlet;
+    private ByteArrayOutputStream body;
+    private ServletOutputStream outputStream;
+    private HttpServletResponse response;
+
+    @Before
+    public void setUp() throws IOException {
+        featureFlagManager.updateConfigurations(Collections.singletonMap(FEATURE_FLAG_NAME, new Configuration<>(FEATURE_FLAG_NAME,
+                new Context<>(Boolean.FALSE, new Modifiers<>("environment",
+                        Collections.singletonMap("qa", new Context<>(Boolean.TRUE, null)))))));
+        EvaluationServlet.Evaluator evaluator = (id, context) -> new FeatureFlag(id, featureFlagManager.isActive(id, context));
+        ObjectMapper objectMapper = new ObjectMapper();
+        ResponseCache cache = new ResponseCache(featureFlagManager, evaluator, objectMapper.writerFor(FeatureFlag.class), 16);
+        servlet = new EvaluationServlet(featureFlagManager, cache, cache);
+        body = new ByteArrayOutputStream();
+        outputStream = new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                //Blocking output only.
+            }
+
+            @Override
+            public void write(int value) {
+                body.write(value);
+            }
+        };
+        response = Mockito.mock(HttpServletResponse.class);
+        Mockito.when(response.getOutputStream()).thenReturn(outputStream);
+    }
+
+    @Test
+    public void testDoGetEvaluatesFirstDecodedValueOfQueryParameters() throws IOException {
+        servlet.doGet(request("/" + FEATURE_FLAG_NAME, "environment=q%61&environment=prod&user", null), response);
+        Assert.assertEquals("{\"id\":\"enable-qa\",\"value\":true}", body.toString(StandardCharsets.UTF_8.name()));
+        Mockito.verify(response).setContentType("application/json");
+    }
+
+    @Test
+    public void testDoGetReturnsNotModifiedForMatchingEntityTag() throws IOException {
+        servlet.doGet(request("/" + FEATURE_FLAG_NAME, "environment=qa", null), response);
+        ArgumentCaptor<String> entityTag = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(response).setHeader(Mockito.eq("ETag"), entityTag.capture());
+        body.reset();
+
+        HttpServletResponse notModified = Mockito.mock(HttpServletResponse.class);
+        servlet.doGet(request("/" + FEATURE_FLAG_NAME, "environment=qa", entityTag.getValue()), notModified);
+        Mockito.verify(notModified).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        Mockito.verify(notModified, Mockito.never()).getOutputStream();
+
+        HttpServletResponse otherContext = Mockito.mock(HttpServletResponse.class);
+        Mockito.when(otherContext.getOutputStream()).thenReturn(outputStream);
+        servlet.doGet(request("/" + FEATURE_FLAG_NAME, "environment=prod", entityTag.getValue()), otherContext);
+        Mockito.verify(otherContext, Mockito.never()).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        Assert.assertEquals("{\"id\":\"enable-qa\",\"value\":false}", body.toString(StandardCharsets.UTF_8.name()));
+    }
+
+    @Test
+    public void testDoGetReturnsNotFoundForNestedPath() throws IOException {
+        servlet.doGet(request("/" + FEATURE_FLAG_NAME + "/other", null, null), response);
+        Mockito.verify(response).sendError(HttpServletResponse.SC_NOT_FOUND);
+    }
+
+    @Test
+    public void testDoGetReturnsBadRequestForMalformedQueryString() throws IOException {
+        servlet.doGet(request("/" + FEATURE_FLAG_NAME, "environment=%zz", null), response);
+        Mockito.verify(response).sendError(Mockito.eq(HttpServletResponse.SC_BAD_REQUEST), Mockito.anyString());
+    }
+
+    private static HttpServletRequest request(String pathInfo, String queryString, String ifNoneMatch) {
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(request.getPathInfo()).thenReturn(pathInfo);
+        Mockito.when(request.getQueryString()).thenReturn(queryString);
+        Mockito.when(request.getHeader("If-None-Match")).thenReturn(ifNoneMatch);
+        return request;
+    }
+}
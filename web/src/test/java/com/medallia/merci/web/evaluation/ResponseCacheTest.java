@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.evaluation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medallia.merci.core.Configuration;
+import com.medallia.merci.core.ConfigurationContext;
+import com.medallia.merci.core.FeatureFlagManager;
+import com.medallia.merci.core.structure.Context;
+import com.medallia.merci.core.structure.Modifiers;
+import com.medallia.merci.web.featureflags.FeatureFlag;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link ResponseCache}.
+ */
+public class ResponseCacheTest {
+
+    private static final int MAXIMUM_ENTRIES = 4;
+
+    private final FeatureFlagManager featureFlagManager = new FeatureFlagManager();
+
+    private ResponseCache cache;
+    private int evaluations;
+
+    @Before
+    public void setUp() {
+        EvaluationServlet.Evaluator evaluator = (id, context) -> {
+            evaluations++;
+            return new FeatureFlag(id, featureFlagManager.isActive(id, context));
+        };
+        cache = new ResponseCache(featureFlagManager, evaluator, new ObjectMapper().writerFor(FeatureFlag.class), MAXIMUM_ENTRIES);
+    }
+
+    @Test
+    public void testGetCachesResultsOfContextIndependentConfigurations() throws IOException {
+        featureFlagManager.updateConfigurations(flags(1, false));
+        Assert.assertEquals("{\"id\":\"flag-0\",\"value\":false}", get("flag-0", null));
+        Assert.assertEquals("{\"id\":\"flag-0\",\"value\":false}", get("flag-0", "qa"));
+        Assert.assertEquals(1, evaluations);
+    }
+
+    @Test
+    public void testGetDoesNotReturnResultsOfOlderGenerations() throws IOException {
+        featureFlagManager.updateConfigurations(flags(1, false));
+        Assert.assertEquals("{\"id\":\"flag-0\",\"value\":false}", get("flag-0", null));
+        featureFlagManager.updateConfigurations(flags(1, true));
+        Assert.assertEquals("{\"id\":\"flag-0\",\"value\":true}", get("flag-0", null));
+        Assert.assertEquals(2, evaluations);
+    }
+
+    @Test
+    public void testGetDoesNotCacheMissingConfigurations() throws IOException {
+        featureFlagManager.updateConfigurations(flags(1, false));
+        for (int index = 0; index < 3; index++) {
+            Assert.assertEquals("{\"id\":\"missing\",\"value\":false}", get("missing", null));
+        }
+        Assert.assertEquals(3, evaluations);
+    }
+
+    @Test
+    public void testGetBoundsCachedConfigurations() throws IOException {
+        int count = MAXIMUM_ENTRIES + 1;
+        featureFlagManager.updateConfigurations(flags(count, false));
+        for (int index = 0; index < count; index++) {
+            get("flag-" + index, null);
+        }
+        Assert.assertEquals(count, evaluations);
+        for (int index = 0; index < count; index++) {
+            get("flag-" + index, null);
+        }
+        Assert.assertTrue(evaluations > count);
+    }
+
+    @Test
+    public void testGetCachesResultsPerContextTypeValues() throws IOException {
+        featureFlagManager.updateConfigurations(Collections.singletonMap("enable-qa", environmentFlag()));
+        Assert.assertEquals("{\"id\":\"enable-qa\",\"value\":true}", get("enable-qa", "qa"));
+        Assert.assertEquals("{\"id\":\"enable-qa\",\"value\":false}", get("enable-qa", "prod"));
+        Assert.assertEquals("{\"id\":\"enable-qa\",\"value\":true}", get("enable-qa", "qa"));
+        Assert.assertEquals(2, evaluations);
+    }
+
+    @Test
+    public void testGetBoundsCachedResultsOfContextDependentConfigurations() throws IOException {
+        int count = MAXIMUM_ENTRIES + 1;
+        featureFlagManager.updateConfigurations(Collections.singletonMap("enable-qa", environmentFlag()));
+        for (int index = 0; index < count; index++) {
+            get("enable-qa", "environment-" + index);
+        }
+        Assert.assertEquals(count, evaluations);
+        for (int index = 0; index < count; index++) {
+            get("enable-qa", "environment-" + index);
+        }
+        Assert.assertTrue(evaluations > count);
+    }
+
+    private String get(String id, String environment) throws IOException {
+        ConfigurationContext configurationContext = new ConfigurationContext();
+        if (environment != null) {
+            configurationContext.put("environment", environment);
+        }
+        return new String(cache.get(id, configurationContext), StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, Configuration<Boolean>> flags(int count, boolean value) {
+        Map<String, Configuration<Boolean>> configurations = new HashMap<>();
+        for (int index = 0; index < count; index++) {
+            String name = "flag-" + index;
+            configurations.put(name, new Configuration<>(name, new Context<>(value, null)));
+        }
+        return configurations;
+    }
+
+    private static Configuration<Boolean> environmentFlag() {
+        return new Configuration<>("enable-qa", new Context<>(Boolean.FALSE, new Modifiers<>("environment",
+                Collections.singletonMap("qa", new Context<>(Boolean.TRUE, null)))));
+    }
+}
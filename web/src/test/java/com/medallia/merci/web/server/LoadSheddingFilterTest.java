@@ -0,0 +1,58 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.server;
+
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Unit tests for {@link LoadSheddingFilter}.
+ */
+public class LoadSheddingFilterTest {
+
+    private final QueuedThreadPool threadPool = Mockito.mock(QueuedThreadPool.class);
+    private final LoadSheddingFilter filter = new LoadSheddingFilter(threadPool, 10);
+    private final HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+    private final HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+    private final FilterChain chain = Mockito.mock(FilterChain.class);
+
+    @Test
+    public void testDoFilterPassesRequestsBelowSheddingQueueSize() throws IOException, ServletException {
+        Mockito.when(threadPool.getQueueSize()).thenReturn(9);
+        filter.doFilter(request, response, chain);
+        Mockito.verify(chain).doFilter(request, response);
+        Assert.assertEquals(0, filter.getShedRequests());
+    }
+
+    @Test
+    public void testDoFilterRejectsAndCountsRequestsFromSheddingQueueSize() throws IOException, ServletException {
+        Mockito.when(threadPool.getQueueSize()).thenReturn(10);
+        filter.doFilter(request, response, chain);
+        filter.doFilter(request, response, chain);
+        Mockito.verify(chain, Mockito.never()).doFilter(request, response);
+        Mockito.verify(response, Mockito.times(2)).sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        Mockito.verify(response, Mockito.times(2)).setHeader("Retry-After", "1");
+        Assert.assertEquals(2, filter.getShedRequests());
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.server;
+
+import com.medallia.merci.core.ConfigurationLoader;
+import com.medallia.merci.core.ConfigurationTask;
+import com.medallia.merci.core.metrics.ConfigurationLoaderMetrics;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link ReadinessFilter}.
+ */
+public class ReadinessFilterTest {
+
+    private final ScheduledExecutorService executorService = Mockito.mock(ScheduledExecutorService.class);
+    private final HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+    private final HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+    private final FilterChain chain = Mockito.mock(FilterChain.class);
+
+    private ConfigurationLoader configurationLoader;
+    private ReadinessFilter filter;
+
+    @Before
+    public void setUp() {
+        ConfigurationTask reader = () -> true;
+        configurationLoader = new ConfigurationLoader(new ConfigurationLoaderMetrics(), Collections.singletonList(reader),
+                executorService, Duration.ofSeconds(10));
+        filter = new ReadinessFilter(configurationLoader);
+    }
+
+    @Test
+    public void testDoFilterRejectsRequestsUntilConfigurationsAreLoaded() throws IOException, ServletException {
+        configurationLoader.start();
+        filter.doFilter(request, response, chain);
+        Mockito.verify(chain, Mockito.never()).doFilter(request, response);
+        Mockito.verify(response).setHeader("Retry-After", "1");
+        Mockito.verify(response).sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    public void testDoFilterPassesRequestsOnceConfigurationsAreLoaded() throws IOException, ServletException {
+        ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+        configurationLoader.start();
+        Mockito.verify(executorService).schedule(runnableCaptor.capture(), Matchers.anyLong(), Matchers.any(TimeUnit.class));
+        runnableCaptor.getValue().run();
+        filter.doFilter(request, response, chain);
+        Mockito.verify(chain).doFilter(request, response);
+        Mockito.verify(response, Mockito.never()).sendError(Matchers.anyInt());
+    }
+}
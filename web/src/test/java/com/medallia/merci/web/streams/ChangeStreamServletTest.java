@@ -0,0 +1,133 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.streams;
+
+import com.medallia.merci.core.Configuration;
+import com.medallia.merci.core.FeatureFlagManager;
+import com.medallia.merci.core.structure.Context;
+import com.medallia.merci.core.structure.Modifiers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Unit tests for {@link ChangeStreamServlet}.
+ */
+public class ChangeStreamServletTest {
+
+    private static final String FEATURE_FLAG_NAME = "enable-qa";
+
+    private final FeatureFlagManager featureFlagManager = new FeatureFlagManager();
+    private final ScheduledExecutorService executorService = Mockito.mock(ScheduledExecutorService.class);
+    private final HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+    private final HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+    private final AsyncContext asyncContext = Mockito.mock(AsyncContext.class);
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    private ChangeStreamServlet servlet;
+
+    @Before
+    public void setUp() throws IOException {
+        featureFlagManager.updateConfigurations(featureFlags(true));
+        //re-evaluations run on the updating thread.
+        Mockito.doAnswer(invocation -> {
+            ((Runnable) invocation.getArguments()[0]).run();
+            return null;
+        }).when(executorService).execute(Matchers.any(Runnable.class));
+        ServletOutputStream outputStream = new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                //Always ready.
+            }
+
+            @Override
+            public void write(int value) {
+                body.write(value);
+            }
+        };
+        Mockito.when(response.getOutputStream()).thenReturn(outputStream);
+        Mockito.when(asyncContext.getResponse()).thenReturn(response);
+        Mockito.when(request.startAsync()).thenReturn(asyncContext);
+        servlet = new ChangeStreamServlet(featureFlagManager,
+                (id, context) -> String.valueOf(featureFlagManager.isActive(id, context)), executorService);
+        servlet.init();
+    }
+
+    @Test
+    public void testDoGetRejectsRequestWithoutIds() throws IOException {
+        servlet.doGet(request, response);
+        Mockito.verify(response).sendError(Matchers.eq(HttpServletResponse.SC_BAD_REQUEST), Matchers.anyString());
+        Mockito.verify(request, Mockito.never()).startAsync();
+    }
+
+    @Test
+    public void testDoGetSendsCurrentValuesAndChangesForContext() throws IOException {
+        subscribe();
+        Assert.assertEquals(1, servlet.getSubscriptions());
+        Mockito.verify(response).setContentType("text/event-stream");
+        featureFlagManager.updateConfigurations(featureFlags(true));
+        featureFlagManager.updateConfigurations(featureFlags(false));
+        Assert.assertEquals("id: 1\ndata: true\n\nid: 3\ndata: false\n\n", body.toString(StandardCharsets.UTF_8.name()));
+    }
+
+    @Test
+    public void testDestroyClosesEventStreams() throws IOException {
+        subscribe();
+        servlet.destroy();
+        Assert.assertEquals(0, servlet.getSubscriptions());
+        Mockito.verify(asyncContext).complete();
+        Mockito.verify(executorService).shutdown();
+        featureFlagManager.updateConfigurations(featureFlags(false));
+        Assert.assertEquals("id: 1\ndata: true\n\n", body.toString(StandardCharsets.UTF_8.name()));
+    }
+
+    private void subscribe() throws IOException {
+        Mockito.when(request.getParameterValues("id")).thenReturn(new String[] { FEATURE_FLAG_NAME });
+        Mockito.when(request.getParameterNames()).thenReturn(Collections.enumeration(Arrays.asList("id", "environment")));
+        Mockito.when(request.getParameter("environment")).thenReturn("qa");
+        servlet.doGet(request, response);
+        Mockito.verify(asyncContext).addListener(Matchers.any(AsyncListener.class));
+    }
+
+    /**
+     * @return feature flags with a feature flag, that is false except for environment qa with provided value.
+     */
+    private static Map<String, Configuration<Boolean>> featureFlags(boolean activeInQa) {
+        return Collections.singletonMap(FEATURE_FLAG_NAME, new Configuration<>(FEATURE_FLAG_NAME, new Context<>(Boolean.FALSE,
+                new Modifiers<>("environment", Collections.singletonMap("qa", new Context<>(activeInQa, null))))));
+    }
+}
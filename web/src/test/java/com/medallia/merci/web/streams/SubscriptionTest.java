@@ -0,0 +1,130 @@
+/*
+ * Copyright 2018 Medallia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *     http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.medallia.merci.web.streams;
+
+import com.medallia.merci.core.ConfigurationContext;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletResponse;
+import javax.servlet.WriteListener;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link Subscription}.
+ */
+public class SubscriptionTest {
+
+    private final Map<String, String> values = new HashMap<>();
+    private final ChangeStreamServlet.Evaluator evaluator = (id, configurationContext) -> values.get(id);
+
+    private TestOutputStream outputStream;
+    private AsyncContext asyncContext;
+    private Subscription subscription;
+
+    @Before
+    public void setUp() throws IOException {
+        outputStream = new TestOutputStream();
+        ServletResponse response = Mockito.mock(ServletResponse.class);
+        Mockito.when(response.getOutputStream()).thenReturn(outputStream);
+        asyncContext = Mockito.mock(AsyncContext.class);
+        Mockito.when(asyncContext.getResponse()).thenReturn(response);
+        subscription = new Subscription(asyncContext, Arrays.asList("enable-one", "enable-two"), new ConfigurationContext());
+        subscription.start();
+        values.put("enable-one", "true");
+        values.put("enable-two", "false");
+    }
+
+    @Test
+    public void testSendWritesEventsOnlyForChangedValues() throws IOException {
+        subscription.send(1, evaluator);
+        values.put("enable-two", "true");
+        subscription.send(2, evaluator);
+        subscription.send(3, evaluator);
+        Assert.assertEquals("id: 1\ndata: true\n\nid: 1\ndata: false\n\nid: 2\ndata: true\n\n", outputStream.written());
+        Assert.assertEquals(2, outputStream.flushes);
+    }
+
+    @Test
+    public void testSendQueuesEventsUntilWritePossible() throws IOException {
+        outputStream.ready = false;
+        subscription.send(1, evaluator);
+        subscription.sendHeartbeat();
+        Assert.assertEquals("", outputStream.written());
+        outputStream.ready = true;
+        subscription.onWritePossible();
+        Assert.assertEquals("id: 1\ndata: true\n\nid: 1\ndata: false\n\n:\n\n", outputStream.written());
+        Assert.assertEquals(1, outputStream.flushes);
+    }
+
+    @Test(expected = IOException.class)
+    public void testSendHeartbeatThrowsExceptionForFullQueue() throws IOException {
+        outputStream.ready = false;
+        for (int heartbeat = 0; heartbeat <= 64; heartbeat++) {
+            subscription.sendHeartbeat();
+        }
+    }
+
+    @Test
+    public void testCompleteIgnoresCompletedRequest() {
+        Mockito.doThrow(new IllegalStateException()).when(asyncContext).complete();
+        subscription.onError(new IOException());
+        Mockito.verify(asyncContext).complete();
+    }
+
+    /**
+     * Output stream, whose readiness is controlled by the test.
+     */
+    private static final class TestOutputStream extends ServletOutputStream {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private boolean ready = true;
+        private int flushes;
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            //Readiness is controlled by the test.
+        }
+
+        @Override
+        public void write(int value) {
+            bytes.write(value);
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+
+        private String written() {
+            return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}